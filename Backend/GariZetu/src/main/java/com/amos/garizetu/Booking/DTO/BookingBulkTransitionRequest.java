@@ -0,0 +1,26 @@
+package com.amos.garizetu.Booking.DTO;
+
+import com.amos.garizetu.Booking.Enums.BookingStatus;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BookingBulkTransitionRequest {
+
+    @NotEmpty(message = "At least one booking ID is required")
+    @Size(max = 500, message = "At most 500 bookings can be changed at once")
+    private List<@NotNull Long> bookingIds;
+
+    @NotNull(message = "Target booking status is required")
+    private BookingStatus bookingStatus;
+
+    private Double refundAmount;
+}
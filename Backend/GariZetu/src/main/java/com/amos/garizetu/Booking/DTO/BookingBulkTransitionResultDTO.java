@@ -0,0 +1,34 @@
+package com.amos.garizetu.Booking.DTO;
+
+import com.amos.garizetu.Booking.Enums.BookingStatus;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Outcome of a bulk admin transition, one item per requested booking in request order.
+ * Failed items are left unchanged; the rest are committed together.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BookingBulkTransitionResultDTO {
+    private BookingStatus targetStatus;
+    private int succeeded;
+    private int failed;
+    private List<Item> items;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Item {
+        private Long bookingId;
+        private boolean success;
+        private BookingStatus previousStatus;
+        private BookingStatus bookingStatus;
+        private String message;
+        private BookingResponseDTO booking;
+    }
+}
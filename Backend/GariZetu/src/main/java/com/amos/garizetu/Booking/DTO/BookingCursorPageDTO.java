@@ -0,0 +1,21 @@
+package com.amos.garizetu.Booking.DTO;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * One keyset page of bookings, newest first.
+ * Pass nextCursor back as ?cursor= to continue; it is null on the last page.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BookingCursorPageDTO {
+    private List<BookingResponseDTO> content;
+    private String nextCursor;
+    private boolean hasNext;
+    private int size;
+}
@@ -0,0 +1,18 @@
+package com.amos.garizetu.Booking.DTO;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Payload of an admin notification stream event.
+ * booking is only set for new notifications and overdue alerts; read events carry just the id.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BookingNotificationDTO {
+    private Long bookingId;
+    private BookingResponseDTO booking;
+    private long unreadCount;
+}
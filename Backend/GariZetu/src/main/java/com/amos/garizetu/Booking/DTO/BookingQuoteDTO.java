@@ -0,0 +1,30 @@
+package com.amos.garizetu.Booking.DTO;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+/**
+ * Price of a car for [pickupDate, returnDate), as createBooking would charge it.
+ * totalPrice = baseAmount + weekendAdjustment + durationAdjustment.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BookingQuoteDTO {
+    private Long carId;
+    private LocalDate pickupDate;
+    private LocalDate returnDate;
+    private long days;
+    private long weekendDays;
+    private double dailyPrice;
+    private double baseAmount;
+    private double weekendAdjustment;
+    private double durationAdjustment;
+    // minDays of the duration tier applied, if any.
+    private Integer durationTierDays;
+    private double totalPrice;
+    private boolean available;
+}
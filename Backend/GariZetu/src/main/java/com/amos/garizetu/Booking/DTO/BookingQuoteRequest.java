@@ -0,0 +1,23 @@
+package com.amos.garizetu.Booking.DTO;
+
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BookingQuoteRequest {
+
+    @NotNull(message = "Car ID is required")
+    private Long carId;
+
+    @NotNull(message = "Pickup date is required")
+    private LocalDate pickupDate;
+
+    @NotNull(message = "Return date is required")
+    private LocalDate returnDate;
+}
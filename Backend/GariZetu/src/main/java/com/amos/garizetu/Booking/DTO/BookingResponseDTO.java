@@ -55,6 +55,7 @@ public class BookingResponseDTO {
     private LocalDateTime adminNotifiedAt;
     private boolean adminNotificationRead;
     private LocalDateTime adminNotificationReadAt;
+    private String groupReference;
 
     // ========= TIMESTAMPS ==================
     private LocalDateTime createdAt;
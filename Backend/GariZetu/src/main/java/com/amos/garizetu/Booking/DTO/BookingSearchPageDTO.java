@@ -0,0 +1,22 @@
+package com.amos.garizetu.Booking.DTO;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * One page of ranked search results. No total count: counting every match would cost more than
+ * the page itself.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BookingSearchPageDTO {
+    private String query;
+    private List<BookingResponseDTO> content;
+    private int page;
+    private int size;
+    private boolean hasNext;
+}
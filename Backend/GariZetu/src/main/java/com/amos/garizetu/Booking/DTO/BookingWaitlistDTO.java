@@ -0,0 +1,25 @@
+package com.amos.garizetu.Booking.DTO;
+
+import com.amos.garizetu.Booking.Enums.WaitlistStatus;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BookingWaitlistDTO {
+    private Long waitlistEntryId;
+    private Long carId;
+    private LocalDate pickupDate;
+    private LocalDate returnDate;
+    private WaitlistStatus status;
+    // 1-based place among the car's waiters; null once no longer waiting.
+    private Long position;
+    // The PENDING_PAYMENT booking placed on promotion.
+    private Long promotedBookingId;
+    private LocalDateTime createdAt;
+}
@@ -0,0 +1,24 @@
+package com.amos.garizetu.Booking.DTO;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+/**
+ * Fleet-wide utilization for [from, to]: booked car-days out of fleetSize x days.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class FleetUtilizationDTO {
+    private LocalDate from;
+    private LocalDate to;
+    private long days;
+    private long fleetSize;
+    private long bookedCarDays;
+    private long availableCarDays;
+    private double utilization;
+    private double revenue;
+}
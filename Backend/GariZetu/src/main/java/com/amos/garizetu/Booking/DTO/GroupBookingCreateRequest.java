@@ -0,0 +1,40 @@
+package com.amos.garizetu.Booking.DTO;
+
+import jakarta.validation.constraints.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Several cars for the same dates and locations, booked all or nothing.
+ * The upper bound on carIds is booking.group.max-cars, checked by the service.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class GroupBookingCreateRequest {
+
+    @NotEmpty(message = "At least one car is required")
+    private List<@NotNull(message = "Car ID is required") Long> carIds;
+
+    @NotNull(message = "Pickup date is required")
+    @FutureOrPresent(message = "Pickup date must be today or in the future")
+    private LocalDate pickupDate;
+
+    @NotNull(message = "Return date is required")
+    @Future(message = "Return date must be in the future")
+    private LocalDate returnDate;
+
+    @NotBlank(message = "Pickup location is required")
+    @Size(min = 2, max = 100, message = "Pickup location must be between 2 and 100 characters")
+    private String pickupLocation;
+
+    @Size(max = 100, message = "Return location must not exceed 100 characters")
+    private String returnLocation;
+
+    @Size(max = 500, message = "Special requests must not exceed 500 characters")
+    private String specialRequests;
+}
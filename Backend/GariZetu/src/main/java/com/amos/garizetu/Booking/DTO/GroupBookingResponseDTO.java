@@ -0,0 +1,22 @@
+package com.amos.garizetu.Booking.DTO;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class GroupBookingResponseDTO {
+    private String groupReference;
+    private LocalDate pickupDate;
+    private LocalDate returnDate;
+    // One payment window for the whole group.
+    private LocalDateTime paymentExpiresAt;
+    private double totalPrice;
+    private List<BookingResponseDTO> bookings;
+}
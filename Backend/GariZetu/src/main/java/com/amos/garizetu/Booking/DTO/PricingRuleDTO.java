@@ -0,0 +1,20 @@
+package com.amos.garizetu.Booking.DTO;
+
+import com.amos.garizetu.Booking.Enums.PricingRuleType;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PricingRuleDTO {
+    private Long pricingRuleId;
+    private Long carId;
+    private PricingRuleType ruleType;
+    private Integer minDays;
+    private double adjustmentPercent;
+    private LocalDateTime createdAt;
+}
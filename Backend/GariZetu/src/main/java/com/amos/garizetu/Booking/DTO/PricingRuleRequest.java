@@ -0,0 +1,31 @@
+package com.amos.garizetu.Booking.DTO;
+
+import com.amos.garizetu.Booking.Enums.PricingRuleType;
+import jakarta.validation.constraints.DecimalMax;
+import jakarta.validation.constraints.DecimalMin;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PricingRuleRequest {
+
+    // Omit for a fleet-wide rule.
+    private Long carId;
+
+    @NotNull(message = "Rule type is required")
+    private PricingRuleType ruleType;
+
+    // Required for DURATION_TIER, not allowed for WEEKEND.
+    @Min(value = 2, message = "Tier minimum days must be at least 2")
+    private Integer minDays;
+
+    @NotNull(message = "Adjustment percent is required")
+    @DecimalMin(value = "-90", message = "Adjustment cannot discount more than 90%")
+    @DecimalMax(value = "200", message = "Adjustment cannot exceed 200%")
+    private Double adjustmentPercent;
+}
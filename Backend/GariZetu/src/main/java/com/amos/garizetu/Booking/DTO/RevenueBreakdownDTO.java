@@ -0,0 +1,20 @@
+package com.amos.garizetu.Booking.DTO;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * One row of a revenue breakdown; car fields are only set for per-car rankings.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RevenueBreakdownDTO {
+    private String make;
+    private Long carId;
+    private String vehicleModel;
+    private String registrationNumber;
+    private long bookedDays;
+    private double revenue;
+}
@@ -9,6 +9,7 @@ import lombok.AllArgsConstructor;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
+import org.hibernate.annotations.ColumnDefault;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
@@ -19,7 +20,20 @@ import java.time.temporal.ChronoUnit;
 @AllArgsConstructor
 @NoArgsConstructor
 @Entity
-@Table(name = "bookings")
+@Table(name = "bookings", indexes = {
+        // Keyset pagination: (scope, created_at, booking_id) so every page is an index range scan.
+        @Index(name = "idx_bookings_created_id", columnList = "created_at, booking_id"),
+        @Index(name = "idx_bookings_status_created_id", columnList = "booking_status, created_at, booking_id"),
+        @Index(name = "idx_bookings_car_created_id", columnList = "car_id, created_at, booking_id"),
+        @Index(name = "idx_bookings_user_created_id", columnList = "user_id, created_at, booking_id"),
+        // Overlap probes per car (fleet availability search anti-join, conflict checks).
+        @Index(name = "idx_bookings_car_pickup_return", columnList = "car_id, pickup_date, return_date"),
+        // Admin notification queue: plain equality on the NOT NULL flag, newest first.
+        @Index(name = "idx_bookings_admin_unread", columnList = "admin_notification_read, admin_notified_at"),
+        @Index(name = "idx_bookings_group_reference", columnList = "group_reference"),
+        // Payment references are looked up by support staff and must identify one booking.
+        @Index(name = "uk_bookings_payment_reference", columnList = "payment_reference", unique = true)
+})
 public class Booking {
 
     @Id
@@ -27,6 +41,12 @@ public class Booking {
     @Column(name = "booking_id")
     private Long bookingId;
 
+    // Optimistic lock: concurrent writers (admin transition vs customer edit, cancel vs payment) fail instead of overwriting.
+    @Version
+    @ColumnDefault("0")
+    @Column(name = "version", nullable = false)
+    private Long version;
+
     // Relationships
     @ManyToOne
     @JoinColumn(name = "user_id")
@@ -94,6 +114,10 @@ public class Booking {
     @Column(name = "admin_notification_read_at")
     private LocalDateTime adminNotificationReadAt;
 
+    // Shared by the bookings of one multi-car request; null for single bookings.
+    @Column(name = "group_reference", length = 40)
+    private String groupReference;
+
     // TimeStamps
     @Column(name = "created_at", nullable = false, updatable = false)
     private LocalDateTime createdAt;
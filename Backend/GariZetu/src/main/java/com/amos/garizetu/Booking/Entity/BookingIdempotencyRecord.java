@@ -0,0 +1,54 @@
+package com.amos.garizetu.Booking.Entity;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+
+/**
+ * Stored response of an idempotent booking request, keyed by operation + caller + Idempotency-Key.
+ * Rows outlive the payment window so retries during checkout replay instead of re-running.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@Entity
+@Table(name = "booking_idempotency_keys", indexes = {
+        @Index(name = "idx_booking_idempotency_expires", columnList = "expires_at")
+})
+public class BookingIdempotencyRecord {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "record_id")
+    private Long recordId;
+
+    // "<operation>:<principal>:<Idempotency-Key>"
+    @Column(name = "scope_key", nullable = false, unique = true, length = 400)
+    private String scopeKey;
+
+    // SHA-256 of the request, so a reused key with a different body is rejected instead of replayed.
+    @Column(name = "request_hash", nullable = false, length = 64)
+    private String requestHash;
+
+    @Column(name = "http_status", nullable = false)
+    private int httpStatus;
+
+    @Column(name = "response_body", nullable = false, columnDefinition = "TEXT")
+    private String responseBody;
+
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+
+    @Column(name = "expires_at", nullable = false)
+    private LocalDateTime expiresAt;
+
+    @PrePersist
+    protected void onCreate() {
+        if (createdAt == null) {
+            createdAt = LocalDateTime.now();
+        }
+    }
+}
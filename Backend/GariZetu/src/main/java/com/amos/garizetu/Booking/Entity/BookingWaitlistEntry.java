@@ -0,0 +1,76 @@
+package com.amos.garizetu.Booking.Entity;
+
+import com.amos.garizetu.Booking.Enums.WaitlistStatus;
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * A customer queued for a car and date range that was taken when they tried to book.
+ * Carries the booking request so promotion can place the hold without the customer.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@Entity
+@Table(name = "booking_waitlist", indexes = {
+        @Index(name = "idx_booking_waitlist_car_status", columnList = "car_id, status, waitlist_entry_id"),
+        @Index(name = "idx_booking_waitlist_user_status", columnList = "user_id, status")
+})
+public class BookingWaitlistEntry {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "waitlist_entry_id")
+    private Long waitlistEntryId;
+
+    @Column(name = "car_id", nullable = false)
+    private Long carId;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Column(name = "pickup_date", nullable = false)
+    private LocalDate pickupDate;
+
+    @Column(name = "return_date", nullable = false)
+    private LocalDate returnDate;
+
+    @Column(name = "pickup_location", nullable = false, length = 100)
+    private String pickupLocation;
+
+    @Column(name = "return_location", length = 100)
+    private String returnLocation;
+
+    @Column(name = "special_requests", length = 500)
+    private String specialRequests;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status", nullable = false, length = 20)
+    private WaitlistStatus status = WaitlistStatus.WAITING;
+
+    @Column(name = "promoted_booking_id")
+    private Long promotedBookingId;
+
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+
+    @PrePersist
+    protected void onCreate() {
+        if (createdAt == null) {
+            createdAt = LocalDateTime.now();
+        }
+    }
+
+    @PreUpdate
+    protected void onUpdate() {
+        updatedAt = LocalDateTime.now();
+    }
+}
@@ -0,0 +1,32 @@
+package com.amos.garizetu.Booking.Entity;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * Booked days and revenue of one car on one day, per booking status.
+ *
+ * Each booking adds one booked day and totalPrice / numberOfDays of revenue to every day in
+ * [pickupDate, returnDate) under its current status; a status change moves that share between
+ * status rows. Written by CarDailyRollupMaintainer with native upserts, read by BookingAnalyticsService.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@Entity
+@Table(name = "car_daily_rollups", indexes = {
+        @Index(name = "idx_car_daily_rollups_date", columnList = "rollup_date")
+})
+public class CarDailyRollup {
+
+    @EmbeddedId
+    private CarDailyRollupId id;
+
+    @Column(name = "booked_days", nullable = false)
+    private long bookedDays;
+
+    @Column(name = "revenue", nullable = false)
+    private double revenue;
+}
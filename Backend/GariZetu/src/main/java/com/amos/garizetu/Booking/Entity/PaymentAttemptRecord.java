@@ -0,0 +1,83 @@
+package com.amos.garizetu.Booking.Entity;
+
+import com.amos.garizetu.Booking.payment.PaymentAttempt;
+import com.amos.garizetu.Booking.payment.PaymentGatewayResult;
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+
+/**
+ * A payment attempt awaiting settlement. Inserted with the PROCESSING commit (including the requested
+ * outcome) and deleted in the transaction that applies it.
+ *
+ * A worker claims the row (claimed_by / claimed_at) before charging and only charges if the claim
+ * wins; the gateway outcome is then written to the same row, so a retry after a failed apply (or a
+ * restart) replays it instead of charging again. A claim is only taken over once it is stale.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@Entity
+@Table(name = "payment_attempt_records")
+public class PaymentAttemptRecord {
+
+    @Id
+    @Column(name = "booking_id")
+    private Long bookingId;
+
+    @Column(name = "payment_method")
+    private String paymentMethod;
+
+    @Column(name = "amount", nullable = false)
+    private double amount;
+
+    @Column(name = "simulated_outcome")
+    private Boolean simulatedOutcome;
+
+    @Column(name = "accepted_at", nullable = false)
+    private LocalDateTime acceptedAt;
+
+    @Column(name = "claimed_by", length = 150)
+    private String claimedBy;
+
+    @Column(name = "claimed_at")
+    private LocalDateTime claimedAt;
+
+    // Null until charged.
+    @Column(name = "successful")
+    private Boolean successful;
+
+    @Column(name = "payment_reference")
+    private String paymentReference;
+
+    @Column(name = "failure_reason", length = 500)
+    private String failureReason;
+
+    @Column(name = "recorded_at")
+    private LocalDateTime recordedAt;
+
+    public static PaymentAttemptRecord accepted(PaymentAttempt attempt) {
+        PaymentAttemptRecord record = new PaymentAttemptRecord();
+        record.setBookingId(attempt.bookingId());
+        record.setPaymentMethod(attempt.paymentMethod());
+        record.setAmount(attempt.amount());
+        record.setSimulatedOutcome(attempt.simulatedOutcome());
+        record.setAcceptedAt(attempt.acceptedAt());
+        return record;
+    }
+
+    public PaymentAttempt toAttempt() {
+        return new PaymentAttempt(bookingId, paymentMethod, amount, simulatedOutcome, acceptedAt);
+    }
+
+    public boolean isCharged() {
+        return recordedAt != null;
+    }
+
+    public PaymentGatewayResult toResult() {
+        return new PaymentGatewayResult(bookingId, Boolean.TRUE.equals(successful), paymentReference, failureReason);
+    }
+}
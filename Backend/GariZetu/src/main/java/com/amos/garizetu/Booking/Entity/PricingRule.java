@@ -0,0 +1,53 @@
+package com.amos.garizetu.Booking.Entity;
+
+import com.amos.garizetu.Booking.Enums.PricingRuleType;
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+
+/**
+ * One price adjustment, either for a single car or (carId null) for the whole fleet.
+ * A car's own rules of a type replace the fleet rules of that type.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@Entity
+@Table(name = "pricing_rules", indexes = {
+        @Index(name = "idx_pricing_rules_car", columnList = "car_id")
+})
+public class PricingRule {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "pricing_rule_id")
+    private Long pricingRuleId;
+
+    @Column(name = "car_id")
+    private Long carId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "rule_type", nullable = false, length = 30)
+    private PricingRuleType ruleType;
+
+    // DURATION_TIER only: the tier applies to rentals of at least this many days.
+    @Column(name = "min_days")
+    private Integer minDays;
+
+    // Negative for discounts, positive for surcharges (-10 = 10% off).
+    @Column(name = "adjustment_percent", nullable = false)
+    private double adjustmentPercent;
+
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+
+    @PrePersist
+    protected void onCreate() {
+        if (createdAt == null) {
+            createdAt = LocalDateTime.now();
+        }
+    }
+}
@@ -2,6 +2,8 @@ package com.amos.garizetu.Booking.Enums;
 
 public enum PaymentStatus {
     UNPAID,
+    // Attempt accepted and queued for settlement; the car stays held until it settles.
+    PROCESSING,
     PAID,
     FAILED,
     REFUNDED,
@@ -0,0 +1,8 @@
+package com.amos.garizetu.Booking.Enums;
+
+public enum PricingRuleType {
+    // Whole-rental adjustment once the rental reaches minDays (weekly, monthly tiers).
+    DURATION_TIER,
+    // Per-day adjustment for Saturdays and Sundays.
+    WEEKEND
+}
@@ -0,0 +1,12 @@
+package com.amos.garizetu.Booking.Enums;
+
+public enum WaitlistStatus {
+    // Queued for the car; promoted in join order when the dates free up.
+    WAITING,
+    // A PENDING_PAYMENT hold was placed for the customer (see promotedBookingId).
+    PROMOTED,
+    // Left the queue.
+    CANCELLED,
+    // The pickup date passed while still waiting.
+    EXPIRED
+}
@@ -0,0 +1,65 @@
+package com.amos.garizetu.Booking.controller;
+
+import com.amos.garizetu.Booking.DTO.FleetUtilizationDTO;
+import com.amos.garizetu.Booking.DTO.RevenueBreakdownDTO;
+import com.amos.garizetu.Booking.service.BookingAnalyticsService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Admin revenue and utilization, served from the daily rollups.
+ * All ranges are inclusive and default to the last 30 days.
+ */
+@RestController
+@RequestMapping("/api/v1/bookings/admin/analytics")
+@RequiredArgsConstructor
+public class BookingAnalyticsController {
+
+    private final BookingAnalyticsService analyticsService;
+
+    /**
+     * GET /api/v1/bookings/admin/analytics/utilization?from=&to=
+     */
+    @GetMapping("/utilization")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<FleetUtilizationDTO> getFleetUtilization(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to
+    ) {
+        return ResponseEntity.ok(analyticsService.getFleetUtilization(from, to));
+    }
+
+    /**
+     * GET /api/v1/bookings/admin/analytics/revenue-by-make?from=&to=
+     */
+    @GetMapping("/revenue-by-make")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<List<RevenueBreakdownDTO>> getRevenueByMake(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to
+    ) {
+        return ResponseEntity.ok(analyticsService.getRevenueByMake(from, to));
+    }
+
+    /**
+     * GET /api/v1/bookings/admin/analytics/top-cars?from=&to=&limit=
+     */
+    @GetMapping("/top-cars")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<List<RevenueBreakdownDTO>> getTopEarningCars(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(defaultValue = "10") int limit
+    ) {
+        return ResponseEntity.ok(analyticsService.getTopEarningCars(from, to, limit));
+    }
+}
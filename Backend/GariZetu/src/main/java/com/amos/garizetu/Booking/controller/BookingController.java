@@ -1,12 +1,26 @@
 package com.amos.garizetu.Booking.controller;
 
+import com.amos.garizetu.Booking.DTO.BookingBulkTransitionRequest;
+import com.amos.garizetu.Booking.DTO.BookingBulkTransitionResultDTO;
 import com.amos.garizetu.Booking.DTO.BookingCreateRequest;
+import com.amos.garizetu.Booking.DTO.BookingCursorPageDTO;
 import com.amos.garizetu.Booking.DTO.BookingPaymentSimulationRequest;
 import com.amos.garizetu.Booking.DTO.BookingResponseDTO;
+import com.amos.garizetu.Booking.DTO.BookingSearchPageDTO;
 import com.amos.garizetu.Booking.DTO.BookingStatsDTO;
 import com.amos.garizetu.Booking.DTO.BookingUpdateDTO;
+import com.amos.garizetu.Booking.DTO.GroupBookingCreateRequest;
+import com.amos.garizetu.Booking.DTO.GroupBookingResponseDTO;
+import com.amos.garizetu.Booking.Enums.BookingExportFormat;
 import com.amos.garizetu.Booking.Enums.BookingStatus;
+import com.amos.garizetu.Booking.service.BookingCreationService;
+import com.amos.garizetu.Booking.service.BookingExportService;
+import com.amos.garizetu.Booking.service.BookingIdempotencyService;
+import com.amos.garizetu.Booking.service.BookingIdempotencyService.IdempotentResponse;
+import com.amos.garizetu.Booking.service.BookingNotificationStream;
+import com.amos.garizetu.Booking.service.BookingSearchService;
 import com.amos.garizetu.Booking.service.BookingService;
+import com.amos.garizetu.util.OptimisticLockRetry;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -14,24 +28,44 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.time.LocalDate;
+import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
 
 /**
  * BookingController - REST API endpoints for booking operations
  *
  * Endpoints:
  * - POST   /bookings/create                 - Create booking
+ * - POST   /bookings/group                  - Book several cars for the same dates, all or nothing
+ * - GET    /bookings/group/:reference       - Get a group booking
  * - GET    /bookings/my-bookings            - Get customer's bookings
  * - GET    /bookings/:id                    - Get booking details
  * - PATCH  /bookings/:id                    - Update booking
+ * - POST   /bookings/:id/payments           - Submit payment for async settlement (202 PROCESSING)
  * - DELETE /bookings/:id                    - Cancel booking
  * - GET    /admin/bookings                  - Get all bookings (admin)
  * - GET    /admin/bookings/stats            - Get statistics (admin)
+ * - GET    /bookings/admin/search           - Ranked lookup by payment reference, registration, email, phone (admin)
+ * - GET    /bookings/admin/export           - Stream bookings as CSV/NDJSON (admin)
+ * - GET    /bookings/admin/notifications/stream - Live admin notifications over SSE (admin)
+ *
+ * Create, group and simulate-payment accept an Idempotency-Key header; retries with the same key replay the
+ * first response (marked Idempotent-Replayed: true) instead of running again.
+ *
+ * Listings also have keyset variants (…/cursor?cursor=&size=) whose cost does not grow with depth.
  */
 
 @RestController
@@ -42,6 +76,12 @@ public class BookingController {
 
 
     private final BookingService bookingService;
+    private final BookingCreationService bookingCreationService;
+    private final BookingExportService bookingExportService;
+    private final BookingSearchService bookingSearchService;
+    private final BookingNotificationStream bookingNotificationStream;
+    private final BookingIdempotencyService bookingIdempotencyService;
+    private final OptimisticLockRetry optimisticLockRetry;
 
     // ========== CUSTOMER ENDPOINTS ==========
 
@@ -56,11 +96,37 @@ public class BookingController {
     @PostMapping("/create")
     @PreAuthorize("hasRole('CUSTOMER') or hasRole('ADMIN')")
     public ResponseEntity<BookingResponseDTO> createBooking(
+            @RequestHeader(value = BookingIdempotencyService.HEADER, required = false) String idempotencyKey,
             @Valid @RequestBody BookingCreateRequest request) {
         // Controller stays thin: no identity/business logic; service resolves authenticated user.
         log.info("Processing create-booking request for car {}", request.getCarId());
-        BookingResponseDTO booking = bookingService.createBooking(request);
-        return ResponseEntity.status(HttpStatus.CREATED).body(booking);
+        IdempotentResponse<BookingResponseDTO> result = bookingCreationService.createBooking(idempotencyKey, request);
+        return toResponse(result);
+    }
+
+    /**
+     * Create a group booking
+     * POST /api/v1/bookings/group
+     *
+     * Body: {carIds: [..], pickupDate, returnDate, pickupLocation, ...}
+     * Response: 201 Created with the group reference, its shared payment window and one booking per car;
+     * 409 listing the unavailable cars if any car is taken (nothing is booked)
+     */
+    @PostMapping("/group")
+    @PreAuthorize("hasRole('CUSTOMER') or hasRole('ADMIN')")
+    public ResponseEntity<GroupBookingResponseDTO> createGroupBooking(
+            @RequestHeader(value = BookingIdempotencyService.HEADER, required = false) String idempotencyKey,
+            @Valid @RequestBody GroupBookingCreateRequest request) {
+        log.info("Processing group booking request for {} car(s)", request.getCarIds().size());
+        IdempotentResponse<GroupBookingResponseDTO> result =
+                bookingCreationService.createGroupBooking(idempotencyKey, request);
+        return toResponse(result);
+    }
+
+    @GetMapping("/group/{groupReference}")
+    @PreAuthorize("hasRole('CUSTOMER') or hasRole('ADMIN')")
+    public ResponseEntity<GroupBookingResponseDTO> getGroupBooking(@PathVariable String groupReference) {
+        return ResponseEntity.ok(bookingService.getGroupBooking(groupReference));
     }
 
     /**
@@ -77,6 +143,19 @@ public class BookingController {
         return ResponseEntity.ok(bookings);
     }
 
+    /**
+     * Get customer's bookings one keyset page at a time
+     * GET /api/v1/bookings/my-bookings/cursor?cursor=&size=20
+     */
+    @GetMapping("/my-bookings/cursor")
+    @PreAuthorize("hasRole('CUSTOMER') or hasRole('ADMIN')")
+    public ResponseEntity<BookingCursorPageDTO> getMyBookingsCursor(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size
+    ) {
+        return ResponseEntity.ok(bookingService.getCustomerBookingsCursorPage(cursor, clampPageSize(size)));
+    }
+
     /**
      * Get booking details
      * GET /api/v1/bookings/:id
@@ -101,7 +180,9 @@ public class BookingController {
             @PathVariable Long id,
             @Valid @RequestBody BookingUpdateDTO updateDTO) {
         log.info("Updating booking {}", id);
-        BookingResponseDTO booking = bookingService.updateBooking(id, updateDTO);
+        // Status and field updates are absolute, so a lost version race is re-applied to the fresh row.
+        BookingResponseDTO booking = optimisticLockRetry.execute("update-booking",
+                () -> bookingService.updateBooking(id, updateDTO));
         return ResponseEntity.ok(booking);
     }
 
@@ -113,10 +194,35 @@ public class BookingController {
     @PreAuthorize("hasRole('CUSTOMER') or hasRole('ADMIN')")
     public ResponseEntity<BookingResponseDTO> simulatePayment(
             @PathVariable Long id,
+            @RequestHeader(value = BookingIdempotencyService.HEADER, required = false) String idempotencyKey,
             @Valid @RequestBody(required = false) BookingPaymentSimulationRequest request) {
         log.info("Simulating payment for booking {}", id);
-        BookingResponseDTO booking = bookingService.simulatePayment(id, request);
-        return ResponseEntity.ok(booking);
+        IdempotentResponse<BookingResponseDTO> result = bookingIdempotencyService.execute(
+                "simulate-payment", idempotencyKey, Arrays.asList(id, request), HttpStatus.OK, BookingResponseDTO.class,
+                () -> bookingService.simulatePayment(id, request)
+        );
+        return toResponse(result);
+    }
+
+    /**
+     * Submit a payment for asynchronous settlement
+     * POST /api/v1/bookings/:id/payments
+     *
+     * Response: 202 Accepted with paymentStatus PROCESSING; the booking is confirmed (or marked FAILED)
+     * once the settlement queue processes it. Accepts Idempotency-Key like simulate-payment.
+     */
+    @PostMapping("/{id}/payments")
+    @PreAuthorize("hasRole('CUSTOMER') or hasRole('ADMIN')")
+    public ResponseEntity<BookingResponseDTO> submitPayment(
+            @PathVariable Long id,
+            @RequestHeader(value = BookingIdempotencyService.HEADER, required = false) String idempotencyKey,
+            @Valid @RequestBody(required = false) BookingPaymentSimulationRequest request) {
+        log.info("Accepting payment attempt for booking {}", id);
+        IdempotentResponse<BookingResponseDTO> result = bookingIdempotencyService.execute(
+                "submit-payment", idempotencyKey, Arrays.asList(id, request), HttpStatus.ACCEPTED, BookingResponseDTO.class,
+                () -> bookingService.submitPayment(id, request)
+        );
+        return toResponse(result);
     }
 
     /**
@@ -131,7 +237,9 @@ public class BookingController {
             @PathVariable Long id,
             @RequestParam(required = false) String reason) {
         log.info("Cancelling booking {}", id);
-        BookingResponseDTO booking = bookingService.cancelBooking(id, reason != null ? reason : "No reason provided");
+        String cancelReason = reason != null ? reason : "No reason provided";
+        BookingResponseDTO booking = optimisticLockRetry.execute("cancel-booking",
+                () -> bookingService.cancelBooking(id, cancelReason));
         return ResponseEntity.ok(booking);
     }
 
@@ -164,6 +272,22 @@ public class BookingController {
         return ResponseEntity.ok(bookingService.getAllBookingsPage(status, pageable));
     }
 
+    /**
+     * Get all bookings one keyset page at a time
+     * GET /api/v1/bookings/admin/all/cursor?status=&cursor=&size=20
+     *
+     * Response carries nextCursor; pass it back to continue. Page N costs the same as page 1.
+     */
+    @GetMapping("/admin/all/cursor")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<BookingCursorPageDTO> getAllBookingsCursor(
+            @RequestParam(required = false) BookingStatus status,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size
+    ) {
+        return ResponseEntity.ok(bookingService.getAllBookingsCursorPage(status, cursor, clampPageSize(size)));
+    }
+
     /**
      * Get bookings for a car
      * GET /api/v1/admin/bookings/car/:carId
@@ -187,6 +311,58 @@ public class BookingController {
         return ResponseEntity.ok(bookingService.getCarBookingsPage(carId, pageable));
     }
 
+    @GetMapping("/admin/car/{carId}/cursor")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<BookingCursorPageDTO> getCarBookingsCursor(
+            @PathVariable Long carId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size
+    ) {
+        return ResponseEntity.ok(bookingService.getCarBookingsCursorPage(carId, cursor, clampPageSize(size)));
+    }
+
+    /**
+     * Search bookings
+     * GET /api/v1/bookings/admin/search?q=&page=0&size=20
+     *
+     * q matches an exact payment reference, or a car registration, customer email or phone by prefix
+     * (substring where pg_trgm is installed). Exact matches rank first.
+     */
+    @GetMapping("/admin/search")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<BookingSearchPageDTO> searchBookings(
+            @RequestParam String q,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "20") int size
+    ) {
+        return ResponseEntity.ok(bookingSearchService.search(q, Math.max(0, page), clampPageSize(size)));
+    }
+
+    /**
+     * Export bookings
+     * GET /api/v1/bookings/admin/export?format=csv|ndjson&status=&from=&to=
+     *
+     * Streams rows straight from the database cursor; from/to filter on pickup date (inclusive).
+     */
+    @GetMapping("/admin/export")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<StreamingResponseBody> exportBookings(
+            @RequestParam(defaultValue = "csv") String format,
+            @RequestParam(required = false) BookingStatus status,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to
+    ) {
+        BookingExportFormat exportFormat = bookingExportService.parseFormat(format);
+        log.info("Admin exporting bookings format={} status={} from={} to={}", exportFormat, status, from, to);
+        StreamingResponseBody body = bookingExportService.prepareExport(exportFormat, status, from, to);
+
+        String filename = "bookings-" + LocalDate.now() + "." + exportFormat.getFileExtension();
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(exportFormat.getContentType() + ";charset=UTF-8"))
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment().filename(filename).build().toString())
+                .body(body);
+    }
+
     /**
      * Get booking statistics
      * GET /api/v1/admin/bookings/stats
@@ -225,6 +401,38 @@ public class BookingController {
         return ResponseEntity.ok(bookingService.getAdminNotificationsPage(includeRead, pageable));
     }
 
+    /**
+     * Live admin notifications
+     * GET /api/v1/bookings/admin/notifications/stream
+     *
+     * Server-Sent Events: unread-count on connect, then booking-notification / notification-read as they
+     * happen. Reconnect with Last-Event-ID (header or ?lastEventId=) to replay what was missed; a resync
+     * event means the gap was too large and the list should be reloaded.
+     */
+    @GetMapping(value = "/admin/notifications/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<SseEmitter> streamAdminNotifications(
+            @RequestHeader(value = "Last-Event-ID", required = false) String lastEventIdHeader,
+            @RequestParam(required = false) String lastEventId
+    ) {
+        String resumeFrom = lastEventIdHeader != null ? lastEventIdHeader : lastEventId;
+        return ResponseEntity.ok()
+                // Keep reverse proxies from buffering the stream.
+                .header("X-Accel-Buffering", "no")
+                .header(HttpHeaders.CACHE_CONTROL, "no-cache")
+                .body(bookingNotificationStream.subscribe(resumeFrom));
+    }
+
+    /**
+     * Unread admin notification count, served from memory
+     * GET /api/v1/bookings/admin/notifications/unread-count
+     */
+    @GetMapping("/admin/notifications/unread-count")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<Map<String, Long>> getUnreadNotificationCount() {
+        return ResponseEntity.ok(Map.of("unreadCount", bookingNotificationStream.unreadCount()));
+    }
+
     /**
      * Mark one booking notification as read
      * PATCH /api/v1/bookings/admin/notifications/:id/read
@@ -233,14 +441,42 @@ public class BookingController {
     @PreAuthorize("hasRole('ADMIN')")
     public ResponseEntity<BookingResponseDTO> markAdminNotificationAsRead(@PathVariable Long id) {
         log.info("Admin marking notification as read for booking {}", id);
-        BookingResponseDTO booking = bookingService.markAdminNotificationAsRead(id);
+        BookingResponseDTO booking = optimisticLockRetry.execute("mark-notification-read",
+                () -> bookingService.markAdminNotificationAsRead(id));
         return ResponseEntity.ok(booking);
     }
 
+    /**
+     * Move many bookings to one status in a single transaction
+     * PATCH /api/v1/bookings/admin/bulk-status
+     *
+     * Body: {bookingIds: [..], bookingStatus, refundAmount?}
+     * Returns one result per booking; rejected items are left unchanged.
+     */
+    @PatchMapping("/admin/bulk-status")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<BookingBulkTransitionResultDTO> bulkTransition(
+            @Valid @RequestBody BookingBulkTransitionRequest request) {
+        log.info("Admin bulk transition of {} booking(s) to {}", request.getBookingIds().size(), request.getBookingStatus());
+        return ResponseEntity.ok(optimisticLockRetry.execute("bulk-transition",
+                () -> bookingService.bulkTransition(request)));
+    }
+
+    private <T> ResponseEntity<T> toResponse(IdempotentResponse<T> result) {
+        ResponseEntity.BodyBuilder response = ResponseEntity.status(result.httpStatus());
+        if (result.replayed()) {
+            response.header(BookingIdempotencyService.REPLAYED_HEADER, "true");
+        }
+        return response.body(result.body());
+    }
+
     private Pageable buildPageable(int page, int size, Sort sort) {
         int safePage = Math.max(0, page);
-        int safeSize = Math.min(100, Math.max(1, size));
-        return PageRequest.of(safePage, safeSize, sort);
+        return PageRequest.of(safePage, clampPageSize(size), sort);
+    }
+
+    private int clampPageSize(int size) {
+        return Math.min(100, Math.max(1, size));
     }
 
 }
@@ -0,0 +1,76 @@
+package com.amos.garizetu.Booking.controller;
+
+import com.amos.garizetu.Booking.DTO.BookingQuoteDTO;
+import com.amos.garizetu.Booking.DTO.BookingQuoteRequest;
+import com.amos.garizetu.Booking.DTO.PricingRuleDTO;
+import com.amos.garizetu.Booking.DTO.PricingRuleRequest;
+import com.amos.garizetu.Booking.service.BookingPricingService;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+/**
+ * Booking quotes and the pricing rules behind them.
+ *
+ * Endpoints:
+ * - POST   /bookings/quote                        - Price a car for a date range (public)
+ * - GET    /bookings/admin/pricing-rules          - List pricing rules (admin)
+ * - POST   /bookings/admin/pricing-rules          - Add a duration tier or weekend rule (admin)
+ * - DELETE /bookings/admin/pricing-rules/:id      - Remove a rule (admin)
+ */
+@RestController
+@RequestMapping("/api/v1/bookings")
+@RequiredArgsConstructor
+@Slf4j
+public class BookingPricingController {
+
+    private final BookingPricingService bookingPricingService;
+
+    /**
+     * Quote a car for a date range
+     * POST /api/v1/bookings/quote
+     *
+     * Body: {carId, pickupDate, returnDate}
+     * Response: price breakdown plus whether the car is currently free for those dates
+     */
+    @PostMapping("/quote")
+    public ResponseEntity<BookingQuoteDTO> quote(@Valid @RequestBody BookingQuoteRequest request) {
+        return ResponseEntity.ok(bookingPricingService.quote(request));
+    }
+
+    @GetMapping("/admin/pricing-rules")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<List<PricingRuleDTO>> getPricingRules() {
+        return ResponseEntity.ok(bookingPricingService.getPricingRules());
+    }
+
+    /**
+     * Body: {carId?, ruleType: DURATION_TIER|WEEKEND, minDays?, adjustmentPercent}
+     */
+    @PostMapping("/admin/pricing-rules")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<PricingRuleDTO> createPricingRule(@Valid @RequestBody PricingRuleRequest request) {
+        log.info("Admin adding {} pricing rule", request.getRuleType());
+        return ResponseEntity.status(HttpStatus.CREATED).body(bookingPricingService.createPricingRule(request));
+    }
+
+    @DeleteMapping("/admin/pricing-rules/{id}")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<Void> deletePricingRule(@PathVariable Long id) {
+        log.info("Admin deleting pricing rule {}", id);
+        bookingPricingService.deletePricingRule(id);
+        return ResponseEntity.noContent().build();
+    }
+}
@@ -0,0 +1,56 @@
+package com.amos.garizetu.Booking.controller;
+
+import com.amos.garizetu.Booking.DTO.BookingCreateRequest;
+import com.amos.garizetu.Booking.DTO.BookingWaitlistDTO;
+import com.amos.garizetu.Booking.service.BookingWaitlistService;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+/**
+ * Waitlist for cars whose dates are taken, usually by another customer's checkout hold.
+ *
+ * Endpoints:
+ * - POST   /bookings/waitlist        - Queue for a car and dates after a 409 from createBooking
+ * - GET    /bookings/waitlist/my     - Own entries with queue position or promoted booking
+ * - DELETE /bookings/waitlist/:id    - Leave the queue (owner or admin)
+ *
+ * A promoted entry points at a PENDING_PAYMENT booking; the customer pays it like any new booking.
+ */
+@RestController
+@RequestMapping("/api/v1/bookings/waitlist")
+@RequiredArgsConstructor
+@Slf4j
+public class BookingWaitlistController {
+
+    private final BookingWaitlistService bookingWaitlistService;
+
+    /**
+     * Body: same as POST /bookings
+     */
+    @PostMapping
+    public ResponseEntity<BookingWaitlistDTO> join(@Valid @RequestBody BookingCreateRequest request) {
+        return ResponseEntity.status(HttpStatus.CREATED).body(bookingWaitlistService.join(request));
+    }
+
+    @GetMapping("/my")
+    public ResponseEntity<List<BookingWaitlistDTO>> getMyEntries() {
+        return ResponseEntity.ok(bookingWaitlistService.getMyEntries());
+    }
+
+    @DeleteMapping("/{id}")
+    public ResponseEntity<BookingWaitlistDTO> leave(@PathVariable Long id) {
+        return ResponseEntity.ok(bookingWaitlistService.leave(id));
+    }
+}
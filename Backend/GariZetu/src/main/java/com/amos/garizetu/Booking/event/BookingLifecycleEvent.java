@@ -0,0 +1,58 @@
+package com.amos.garizetu.Booking.event;
+
+import com.amos.garizetu.Booking.Entity.Booking;
+import com.amos.garizetu.Booking.Enums.BookingStatus;
+import com.amos.garizetu.Booking.Enums.PaymentStatus;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Snapshot of a booking after a lifecycle change (create, payment, transition, cancel, expiry).
+ *
+ * Published by BookingService so in-memory views (availability index, counters, caches)
+ * can follow the bookings table without re-querying it. Listeners should react AFTER_COMMIT
+ * so rolled-back changes never leak into memory.
+ */
+public record BookingLifecycleEvent(
+        Long bookingId,
+        Long carId,
+        Long userId,
+        BookingStatus previousStatus,
+        BookingStatus bookingStatus,
+        PaymentStatus paymentStatus,
+        LocalDate pickupDate,
+        LocalDate returnDate,
+        double totalPrice,
+        LocalDateTime paymentExpiresAt,
+        LocalDateTime adminNotifiedAt,
+        boolean adminNotificationUnread,
+        LocalDateTime occurredAt
+) {
+
+    public static BookingLifecycleEvent of(Booking booking, BookingStatus previousStatus) {
+        return new BookingLifecycleEvent(
+                booking.getBookingId(),
+                booking.getCar() != null ? booking.getCar().getCarId() : null,
+                booking.getUser() != null ? booking.getUser().getUserId() : null,
+                previousStatus,
+                booking.getBookingStatus(),
+                booking.getPaymentStatus(),
+                booking.getPickupDate(),
+                booking.getReturnDate(),
+                booking.getTotalPrice(),
+                booking.getPaymentExpiresAt(),
+                booking.getAdminNotifiedAt(),
+                booking.getAdminNotifiedAt() != null && !booking.isAdminNotificationRead(),
+                LocalDateTime.now()
+        );
+    }
+
+    public boolean isCreation() {
+        return previousStatus == null;
+    }
+
+    public boolean isStatusChange() {
+        return previousStatus != bookingStatus;
+    }
+}
@@ -0,0 +1,18 @@
+package com.amos.garizetu.Booking.event;
+
+import java.time.LocalDateTime;
+
+/**
+ * A payment attempt was accepted and its booking moved to PROCESSING.
+ * The settlement queue picks it up after commit.
+ *
+ * @param simulatedOutcome outcome the fake gateway should report; null means success
+ */
+public record PaymentAttemptAcceptedEvent(
+        Long bookingId,
+        String paymentMethod,
+        double amount,
+        Boolean simulatedOutcome,
+        LocalDateTime acceptedAt
+) {
+}
@@ -0,0 +1,8 @@
+package com.amos.garizetu.Booking.event;
+
+/**
+ * A car's price inputs changed (daily price, status, pricing rules); carId null means every car.
+ * Cached compiled pricing is evicted once the change commits.
+ */
+public record PricingChangedEvent(Long carId) {
+}
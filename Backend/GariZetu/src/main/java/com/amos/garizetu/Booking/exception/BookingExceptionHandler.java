@@ -1,9 +1,13 @@
 package com.amos.garizetu.Booking.exception;
 
+import com.amos.garizetu.Booking.controller.BookingAnalyticsController;
 import com.amos.garizetu.Booking.controller.BookingController;
+import com.amos.garizetu.Booking.controller.BookingPricingController;
+import com.amos.garizetu.Booking.controller.BookingWaitlistController;
 import jakarta.servlet.http.HttpServletRequest;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.AccessDeniedException;
@@ -12,7 +16,12 @@ import org.springframework.web.bind.annotation.RestControllerAdvice;
 
 import java.time.LocalDateTime;
 
-@RestControllerAdvice(assignableTypes = BookingController.class)
+@RestControllerAdvice(assignableTypes = {
+        BookingController.class,
+        BookingAnalyticsController.class,
+        BookingPricingController.class,
+        BookingWaitlistController.class
+})
 @Slf4j
 public class BookingExceptionHandler {
 
@@ -61,6 +70,19 @@ public class BookingExceptionHandler {
         );
     }
 
+    @ExceptionHandler(OptimisticLockingFailureException.class)
+    public ResponseEntity<BookingErrorResponse> handleOptimisticLock(
+            OptimisticLockingFailureException exception,
+            HttpServletRequest request
+    ) {
+        log.warn("Booking changed concurrently: {}", exception.getMessage());
+        return buildResponse(
+                HttpStatus.CONFLICT,
+                "This booking was changed by someone else. Please refresh and try again.",
+                request
+        );
+    }
+
     @ExceptionHandler(RuntimeException.class)
     public ResponseEntity<BookingErrorResponse> handleUnexpected(
             RuntimeException exception,
@@ -3,10 +3,13 @@ package com.amos.garizetu.Booking.mapper;
 import com.amos.garizetu.Booking.DTO.BookingCreateRequest;
 import com.amos.garizetu.Booking.DTO.BookingResponseDTO;
 import com.amos.garizetu.Booking.Entity.Booking;
+import com.amos.garizetu.Booking.repository.BookingListView;
 import com.amos.garizetu.Car.Entity.Car;
 import com.amos.garizetu.User.Entity.User;
 import org.springframework.stereotype.Component;
 
+import java.time.temporal.ChronoUnit;
+
 @Component
 public class BookingMapper {
 
@@ -72,12 +75,72 @@ public class BookingMapper {
         dto.setAdminNotifiedAt(booking.getAdminNotifiedAt());
         dto.setAdminNotificationRead(booking.isAdminNotificationRead());
         dto.setAdminNotificationReadAt(booking.getAdminNotificationReadAt());
+        dto.setGroupReference(booking.getGroupReference());
         dto.setCreatedAt(booking.getCreatedAt());
         dto.setUpdatedAt(booking.getUpdatedAt());
 
         return dto;
     }
 
+    // Mapping a list projection row to BookingResponseDTO
+    // Same response as above, without loading the Booking/Car/User entities
+    public BookingResponseDTO toResponseDTO(BookingListView view) {
+        if (view == null) {
+            return null;
+        }
+
+        BookingResponseDTO dto = new BookingResponseDTO();
+
+        // Identifiers
+        dto.setBookingId(view.getBookingId());
+        dto.setCarId(view.getCarId());
+        dto.setUserId(view.getUserId());
+
+        // Car details
+        dto.setCarMake(view.getCarMake());
+        dto.setCarModel(view.getCarModel());
+        dto.setRegistrationNumber(view.getRegistrationNumber());
+        dto.setColour(view.getColour());
+        dto.setCarYear(view.getCarYear() != null ? view.getCarYear() : 0);
+
+        // User details
+        dto.setUserName(view.getUserName());
+        dto.setUserEmail(view.getUserEmail());
+        dto.setPhoneNumber(view.getPhoneNumber());
+
+        // Booking dates
+        dto.setPickupDate(view.getPickupDate());
+        dto.setReturnDate(view.getReturnDate());
+        if (view.getPickupDate() != null && view.getReturnDate() != null) {
+            dto.setNumberOfDays(ChronoUnit.DAYS.between(view.getPickupDate(), view.getReturnDate()));
+        }
+
+        // Pricing
+        dto.setDailyPrice(view.getDailyPrice() != null ? view.getDailyPrice() : 0);
+        dto.setTotalPrice(view.getTotalPrice() != null ? view.getTotalPrice() : 0);
+
+        // Locations and requests
+        dto.setPickupLocation(view.getPickupLocation());
+        dto.setReturnLocation(view.getReturnLocation());
+        dto.setSpecialRequests(view.getSpecialRequests());
+
+        // Status and timestamps
+        dto.setBookingStatus(view.getBookingStatus());
+        dto.setPaymentStatus(view.getPaymentStatus());
+        dto.setPaymentReference(view.getPaymentReference());
+        dto.setPaymentMethod(view.getPaymentMethod());
+        dto.setPaymentSimulatedAt(view.getPaymentSimulatedAt());
+        dto.setPaymentExpiresAt(view.getPaymentExpiresAt());
+        dto.setAdminNotifiedAt(view.getAdminNotifiedAt());
+        dto.setAdminNotificationRead(Boolean.TRUE.equals(view.getAdminNotificationRead()));
+        dto.setAdminNotificationReadAt(view.getAdminNotificationReadAt());
+        dto.setGroupReference(view.getGroupReference());
+        dto.setCreatedAt(view.getCreatedAt());
+        dto.setUpdatedAt(view.getUpdatedAt());
+
+        return dto;
+    }
+
     // Mapping BookingRequestDTO to Entity
     // Request sent by the Customer
     public Booking toEntity(BookingCreateRequest bookingCreateRequest, User user, Car car) {
@@ -0,0 +1,47 @@
+package com.amos.garizetu.Booking.payment;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Locale;
+import java.util.UUID;
+
+/**
+ * Local stand-in for the M-Pesa callback flow. Succeeds unless the attempt asked to fail, after an
+ * optional artificial latency so queue behaviour under load can be observed without a provider.
+ */
+@Component
+@Slf4j
+public class FakePaymentGateway implements PaymentGateway {
+
+    private final long latencyMs;
+
+    public FakePaymentGateway(@Value("${booking.payments.fake-gateway-latency-ms:0}") long latencyMs) {
+        this.latencyMs = Math.max(0, latencyMs);
+    }
+
+    @Override
+    public PaymentGatewayResult charge(PaymentAttempt attempt) {
+        if (latencyMs > 0) {
+            try {
+                Thread.sleep(latencyMs);
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                return PaymentGatewayResult.failure(attempt.bookingId(), reference(attempt, "FAIL"), "Interrupted");
+            }
+        }
+
+        boolean successful = attempt.simulatedOutcome() == null || attempt.simulatedOutcome();
+        if (!successful) {
+            log.debug("Fake gateway declining payment for booking {}", attempt.bookingId());
+            return PaymentGatewayResult.failure(attempt.bookingId(), reference(attempt, "FAIL"), "Declined by simulation");
+        }
+        return PaymentGatewayResult.success(attempt.bookingId(), reference(attempt, "PAY"));
+    }
+
+    private static String reference(PaymentAttempt attempt, String prefix) {
+        String suffix = UUID.randomUUID().toString().substring(0, 8).toUpperCase(Locale.ROOT);
+        return prefix + "-" + attempt.bookingId() + "-" + suffix;
+    }
+}
@@ -0,0 +1,17 @@
+package com.amos.garizetu.Booking.payment;
+
+import java.time.LocalDateTime;
+
+/**
+ * One queued payment attempt awaiting settlement.
+ *
+ * @param simulatedOutcome outcome requested for the fake gateway; null means success
+ */
+public record PaymentAttempt(
+        Long bookingId,
+        String paymentMethod,
+        double amount,
+        Boolean simulatedOutcome,
+        LocalDateTime acceptedAt
+) {
+}
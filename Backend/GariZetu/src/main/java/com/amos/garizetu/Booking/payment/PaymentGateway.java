@@ -0,0 +1,10 @@
+package com.amos.garizetu.Booking.payment;
+
+/**
+ * Payment provider seam for the settlement queue. Implementations are called off the request path,
+ * one attempt at a time, and must not touch the bookings table themselves.
+ */
+public interface PaymentGateway {
+
+    PaymentGatewayResult charge(PaymentAttempt attempt);
+}
@@ -0,0 +1,20 @@
+package com.amos.garizetu.Booking.payment;
+
+/**
+ * Outcome reported by the gateway for one attempt.
+ */
+public record PaymentGatewayResult(
+        Long bookingId,
+        boolean successful,
+        String paymentReference,
+        String failureReason
+) {
+
+    public static PaymentGatewayResult success(Long bookingId, String paymentReference) {
+        return new PaymentGatewayResult(bookingId, true, paymentReference, null);
+    }
+
+    public static PaymentGatewayResult failure(Long bookingId, String paymentReference, String failureReason) {
+        return new PaymentGatewayResult(bookingId, false, paymentReference, failureReason);
+    }
+}
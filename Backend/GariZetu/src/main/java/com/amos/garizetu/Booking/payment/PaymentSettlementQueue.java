@@ -0,0 +1,362 @@
+package com.amos.garizetu.Booking.payment;
+
+import com.amos.garizetu.Booking.Entity.Booking;
+import com.amos.garizetu.Booking.Entity.PaymentAttemptRecord;
+import com.amos.garizetu.Booking.event.PaymentAttemptAcceptedEvent;
+import com.amos.garizetu.Booking.repository.BookingRepository;
+import com.amos.garizetu.Booking.repository.PaymentAttemptRecordRepository;
+import com.amos.garizetu.Booking.service.BookingService;
+import com.amos.garizetu.Scheduling.service.ScheduledJobCoordinator;
+import com.amos.garizetu.util.OptimisticLockRetry;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Settles accepted payment attempts off the request path.
+ *
+ * Attempts are stored (PaymentAttemptRecord) and queued with their PROCESSING commit. A small worker
+ * pool drains the queue in batches: the batch is claimed in the DB first, and only attempts whose claim
+ * wins go through the PaymentGateway, with each outcome written back to its row before the whole batch
+ * is applied in one transaction by BookingService#settlePayments. If that batch fails (e.g. one booking
+ * lost an @Version race) each booking is applied on its own, so one conflict does not hold back the rest.
+ *
+ * Attempts lost to a failure or restart keep their row and are re-queued by the recovery scan once they
+ * were accepted, or last claimed, more than stale-after-ms ago; a recorded outcome is then replayed
+ * rather than charged again. stale-after-ms must stay well above the gateway timeout, since a claim
+ * older than that is taken over.
+ */
+@Component
+@Slf4j
+public class PaymentSettlementQueue {
+
+    static final String RECOVERY_JOB = "booking-payment-recovery";
+
+    private final BookingService bookingService;
+    private final BookingRepository bookingRepository;
+    private final PaymentAttemptRecordRepository attemptRecordRepository;
+    private final PaymentGateway paymentGateway;
+    private final OptimisticLockRetry optimisticLockRetry;
+    private final ScheduledJobCoordinator jobCoordinator;
+    private final Duration recoveryInterval;
+    private final int workerCount;
+    private final int batchSize;
+    private final long staleAfterMs;
+
+    private final BlockingQueue<PaymentAttempt> queue;
+    // Queued or being settled here; keeps the recovery scan from queuing the same booking twice locally.
+    private final Set<Long> pending = ConcurrentHashMap.newKeySet();
+    private final List<Thread> workers = new ArrayList<>();
+    private volatile boolean running;
+
+    private final Timer settlementLatency;
+    private final DistributionSummary batchSizes;
+    private final Counter settledPaid;
+    private final Counter settledFailed;
+    private final Counter rejected;
+
+    public PaymentSettlementQueue(
+            BookingService bookingService,
+            BookingRepository bookingRepository,
+            PaymentAttemptRecordRepository attemptRecordRepository,
+            PaymentGateway paymentGateway,
+            OptimisticLockRetry optimisticLockRetry,
+            ScheduledJobCoordinator jobCoordinator,
+            MeterRegistry meterRegistry,
+            @Value("${booking.payments.workers:4}") int workerCount,
+            @Value("${booking.payments.batch-size:50}") int batchSize,
+            @Value("${booking.payments.queue-capacity:10000}") int queueCapacity,
+            @Value("${booking.payments.stale-after-ms:120000}") long staleAfterMs,
+            @Value("${booking.payments.recovery-ms:60000}") long recoveryMs
+    ) {
+        this.bookingService = bookingService;
+        this.bookingRepository = bookingRepository;
+        this.attemptRecordRepository = attemptRecordRepository;
+        this.paymentGateway = paymentGateway;
+        this.optimisticLockRetry = optimisticLockRetry;
+        this.jobCoordinator = jobCoordinator;
+        this.recoveryInterval = Duration.ofMillis(recoveryMs);
+        this.workerCount = Math.max(1, workerCount);
+        this.batchSize = Math.max(1, batchSize);
+        this.staleAfterMs = Math.max(0, staleAfterMs);
+        this.queue = new LinkedBlockingQueue<>(Math.max(1, queueCapacity));
+
+        Gauge.builder("booking.payments.queue.depth", queue, BlockingQueue::size)
+                .description("Payment attempts waiting for a settlement worker")
+                .register(meterRegistry);
+        Gauge.builder("booking.payments.pending", pending, Set::size)
+                .description("Payment attempts queued or being settled")
+                .register(meterRegistry);
+        this.settlementLatency = Timer.builder("booking.payments.settlement.latency")
+                .description("Time from accepting a payment attempt to its settlement commit")
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .register(meterRegistry);
+        this.batchSizes = DistributionSummary.builder("booking.payments.settlement.batch.size")
+                .description("Attempts applied per settlement transaction")
+                .register(meterRegistry);
+        this.settledPaid = Counter.builder("booking.payments.settled").tag("outcome", "paid").register(meterRegistry);
+        this.settledFailed = Counter.builder("booking.payments.settled").tag("outcome", "failed").register(meterRegistry);
+        this.rejected = Counter.builder("booking.payments.queue.rejected")
+                .description("Attempts left for the recovery scan because the queue was full")
+                .register(meterRegistry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        running = true;
+        try {
+            // Other instances may still hold claims: same lease and cutoff as the scan.
+            recoverStale();
+        } catch (RuntimeException ex) {
+            log.warn("Could not re-queue processing payments at startup: {}", ex.getMessage());
+        }
+
+        for (int i = 0; i < workerCount; i++) {
+            Thread thread = new Thread(this::runWorker, "payment-settlement-" + i);
+            thread.setDaemon(true);
+            workers.add(thread);
+            thread.start();
+        }
+    }
+
+    @PreDestroy
+    public void stop() {
+        running = false;
+        workers.forEach(Thread::interrupt);
+        workers.clear();
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onPaymentAccepted(PaymentAttemptAcceptedEvent event) {
+        enqueue(new PaymentAttempt(
+                event.bookingId(),
+                event.paymentMethod(),
+                event.amount(),
+                event.simulatedOutcome(),
+                event.acceptedAt()
+        ));
+    }
+
+    @Scheduled(
+            fixedDelayString = "${booking.payments.recovery-ms:60000}",
+            initialDelayString = "${booking.payments.recovery-ms:60000}"
+    )
+    public void scheduledRecovery() {
+        recoverStale();
+    }
+
+    public int queueDepth() {
+        return queue.size();
+    }
+
+    // Only the leader scans; the claim taken before charging is what keeps two instances from charging one row.
+    private void recoverStale() {
+        jobCoordinator.runExclusive(RECOVERY_JOB, recoveryInterval, () -> recover(staleBefore(LocalDateTime.now())));
+    }
+
+    private void recover(LocalDateTime staleBefore) {
+        adoptUnrecordedAttempts(staleBefore);
+
+        int requeued = 0;
+        for (PaymentAttemptRecord record : attemptRecordRepository.findStale(staleBefore)) {
+            if (enqueue(record.toAttempt())) {
+                requeued++;
+            }
+        }
+        if (requeued > 0) {
+            log.info("Re-queued {} payment attempt(s) awaiting settlement", requeued);
+        }
+    }
+
+    // PROCESSING rows accepted before attempts were stored have no record and no known requested outcome.
+    private void adoptUnrecordedAttempts(LocalDateTime staleBefore) {
+        List<PaymentAttemptRecord> adopted = bookingRepository.findStaleProcessingPayments(staleBefore).stream()
+                .map(booking -> PaymentAttemptRecord.accepted(new PaymentAttempt(
+                        booking.getBookingId(),
+                        booking.getPaymentMethod(),
+                        booking.getTotalPrice(),
+                        null,
+                        booking.getUpdatedAt() != null ? booking.getUpdatedAt() : staleBefore
+                )))
+                .toList();
+        if (!adopted.isEmpty()) {
+            attemptRecordRepository.saveAll(adopted);
+            log.info("Stored {} processing payment(s) that had no attempt record", adopted.size());
+        }
+    }
+
+    private LocalDateTime staleBefore(LocalDateTime now) {
+        return now.minus(Duration.ofMillis(staleAfterMs));
+    }
+
+    private boolean enqueue(PaymentAttempt attempt) {
+        if (attempt.bookingId() == null || !pending.add(attempt.bookingId())) {
+            return false;
+        }
+        if (!queue.offer(attempt)) {
+            pending.remove(attempt.bookingId());
+            rejected.increment();
+            log.warn("Payment queue full; booking {} stays PROCESSING until the recovery scan", attempt.bookingId());
+            return false;
+        }
+        return true;
+    }
+
+    private void runWorker() {
+        List<PaymentAttempt> batch = new ArrayList<>(batchSize);
+        while (running) {
+            try {
+                PaymentAttempt first = queue.poll(1, TimeUnit.SECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                queue.drainTo(batch, batchSize - 1);
+                settle(batch);
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                return;
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    private void settle(List<PaymentAttempt> batch) {
+        List<Settlement> settlements;
+        try {
+            settlements = claimAndCharge(batch);
+        } catch (RuntimeException ex) {
+            // Nothing was charged; the recovery scan retries the batch.
+            log.error("Could not claim {} payment attempt(s): {}", batch.size(), ex.getMessage());
+            batch.forEach(attempt -> pending.remove(attempt.bookingId()));
+            return;
+        }
+        if (settlements.isEmpty()) {
+            return;
+        }
+
+        List<PaymentGatewayResult> results = settlements.stream().map(Settlement::result).toList();
+        boolean[] applied = new boolean[settlements.size()];
+        try {
+            bookingService.settlePayments(results);
+            Arrays.fill(applied, true);
+        } catch (RuntimeException ex) {
+            log.warn("Could not settle {} payment attempt(s) together, applying one by one: {}",
+                    settlements.size(), ex.getMessage());
+            for (int i = 0; i < settlements.size(); i++) {
+                applied[i] = settleOne(results.get(i));
+            }
+        }
+
+        LocalDateTime settledAt = LocalDateTime.now();
+        batchSizes.record(settlements.size());
+        for (int i = 0; i < settlements.size(); i++) {
+            PaymentAttempt attempt = settlements.get(i).attempt();
+            // Unapplied rows keep their claim and recorded outcome; recovery replays them once the claim is stale.
+            pending.remove(attempt.bookingId());
+            if (applied[i]) {
+                settlementLatency.record(Duration.between(attempt.acceptedAt(), settledAt));
+                (results.get(i).successful() ? settledPaid : settledFailed).increment();
+            }
+        }
+    }
+
+    /**
+     * Claims the batch in the DB and returns the gateway outcome of each attempt this worker won.
+     * Attempts already settled, or claimed elsewhere within stale-after-ms, are dropped uncharged.
+     * A won attempt with a recorded outcome (charged before a failed apply or a restart) replays it;
+     * the others are charged from the stored attempt and recorded before anything is applied.
+     */
+    private List<Settlement> claimAndCharge(List<PaymentAttempt> batch) {
+        List<Long> bookingIds = batch.stream().map(PaymentAttempt::bookingId).toList();
+        String claim = jobCoordinator.getOwner() + "/" + UUID.randomUUID().toString().substring(0, 8);
+        LocalDateTime now = LocalDateTime.now();
+        attemptRecordRepository.claim(bookingIds, claim, now, staleBefore(now));
+
+        List<PaymentAttemptRecord> claimed = attemptRecordRepository.findAllById(bookingIds).stream()
+                .filter(record -> claim.equals(record.getClaimedBy()))
+                .toList();
+        if (claimed.size() < batch.size()) {
+            Set<Long> won = claimed.stream().map(PaymentAttemptRecord::getBookingId).collect(Collectors.toSet());
+            bookingIds.stream().filter(id -> !won.contains(id)).forEach(pending::remove);
+            log.debug("Skipped {} payment attempt(s) settled or claimed elsewhere",
+                    batch.size() - claimed.size());
+        }
+
+        List<Settlement> settlements = new ArrayList<>(claimed.size());
+        for (PaymentAttemptRecord record : claimed) {
+            PaymentAttempt attempt = record.toAttempt();
+            if (record.isCharged()) {
+                log.info("Replaying recorded gateway outcome for booking {}", attempt.bookingId());
+                settlements.add(new Settlement(attempt, record.toResult()));
+                continue;
+            }
+            PaymentGatewayResult result = charge(attempt);
+            recordOutcome(result, claim);
+            settlements.add(new Settlement(attempt, result));
+        }
+        return settlements;
+    }
+
+    private void recordOutcome(PaymentGatewayResult result, String claim) {
+        try {
+            int recorded = attemptRecordRepository.recordOutcome(result.bookingId(), claim, result.successful(),
+                    result.paymentReference(), result.failureReason(), LocalDateTime.now());
+            if (recorded == 0) {
+                log.error("Claim on booking {} was taken over while charging; applying its outcome anyway",
+                        result.bookingId());
+            }
+        } catch (RuntimeException ex) {
+            // Still apply; only a failure of both leaves a charge the recovery scan cannot see.
+            log.error("Could not record gateway outcome for booking {}: {}", result.bookingId(), ex.getMessage());
+        }
+    }
+
+    private PaymentGatewayResult charge(PaymentAttempt attempt) {
+        try {
+            return paymentGateway.charge(attempt);
+        } catch (RuntimeException ex) {
+            log.warn("Gateway error for booking {}: {}", attempt.bookingId(), ex.getMessage());
+            return PaymentGatewayResult.failure(attempt.bookingId(), null, "Gateway error");
+        }
+    }
+
+    private boolean settleOne(PaymentGatewayResult result) {
+        try {
+            optimisticLockRetry.execute("Payment settlement", () -> bookingService.settlePayments(List.of(result)));
+            return true;
+        } catch (RuntimeException ex) {
+            log.error("Could not settle booking {}; its recorded outcome is left for the recovery scan: {}",
+                    result.bookingId(), ex.getMessage());
+            return false;
+        }
+    }
+
+    private record Settlement(PaymentAttempt attempt, PaymentGatewayResult result) {
+    }
+}
@@ -0,0 +1,46 @@
+package com.amos.garizetu.Booking.repository;
+
+import com.amos.garizetu.Booking.Enums.BookingStatus;
+import com.amos.garizetu.Booking.Enums.PaymentStatus;
+import lombok.Data;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * BookingListView row read from bookings_archive, so archived history maps through the same mapper.
+ */
+@Data
+class ArchivedBookingView implements BookingListView {
+
+    private Long bookingId;
+    private Long carId;
+    private Long userId;
+    private String carMake;
+    private String carModel;
+    private String registrationNumber;
+    private String colour;
+    private Integer carYear;
+    private String userName;
+    private String userEmail;
+    private String phoneNumber;
+    private LocalDate pickupDate;
+    private LocalDate returnDate;
+    private Double dailyPrice;
+    private Double totalPrice;
+    private String pickupLocation;
+    private String returnLocation;
+    private String specialRequests;
+    private BookingStatus bookingStatus;
+    private PaymentStatus paymentStatus;
+    private String paymentReference;
+    private String paymentMethod;
+    private LocalDateTime paymentSimulatedAt;
+    private LocalDateTime paymentExpiresAt;
+    private LocalDateTime adminNotifiedAt;
+    private Boolean adminNotificationRead;
+    private LocalDateTime adminNotificationReadAt;
+    private String groupReference;
+    private LocalDateTime createdAt;
+    private LocalDateTime updatedAt;
+}
@@ -0,0 +1,218 @@
+package com.amos.garizetu.Booking.repository;
+
+import com.amos.garizetu.Booking.Enums.BookingStatus;
+import com.amos.garizetu.Booking.Enums.PaymentStatus;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Consumer;
+
+/**
+ * History reads over bookings_archive, the cold store BookingArchiver moves terminal bookings into.
+ * Rows come back as BookingListView in the same (created_at DESC, booking_id DESC) order as the hot
+ * listings, so callers can merge the two.
+ */
+@Repository
+@RequiredArgsConstructor
+public class BookingArchiveRepository {
+
+    private static final String VIEW_SELECT = """
+            SELECT b.booking_id, b.car_id, b.user_id, c.make, c.vehicle_model, c.registration_number, c.colour,
+                   c.year, u.user_name, u.email, u.phone_number, b.pickup_date, b.return_date, b.daily_price,
+                   b.total_cost, b.pickup_location, b.return_location, b.special_requests, b.booking_status,
+                   b.payment_status, b.payment_reference, b.payment_method, b.payment_simulated_at,
+                   b.payment_expires_at, b.admin_notified_at, b.admin_notification_read,
+                   b.admin_notification_read_at, b.group_reference, b.created_at, b.updated_at
+            FROM bookings_archive b
+            LEFT JOIN cars c ON c.car_id = b.car_id
+            LEFT JOIN users u ON u.user_id = b.user_id
+            """;
+
+    private static final int EXPORT_FETCH_SIZE = 500;
+
+    private static final String KEYSET_ORDER = " ORDER BY b.created_at DESC, b.booking_id DESC LIMIT ?";
+
+    private static final RowMapper<BookingListView> VIEW_MAPPER = (rs, rowNum) -> {
+        ArchivedBookingView view = new ArchivedBookingView();
+        view.setBookingId(rs.getLong("booking_id"));
+        view.setCarId(rs.getObject("car_id", Long.class));
+        view.setUserId(rs.getObject("user_id", Long.class));
+        view.setCarMake(rs.getString("make"));
+        view.setCarModel(rs.getString("vehicle_model"));
+        view.setRegistrationNumber(rs.getString("registration_number"));
+        view.setColour(rs.getString("colour"));
+        view.setCarYear(rs.getObject("year", Integer.class));
+        view.setUserName(rs.getString("user_name"));
+        view.setUserEmail(rs.getString("email"));
+        view.setPhoneNumber(rs.getString("phone_number"));
+        view.setPickupDate(rs.getDate("pickup_date").toLocalDate());
+        view.setReturnDate(rs.getDate("return_date").toLocalDate());
+        view.setDailyPrice(rs.getDouble("daily_price"));
+        view.setTotalPrice(rs.getDouble("total_cost"));
+        view.setPickupLocation(rs.getString("pickup_location"));
+        view.setReturnLocation(rs.getString("return_location"));
+        view.setSpecialRequests(rs.getString("special_requests"));
+        String bookingStatus = rs.getString("booking_status");
+        view.setBookingStatus(bookingStatus == null ? null : BookingStatus.valueOf(bookingStatus));
+        String paymentStatus = rs.getString("payment_status");
+        view.setPaymentStatus(paymentStatus == null ? null : PaymentStatus.valueOf(paymentStatus));
+        view.setPaymentReference(rs.getString("payment_reference"));
+        view.setPaymentMethod(rs.getString("payment_method"));
+        view.setPaymentSimulatedAt(toLocalDateTime(rs.getTimestamp("payment_simulated_at")));
+        view.setPaymentExpiresAt(toLocalDateTime(rs.getTimestamp("payment_expires_at")));
+        view.setAdminNotifiedAt(toLocalDateTime(rs.getTimestamp("admin_notified_at")));
+        view.setAdminNotificationRead(rs.getBoolean("admin_notification_read"));
+        view.setAdminNotificationReadAt(toLocalDateTime(rs.getTimestamp("admin_notification_read_at")));
+        view.setGroupReference(rs.getString("group_reference"));
+        view.setCreatedAt(toLocalDateTime(rs.getTimestamp("created_at")));
+        view.setUpdatedAt(toLocalDateTime(rs.getTimestamp("updated_at")));
+        return view;
+    };
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public Optional<BookingListView> findViewById(Long bookingId) {
+        return jdbcTemplate.query(VIEW_SELECT + " WHERE b.booking_id = ?", VIEW_MAPPER, bookingId)
+                .stream()
+                .findFirst();
+    }
+
+    public List<BookingListView> findViewsByUser(Long userId, int limit) {
+        return jdbcTemplate.query(VIEW_SELECT + " WHERE b.user_id = ?" + KEYSET_ORDER, VIEW_MAPPER, userId, limit);
+    }
+
+    public List<BookingListView> findViewsByCar(Long carId, int limit) {
+        return jdbcTemplate.query(VIEW_SELECT + " WHERE b.car_id = ?" + KEYSET_ORDER, VIEW_MAPPER, carId, limit);
+    }
+
+    public List<BookingListView> findViewPageByUserAfter(
+            Long userId, LocalDateTime createdAt, Long bookingId, int limit) {
+        return jdbcTemplate.query(
+                VIEW_SELECT + " WHERE b.user_id = ? AND (b.created_at, b.booking_id) < (?, ?)" + KEYSET_ORDER,
+                VIEW_MAPPER, userId, Timestamp.valueOf(createdAt), bookingId, limit);
+    }
+
+    public List<BookingListView> findViewPageByCarAfter(
+            Long carId, LocalDateTime createdAt, Long bookingId, int limit) {
+        return jdbcTemplate.query(
+                VIEW_SELECT + " WHERE b.car_id = ? AND (b.created_at, b.booking_id) < (?, ?)" + KEYSET_ORDER,
+                VIEW_MAPPER, carId, Timestamp.valueOf(createdAt), bookingId, limit);
+    }
+
+    public List<BookingListView> findViewsByIds(Collection<Long> bookingIds) {
+        if (bookingIds.isEmpty()) {
+            return List.of();
+        }
+        String placeholders = String.join(", ", Collections.nCopies(bookingIds.size(), "?"));
+        return jdbcTemplate.query(VIEW_SELECT + " WHERE b.booking_id IN (" + placeholders + ")",
+                VIEW_MAPPER, bookingIds.toArray());
+    }
+
+    /**
+     * Newest archived rows, optionally of one status.
+     */
+    public List<BookingListView> findViews(BookingStatus status, int limit) {
+        return status == null
+                ? jdbcTemplate.query(VIEW_SELECT + KEYSET_ORDER, VIEW_MAPPER, limit)
+                : jdbcTemplate.query(VIEW_SELECT + " WHERE b.booking_status = ?" + KEYSET_ORDER,
+                        VIEW_MAPPER, status.name(), limit);
+    }
+
+    public List<BookingListView> findViewPageAfter(
+            BookingStatus status, LocalDateTime createdAt, Long bookingId, int limit) {
+        Timestamp after = Timestamp.valueOf(createdAt);
+        return status == null
+                ? jdbcTemplate.query(VIEW_SELECT + " WHERE (b.created_at, b.booking_id) < (?, ?)" + KEYSET_ORDER,
+                        VIEW_MAPPER, after, bookingId, limit)
+                : jdbcTemplate.query(
+                        VIEW_SELECT + " WHERE b.booking_status = ? AND (b.created_at, b.booking_id) < (?, ?)"
+                                + KEYSET_ORDER,
+                        VIEW_MAPPER, status.name(), after, bookingId, limit);
+    }
+
+    /**
+     * Feed every matching archived row to the consumer in bookingId order, fetching in batches like
+     * BookingRepository#streamViewsForExport. Must run inside a transaction for the driver to stream.
+     * Null filters match everything.
+     */
+    public void streamViewsForExport(
+            BookingStatus status, LocalDate from, LocalDate to, Consumer<BookingListView> consumer) {
+        StringBuilder sql = new StringBuilder(VIEW_SELECT).append(" WHERE 1 = 1");
+        List<Object> params = new ArrayList<>();
+        if (status != null) {
+            sql.append(" AND b.booking_status = ?");
+            params.add(status.name());
+        }
+        if (from != null) {
+            sql.append(" AND b.pickup_date >= ?");
+            params.add(Date.valueOf(from));
+        }
+        if (to != null) {
+            sql.append(" AND b.pickup_date <= ?");
+            params.add(Date.valueOf(to));
+        }
+        sql.append(" ORDER BY b.booking_id");
+
+        jdbcTemplate.query(connection -> {
+            PreparedStatement statement = connection.prepareStatement(sql.toString());
+            statement.setFetchSize(EXPORT_FETCH_SIZE);
+            for (int i = 0; i < params.size(); i++) {
+                statement.setObject(i + 1, params.get(i));
+            }
+            return statement;
+        }, (RowCallbackHandler) rs -> consumer.accept(VIEW_MAPPER.mapRow(rs, rs.getRow())));
+    }
+
+    /**
+     * Archived rows of one status, or of all statuses when null, from bookings_archive_counts.
+     */
+    public long countByStatus(BookingStatus status) {
+        Map<BookingStatus, Long> totals = countGroupedByStatus();
+        return status == null
+                ? totals.values().stream().mapToLong(Long::longValue).sum()
+                : totals.getOrDefault(status, 0L);
+    }
+
+    public long countByUser(Long userId) {
+        Long total = jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM bookings_archive WHERE user_id = ?", Long.class, userId);
+        return total == null ? 0 : total;
+    }
+
+    public long countByCar(Long carId) {
+        Long total = jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM bookings_archive WHERE car_id = ?", Long.class, carId);
+        return total == null ? 0 : total;
+    }
+
+    /**
+     * Archived totals per status, kept by the mover in bookings_archive_counts (a handful of rows),
+     * so stats never scan the archive.
+     */
+    public Map<BookingStatus, Long> countGroupedByStatus() {
+        Map<BookingStatus, Long> totals = new EnumMap<>(BookingStatus.class);
+        jdbcTemplate.query("SELECT booking_status, total FROM bookings_archive_counts", rs -> {
+            totals.put(BookingStatus.valueOf(rs.getString("booking_status")), rs.getLong("total"));
+        });
+        return totals;
+    }
+
+    private static LocalDateTime toLocalDateTime(Timestamp timestamp) {
+        return timestamp == null ? null : timestamp.toLocalDateTime();
+    }
+}
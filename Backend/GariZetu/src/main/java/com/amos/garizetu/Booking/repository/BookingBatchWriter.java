@@ -0,0 +1,89 @@
+package com.amos.garizetu.Booking.repository;
+
+import com.amos.garizetu.Booking.Entity.Booking;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Inserts new bookings in one JDBC batch. Booking ids are IDENTITY, which makes Hibernate insert
+ * row by row, so group bookings write here and read the generated ids back from the batch.
+ */
+@Repository
+@RequiredArgsConstructor
+public class BookingBatchWriter {
+
+    private static final String INSERT = """
+            INSERT INTO bookings (version, user_id, car_id, pickup_date, return_date, pickup_location,
+                                  return_location, special_requests, daily_price, total_cost, booking_status,
+                                  payment_status, payment_expires_at, admin_notification_read, group_reference,
+                                  created_at, updated_at)
+            VALUES (0, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Insert the bookings in the current transaction and fill in their ids, version and timestamps.
+     */
+    public void insertAll(List<Booking> bookings, LocalDateTime now) {
+        KeyHolder keys = new GeneratedKeyHolder();
+        jdbcTemplate.batchUpdate(
+                connection -> connection.prepareStatement(INSERT, new String[]{"booking_id"}),
+                new BatchPreparedStatementSetter() {
+                    @Override
+                    public void setValues(PreparedStatement statement, int i) throws SQLException {
+                        Booking booking = bookings.get(i);
+                        statement.setObject(1, booking.getUser() != null ? booking.getUser().getUserId() : null, Types.BIGINT);
+                        statement.setLong(2, booking.getCar().getCarId());
+                        statement.setDate(3, Date.valueOf(booking.getPickupDate()));
+                        statement.setDate(4, Date.valueOf(booking.getReturnDate()));
+                        statement.setString(5, booking.getPickupLocation());
+                        statement.setString(6, booking.getReturnLocation());
+                        statement.setString(7, booking.getSpecialRequests());
+                        statement.setDouble(8, booking.getDailyPrice());
+                        statement.setDouble(9, booking.getTotalPrice());
+                        statement.setString(10, booking.getBookingStatus().name());
+                        statement.setString(11, booking.getPaymentStatus().name());
+                        statement.setTimestamp(12, booking.getPaymentExpiresAt() != null
+                                ? Timestamp.valueOf(booking.getPaymentExpiresAt()) : null);
+                        statement.setBoolean(13, booking.isAdminNotificationRead());
+                        statement.setString(14, booking.getGroupReference());
+                        statement.setTimestamp(15, Timestamp.valueOf(now));
+                        statement.setTimestamp(16, Timestamp.valueOf(now));
+                    }
+
+                    @Override
+                    public int getBatchSize() {
+                        return bookings.size();
+                    }
+                },
+                keys
+        );
+
+        List<Map<String, Object>> generated = keys.getKeyList();
+        if (generated.size() != bookings.size()) {
+            throw new IllegalStateException("Expected " + bookings.size() + " booking ids, got " + generated.size());
+        }
+        for (int i = 0; i < bookings.size(); i++) {
+            Booking booking = bookings.get(i);
+            // Only booking_id was requested back; drivers differ on the key's case.
+            booking.setBookingId(((Number) generated.get(i).values().iterator().next()).longValue());
+            booking.setVersion(0L);
+            booking.setCreatedAt(now);
+            booking.setUpdatedAt(now);
+        }
+    }
+}
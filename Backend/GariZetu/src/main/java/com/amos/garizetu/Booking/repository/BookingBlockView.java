@@ -0,0 +1,28 @@
+package com.amos.garizetu.Booking.repository;
+
+import com.amos.garizetu.Booking.Enums.BookingStatus;
+import com.amos.garizetu.Booking.Enums.PaymentStatus;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Minimal booking columns needed to place a booking on a car's availability timeline.
+ * Avoids hydrating Car/User when (re)building the availability index and the hold registry.
+ */
+public interface BookingBlockView {
+
+    Long getBookingId();
+
+    Long getCarId();
+
+    BookingStatus getBookingStatus();
+
+    PaymentStatus getPaymentStatus();
+
+    LocalDate getPickupDate();
+
+    LocalDate getReturnDate();
+
+    LocalDateTime getPaymentExpiresAt();
+}
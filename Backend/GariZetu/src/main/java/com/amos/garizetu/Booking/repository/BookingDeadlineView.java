@@ -0,0 +1,13 @@
+package com.amos.garizetu.Booking.repository;
+
+import java.time.LocalDateTime;
+
+/**
+ * Pending-payment deadline of one booking, used to (re)fill the expiry engine.
+ */
+public interface BookingDeadlineView {
+
+    Long getBookingId();
+
+    LocalDateTime getPaymentExpiresAt();
+}
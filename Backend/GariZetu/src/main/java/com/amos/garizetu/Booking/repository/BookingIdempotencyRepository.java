@@ -0,0 +1,26 @@
+package com.amos.garizetu.Booking.repository;
+
+import com.amos.garizetu.Booking.Entity.BookingIdempotencyRecord;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+@Repository
+public interface BookingIdempotencyRepository extends JpaRepository<BookingIdempotencyRecord, Long> {
+
+    Optional<BookingIdempotencyRecord> findByScopeKeyAndExpiresAtAfter(String scopeKey, LocalDateTime now);
+
+    // Frees a lapsed key for reuse before the purge job gets to it.
+    @Modifying
+    @Query("DELETE FROM BookingIdempotencyRecord r WHERE r.scopeKey = :scopeKey AND r.expiresAt <= :now")
+    int deleteExpiredForScope(@Param("scopeKey") String scopeKey, @Param("now") LocalDateTime now);
+
+    @Modifying
+    @Query("DELETE FROM BookingIdempotencyRecord r WHERE r.expiresAt <= :now")
+    int deleteExpired(@Param("now") LocalDateTime now);
+}
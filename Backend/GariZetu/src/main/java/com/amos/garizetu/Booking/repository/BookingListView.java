@@ -0,0 +1,74 @@
+package com.amos.garizetu.Booking.repository;
+
+import com.amos.garizetu.Booking.Enums.BookingStatus;
+import com.amos.garizetu.Booking.Enums.PaymentStatus;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Exactly the columns BookingResponseDTO needs, selected in one booking/car/user join.
+ * List endpoints read this instead of hydrating Booking with its EAGER car and user.
+ */
+public interface BookingListView {
+
+    Long getBookingId();
+
+    Long getCarId();
+
+    Long getUserId();
+
+    String getCarMake();
+
+    String getCarModel();
+
+    String getRegistrationNumber();
+
+    String getColour();
+
+    Integer getCarYear();
+
+    String getUserName();
+
+    String getUserEmail();
+
+    String getPhoneNumber();
+
+    LocalDate getPickupDate();
+
+    LocalDate getReturnDate();
+
+    Double getDailyPrice();
+
+    Double getTotalPrice();
+
+    String getPickupLocation();
+
+    String getReturnLocation();
+
+    String getSpecialRequests();
+
+    BookingStatus getBookingStatus();
+
+    PaymentStatus getPaymentStatus();
+
+    String getPaymentReference();
+
+    String getPaymentMethod();
+
+    LocalDateTime getPaymentSimulatedAt();
+
+    LocalDateTime getPaymentExpiresAt();
+
+    LocalDateTime getAdminNotifiedAt();
+
+    Boolean getAdminNotificationRead();
+
+    LocalDateTime getAdminNotificationReadAt();
+
+    String getGroupReference();
+
+    LocalDateTime getCreatedAt();
+
+    LocalDateTime getUpdatedAt();
+}
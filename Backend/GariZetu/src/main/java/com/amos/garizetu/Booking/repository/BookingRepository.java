@@ -2,22 +2,56 @@ package com.amos.garizetu.Booking.repository;
 
 import com.amos.garizetu.Booking.Entity.Booking;
 import com.amos.garizetu.Booking.Enums.BookingStatus;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface BookingRepository extends JpaRepository<Booking, Long> {
 
+    // ========= LIST PROJECTION ==========
+    /**
+     * Select list shared by every BookingListView query: booking columns plus the few car/user
+     * columns the response shows, in one join, with no entity hydration.
+     */
+    String LIST_VIEW_SELECT = "SELECT b.bookingId AS bookingId, c.carId AS carId, u.userId AS userId, " +
+            "c.make AS carMake, c.vehicleModel AS carModel, c.registrationNumber AS registrationNumber, " +
+            "c.colour AS colour, c.year AS carYear, " +
+            "u.userName AS userName, u.email AS userEmail, u.phoneNumber AS phoneNumber, " +
+            "b.pickupDate AS pickupDate, b.returnDate AS returnDate, " +
+            "b.dailyPrice AS dailyPrice, b.totalPrice AS totalPrice, " +
+            "b.pickupLocation AS pickupLocation, b.returnLocation AS returnLocation, " +
+            "b.specialRequests AS specialRequests, " +
+            "b.bookingStatus AS bookingStatus, b.paymentStatus AS paymentStatus, " +
+            "b.paymentReference AS paymentReference, b.paymentMethod AS paymentMethod, " +
+            "b.paymentSimulatedAt AS paymentSimulatedAt, b.paymentExpiresAt AS paymentExpiresAt, " +
+            "b.adminNotifiedAt AS adminNotifiedAt, b.adminNotificationRead AS adminNotificationRead, " +
+            "b.adminNotificationReadAt AS adminNotificationReadAt, b.groupReference AS groupReference, " +
+            "b.createdAt AS createdAt, b.updatedAt AS updatedAt ";
+
+    String LIST_VIEW_FROM = "FROM Booking b JOIN b.car c LEFT JOIN b.user u ";
+
+    String KEYSET_AFTER = "b.createdAt <= :createdAt AND (b.createdAt < :createdAt OR b.bookingId < :bookingId) ";
+
+    String KEYSET_ORDER = "ORDER BY b.createdAt DESC, b.bookingId DESC";
+
     // ========= BASIC QUERIES ==========
     List<Booking> findByUserUserId(Long userId);
 
@@ -29,12 +63,12 @@ public interface BookingRepository extends JpaRepository<Booking, Long> {
 
     List<Booking> findByBookingStatusOrderByCreatedAtDesc(BookingStatus bookingStatus);
 
-    @Query("SELECT b FROM Booking b WHERE COALESCE(b.adminNotificationRead, false) = false " +
+    @Query("SELECT b FROM Booking b WHERE b.adminNotificationRead = false " +
             "AND b.adminNotifiedAt IS NOT NULL " +
             "ORDER BY b.adminNotifiedAt DESC")
     List<Booking> findUnreadAdminNotifications();
 
-    @Query("SELECT b FROM Booking b WHERE COALESCE(b.adminNotificationRead, false) = false " +
+    @Query("SELECT b FROM Booking b WHERE b.adminNotificationRead = false " +
             "AND b.adminNotifiedAt IS NOT NULL " +
             "ORDER BY b.adminNotifiedAt DESC")
     Page<Booking> findUnreadAdminNotifications(Pageable pageable);
@@ -65,9 +99,11 @@ public interface BookingRepository extends JpaRepository<Booking, Long> {
             ") " +
             "OR (" +
             "b.bookingStatus IN ('PENDING_PAYMENT', 'PENDING') " +
-            "AND b.paymentStatus IN ('UNPAID', 'FAILED') " +
+            "AND (b.paymentStatus = 'PROCESSING' OR (" +
+            "b.paymentStatus IN ('UNPAID', 'FAILED') " +
             "AND b.paymentExpiresAt IS NOT NULL " +
             "AND b.paymentExpiresAt > :asOf" +
+            "))" +
             ")" +
             ")")
     List<Booking> findBlockingBookingsForCars(
@@ -76,6 +112,59 @@ public interface BookingRepository extends JpaRepository<Booking, Long> {
             @Param("asOf") LocalDateTime asOf
     );
 
+    /**
+     * Confirmed/active bookings across the whole fleet, projected to timeline columns only.
+     * Use: rebuilding the in-memory availability index at startup. Payment holds load separately.
+     */
+    @Query("SELECT b.bookingId AS bookingId, b.car.carId AS carId, b.bookingStatus AS bookingStatus, " +
+            "b.paymentStatus AS paymentStatus, b.pickupDate AS pickupDate, b.returnDate AS returnDate, " +
+            "b.paymentExpiresAt AS paymentExpiresAt " +
+            "FROM Booking b WHERE " +
+            "b.bookingStatus IN ('CONFIRMED', 'ACTIVE', 'ADMIN_NOTIFIED') " +
+            "AND (b.returnDate IS NULL OR b.returnDate >= :today)")
+    List<BookingBlockView> findAllBookedBookingViews(@Param("today") LocalDate today);
+
+    @Query("SELECT b.bookingId AS bookingId, b.car.carId AS carId, b.bookingStatus AS bookingStatus, " +
+            "b.paymentStatus AS paymentStatus, b.pickupDate AS pickupDate, b.returnDate AS returnDate, " +
+            "b.paymentExpiresAt AS paymentExpiresAt " +
+            "FROM Booking b WHERE b.car.carId = :carId " +
+            "AND b.bookingStatus IN ('CONFIRMED', 'ACTIVE', 'ADMIN_NOTIFIED') " +
+            "AND (b.returnDate IS NULL OR b.returnDate >= :today)")
+    List<BookingBlockView> findBookedBookingViewsForCar(
+            @Param("carId") Long carId,
+            @Param("today") LocalDate today
+    );
+
+    /**
+     * Open payment holds (window not yet closed, or payment being settled) for the hold registry.
+     */
+    @Query("SELECT b.bookingId AS bookingId, b.car.carId AS carId, b.bookingStatus AS bookingStatus, " +
+            "b.paymentStatus AS paymentStatus, b.pickupDate AS pickupDate, b.returnDate AS returnDate, " +
+            "b.paymentExpiresAt AS paymentExpiresAt " +
+            "FROM Booking b WHERE " +
+            "b.bookingStatus IN ('PENDING_PAYMENT', 'PENDING') " +
+            "AND (b.paymentStatus = 'PROCESSING' OR (" +
+            "b.paymentStatus IN ('UNPAID', 'FAILED') " +
+            "AND b.paymentExpiresAt IS NOT NULL " +
+            "AND b.paymentExpiresAt > :asOf" +
+            "))")
+    List<BookingBlockView> findOpenHoldViews(@Param("asOf") LocalDateTime asOf);
+
+    @Query("SELECT b.bookingId AS bookingId, b.car.carId AS carId, b.bookingStatus AS bookingStatus, " +
+            "b.paymentStatus AS paymentStatus, b.pickupDate AS pickupDate, b.returnDate AS returnDate, " +
+            "b.paymentExpiresAt AS paymentExpiresAt " +
+            "FROM Booking b WHERE b.car.carId = :carId " +
+            "AND b.bookingStatus IN ('PENDING_PAYMENT', 'PENDING') " +
+            "AND (b.paymentStatus = 'PROCESSING' OR (" +
+            "b.paymentStatus IN ('UNPAID', 'FAILED') " +
+            "AND b.paymentExpiresAt IS NOT NULL " +
+            "AND b.paymentExpiresAt > :asOf" +
+            "))")
+    List<BookingBlockView> findOpenHoldViewsForCar(
+            @Param("carId") Long carId,
+            @Param("asOf") LocalDateTime asOf
+    );
+
     // ========== COMPLEX QUERY: AVAILABILITY CHECK ==========
 
     /**
@@ -88,9 +177,11 @@ public interface BookingRepository extends JpaRepository<Booking, Long> {
             "b.bookingStatus IN ('CONFIRMED', 'ACTIVE', 'ADMIN_NOTIFIED') " +
             "OR (" +
             "b.bookingStatus IN ('PENDING_PAYMENT', 'PENDING') " +
-            "AND b.paymentStatus IN ('UNPAID', 'FAILED') " +
+            "AND (b.paymentStatus = 'PROCESSING' OR (" +
+            "b.paymentStatus IN ('UNPAID', 'FAILED') " +
             "AND b.paymentExpiresAt IS NOT NULL " +
             "AND b.paymentExpiresAt > :asOf" +
+            "))" +
             ")" +
             ") " +
             "AND b.pickupDate < :returnDate " +
@@ -102,16 +193,89 @@ public interface BookingRepository extends JpaRepository<Booking, Long> {
             @Param("asOf") LocalDateTime asOf
     );
 
-    @Modifying(clearAutomatically = true, flushAutomatically = true)
-    @Query("UPDATE Booking b SET " +
-            "b.bookingStatus = 'EXPIRED', " +
-            "b.adminNotificationRead = true, " +
-            "b.updatedAt = :asOf " +
+    /**
+     * Same blocking rules as findConflictingBookings, for every car of a group booking in one query.
+     */
+    @Query("SELECT b.bookingId AS bookingId, b.car.carId AS carId, b.bookingStatus AS bookingStatus, " +
+            "b.paymentStatus AS paymentStatus, b.pickupDate AS pickupDate, b.returnDate AS returnDate, " +
+            "b.paymentExpiresAt AS paymentExpiresAt " +
+            "FROM Booking b WHERE b.car.carId IN :carIds " +
+            "AND (" +
+            "b.bookingStatus IN ('CONFIRMED', 'ACTIVE', 'ADMIN_NOTIFIED') " +
+            "OR (" +
+            "b.bookingStatus IN ('PENDING_PAYMENT', 'PENDING') " +
+            "AND (b.paymentStatus = 'PROCESSING' OR (" +
+            "b.paymentStatus IN ('UNPAID', 'FAILED') " +
+            "AND b.paymentExpiresAt IS NOT NULL " +
+            "AND b.paymentExpiresAt > :asOf" +
+            "))" +
+            ")" +
+            ") " +
+            "AND b.pickupDate < :returnDate " +
+            "AND b.returnDate > :pickupDate")
+    List<BookingBlockView> findConflictingViewsForCars(
+            @Param("carIds") Collection<Long> carIds,
+            @Param("pickupDate") LocalDate pickupDate,
+            @Param("returnDate") LocalDate returnDate,
+            @Param("asOf") LocalDateTime asOf
+    );
+
+    List<Booking> findByGroupReferenceOrderByBookingIdAsc(String groupReference);
+
+    /**
+     * Open payment windows (including ones already past due) for the expiry engine.
+     */
+    @Query("SELECT b.bookingId AS bookingId, b.paymentExpiresAt AS paymentExpiresAt FROM Booking b " +
+            "WHERE b.bookingStatus IN ('PENDING_PAYMENT', 'PENDING') " +
+            "AND b.paymentStatus IN ('UNPAID', 'FAILED') " +
+            "AND b.paymentExpiresAt IS NOT NULL")
+    List<BookingDeadlineView> findPendingPaymentDeadlines();
+
+    /**
+     * PROCESSING bookings with no stored payment attempt (accepted before attempts were persisted)
+     * that have not moved for a while; recovery adopts them into payment_attempt_records.
+     */
+    @Query("SELECT b FROM Booking b WHERE b.paymentStatus = 'PROCESSING' AND b.updatedAt <= :before " +
+            "AND NOT EXISTS (SELECT r FROM PaymentAttemptRecord r WHERE r.bookingId = b.bookingId)")
+    List<Booking> findStaleProcessingPayments(@Param("before") LocalDateTime before);
+
+    /**
+     * Claim up to limit lapsed payment holds for expiry, oldest deadline first.
+     * FOR UPDATE SKIP LOCKED: rows locked by an in-flight payment or another sweeper are skipped,
+     * not waited on, and the claim only lasts for the caller's (short) transaction.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "-2"))
+    @Query("SELECT b FROM Booking b " +
             "WHERE b.bookingStatus IN ('PENDING_PAYMENT', 'PENDING') " +
             "AND b.paymentStatus IN ('UNPAID', 'FAILED') " +
             "AND b.paymentExpiresAt IS NOT NULL " +
+            "AND b.paymentExpiresAt <= :asOf " +
+            "ORDER BY b.paymentExpiresAt, b.bookingId")
+    List<Booking> lockLapsedPaymentHolds(@Param("asOf") LocalDateTime asOf, Limit limit);
+
+    /**
+     * Expire one lapsed payment hold in a single statement. The WHERE clause re-checks the status
+     * the caller saw, an unpaid payment and the closed window, so a payment, cancellation or
+     * extension that committed first wins and 0 rows are updated.
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Booking b SET b.bookingStatus = 'EXPIRED', " +
+            "b.adminNotificationReadAt = CASE WHEN b.adminNotificationRead = false THEN :asOf " +
+            "ELSE b.adminNotificationReadAt END, " +
+            "b.adminNotificationRead = true, " +
+            "b.updatedAt = :asOf, " +
+            "b.version = b.version + 1 " +
+            "WHERE b.bookingId = :bookingId " +
+            "AND b.bookingStatus = :seenStatus " +
+            "AND b.paymentStatus IN ('UNPAID', 'FAILED') " +
+            "AND b.paymentExpiresAt IS NOT NULL " +
             "AND b.paymentExpiresAt <= :asOf")
-    int expirePendingPaymentBookings(@Param("asOf") LocalDateTime asOf);
+    int expireLapsedPaymentHold(
+            @Param("bookingId") Long bookingId,
+            @Param("seenStatus") BookingStatus seenStatus,
+            @Param("asOf") LocalDateTime asOf
+    );
 
     // ========== TEMPORAL QUERIES ==========
 
@@ -157,6 +321,13 @@ public interface BookingRepository extends JpaRepository<Booking, Long> {
             "AND b.returnDate < :today")
     long countOverdueBookings(@Param("today") LocalDate today);
 
+    /**
+     * Return dates of every active rental (overdue or not) for the overdue detector.
+     */
+    @Query("SELECT b.bookingId AS bookingId, b.returnDate AS returnDate FROM Booking b " +
+            "WHERE b.bookingStatus = 'ACTIVE' AND b.returnDate IS NOT NULL")
+    List<BookingReturnView> findActiveReturnDates();
+
     // ========== STATISTICS QUERIES ==========
 
     /**
@@ -168,6 +339,14 @@ public interface BookingRepository extends JpaRepository<Booking, Long> {
 
     long countByBookingStatusIn(List<BookingStatus> statuses);
 
+    /**
+     * All status counts in one pass
+     * Use: seeding and reconciling the in-memory dashboard counters
+     * SQL: SELECT booking_status, COUNT(*) FROM bookings GROUP BY booking_status
+     */
+    @Query("SELECT b.bookingStatus AS bookingStatus, COUNT(b) AS total FROM Booking b GROUP BY b.bookingStatus")
+    List<BookingStatusCountView> countGroupedByStatus();
+
     /**
      * Count bookings for a car
      * Use: Car details page - "This car has 12 total bookings"
@@ -189,6 +368,114 @@ public interface BookingRepository extends JpaRepository<Booking, Long> {
     Page<Booking> findByUserUserIdOrderByCreatedAtDesc(Long userId, Pageable pageable);
     Page<Booking> findByCarCarIdOrderByCreatedAtDesc(Long carId, Pageable pageable);
 
+    // ========== LIST VIEWS (OFFSET) ==========
+
+    /**
+     * List rows for ids found by BookingSearchRepository; the caller restores the ranked order.
+     */
+    @Query(LIST_VIEW_SELECT + LIST_VIEW_FROM + "WHERE b.bookingId IN :ids")
+    List<BookingListView> findViewsByIds(@Param("ids") Collection<Long> ids);
+
+    @Query(value = LIST_VIEW_SELECT + LIST_VIEW_FROM + "ORDER BY b.createdAt DESC",
+            countQuery = "SELECT COUNT(b) FROM Booking b")
+    Page<BookingListView> findAllViews(Pageable pageable);
+
+    @Query(value = LIST_VIEW_SELECT + LIST_VIEW_FROM + "WHERE b.bookingStatus = :status ORDER BY b.createdAt DESC",
+            countQuery = "SELECT COUNT(b) FROM Booking b WHERE b.bookingStatus = :status")
+    Page<BookingListView> findViewsByStatus(@Param("status") BookingStatus status, Pageable pageable);
+
+    @Query(value = LIST_VIEW_SELECT + LIST_VIEW_FROM + "WHERE u.userId = :userId ORDER BY b.createdAt DESC",
+            countQuery = "SELECT COUNT(b) FROM Booking b WHERE b.user.userId = :userId")
+    Page<BookingListView> findViewsByUser(@Param("userId") Long userId, Pageable pageable);
+
+    @Query(value = LIST_VIEW_SELECT + LIST_VIEW_FROM + "WHERE c.carId = :carId ORDER BY b.createdAt DESC",
+            countQuery = "SELECT COUNT(b) FROM Booking b WHERE b.car.carId = :carId")
+    Page<BookingListView> findViewsByCar(@Param("carId") Long carId, Pageable pageable);
+
+    @Query(value = LIST_VIEW_SELECT + LIST_VIEW_FROM +
+            "WHERE b.adminNotificationRead = false AND b.adminNotifiedAt IS NOT NULL " +
+            "ORDER BY b.adminNotifiedAt DESC",
+            countQuery = "SELECT COUNT(b) FROM Booking b " +
+                    "WHERE b.adminNotificationRead = false AND b.adminNotifiedAt IS NOT NULL")
+    Page<BookingListView> findUnreadAdminNotificationViews(Pageable pageable);
+
+    @Query(value = LIST_VIEW_SELECT + LIST_VIEW_FROM +
+            "WHERE b.adminNotifiedAt IS NOT NULL ORDER BY b.adminNotifiedAt DESC",
+            countQuery = "SELECT COUNT(b) FROM Booking b WHERE b.adminNotifiedAt IS NOT NULL")
+    Page<BookingListView> findAllAdminNotificationViews(Pageable pageable);
+
+    @Query(LIST_VIEW_SELECT + LIST_VIEW_FROM + "WHERE b.bookingId = :bookingId")
+    Optional<BookingListView> findViewById(@Param("bookingId") Long bookingId);
+
+    /**
+     * Bookings with their car and customer in one select, for bulk admin transitions.
+     */
+    @Query("SELECT b FROM Booking b JOIN FETCH b.car LEFT JOIN FETCH b.user WHERE b.bookingId IN :bookingIds")
+    List<Booking> findAllWithCarAndUserByIdIn(@Param("bookingIds") Collection<Long> bookingIds);
+
+    // Seed for the in-memory unread set; served by idx_bookings_admin_unread.
+    @Query("SELECT b.bookingId AS bookingId, b.adminNotifiedAt AS adminNotifiedAt FROM Booking b " +
+            "WHERE b.adminNotificationRead = false AND b.adminNotifiedAt IS NOT NULL")
+    List<BookingUnreadNotificationView> findUnreadAdminNotificationFlags();
+
+    // ========== EXPORT STREAM ==========
+    /**
+     * Forward-only cursor over every matching row for exports. The fetch size makes the driver pull
+     * rows in batches instead of buffering the whole result, so callers must consume it inside a
+     * transaction and close it. Null filters match everything.
+     */
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query(LIST_VIEW_SELECT + LIST_VIEW_FROM +
+            "WHERE (:status IS NULL OR b.bookingStatus = :status) " +
+            "AND (:from IS NULL OR b.pickupDate >= :from) " +
+            "AND (:to IS NULL OR b.pickupDate <= :to) " +
+            "ORDER BY b.bookingId")
+    Stream<BookingListView> streamViewsForExport(
+            @Param("status") BookingStatus status,
+            @Param("from") LocalDate from,
+            @Param("to") LocalDate to
+    );
+
+    // ========== KEYSET (SEEK) PAGINATION ==========
+    /**
+     * Pages ordered by (createdAt DESC, bookingId DESC) that continue strictly after a cursor row.
+     * Backed by the composite (…, created_at, booking_id) indexes, so page N costs the same as page 1.
+     * The redundant createdAt <= :createdAt bound lets the planner range-scan the index.
+     */
+    @Query(LIST_VIEW_SELECT + LIST_VIEW_FROM + "WHERE " + KEYSET_AFTER + KEYSET_ORDER)
+    List<BookingListView> findViewPageAfter(
+            @Param("createdAt") LocalDateTime createdAt,
+            @Param("bookingId") Long bookingId,
+            Limit limit
+    );
+
+    @Query(LIST_VIEW_SELECT + LIST_VIEW_FROM + "WHERE b.bookingStatus = :status AND " + KEYSET_AFTER + KEYSET_ORDER)
+    List<BookingListView> findViewPageByStatusAfter(
+            @Param("status") BookingStatus status,
+            @Param("createdAt") LocalDateTime createdAt,
+            @Param("bookingId") Long bookingId,
+            Limit limit
+    );
+
+    @Query(LIST_VIEW_SELECT + LIST_VIEW_FROM + "WHERE c.carId = :carId AND " + KEYSET_AFTER + KEYSET_ORDER)
+    List<BookingListView> findViewPageByCarAfter(
+            @Param("carId") Long carId,
+            @Param("createdAt") LocalDateTime createdAt,
+            @Param("bookingId") Long bookingId,
+            Limit limit
+    );
+
+    @Query(LIST_VIEW_SELECT + LIST_VIEW_FROM + "WHERE u.userId = :userId AND " + KEYSET_AFTER + KEYSET_ORDER)
+    List<BookingListView> findViewPageByUserAfter(
+            @Param("userId") Long userId,
+            @Param("createdAt") LocalDateTime createdAt,
+            @Param("bookingId") Long bookingId,
+            Limit limit
+    );
+
     @Modifying
     @Query(value = "UPDATE bookings SET admin_notification_read = FALSE WHERE admin_notification_read IS NULL", nativeQuery = true)
     int backfillNullAdminNotificationRead();
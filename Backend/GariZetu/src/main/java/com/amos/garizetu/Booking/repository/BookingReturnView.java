@@ -0,0 +1,13 @@
+package com.amos.garizetu.Booking.repository;
+
+import java.time.LocalDate;
+
+/**
+ * Due return date of one active rental, used to (re)fill the overdue detector.
+ */
+public interface BookingReturnView {
+
+    Long getBookingId();
+
+    LocalDate getReturnDate();
+}
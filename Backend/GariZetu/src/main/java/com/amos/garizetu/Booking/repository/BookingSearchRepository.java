@@ -0,0 +1,102 @@
+package com.amos.garizetu.Booking.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Ranked admin search over bookings, returning booking ids only.
+ *
+ * One branch per indexed field: payment reference (unique index), car registration, customer email
+ * and phone digits (expression indexes from BookingSearchIndexes). Each branch keeps only its own top
+ * rows, so the merge never sorts more than a few pages. Rank: exact payment reference, exact
+ * registration, exact email/phone, prefix, then substring ordered by trigram similarity. With the
+ * archive included every branch is repeated over bookings_archive, so old bookings stay findable.
+ */
+@Repository
+@RequiredArgsConstructor
+public class BookingSearchRepository {
+
+    static final int RANK_PAYMENT_REFERENCE = 0;
+    static final int RANK_EXACT_REGISTRATION = 1;
+    static final int RANK_EXACT_CONTACT = 2;
+    static final int RANK_PREFIX = 3;
+    static final int RANK_SUBSTRING = 4;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * @param term     trimmed, lower-cased search text
+     * @param digits   the term's digits, for phone matching; empty to skip the phone branch
+     * @param trigram  true when pg_trgm and its indexes exist; enables substring matching
+     * @param archive  also search bookings_archive
+     */
+    public List<Long> search(String term, String digits, boolean trigram, boolean archive, int limit, int offset) {
+        int window = offset + limit;
+        List<Object> params = new ArrayList<>();
+        List<String> branches = new ArrayList<>();
+
+        for (String table : archive ? List.of("bookings", "bookings_archive") : List.of("bookings")) {
+            branches.add("(SELECT b.booking_id, b.created_at, " + RANK_PAYMENT_REFERENCE + " AS rank, 1.0 AS score " +
+                    "FROM " + table + " b WHERE b.payment_reference = ? LIMIT ?)");
+            params.add(term.toUpperCase(Locale.ROOT));
+            params.add(window);
+
+            branches.add(fieldBranch("lower(c.registration_number)", "cars c JOIN " + table + " b ON b.car_id = c.car_id",
+                    RANK_EXACT_REGISTRATION, term, trigram, window, params));
+            branches.add(fieldBranch("lower(u.email)", "users u JOIN " + table + " b ON b.user_id = u.user_id",
+                    RANK_EXACT_CONTACT, term, trigram, window, params));
+            if (!digits.isEmpty()) {
+                branches.add(fieldBranch("regexp_replace(u.phone_number, '[^0-9]', '', 'g')",
+                        "users u JOIN " + table + " b ON b.user_id = u.user_id",
+                        RANK_EXACT_CONTACT, digits, trigram, window, params));
+            }
+        }
+
+        String sql = "SELECT m.booking_id FROM (" + String.join(" UNION ALL ", branches) + ") m " +
+                "GROUP BY m.booking_id " +
+                "ORDER BY MIN(m.rank), MAX(m.score) DESC, MAX(m.created_at) DESC, m.booking_id DESC " +
+                "LIMIT ? OFFSET ?";
+        params.add(limit);
+        params.add(offset);
+        return jdbcTemplate.queryForList(sql, Long.class, params.toArray());
+    }
+
+    private static String fieldBranch(
+            String expression,
+            String from,
+            int exactRank,
+            String value,
+            boolean trigram,
+            int window,
+            List<Object> params
+    ) {
+        // Substring needs three characters for trigrams to narrow anything; shorter terms match prefixes.
+        boolean substring = trigram && value.length() >= 3;
+        String escaped = escapeLike(value);
+
+        String rank = "CASE WHEN " + expression + " = ? THEN " + exactRank +
+                " WHEN " + expression + " LIKE ? THEN " + RANK_PREFIX +
+                " ELSE " + RANK_SUBSTRING + " END";
+        String score = substring ? "similarity(" + expression + ", ?)" : "0.0";
+        params.add(value);
+        params.add(escaped + "%");
+        if (substring) {
+            params.add(value);
+        }
+        params.add(substring ? "%" + escaped + "%" : escaped + "%");
+        params.add(window);
+
+        return "(SELECT b.booking_id, b.created_at, " + rank + " AS rank, " + score + " AS score " +
+                "FROM " + from + " WHERE " + expression + " LIKE ? " +
+                "ORDER BY 3, 4 DESC, b.created_at DESC LIMIT ?)";
+    }
+
+    static String escapeLike(String value) {
+        return value.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+}
@@ -0,0 +1,13 @@
+package com.amos.garizetu.Booking.repository;
+
+import com.amos.garizetu.Booking.Enums.BookingStatus;
+
+/**
+ * One row of the per-status booking count.
+ */
+public interface BookingStatusCountView {
+
+    BookingStatus getBookingStatus();
+
+    long getTotal();
+}
@@ -0,0 +1,13 @@
+package com.amos.garizetu.Booking.repository;
+
+import java.time.LocalDateTime;
+
+/**
+ * One unread admin notification, used to seed the in-memory notification stream.
+ */
+public interface BookingUnreadNotificationView {
+
+    Long getBookingId();
+
+    LocalDateTime getAdminNotifiedAt();
+}
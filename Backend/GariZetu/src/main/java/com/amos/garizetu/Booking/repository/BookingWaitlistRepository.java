@@ -0,0 +1,49 @@
+package com.amos.garizetu.Booking.repository;
+
+import com.amos.garizetu.Booking.Entity.BookingWaitlistEntry;
+import com.amos.garizetu.Booking.Enums.WaitlistStatus;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface BookingWaitlistRepository extends JpaRepository<BookingWaitlistEntry, Long> {
+
+    /**
+     * Waiters for a car in join order (identity ids grow with insertion).
+     */
+    List<BookingWaitlistEntry> findByCarIdAndStatusOrderByWaitlistEntryIdAsc(Long carId, WaitlistStatus status);
+
+    List<BookingWaitlistEntry> findByUserIdOrderByWaitlistEntryIdDesc(Long userId);
+
+    /**
+     * Locks the entry so two instances reacting to the same release cannot both promote it.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT w FROM BookingWaitlistEntry w WHERE w.waitlistEntryId = :id")
+    Optional<BookingWaitlistEntry> findByIdForUpdate(@Param("id") Long id);
+
+    boolean existsByUserIdAndCarIdAndPickupDateAndReturnDateAndStatus(
+            Long userId, Long carId, LocalDate pickupDate, LocalDate returnDate, WaitlistStatus status);
+
+    long countByUserIdAndStatus(Long userId, WaitlistStatus status);
+
+    long countByCarIdAndStatusAndWaitlistEntryIdLessThan(Long carId, WaitlistStatus status, Long waitlistEntryId);
+
+    @Query("SELECT DISTINCT w.carId FROM BookingWaitlistEntry w WHERE w.status = 'WAITING'")
+    List<Long> findCarIdsWithWaiters();
+
+    @Modifying
+    @Query("UPDATE BookingWaitlistEntry w SET w.status = 'EXPIRED', w.updatedAt = :now " +
+            "WHERE w.status = 'WAITING' AND w.pickupDate < :today")
+    int expireStale(@Param("today") LocalDate today, @Param("now") LocalDateTime now);
+}
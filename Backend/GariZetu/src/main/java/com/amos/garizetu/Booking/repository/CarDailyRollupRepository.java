@@ -0,0 +1,55 @@
+package com.amos.garizetu.Booking.repository;
+
+import com.amos.garizetu.Booking.Entity.CarDailyRollup;
+import com.amos.garizetu.Booking.Entity.CarDailyRollupId;
+import com.amos.garizetu.Booking.Enums.BookingStatus;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Range reads over car_daily_rollups; every query is bounded by rollup_date, so cost follows the
+ * number of days x active cars in the range, not the size of the bookings table.
+ */
+@Repository
+public interface CarDailyRollupRepository extends JpaRepository<CarDailyRollup, CarDailyRollupId> {
+
+    @Query("SELECT SUM(r.bookedDays) AS bookedDays, SUM(r.revenue) AS revenue " +
+            "FROM CarDailyRollup r " +
+            "WHERE r.id.rollupDate BETWEEN :from AND :to AND r.id.bookingStatus IN :statuses")
+    RollupTotalsView sumForRange(
+            @Param("from") LocalDate from,
+            @Param("to") LocalDate to,
+            @Param("statuses") Collection<BookingStatus> statuses
+    );
+
+    @Query("SELECT c.make AS make, SUM(r.bookedDays) AS bookedDays, SUM(r.revenue) AS revenue " +
+            "FROM CarDailyRollup r JOIN Car c ON c.carId = r.id.carId " +
+            "WHERE r.id.rollupDate BETWEEN :from AND :to AND r.id.bookingStatus IN :statuses " +
+            "GROUP BY c.make ORDER BY SUM(r.revenue) DESC")
+    List<RollupTotalsView> sumByMake(
+            @Param("from") LocalDate from,
+            @Param("to") LocalDate to,
+            @Param("statuses") Collection<BookingStatus> statuses
+    );
+
+    @Query("SELECT c.carId AS carId, c.make AS make, c.vehicleModel AS vehicleModel, " +
+            "c.registrationNumber AS registrationNumber, " +
+            "SUM(r.bookedDays) AS bookedDays, SUM(r.revenue) AS revenue " +
+            "FROM CarDailyRollup r JOIN Car c ON c.carId = r.id.carId " +
+            "WHERE r.id.rollupDate BETWEEN :from AND :to AND r.id.bookingStatus IN :statuses " +
+            "GROUP BY c.carId, c.make, c.vehicleModel, c.registrationNumber " +
+            "ORDER BY SUM(r.revenue) DESC, c.carId")
+    List<RollupTotalsView> sumByCar(
+            @Param("from") LocalDate from,
+            @Param("to") LocalDate to,
+            @Param("statuses") Collection<BookingStatus> statuses,
+            Limit limit
+    );
+}
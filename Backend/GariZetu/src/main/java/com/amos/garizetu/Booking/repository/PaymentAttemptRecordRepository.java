@@ -0,0 +1,55 @@
+package com.amos.garizetu.Booking.repository;
+
+import com.amos.garizetu.Booking.Entity.PaymentAttemptRecord;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface PaymentAttemptRecordRepository extends JpaRepository<PaymentAttemptRecord, Long> {
+
+    /**
+     * Claim the given attempts for one settlement batch. Only unclaimed rows and rows whose claim is
+     * older than staleBefore are taken, so two workers never hold the same attempt at once; read the
+     * rows back and keep the ones carrying this claim.
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Transactional
+    @Query("UPDATE PaymentAttemptRecord r SET r.claimedBy = :claim, r.claimedAt = :now " +
+            "WHERE r.bookingId IN :bookingIds " +
+            "AND (r.claimedAt IS NULL OR r.claimedAt <= :staleBefore)")
+    int claim(@Param("bookingIds") Collection<Long> bookingIds,
+              @Param("claim") String claim,
+              @Param("now") LocalDateTime now,
+              @Param("staleBefore") LocalDateTime staleBefore);
+
+    /**
+     * Record the gateway outcome on an attempt, only while the caller still holds its claim.
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Transactional
+    @Query("UPDATE PaymentAttemptRecord r SET r.successful = :successful, r.paymentReference = :reference, " +
+            "r.failureReason = :failureReason, r.recordedAt = :now " +
+            "WHERE r.bookingId = :bookingId AND r.claimedBy = :claim")
+    int recordOutcome(@Param("bookingId") Long bookingId,
+                      @Param("claim") String claim,
+                      @Param("successful") boolean successful,
+                      @Param("reference") String reference,
+                      @Param("failureReason") String failureReason,
+                      @Param("now") LocalDateTime now);
+
+    /**
+     * Attempts nobody is working on: never claimed and accepted before staleBefore, or claimed
+     * before staleBefore (the claimer died or gave up).
+     */
+    @Query("SELECT r FROM PaymentAttemptRecord r " +
+            "WHERE (r.claimedAt IS NULL AND r.acceptedAt <= :staleBefore) OR r.claimedAt <= :staleBefore")
+    List<PaymentAttemptRecord> findStale(@Param("staleBefore") LocalDateTime staleBefore);
+}
@@ -0,0 +1,21 @@
+package com.amos.garizetu.Booking.repository;
+
+import com.amos.garizetu.Booking.Entity.PricingRule;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface PricingRuleRepository extends JpaRepository<PricingRule, Long> {
+
+    /**
+     * The car's own rules plus the fleet-wide ones; the pricing service picks which apply.
+     */
+    @Query("SELECT r FROM PricingRule r WHERE r.carId = :carId OR r.carId IS NULL")
+    List<PricingRule> findApplicable(@Param("carId") Long carId);
+
+    List<PricingRule> findAllByOrderByCarIdAscRuleTypeAscMinDaysAsc();
+}
@@ -0,0 +1,19 @@
+package com.amos.garizetu.Booking.repository;
+
+/**
+ * Summed rollup figures for a range; grouping columns are null when not grouped.
+ */
+public interface RollupTotalsView {
+
+    Long getCarId();
+
+    String getMake();
+
+    String getVehicleModel();
+
+    String getRegistrationNumber();
+
+    Long getBookedDays();
+
+    Double getRevenue();
+}
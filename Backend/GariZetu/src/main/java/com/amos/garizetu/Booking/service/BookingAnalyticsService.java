@@ -0,0 +1,106 @@
+package com.amos.garizetu.Booking.service;
+
+import com.amos.garizetu.Booking.DTO.FleetUtilizationDTO;
+import com.amos.garizetu.Booking.DTO.RevenueBreakdownDTO;
+import com.amos.garizetu.Booking.Enums.BookingStatus;
+import com.amos.garizetu.Booking.exception.BookingValidationException;
+import com.amos.garizetu.Booking.repository.CarDailyRollupRepository;
+import com.amos.garizetu.Booking.repository.RollupTotalsView;
+import com.amos.garizetu.Repository.CarRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Admin revenue and utilization figures, read from car_daily_rollups only.
+ * Revenue counts bookings that are (or were) actually rented: confirmed, active or completed.
+ */
+@Service
+@RequiredArgsConstructor
+@Transactional(readOnly = true)
+public class BookingAnalyticsService {
+
+    static final Set<BookingStatus> EARNING_STATUSES = Set.of(
+            BookingStatus.CONFIRMED,
+            BookingStatus.ADMIN_NOTIFIED, // Legacy
+            BookingStatus.ACTIVE,
+            BookingStatus.COMPLETED
+    );
+
+    private static final int DEFAULT_RANGE_DAYS = 30;
+    private static final int MAX_RANGE_DAYS = 3660;
+    private static final int MAX_TOP_CARS = 100;
+
+    private final CarDailyRollupRepository rollupRepository;
+    private final CarRepository carRepository;
+
+    public FleetUtilizationDTO getFleetUtilization(LocalDate from, LocalDate to) {
+        DateRange range = resolveRange(from, to);
+        RollupTotalsView totals = rollupRepository.sumForRange(range.from(), range.to(), EARNING_STATUSES);
+
+        long fleetSize = carRepository.count();
+        long capacity = fleetSize * range.days();
+        long booked = totals != null && totals.getBookedDays() != null ? totals.getBookedDays() : 0;
+        double revenue = totals != null && totals.getRevenue() != null ? totals.getRevenue() : 0;
+
+        return new FleetUtilizationDTO(
+                range.from(),
+                range.to(),
+                range.days(),
+                fleetSize,
+                booked,
+                Math.max(0, capacity - booked),
+                capacity == 0 ? 0 : (double) booked / capacity,
+                revenue
+        );
+    }
+
+    public List<RevenueBreakdownDTO> getRevenueByMake(LocalDate from, LocalDate to) {
+        DateRange range = resolveRange(from, to);
+        return rollupRepository.sumByMake(range.from(), range.to(), EARNING_STATUSES).stream()
+                .map(BookingAnalyticsService::toBreakdown)
+                .toList();
+    }
+
+    public List<RevenueBreakdownDTO> getTopEarningCars(LocalDate from, LocalDate to, int limit) {
+        DateRange range = resolveRange(from, to);
+        int safeLimit = Math.min(MAX_TOP_CARS, Math.max(1, limit));
+        return rollupRepository.sumByCar(range.from(), range.to(), EARNING_STATUSES, Limit.of(safeLimit)).stream()
+                .map(BookingAnalyticsService::toBreakdown)
+                .toList();
+    }
+
+    private static RevenueBreakdownDTO toBreakdown(RollupTotalsView row) {
+        return new RevenueBreakdownDTO(
+                row.getMake(),
+                row.getCarId(),
+                row.getVehicleModel(),
+                row.getRegistrationNumber(),
+                row.getBookedDays() != null ? row.getBookedDays() : 0,
+                row.getRevenue() != null ? row.getRevenue() : 0
+        );
+    }
+
+    // Both ends inclusive; defaults to the last 30 days up to today.
+    private static DateRange resolveRange(LocalDate from, LocalDate to) {
+        LocalDate end = to != null ? to : LocalDate.now();
+        LocalDate start = from != null ? from : end.minusDays(DEFAULT_RANGE_DAYS - 1);
+        if (start.isAfter(end)) {
+            throw new BookingValidationException("Analytics 'from' date must be on or before 'to' date");
+        }
+        long days = ChronoUnit.DAYS.between(start, end) + 1;
+        if (days > MAX_RANGE_DAYS) {
+            throw new BookingValidationException("Analytics range cannot exceed " + MAX_RANGE_DAYS + " days");
+        }
+        return new DateRange(start, end, days);
+    }
+
+    private record DateRange(LocalDate from, LocalDate to, long days) {
+    }
+}
@@ -0,0 +1,233 @@
+package com.amos.garizetu.Booking.service;
+
+import com.amos.garizetu.Booking.Enums.BookingStatus;
+import com.amos.garizetu.Booking.repository.BookingArchiveRepository;
+import com.amos.garizetu.Scheduling.service.ScheduledJobCoordinator;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Moves terminal bookings out of the hot bookings table into bookings_archive.
+ *
+ * Live queries (availability, holds, expiry, notification queues) keep reading bookings only, which
+ * now holds open bookings plus recent history. Listings that include terminal bookings (customer, car
+ * and admin lists, status filters, search, export) union in the archive. Each batch is one
+ * statement: DELETE ... RETURNING feeds the archive insert and the per-status archive counts, so a row
+ * is never in both tables or neither. Batches claim rows with FOR UPDATE SKIP LOCKED and commit on
+ * their own, like the expiry sweep.
+ */
+@Component
+@Slf4j
+public class BookingArchiver {
+
+    static final String SCHEMA_JOB = "booking-archive-schema";
+    static final String MOVE_JOB = "booking-archive-mover";
+
+    static final List<String> ARCHIVED_STATUSES = List.of(
+            BookingStatus.COMPLETED.name(),
+            BookingStatus.CANCELLED.name(),
+            BookingStatus.EXPIRED.name(),
+            BookingStatus.REJECTED.name()
+    );
+
+    private static final List<String> SCHEMA = List.of(
+            // LIKE copies columns and NOT NULLs only: no identity, so archived ids keep their values.
+            "CREATE TABLE IF NOT EXISTS bookings_archive (LIKE bookings)",
+            "CREATE UNIQUE INDEX IF NOT EXISTS uk_bookings_archive_id ON bookings_archive (booking_id)",
+            "CREATE INDEX IF NOT EXISTS idx_bookings_archive_user_created_id " +
+                    "ON bookings_archive (user_id, created_at, booking_id)",
+            "CREATE INDEX IF NOT EXISTS idx_bookings_archive_car_created_id " +
+                    "ON bookings_archive (car_id, created_at, booking_id)",
+            "CREATE INDEX IF NOT EXISTS idx_bookings_archive_created_id " +
+                    "ON bookings_archive (created_at, booking_id)",
+            "CREATE INDEX IF NOT EXISTS idx_bookings_archive_status_created_id " +
+                    "ON bookings_archive (booking_status, created_at, booking_id)",
+            "CREATE INDEX IF NOT EXISTS idx_bookings_archive_payment_reference " +
+                    "ON bookings_archive (payment_reference)",
+            "CREATE TABLE IF NOT EXISTS bookings_archive_counts " +
+                    "(booking_status VARCHAR(32) PRIMARY KEY, total BIGINT NOT NULL)"
+    );
+
+    private static final String COLUMNS = """
+            SELECT a.attname, format_type(a.atttypid, a.atttypmod) FROM pg_attribute a
+            WHERE a.attrelid = CAST(? AS regclass) AND a.attnum > 0 AND NOT a.attisdropped
+            ORDER BY a.attnum
+            """;
+
+    private static final String MOVE_BATCH = """
+            WITH moved AS (
+                DELETE FROM bookings WHERE booking_id IN (
+                    SELECT booking_id FROM bookings
+                    WHERE booking_status IN (%s) AND updated_at < ?
+                    ORDER BY booking_id
+                    LIMIT ?
+                    FOR UPDATE SKIP LOCKED)
+                RETURNING %s
+            ), archived AS (
+                INSERT INTO bookings_archive (%s) SELECT %s FROM moved
+                RETURNING booking_status
+            ), counted AS (
+                INSERT INTO bookings_archive_counts (booking_status, total)
+                SELECT booking_status, COUNT(*) FROM archived GROUP BY booking_status
+                ON CONFLICT (booking_status) DO UPDATE SET total = bookings_archive_counts.total + EXCLUDED.total
+            )
+            SELECT COUNT(*) FROM archived
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final BookingArchiveRepository bookingArchiveRepository;
+    private final ScheduledJobCoordinator jobCoordinator;
+    private final boolean enabled;
+    private final int afterDays;
+    private final int batchSize;
+    private final int maxBatches;
+    private final Duration interval;
+    private final Counter moved;
+
+    private volatile boolean available;
+
+    public BookingArchiver(
+            JdbcTemplate jdbcTemplate,
+            BookingArchiveRepository bookingArchiveRepository,
+            ScheduledJobCoordinator jobCoordinator,
+            MeterRegistry meterRegistry,
+            @Value("${booking.archive.enabled:true}") boolean enabled,
+            @Value("${booking.archive.after-days:90}") int afterDays,
+            @Value("${booking.archive.batch-size:500}") int batchSize,
+            @Value("${booking.archive.max-batches:200}") int maxBatches,
+            @Value("${booking.archive.interval-ms:3600000}") long intervalMs
+    ) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.bookingArchiveRepository = bookingArchiveRepository;
+        this.jobCoordinator = jobCoordinator;
+        this.enabled = enabled;
+        this.afterDays = Math.max(1, afterDays);
+        this.batchSize = Math.max(1, batchSize);
+        this.maxBatches = Math.max(1, maxBatches);
+        this.interval = Duration.ofMillis(intervalMs);
+        this.moved = Counter.builder("booking.archive.moved")
+                .description("Terminal bookings moved to bookings_archive")
+                .register(meterRegistry);
+    }
+
+    // Ahead of the other startup listeners: rollup seeding and stats read the archive tables.
+    @EventListener(ApplicationReadyEvent.class)
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    public void onApplicationReady() {
+        try {
+            jobCoordinator.runExclusive(SCHEMA_JOB, Duration.ofMinutes(30), this::prepareSchema);
+            refreshAvailability();
+        } catch (RuntimeException ex) {
+            log.warn("Could not prepare bookings archive: {}", ex.getMessage());
+        }
+    }
+
+    @Scheduled(
+            fixedDelayString = "${booking.archive.interval-ms:3600000}",
+            initialDelayString = "${booking.archive.interval-ms:3600000}"
+    )
+    public void scheduledMove() {
+        if (!available) {
+            refreshAvailability();
+        }
+        if (enabled && available) {
+            jobCoordinator.runExclusive(MOVE_JOB, interval, this::moveTerminalBookings);
+        }
+    }
+
+    /**
+     * True once bookings_archive exists; until then history reads skip it.
+     */
+    public boolean isAvailable() {
+        return available;
+    }
+
+    public Map<BookingStatus, Long> archivedCountsByStatus() {
+        return available ? bookingArchiveRepository.countGroupedByStatus() : Map.of();
+    }
+
+    /**
+     * Move terminal bookings last updated before the cutoff, batch by batch. Stops at the first short
+     * batch or after max-batches, leaving the rest to the next run.
+     */
+    public int moveTerminalBookings() {
+        String columns = prepareSchema();
+        String sql = MOVE_BATCH.formatted(
+                ARCHIVED_STATUSES.stream().map(status -> "'" + status + "'").collect(Collectors.joining(", ")),
+                columns, columns, columns);
+        Timestamp cutoff = Timestamp.valueOf(LocalDateTime.now().minusDays(afterDays));
+
+        long started = System.currentTimeMillis();
+        int total = 0;
+        int batches = 0;
+        try {
+            while (batches < maxBatches) {
+                Long rows = jdbcTemplate.queryForObject(sql, Long.class, cutoff, batchSize);
+                int count = rows == null ? 0 : rows.intValue();
+                batches++;
+                total += count;
+                moved.increment(count);
+                if (count < batchSize) {
+                    break;
+                }
+            }
+        } catch (DataAccessException ex) {
+            // Committed batches stay archived; the rest is retried by the next run.
+            log.warn("Archive mover stopped after {} booking(s): {}", total, ex.getMessage());
+        }
+
+        if (total > 0) {
+            log.info("Archived {} terminal booking(s) in {} batch(es), {} ms",
+                    total, batches, System.currentTimeMillis() - started);
+        }
+        return total;
+    }
+
+    /**
+     * Create the archive tables and add any bookings column the archive lacks (schema updates only
+     * touch mapped tables). Returns the bookings column list the mover copies.
+     */
+    String prepareSchema() {
+        SCHEMA.forEach(jdbcTemplate::execute);
+
+        Set<String> archived = jdbcTemplate.query(COLUMNS, (rs, rowNum) -> rs.getString(1), "bookings_archive")
+                .stream()
+                .collect(Collectors.toSet());
+        List<String[]> live = jdbcTemplate.query(
+                COLUMNS, (rs, rowNum) -> new String[]{rs.getString(1), rs.getString(2)}, "bookings");
+        for (String[] column : live) {
+            if (!archived.contains(column[0])) {
+                // Nullable: rows archived before the column existed have no value for it.
+                jdbcTemplate.execute("ALTER TABLE bookings_archive ADD COLUMN IF NOT EXISTS \""
+                        + column[0] + "\" " + column[1]);
+                log.info("Added column {} to bookings_archive", column[0]);
+            }
+        }
+        List<String> columns = live.stream().map(column -> "\"" + column[0] + "\"").toList();
+        return String.join(", ", columns);
+    }
+
+    private void refreshAvailability() {
+        available = Boolean.TRUE.equals(jdbcTemplate.queryForObject(
+                "SELECT to_regclass('bookings_archive') IS NOT NULL " +
+                        "AND to_regclass('bookings_archive_counts') IS NOT NULL", Boolean.class));
+    }
+}
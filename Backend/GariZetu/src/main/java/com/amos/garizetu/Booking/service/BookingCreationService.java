@@ -0,0 +1,46 @@
+package com.amos.garizetu.Booking.service;
+
+import com.amos.garizetu.Booking.DTO.BookingCreateRequest;
+import com.amos.garizetu.Booking.DTO.BookingResponseDTO;
+import com.amos.garizetu.Booking.DTO.GroupBookingCreateRequest;
+import com.amos.garizetu.Booking.DTO.GroupBookingResponseDTO;
+import com.amos.garizetu.Booking.service.BookingIdempotencyService.IdempotentResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+
+/**
+ * Entry point for creating bookings; deliberately not transactional.
+ *
+ * The cars' in-process admission stripes are taken here, before the idempotency and booking
+ * transaction opens, and released after it commits or rolls back. Requests queued behind another
+ * booking for the same car therefore wait without holding a pooled connection; inside the
+ * transaction BookingService only adds the cross-instance advisory lock.
+ */
+@Service
+@RequiredArgsConstructor
+public class BookingCreationService {
+
+    private final BookingService bookingService;
+    private final BookingIdempotencyService bookingIdempotencyService;
+    private final CarBookingAdmission carBookingAdmission;
+
+    public IdempotentResponse<BookingResponseDTO> createBooking(String idempotencyKey, BookingCreateRequest request) {
+        try (CarBookingAdmission.Admission ignored = carBookingAdmission.acquire(request.getCarId())) {
+            return bookingIdempotencyService.execute(
+                    "create-booking", idempotencyKey, request, HttpStatus.CREATED, BookingResponseDTO.class,
+                    () -> bookingService.createBooking(request)
+            );
+        }
+    }
+
+    public IdempotentResponse<GroupBookingResponseDTO> createGroupBooking(
+            String idempotencyKey, GroupBookingCreateRequest request) {
+        try (CarBookingAdmission.Admission ignored = carBookingAdmission.acquireAll(request.getCarIds())) {
+            return bookingIdempotencyService.execute(
+                    "create-group-booking", idempotencyKey, request, HttpStatus.CREATED, GroupBookingResponseDTO.class,
+                    () -> bookingService.createGroupBooking(request)
+            );
+        }
+    }
+}
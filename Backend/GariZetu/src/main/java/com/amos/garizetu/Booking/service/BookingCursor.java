@@ -0,0 +1,44 @@
+package com.amos.garizetu.Booking.service;
+
+import com.amos.garizetu.Booking.exception.BookingValidationException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * Position in a (createdAt DESC, bookingId DESC) listing.
+ * Encoded as an opaque URL-safe token so clients cannot depend on its shape.
+ */
+record BookingCursor(LocalDateTime createdAt, Long bookingId) {
+
+    // Sorts after every real row, so the first page uses the same seek query as the rest.
+    static final BookingCursor START = new BookingCursor(LocalDateTime.of(9999, 12, 31, 23, 59), Long.MAX_VALUE);
+
+    private static final String SEPARATOR = "|";
+
+    static BookingCursor decode(String token) {
+        if (token == null || token.isBlank()) {
+            return START;
+        }
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int split = raw.lastIndexOf(SEPARATOR);
+            if (split <= 0) {
+                throw new BookingValidationException("Invalid pagination cursor");
+            }
+            return new BookingCursor(
+                    LocalDateTime.parse(raw.substring(0, split)),
+                    Long.parseLong(raw.substring(split + 1))
+            );
+        } catch (IllegalArgumentException | DateTimeParseException ex) {
+            throw new BookingValidationException("Invalid pagination cursor");
+        }
+    }
+
+    String encode() {
+        String raw = createdAt + SEPARATOR + bookingId;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+}
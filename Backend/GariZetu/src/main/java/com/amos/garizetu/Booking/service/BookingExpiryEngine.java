@@ -0,0 +1,169 @@
+package com.amos.garizetu.Booking.service;
+
+import com.amos.garizetu.Booking.event.BookingLifecycleEvent;
+import com.amos.garizetu.Booking.repository.BookingDeadlineView;
+import com.amos.garizetu.Booking.repository.BookingRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.DelayQueue;
+import java.util.concurrent.Delayed;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Expires pending-payment bookings exactly when their payment window closes.
+ *
+ * Deadlines sit in a DelayQueue fed by booking creation/payment events and rehydrated from the
+ * DB at startup (and by BookingExpiryScheduler as a backstop). A single worker thread takes each
+ * deadline as it falls due and expires that one booking, so request paths no longer run a
+ * table-wide UPDATE. Holds that lapsed while the app was down are expired by BookingExpirySweeper.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class BookingExpiryEngine {
+
+    private static final long RETRY_DELAY_MS = 30_000;
+
+    private final BookingRepository bookingRepository;
+    private final BookingService bookingService;
+    private final BookingExpirySweeper bookingExpirySweeper;
+
+    private final DelayQueue<ScheduledExpiry> queue = new DelayQueue<>();
+    // Latest deadline per booking; queue entries that no longer match are stale and skipped.
+    private final Map<Long, ScheduledExpiry> scheduled = new ConcurrentHashMap<>();
+    private volatile Thread worker;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        try {
+            // The backlog from downtime is cleared in chunks by whichever instance holds the sweep lease;
+            // only windows still open become single deadlines here.
+            bookingExpirySweeper.scheduledSweep();
+            rehydrateOpenWindows(LocalDateTime.now());
+        } catch (RuntimeException ex) {
+            log.warn("Could not load pending payment deadlines at startup: {}", ex.getMessage());
+        }
+
+        Thread thread = new Thread(this::runWorker, "booking-expiry");
+        thread.setDaemon(true);
+        worker = thread;
+        thread.start();
+    }
+
+    @PreDestroy
+    public void stop() {
+        Thread thread = worker;
+        worker = null;
+        if (thread != null) {
+            thread.interrupt();
+        }
+    }
+
+    /**
+     * Load every open payment window from the DB; overdue ones fire immediately.
+     */
+    public int rehydrate() {
+        List<BookingDeadlineView> deadlines = bookingRepository.findPendingPaymentDeadlines();
+        deadlines.forEach(deadline -> schedule(deadline.getBookingId(), deadline.getPaymentExpiresAt()));
+        log.debug("Expiry engine holds {} pending deadline(s) after rehydrate", scheduled.size());
+        return deadlines.size();
+    }
+
+    private void rehydrateOpenWindows(LocalDateTime now) {
+        List<BookingDeadlineView> deadlines = bookingRepository.findPendingPaymentDeadlines().stream()
+                .filter(deadline -> deadline.getPaymentExpiresAt().isAfter(now))
+                .toList();
+        deadlines.forEach(deadline -> schedule(deadline.getBookingId(), deadline.getPaymentExpiresAt()));
+        log.debug("Expiry engine holds {} pending deadline(s) after startup", scheduled.size());
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onBookingLifecycle(BookingLifecycleEvent event) {
+        if (event.bookingId() == null) {
+            return;
+        }
+
+        boolean awaitingPayment = BookingHoldRegistry.SOFT_LOCK_STATUSES.contains(event.bookingStatus())
+                && BookingHoldRegistry.SOFT_LOCK_PAYMENT_STATUSES.contains(event.paymentStatus())
+                && event.paymentExpiresAt() != null;
+
+        if (awaitingPayment) {
+            schedule(event.bookingId(), event.paymentExpiresAt());
+        } else {
+            scheduled.remove(event.bookingId());
+        }
+    }
+
+    public int pendingCount() {
+        return scheduled.size();
+    }
+
+    private void schedule(Long bookingId, LocalDateTime expiresAt) {
+        if (bookingId == null || expiresAt == null) {
+            return;
+        }
+        // Round up past sub-millisecond precision so the window has definitely closed when we fire.
+        long dueAtMillis = expiresAt.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli() + 1;
+        scheduleAt(bookingId, dueAtMillis);
+    }
+
+    private void scheduleAt(Long bookingId, long dueAtMillis) {
+        ScheduledExpiry expiry = new ScheduledExpiry(bookingId, dueAtMillis);
+        ScheduledExpiry previous = scheduled.put(bookingId, expiry);
+        if (!expiry.equals(previous)) {
+            queue.offer(expiry);
+        }
+    }
+
+    private void runWorker() {
+        while (worker == Thread.currentThread()) {
+            ScheduledExpiry expiry;
+            try {
+                expiry = queue.take();
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+
+            if (!scheduled.remove(expiry.bookingId(), expiry)) {
+                continue; // Superseded by a newer deadline or cleared by a lifecycle event.
+            }
+
+            try {
+                bookingService.expireIfPaymentWindowClosed(expiry.bookingId());
+            } catch (RuntimeException ex) {
+                log.warn("Could not expire booking {}; retrying in {} ms: {}",
+                        expiry.bookingId(), RETRY_DELAY_MS, ex.getMessage());
+                scheduleAt(expiry.bookingId(), System.currentTimeMillis() + RETRY_DELAY_MS);
+            }
+        }
+    }
+
+    private record ScheduledExpiry(Long bookingId, long dueAtMillis) implements Delayed {
+
+        @Override
+        public long getDelay(TimeUnit unit) {
+            return unit.convert(dueAtMillis - System.currentTimeMillis(), TimeUnit.MILLISECONDS);
+        }
+
+        @Override
+        public int compareTo(Delayed other) {
+            if (other instanceof ScheduledExpiry that) {
+                return Long.compare(dueAtMillis, that.dueAtMillis);
+            }
+            return Long.compare(getDelay(TimeUnit.MILLISECONDS), other.getDelay(TimeUnit.MILLISECONDS));
+        }
+    }
+}
@@ -5,18 +5,26 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
 
+/**
+ * Backstop for the expiry engine: periodically reloads open payment windows from the DB so
+ * deadlines created on another instance (or missed during a restart) still fire.
+ *
+ * Runs on every instance (not through ScheduledJobCoordinator): it only fills this instance's
+ * in-memory queue. The cluster-wide writes live in BookingExpirySweeper.
+ */
 @Component
 @RequiredArgsConstructor
 @Slf4j
 public class BookingExpiryScheduler {
 
-    private final BookingService bookingService;
+    private final BookingExpiryEngine bookingExpiryEngine;
 
-    @Scheduled(fixedDelayString = "${booking.expiry-scan-ms:60000}")
-    public void expirePendingBookings() {
-        int expiredCount = bookingService.expirePendingPaymentBookings();
-        if (expiredCount > 0) {
-            log.info("Scheduler expired {} pending-payment booking(s)", expiredCount);
-        }
+    @Scheduled(
+            fixedDelayString = "${booking.expiry-scan-ms:300000}",
+            initialDelayString = "${booking.expiry-scan-ms:300000}"
+    )
+    public void rehydrateExpiryDeadlines() {
+        int deadlines = bookingExpiryEngine.rehydrate();
+        log.debug("Expiry backstop reloaded {} open payment window(s)", deadlines);
     }
 }
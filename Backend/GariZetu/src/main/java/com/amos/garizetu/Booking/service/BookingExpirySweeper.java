@@ -0,0 +1,108 @@
+package com.amos.garizetu.Booking.service;
+
+import com.amos.garizetu.Scheduling.service.ScheduledJobCoordinator;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Expires lapsed payment holds in bounded chunks.
+ *
+ * The expiry engine handles holds one by one as they fall due; this sweep covers the backlog left
+ * by downtime, when thousands of windows may already be closed. Each chunk is claimed with
+ * FOR UPDATE SKIP LOCKED and committed in its own short transaction (BookingService call), so row
+ * locks never span the whole set and a payment in flight is skipped rather than blocked.
+ */
+@Component
+@Slf4j
+public class BookingExpirySweeper {
+
+    static final String JOB_NAME = "booking-expiry-sweep";
+
+    private final BookingService bookingService;
+    private final ScheduledJobCoordinator jobCoordinator;
+    private final int chunkSize;
+    private final int maxChunks;
+    private final Duration interval;
+
+    private final Timer sweepDuration;
+    private final DistributionSummary sweepRows;
+    private final Counter expired;
+
+    public BookingExpirySweeper(
+            BookingService bookingService,
+            ScheduledJobCoordinator jobCoordinator,
+            MeterRegistry meterRegistry,
+            @Value("${booking.expiry-sweep.chunk-size:200}") int chunkSize,
+            @Value("${booking.expiry-sweep.max-chunks:100}") int maxChunks,
+            @Value("${booking.expiry-sweep.interval-ms:60000}") long intervalMs
+    ) {
+        this.bookingService = bookingService;
+        this.jobCoordinator = jobCoordinator;
+        this.interval = Duration.ofMillis(intervalMs);
+        this.chunkSize = Math.max(1, chunkSize);
+        this.maxChunks = Math.max(1, maxChunks);
+
+        this.sweepDuration = Timer.builder("booking.expiry.sweep.duration")
+                .description("Time to expire every lapsed payment hold in one sweep")
+                .register(meterRegistry);
+        this.sweepRows = DistributionSummary.builder("booking.expiry.sweep.rows")
+                .description("Bookings expired per sweep")
+                .register(meterRegistry);
+        this.expired = Counter.builder("booking.expiry.swept")
+                .description("Bookings expired by the sweeper")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(
+            fixedDelayString = "${booking.expiry-sweep.interval-ms:60000}",
+            initialDelayString = "${booking.expiry-sweep.interval-ms:60000}"
+    )
+    public void scheduledSweep() {
+        // One instance sweeps for the cluster; the others would only contend for the same rows.
+        jobCoordinator.runExclusive(JOB_NAME, interval, this::sweep);
+    }
+
+    /**
+     * Expire every hold whose window closed before now, chunk by chunk. Stops at the first short
+     * chunk (nothing left that is not locked elsewhere) or after max-chunks, leaving the rest to the next run.
+     */
+    public int sweep() {
+        LocalDateTime asOf = LocalDateTime.now();
+        long started = System.nanoTime();
+        int total = 0;
+        int chunks = 0;
+
+        try {
+            while (chunks < maxChunks) {
+                int rows = bookingService.expireLapsedPaymentHolds(asOf, chunkSize);
+                chunks++;
+                total += rows;
+                expired.increment(rows);
+                if (rows < chunkSize) {
+                    break;
+                }
+            }
+        } catch (RuntimeException ex) {
+            // Committed chunks stay expired; the rest is retried by the next sweep.
+            log.warn("Expiry sweep stopped after {} booking(s): {}", total, ex.getMessage());
+        } finally {
+            sweepDuration.record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+            sweepRows.record(total);
+        }
+
+        if (total > 0) {
+            log.info("Expiry sweep expired {} lapsed hold(s) in {} chunk(s)", total, chunks);
+        }
+        return total;
+    }
+}
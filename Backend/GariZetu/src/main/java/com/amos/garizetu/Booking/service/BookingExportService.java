@@ -0,0 +1,172 @@
+package com.amos.garizetu.Booking.service;
+
+import com.amos.garizetu.Booking.DTO.BookingResponseDTO;
+import com.amos.garizetu.Booking.Enums.BookingExportFormat;
+import com.amos.garizetu.Booking.Enums.BookingStatus;
+import com.amos.garizetu.Booking.exception.BookingValidationException;
+import com.amos.garizetu.Booking.mapper.BookingMapper;
+import com.amos.garizetu.Booking.repository.BookingArchiveRepository;
+import com.amos.garizetu.Booking.repository.BookingListView;
+import com.amos.garizetu.Booking.repository.BookingRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.Locale;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+/**
+ * Streams booking exports straight from a DB cursor to the response.
+ *
+ * Rows are read through BookingRepository#streamViewsForExport and written one at a time, so heap use
+ * stays flat whatever the row count. Archived bookings follow the live ones (each part in bookingId
+ * order), read the same way from bookings_archive. The export runs on the async request thread, which
+ * is why it opens its own read-only transaction instead of relying on the caller's.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class BookingExportService {
+
+    private static final int FLUSH_EVERY_ROWS = 500;
+
+    private static final String[] CSV_HEADER = {
+            "bookingId", "carId", "registrationNumber", "carMake", "carModel",
+            "userId", "userName", "userEmail", "phoneNumber",
+            "pickupDate", "returnDate", "numberOfDays", "dailyPrice", "totalPrice",
+            "pickupLocation", "returnLocation", "specialRequests",
+            "bookingStatus", "paymentStatus", "paymentReference", "paymentMethod",
+            "createdAt", "updatedAt"
+    };
+
+    private final BookingRepository bookingRepository;
+    private final BookingArchiveRepository bookingArchiveRepository;
+    private final BookingArchiver bookingArchiver;
+    private final BookingMapper bookingMapper;
+    private final ObjectMapper objectMapper;
+    private final PlatformTransactionManager transactionManager;
+
+    public BookingExportFormat parseFormat(String format) {
+        if (format == null || format.isBlank()) {
+            return BookingExportFormat.CSV;
+        }
+        try {
+            return BookingExportFormat.valueOf(format.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException ex) {
+            throw new BookingValidationException("Unsupported export format: " + format + " (use csv or ndjson)");
+        }
+    }
+
+    /**
+     * Validate the filters now, while we can still answer 400, and return the body that streams later.
+     */
+    public StreamingResponseBody prepareExport(
+            BookingExportFormat format,
+            BookingStatus status,
+            LocalDate from,
+            LocalDate to
+    ) {
+        if (from != null && to != null && from.isAfter(to)) {
+            throw new BookingValidationException("Export 'from' date must be on or before 'to' date");
+        }
+
+        return outputStream -> {
+            Writer writer = new BufferedWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8));
+            long started = System.currentTimeMillis();
+            long rows = export(format, status, from, to, writer);
+            writer.flush();
+            log.info("Exported {} booking(s) as {} in {} ms", rows, format, System.currentTimeMillis() - started);
+        };
+    }
+
+    long export(BookingExportFormat format, BookingStatus status, LocalDate from, LocalDate to, Writer writer)
+            throws IOException {
+        if (format == BookingExportFormat.CSV) {
+            writeCsvRow(writer, CSV_HEADER);
+        }
+
+        TransactionTemplate readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+
+        try {
+            Long written = readOnly.execute(tx -> {
+                long[] count = {0};
+                Consumer<BookingListView> write = row -> {
+                    try {
+                        writeRow(format, bookingMapper.toResponseDTO(row), writer);
+                        if (++count[0] % FLUSH_EVERY_ROWS == 0) {
+                            writer.flush();
+                        }
+                    } catch (IOException ex) {
+                        throw new UncheckedIOException(ex);
+                    }
+                };
+                try (Stream<BookingListView> rows = bookingRepository.streamViewsForExport(status, from, to)) {
+                    rows.forEach(write);
+                }
+                if (bookingArchiver.isAvailable()
+                        && (status == null || BookingArchiver.ARCHIVED_STATUSES.contains(status.name()))) {
+                    bookingArchiveRepository.streamViewsForExport(status, from, to, write);
+                }
+                return count[0];
+            });
+            return written == null ? 0 : written;
+        } catch (UncheckedIOException ex) {
+            // Usually the client went away mid-download; the transaction has already rolled back.
+            throw ex.getCause();
+        }
+    }
+
+    private void writeRow(BookingExportFormat format, BookingResponseDTO dto, Writer writer) throws IOException {
+        if (format == BookingExportFormat.NDJSON) {
+            writer.write(objectMapper.writeValueAsString(dto));
+            writer.write('\n');
+            return;
+        }
+
+        writeCsvRow(writer, new Object[]{
+                dto.getBookingId(), dto.getCarId(), dto.getRegistrationNumber(), dto.getCarMake(), dto.getCarModel(),
+                dto.getUserId(), dto.getUserName(), dto.getUserEmail(), dto.getPhoneNumber(),
+                dto.getPickupDate(), dto.getReturnDate(), dto.getNumberOfDays(), dto.getDailyPrice(), dto.getTotalPrice(),
+                dto.getPickupLocation(), dto.getReturnLocation(), dto.getSpecialRequests(),
+                dto.getBookingStatus(), dto.getPaymentStatus(), dto.getPaymentReference(), dto.getPaymentMethod(),
+                dto.getCreatedAt(), dto.getUpdatedAt()
+        });
+    }
+
+    private static void writeCsvRow(Writer writer, Object[] values) throws IOException {
+        for (int i = 0; i < values.length; i++) {
+            if (i > 0) {
+                writer.write(',');
+            }
+            writer.write(csvCell(values[i]));
+        }
+        writer.write("\r\n");
+    }
+
+    static String csvCell(Object value) {
+        if (value == null) {
+            return "";
+        }
+        String text = value.toString();
+        // Customer-entered text must not be evaluated as a formula when opened in a spreadsheet.
+        if (value instanceof CharSequence && !text.isEmpty() && "=+-@".indexOf(text.charAt(0)) >= 0) {
+            text = "'" + text;
+        }
+        boolean needsQuotes = text.indexOf(',') >= 0 || text.indexOf('"') >= 0
+                || text.indexOf('\n') >= 0 || text.indexOf('\r') >= 0;
+        return needsQuotes ? '"' + text.replace("\"", "\"\"") + '"' : text;
+    }
+}
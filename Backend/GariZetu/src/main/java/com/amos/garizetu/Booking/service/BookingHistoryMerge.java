@@ -0,0 +1,78 @@
+package com.amos.garizetu.Booking.service;
+
+import com.amos.garizetu.Booking.repository.BookingListView;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.function.Function;
+import java.util.function.IntFunction;
+import java.util.function.LongSupplier;
+
+/**
+ * Reads live (bookings) and archived (bookings_archive) listing rows as one
+ * (createdAt DESC, bookingId DESC) listing.
+ *
+ * Both sources return rows in that order, so any page of the union lies within the first
+ * offset + size rows of each source: offset pages fetch that window from both and cut the page out
+ * of the merge; keyset pages ask both sources for the rows after the same cursor.
+ */
+final class BookingHistoryMerge {
+
+    static final Comparator<BookingListView> NEWEST_FIRST =
+            Comparator.comparing(BookingListView::getCreatedAt, Comparator.reverseOrder())
+                    .thenComparing(BookingListView::getBookingId, Comparator.reverseOrder());
+
+    private BookingHistoryMerge() {
+    }
+
+    /**
+     * @param live          page query over bookings; called with the caller's pageable or a (0, window) one
+     * @param archived      the first n archived rows in listing order
+     * @param archivedCount total archived rows matching the same filter
+     */
+    static Page<BookingListView> page(
+            Function<Pageable, Page<BookingListView>> live,
+            IntFunction<List<BookingListView>> archived,
+            LongSupplier archivedCount,
+            Pageable pageable
+    ) {
+        if (pageable.isUnpaged()) {
+            List<BookingListView> rows = newestFirst(
+                    live.apply(pageable).getContent(), archived.apply(Integer.MAX_VALUE), Integer.MAX_VALUE);
+            return new PageImpl<>(rows);
+        }
+
+        long archivedTotal = archivedCount.getAsLong();
+        if (archivedTotal == 0) {
+            return live.apply(pageable);
+        }
+
+        int window = Math.toIntExact(pageable.getOffset() + pageable.getPageSize());
+        Page<BookingListView> liveRows = live.apply(PageRequest.of(0, window));
+        List<BookingListView> merged = newestFirst(liveRows.getContent(), archived.apply(window), window);
+        int from = (int) Math.min(pageable.getOffset(), merged.size());
+        return new PageImpl<>(
+                new ArrayList<>(merged.subList(from, merged.size())),
+                pageable,
+                liveRows.getTotalElements() + archivedTotal);
+    }
+
+    /**
+     * Merge two lists already in listing order and keep the first limit rows.
+     */
+    static List<BookingListView> newestFirst(List<BookingListView> live, List<BookingListView> archived, int limit) {
+        if (archived.isEmpty()) {
+            return live.size() > limit ? live.subList(0, limit) : live;
+        }
+        List<BookingListView> merged = new ArrayList<>(live.size() + archived.size());
+        merged.addAll(live);
+        merged.addAll(archived);
+        merged.sort(NEWEST_FIRST);
+        return merged.size() > limit ? merged.subList(0, limit) : merged;
+    }
+}
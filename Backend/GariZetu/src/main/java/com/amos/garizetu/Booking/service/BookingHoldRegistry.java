@@ -0,0 +1,295 @@
+package com.amos.garizetu.Booking.service;
+
+import com.amos.garizetu.Booking.Enums.BookingStatus;
+import com.amos.garizetu.Booking.Enums.PaymentStatus;
+import com.amos.garizetu.Booking.event.BookingLifecycleEvent;
+import com.amos.garizetu.Booking.repository.BookingBlockView;
+import com.amos.garizetu.Booking.repository.BookingRepository;
+import com.amos.garizetu.Booking.service.CarAvailabilityIndex.BlockedInterval;
+import com.amos.garizetu.Booking.service.CarAvailabilityIndex.DayBits;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Checkout payment holds, per car, in memory.
+ *
+ * A hold is a PENDING_PAYMENT booking whose payment window is open (or whose payment is being
+ * settled); the booking row is its durable copy and the registry mirrors it after commit. Every read
+ * compares the hold's expiry with the caller's instant, so a car is free again the moment its window
+ * closes, before the expiry engine writes EXPIRED. Lapsed entries are purged in the background and the
+ * registry is periodically reloaded to pick up holds written by other instances.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class BookingHoldRegistry {
+
+    static final Set<BookingStatus> SOFT_LOCK_STATUSES = Set.of(
+            BookingStatus.PENDING_PAYMENT,
+            BookingStatus.PENDING // Legacy
+    );
+
+    static final Set<PaymentStatus> SOFT_LOCK_PAYMENT_STATUSES = Set.of(
+            PaymentStatus.UNPAID,
+            PaymentStatus.FAILED
+    );
+
+    private final BookingRepository bookingRepository;
+
+    // Immutable list per car, replaced on write; holds per car are few, so reads just scan it.
+    private final Map<Long, List<BlockedInterval>> holdsByCar = new ConcurrentHashMap<>();
+    private final Map<Long, Long> carIdByBookingId = new ConcurrentHashMap<>();
+    private volatile boolean loaded;
+
+    // ========== LOADING ==========
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        try {
+            rebuild();
+        } catch (RuntimeException ex) {
+            // Stay unloaded; the first lookup retries the load.
+            log.warn("Could not load payment holds at startup: {}", ex.getMessage());
+        }
+    }
+
+    @Scheduled(
+            fixedDelayString = "${booking.holds.reconcile-ms:300000}",
+            initialDelayString = "${booking.holds.reconcile-ms:300000}"
+    )
+    public void scheduledRebuild() {
+        rebuild();
+    }
+
+    public synchronized void rebuild() {
+        Map<Long, List<BlockedInterval>> byCar = new HashMap<>();
+        for (BookingBlockView view : bookingRepository.findOpenHoldViews(LocalDateTime.now())) {
+            BlockedInterval hold = toHold(view);
+            if (hold != null) {
+                byCar.computeIfAbsent(hold.carId(), ignored -> new ArrayList<>()).add(hold);
+            }
+        }
+
+        Map<Long, Long> nextCarIdByBookingId = new HashMap<>();
+        byCar.forEach((carId, holds) -> {
+            holdsByCar.put(carId, List.copyOf(holds));
+            holds.forEach(hold -> nextCarIdByBookingId.put(hold.bookingId(), carId));
+        });
+        holdsByCar.keySet().retainAll(byCar.keySet());
+        carIdByBookingId.putAll(nextCarIdByBookingId);
+        carIdByBookingId.keySet().retainAll(nextCarIdByBookingId.keySet());
+        loaded = true;
+
+        log.debug("Hold registry loaded {} open hold(s) across {} car(s)", nextCarIdByBookingId.size(), byCar.size());
+    }
+
+    public synchronized void reloadCar(Long carId) {
+        if (carId == null) {
+            return;
+        }
+        List<BlockedInterval> holds = bookingRepository.findOpenHoldViewsForCar(carId, LocalDateTime.now()).stream()
+                .map(BookingHoldRegistry::toHold)
+                .filter(hold -> hold != null)
+                .toList();
+
+        List<BlockedInterval> previous = holdsByCar.remove(carId);
+        if (previous != null) {
+            previous.forEach(hold -> carIdByBookingId.remove(hold.bookingId()));
+        }
+        if (!holds.isEmpty()) {
+            holdsByCar.put(carId, holds);
+            holds.forEach(hold -> carIdByBookingId.put(hold.bookingId(), carId));
+        }
+    }
+
+    // ========== MAINTENANCE ==========
+
+    // Applied before other after-commit listeners read the holds (waitlist promotion).
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    public void onBookingLifecycle(BookingLifecycleEvent event) {
+        if (!loaded || event.bookingId() == null) {
+            return;
+        }
+        BlockedInterval hold = isHold(event.bookingStatus(), event.paymentStatus(), event.paymentExpiresAt())
+                ? toHold(event)
+                : null;
+        if (hold != null) {
+            put(hold);
+        } else {
+            remove(event.bookingId());
+        }
+    }
+
+    /**
+     * Drop holds whose window closed; reads already ignore them, this only frees the memory.
+     */
+    @Scheduled(
+            fixedDelayString = "${booking.holds.purge-ms:60000}",
+            initialDelayString = "${booking.holds.purge-ms:60000}"
+    )
+    public synchronized void purgeLapsed() {
+        LocalDateTime now = LocalDateTime.now();
+        int purged = 0;
+        for (List<BlockedInterval> holds : List.copyOf(holdsByCar.values())) {
+            for (BlockedInterval hold : holds) {
+                if (!hold.isBlockingAt(now)) {
+                    remove(hold.bookingId());
+                    purged++;
+                }
+            }
+        }
+        if (purged > 0) {
+            log.debug("Purged {} lapsed payment hold(s)", purged);
+        }
+    }
+
+    private synchronized void put(BlockedInterval hold) {
+        Long previousCarId = carIdByBookingId.put(hold.bookingId(), hold.carId());
+        if (previousCarId != null && !previousCarId.equals(hold.carId())) {
+            holdsByCar.computeIfPresent(previousCarId, (carId, holds) -> without(holds, hold.bookingId()));
+        }
+        holdsByCar.compute(hold.carId(), (carId, holds) -> {
+            List<BlockedInterval> next = new ArrayList<>(holds == null ? List.of() : without(holds, hold.bookingId()));
+            next.add(hold);
+            return List.copyOf(next);
+        });
+    }
+
+    private synchronized void remove(Long bookingId) {
+        Long carId = carIdByBookingId.remove(bookingId);
+        if (carId != null) {
+            holdsByCar.computeIfPresent(carId, (id, holds) -> {
+                List<BlockedInterval> next = without(holds, bookingId);
+                return next.isEmpty() ? null : next;
+            });
+        }
+    }
+
+    private static List<BlockedInterval> without(List<BlockedInterval> holds, Long bookingId) {
+        return holds.stream().filter(hold -> !hold.bookingId().equals(bookingId)).toList();
+    }
+
+    // ========== QUERIES ==========
+
+    /**
+     * Holds still blocking at asOf, for one car.
+     */
+    public List<BlockedInterval> activeHolds(Long carId, LocalDateTime asOf) {
+        if (!loaded) {
+            synchronized (this) {
+                if (!loaded) {
+                    rebuild();
+                }
+            }
+        }
+        List<BlockedInterval> holds = carId == null ? null : holdsByCar.get(carId);
+        if (holds == null) {
+            return List.of();
+        }
+        return holds.stream().filter(hold -> hold.isBlockingAt(asOf)).toList();
+    }
+
+    /**
+     * Holds blocking [pickupDate, returnDate) for the car at asOf.
+     */
+    public List<BlockedInterval> findConflicts(Long carId, LocalDate pickupDate, LocalDate returnDate, LocalDateTime asOf) {
+        return activeHolds(carId, asOf).stream()
+                .filter(hold -> overlaps(hold, pickupDate, returnDate))
+                .toList();
+    }
+
+    /**
+     * Hold on the car that lapses first. A hold kept past its window by a settling payment has no
+     * known end, so it sorts after every open window and is only returned when nothing else holds.
+     */
+    public Optional<BlockedInterval> findSoonestExpiring(Long carId, LocalDateTime asOf) {
+        return activeHolds(carId, asOf).stream()
+                .min(Comparator.comparing(hold -> hold.openUntil(asOf),
+                        Comparator.nullsLast(Comparator.naturalOrder())));
+    }
+
+    /**
+     * Held days of the car in [first, last] (epoch days), skipping days in exclude.
+     */
+    List<LocalDate> heldDays(Long carId, long first, long last, LocalDateTime asOf, DayBits exclude) {
+        List<BlockedInterval> holds = activeHolds(carId, asOf);
+        if (holds.isEmpty()) {
+            return List.of();
+        }
+        return DayBits.of(holds).daysBetween(first, last, exclude);
+    }
+
+    public int holdCount() {
+        return carIdByBookingId.size();
+    }
+
+    // ========== HELPERS ==========
+
+    static boolean isHold(BookingStatus bookingStatus, PaymentStatus paymentStatus, LocalDateTime paymentExpiresAt) {
+        if (!SOFT_LOCK_STATUSES.contains(bookingStatus)) {
+            return false;
+        }
+        // A payment being settled holds the car past its window until the outcome is known.
+        return paymentStatus == PaymentStatus.PROCESSING
+                || (SOFT_LOCK_PAYMENT_STATUSES.contains(paymentStatus) && paymentExpiresAt != null);
+    }
+
+    static boolean overlaps(BlockedInterval interval, LocalDate from, LocalDate to) {
+        return interval.pickupDate().isBefore(to)
+                && (interval.returnDate() == null || interval.returnDate().isAfter(from));
+    }
+
+    private static BlockedInterval toHold(BookingBlockView view) {
+        if (view.getCarId() == null || view.getPickupDate() == null) {
+            return null;
+        }
+        return hold(view.getBookingId(), view.getCarId(), view.getPickupDate(), view.getReturnDate(),
+                view.getBookingStatus(), view.getPaymentStatus(), view.getPaymentExpiresAt());
+    }
+
+    private static BlockedInterval toHold(BookingLifecycleEvent event) {
+        if (event.carId() == null || event.pickupDate() == null) {
+            return null;
+        }
+        return hold(event.bookingId(), event.carId(), event.pickupDate(), event.returnDate(),
+                event.bookingStatus(), event.paymentStatus(), event.paymentExpiresAt());
+    }
+
+    private static BlockedInterval hold(
+            Long bookingId,
+            Long carId,
+            LocalDate pickupDate,
+            LocalDate returnDate,
+            BookingStatus bookingStatus,
+            PaymentStatus paymentStatus,
+            LocalDateTime paymentExpiresAt
+    ) {
+        boolean settling = paymentStatus == PaymentStatus.PROCESSING;
+        // A settling hold without a window still needs an expiry to count as a soft lock.
+        LocalDateTime expiresAt = paymentExpiresAt != null ? paymentExpiresAt : (settling ? LocalDateTime.MAX : null);
+        if (expiresAt == null) {
+            return null;
+        }
+        return new BlockedInterval(bookingId, carId, pickupDate, returnDate, bookingStatus, expiresAt, settling);
+    }
+}
@@ -0,0 +1,254 @@
+package com.amos.garizetu.Booking.service;
+
+import com.amos.garizetu.Booking.Entity.BookingIdempotencyRecord;
+import com.amos.garizetu.Booking.exception.BookingConflictException;
+import com.amos.garizetu.Booking.exception.BookingValidationException;
+import com.amos.garizetu.Booking.repository.BookingIdempotencyRepository;
+import com.amos.garizetu.Scheduling.service.ScheduledJobCoordinator;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Idempotency-Key support for booking writes that clients retry (create, simulate-payment).
+ *
+ * The first request runs the action and stores its response in the same transaction, so a booking
+ * is never committed without its key. Retries with the same key replay that response without calling
+ * BookingService again. Hot keys sit in a bounded LRU; the table covers restarts and other instances
+ * until the key expires (never before the payment window closes).
+ */
+@Service
+@Slf4j
+public class BookingIdempotencyService {
+
+    public static final String HEADER = "Idempotency-Key";
+    public static final String REPLAYED_HEADER = "Idempotent-Replayed";
+
+    private static final int MAX_KEY_LENGTH = 255;
+
+    private final BookingIdempotencyRepository idempotencyRepository;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate transactionTemplate;
+    private final ScheduledJobCoordinator jobCoordinator;
+    private final Duration purgeInterval;
+    private final long ttlMinutes;
+    private final Map<String, StoredResponse> cache;
+    private final Map<String, String> inFlight = new ConcurrentHashMap<>();
+
+    public BookingIdempotencyService(
+            BookingIdempotencyRepository idempotencyRepository,
+            ObjectMapper objectMapper,
+            PlatformTransactionManager transactionManager,
+            ScheduledJobCoordinator jobCoordinator,
+            @Value("${booking.idempotency.ttl-minutes:30}") long ttlMinutes,
+            @Value("${booking.payment-window-minutes:15}") long paymentWindowMinutes,
+            @Value("${booking.idempotency.cache-size:10000}") int cacheSize,
+            @Value("${booking.idempotency.purge-ms:900000}") long purgeMs
+    ) {
+        this.idempotencyRepository = idempotencyRepository;
+        this.objectMapper = objectMapper;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.jobCoordinator = jobCoordinator;
+        this.purgeInterval = Duration.ofMillis(purgeMs);
+        this.ttlMinutes = Math.max(ttlMinutes, paymentWindowMinutes);
+        int capacity = Math.max(1, cacheSize);
+        this.cache = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, StoredResponse> eldest) {
+                return size() > capacity;
+            }
+        };
+    }
+
+    /**
+     * Run action once per (operation, caller, key). Without a key the action simply runs.
+     *
+     * @param request body (and path ids) of the call; a reused key with a different request is rejected
+     */
+    public <T> IdempotentResponse<T> execute(
+            String operation,
+            String idempotencyKey,
+            Object request,
+            HttpStatus successStatus,
+            Class<T> responseType,
+            Supplier<T> action
+    ) {
+        if (idempotencyKey == null || idempotencyKey.isBlank()) {
+            return new IdempotentResponse<>(successStatus.value(), action.get(), false);
+        }
+
+        String key = idempotencyKey.trim();
+        if (key.length() > MAX_KEY_LENGTH) {
+            throw new BookingValidationException(HEADER + " must be at most " + MAX_KEY_LENGTH + " characters");
+        }
+
+        String scopeKey = operation + ":" + currentPrincipal() + ":" + key;
+        String requestHash = fingerprint(operation, request);
+
+        StoredResponse cached = cacheGet(scopeKey);
+        if (cached != null) {
+            return replay(cached, requestHash, responseType);
+        }
+
+        if (inFlight.putIfAbsent(scopeKey, requestHash) != null) {
+            throw new BookingConflictException("A request with this " + HEADER + " is still being processed");
+        }
+        try {
+            Optional<StoredResponse> persisted = loadPersisted(scopeKey);
+            if (persisted.isPresent()) {
+                cachePut(scopeKey, persisted.get());
+                return replay(persisted.get(), requestHash, responseType);
+            }
+
+            StoredResponse stored;
+            try {
+                stored = transactionTemplate.execute(tx -> runAndRecord(scopeKey, requestHash, successStatus, action));
+            } catch (DataIntegrityViolationException ex) {
+                // Another instance committed this key first; our attempt rolled back with the key insert.
+                StoredResponse winner = loadPersisted(scopeKey).orElseThrow(() -> ex);
+                cachePut(scopeKey, winner);
+                return replay(winner, requestHash, responseType);
+            }
+
+            cachePut(scopeKey, stored);
+            return new IdempotentResponse<>(stored.httpStatus(), read(stored.responseBody(), responseType), false);
+        } finally {
+            inFlight.remove(scopeKey);
+        }
+    }
+
+    @Scheduled(
+            fixedDelayString = "${booking.idempotency.purge-ms:900000}",
+            initialDelayString = "${booking.idempotency.purge-ms:900000}"
+    )
+    public void purgeExpired() {
+        LocalDateTime now = LocalDateTime.now();
+        // Expired rows are shared, so one instance deletes them; every instance trims its own cache.
+        jobCoordinator.runExclusive("booking-idempotency-purge", purgeInterval, () -> {
+            Integer removed = transactionTemplate.execute(tx -> idempotencyRepository.deleteExpired(now));
+            if (removed != null && removed > 0) {
+                log.info("Purged {} expired idempotency key(s)", removed);
+            }
+        });
+        synchronized (cache) {
+            cache.values().removeIf(stored -> !stored.expiresAt().isAfter(now));
+        }
+    }
+
+    private <T> StoredResponse runAndRecord(String scopeKey, String requestHash, HttpStatus status, Supplier<T> action) {
+        LocalDateTime now = LocalDateTime.now();
+        idempotencyRepository.deleteExpiredForScope(scopeKey, now);
+
+        T body = action.get();
+
+        BookingIdempotencyRecord record = new BookingIdempotencyRecord();
+        record.setScopeKey(scopeKey);
+        record.setRequestHash(requestHash);
+        record.setHttpStatus(status.value());
+        record.setResponseBody(write(body));
+        record.setCreatedAt(now);
+        record.setExpiresAt(now.plusMinutes(ttlMinutes));
+        // Flush so a concurrent duplicate fails here, inside the transaction that created the booking.
+        idempotencyRepository.saveAndFlush(record);
+
+        return StoredResponse.of(record);
+    }
+
+    private Optional<StoredResponse> loadPersisted(String scopeKey) {
+        return idempotencyRepository.findByScopeKeyAndExpiresAtAfter(scopeKey, LocalDateTime.now())
+                .map(StoredResponse::of);
+    }
+
+    private <T> IdempotentResponse<T> replay(StoredResponse stored, String requestHash, Class<T> responseType) {
+        if (!stored.requestHash().equals(requestHash)) {
+            throw new BookingValidationException(HEADER + " was already used for a different request");
+        }
+        return new IdempotentResponse<>(stored.httpStatus(), read(stored.responseBody(), responseType), true);
+    }
+
+    private StoredResponse cacheGet(String scopeKey) {
+        synchronized (cache) {
+            StoredResponse stored = cache.get(scopeKey);
+            if (stored != null && !stored.expiresAt().isAfter(LocalDateTime.now())) {
+                cache.remove(scopeKey);
+                return null;
+            }
+            return stored;
+        }
+    }
+
+    private void cachePut(String scopeKey, StoredResponse stored) {
+        synchronized (cache) {
+            cache.put(scopeKey, stored);
+        }
+    }
+
+    private static String currentPrincipal() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        return authentication == null ? "anonymous" : authentication.getName();
+    }
+
+    private String fingerprint(String operation, Object request) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            digest.update(operation.getBytes(StandardCharsets.UTF_8));
+            digest.update((byte) '\n');
+            digest.update(objectMapper.writeValueAsBytes(request));
+            return HexFormat.of().formatHex(digest.digest());
+        } catch (NoSuchAlgorithmException | JsonProcessingException ex) {
+            throw new IllegalStateException("Could not fingerprint idempotent request", ex);
+        }
+    }
+
+    private String write(Object body) {
+        try {
+            return objectMapper.writeValueAsString(body);
+        } catch (JsonProcessingException ex) {
+            throw new IllegalStateException("Could not store idempotent response", ex);
+        }
+    }
+
+    private <T> T read(String json, Class<T> type) {
+        try {
+            return objectMapper.readValue(json, type);
+        } catch (JsonProcessingException ex) {
+            throw new IllegalStateException("Could not read stored idempotent response", ex);
+        }
+    }
+
+    public record IdempotentResponse<T>(int httpStatus, T body, boolean replayed) {
+    }
+
+    private record StoredResponse(String requestHash, int httpStatus, String responseBody, LocalDateTime expiresAt) {
+
+        static StoredResponse of(BookingIdempotencyRecord record) {
+            return new StoredResponse(
+                    record.getRequestHash(),
+                    record.getHttpStatus(),
+                    record.getResponseBody(),
+                    record.getExpiresAt()
+            );
+        }
+    }
+}
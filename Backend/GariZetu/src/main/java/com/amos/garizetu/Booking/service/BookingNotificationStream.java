@@ -0,0 +1,405 @@
+package com.amos.garizetu.Booking.service;
+
+import com.amos.garizetu.Booking.DTO.BookingNotificationDTO;
+import com.amos.garizetu.Booking.DTO.BookingResponseDTO;
+import com.amos.garizetu.Booking.event.BookingLifecycleEvent;
+import com.amos.garizetu.Booking.mapper.BookingMapper;
+import com.amos.garizetu.Booking.repository.BookingRepository;
+import com.amos.garizetu.Booking.repository.BookingUnreadNotificationView;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArraySet;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Pushes admin booking notifications over Server-Sent Events.
+ *
+ * The unread set lives in memory: seeded once from the DB, then moved by committed lifecycle events,
+ * so connected dashboards and the unread count cost no queries while nothing happens. Recent events
+ * are kept in a small ring buffer and replayed to clients that reconnect with Last-Event-ID; a client
+ * whose id is too old (or from before a restart) gets a "resync" event and should reload the list.
+ *
+ * Only the buffer append happens under the monitor. Each dashboard has its own bounded outbox drained
+ * by its own sender task, so a slow client delays nobody else; one that falls max-pending events behind,
+ * or whose write has been stuck for send-timeout-ms, is disconnected and resumes via Last-Event-ID.
+ */
+@Component
+@Slf4j
+public class BookingNotificationStream {
+
+    static final String EVENT_NOTIFICATION = "booking-notification";
+    static final String EVENT_READ = "notification-read";
+    static final String EVENT_OVERDUE = "rental-overdue";
+    static final String EVENT_UNREAD_COUNT = "unread-count";
+    static final String EVENT_RESYNC = "resync";
+
+    private static final StreamEvent KEEPALIVE = new StreamEvent(0, null, null);
+
+    private final BookingRepository bookingRepository;
+    private final BookingMapper bookingMapper;
+    private final long emitterTimeoutMs;
+    private final int replayCapacity;
+    private final int maxPending;
+    private final long sendTimeoutNanos;
+
+    // Event ids are "<epoch>-<sequence>"; the epoch changes per process so stale ids are detectable.
+    private final String epoch = Long.toString(System.currentTimeMillis(), 36);
+    private final Set<Subscriber> subscribers = new CopyOnWriteArraySet<>();
+    private final Map<Long, LocalDateTime> unread = new ConcurrentHashMap<>();
+    private final Deque<StreamEvent> replay = new ArrayDeque<>();
+    // Fan-out happens off the committing thread so a slow dashboard never delays a booking request.
+    private final ExecutorService dispatcher = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "booking-notifications");
+        thread.setDaemon(true);
+        return thread;
+    });
+    // At most one task per connected dashboard; a write stuck on a dead socket only holds its own thread.
+    private final ExecutorService sender = Executors.newCachedThreadPool(runnable -> {
+        Thread thread = new Thread(runnable, "booking-notifications-send");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private long sequence;
+    private volatile boolean loaded;
+
+    public BookingNotificationStream(
+            BookingRepository bookingRepository,
+            BookingMapper bookingMapper,
+            @Value("${booking.notifications.sse-timeout-ms:1800000}") long emitterTimeoutMs,
+            @Value("${booking.notifications.replay-size:256}") int replayCapacity,
+            @Value("${booking.notifications.max-pending:64}") int maxPending,
+            @Value("${booking.notifications.send-timeout-ms:10000}") long sendTimeoutMs
+    ) {
+        this.bookingRepository = bookingRepository;
+        this.bookingMapper = bookingMapper;
+        this.emitterTimeoutMs = emitterTimeoutMs;
+        this.replayCapacity = Math.max(1, replayCapacity);
+        this.maxPending = Math.max(1, maxPending);
+        this.sendTimeoutNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(1, sendTimeoutMs));
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        try {
+            reload();
+        } catch (RuntimeException ex) {
+            log.warn("Could not load unread admin notifications at startup: {}", ex.getMessage());
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        dispatcher.shutdownNow();
+        sender.shutdownNow();
+        subscribers.forEach(subscriber -> subscriber.emitter.complete());
+        subscribers.clear();
+    }
+
+    /**
+     * Re-read the unread set to correct drift from writes this instance did not observe.
+     */
+    @Scheduled(
+            fixedDelayString = "${booking.notifications.reconcile-ms:300000}",
+            initialDelayString = "${booking.notifications.reconcile-ms:300000}"
+    )
+    public void scheduledReload() {
+        int before = unread.size();
+        reload();
+        if (unread.size() != before) {
+            dispatcher.execute(() -> broadcast(EVENT_UNREAD_COUNT, new BookingNotificationDTO(null, null, unread.size())));
+        }
+    }
+
+    public synchronized void reload() {
+        Map<Long, LocalDateTime> fresh = new HashMap<>();
+        for (BookingUnreadNotificationView row : bookingRepository.findUnreadAdminNotificationFlags()) {
+            fresh.put(row.getBookingId(), row.getAdminNotifiedAt());
+        }
+        unread.keySet().retainAll(fresh.keySet());
+        unread.putAll(fresh);
+        loaded = true;
+    }
+
+    public long unreadCount() {
+        if (!loaded) {
+            reload();
+        }
+        return unread.size();
+    }
+
+    /**
+     * Open a stream for one dashboard. The current unread count is sent first, then any buffered
+     * events after lastEventId.
+     */
+    public SseEmitter subscribe(String lastEventId) {
+        if (!loaded) {
+            reload();
+        }
+
+        SseEmitter emitter = newEmitter();
+        Subscriber subscriber = new Subscriber(emitter);
+        emitter.onCompletion(() -> close(subscriber));
+        emitter.onTimeout(() -> close(subscriber));
+        emitter.onError(ex -> close(subscriber));
+
+        // Holding the monitor keeps new events from slipping between the replay and registration;
+        // the events are only queued here, the subscriber's sender writes them.
+        synchronized (this) {
+            subscriber.prime(new StreamEvent(0, EVENT_UNREAD_COUNT, new BookingNotificationDTO(null, null, unread.size())));
+            replayAfter(lastEventId).forEach(subscriber::prime);
+            subscribers.add(subscriber);
+        }
+        subscriber.startDrain();
+        log.debug("Admin notification stream opened ({} connected)", subscribers.size());
+        return emitter;
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onBookingLifecycle(BookingLifecycleEvent event) {
+        if (!loaded || event.bookingId() == null) {
+            return;
+        }
+
+        Long bookingId = event.bookingId();
+        if (event.adminNotificationUnread()) {
+            LocalDateTime previous = unread.put(bookingId, event.adminNotifiedAt());
+            if (previous == null || !Objects.equals(previous, event.adminNotifiedAt())) {
+                dispatcher.execute(() -> publishBooking(EVENT_NOTIFICATION, bookingId));
+            }
+        } else if (unread.remove(bookingId) != null) {
+            dispatcher.execute(() -> broadcast(EVENT_READ, new BookingNotificationDTO(bookingId, null, unread.size())));
+        }
+    }
+
+    /**
+     * Alert dashboards that an active rental has passed its return date.
+     */
+    public void publishOverdue(Long bookingId) {
+        if (bookingId != null) {
+            dispatcher.execute(() -> publishBooking(EVENT_OVERDUE, bookingId));
+        }
+    }
+
+    @Scheduled(fixedRateString = "${booking.notifications.heartbeat-ms:25000}")
+    public void heartbeat() {
+        // Also how a client stuck with an idle stream gets its stalled write noticed.
+        deliver(KEEPALIVE);
+    }
+
+    public int connectedCount() {
+        return subscribers.size();
+    }
+
+    SseEmitter newEmitter() {
+        return new SseEmitter(emitterTimeoutMs);
+    }
+
+    private void publishBooking(String name, Long bookingId) {
+        BookingResponseDTO booking;
+        try {
+            booking = bookingRepository.findViewById(bookingId).map(bookingMapper::toResponseDTO).orElse(null);
+        } catch (RuntimeException ex) {
+            log.warn("Could not load booking {} for notification push: {}", bookingId, ex.getMessage());
+            booking = null;
+        }
+        broadcast(name, new BookingNotificationDTO(bookingId, booking, unread.size()));
+    }
+
+    private void broadcast(String name, BookingNotificationDTO payload) {
+        StreamEvent event;
+        synchronized (this) {
+            event = new StreamEvent(++sequence, name, payload);
+            replay.addLast(event);
+            while (replay.size() > replayCapacity) {
+                replay.removeFirst();
+            }
+        }
+        deliver(event);
+    }
+
+    private void deliver(StreamEvent event) {
+        for (Subscriber subscriber : subscribers) {
+            if (!subscriber.offer(event)) {
+                log.debug("Dropping admin notification stream that fell behind");
+                disconnect(subscriber);
+            }
+        }
+    }
+
+    // Buffered events after lastEventId, or a resync when they are no longer all buffered.
+    private List<StreamEvent> replayAfter(String lastEventId) {
+        if (lastEventId == null || lastEventId.isBlank()) {
+            return List.of();
+        }
+
+        long lastSequence = parseSequence(lastEventId);
+        long oldestBuffered = replay.isEmpty() ? sequence + 1 : replay.peekFirst().sequence();
+        if (lastSequence < 0 || lastSequence > sequence || lastSequence < oldestBuffered - 1) {
+            return List.of(new StreamEvent(0, EVENT_RESYNC, new BookingNotificationDTO(null, null, unread.size())));
+        }
+        return replay.stream().filter(event -> event.sequence() > lastSequence).toList();
+    }
+
+    private void close(Subscriber subscriber) {
+        subscribers.remove(subscriber);
+        subscriber.close();
+    }
+
+    // complete() waits for an in-flight write on the same emitter, so it runs off the calling thread.
+    private void disconnect(Subscriber subscriber) {
+        if (!subscribers.remove(subscriber)) {
+            return;
+        }
+        subscriber.close();
+        try {
+            sender.execute(subscriber.emitter::complete);
+        } catch (RejectedExecutionException ex) {
+            // Shutting down; shutdown() completes the remaining emitters.
+        }
+    }
+
+    private long parseSequence(String lastEventId) {
+        int dash = lastEventId.lastIndexOf('-');
+        if (dash <= 0 || !lastEventId.substring(0, dash).equals(epoch)) {
+            return -1;
+        }
+        try {
+            return Long.parseLong(lastEventId.substring(dash + 1));
+        } catch (NumberFormatException ex) {
+            return -1;
+        }
+    }
+
+    private SseEmitter.SseEventBuilder toSse(StreamEvent event) {
+        if (event.name() == null) {
+            return SseEmitter.event().comment("keepalive");
+        }
+        SseEmitter.SseEventBuilder builder = SseEmitter.event().name(event.name()).data(event.payload());
+        // Sequence 0: per-connection events (count, resync) that are not part of the replayable stream.
+        return event.sequence() > 0 ? builder.id(epoch + "-" + event.sequence()) : builder;
+    }
+
+    private record StreamEvent(long sequence, String name, BookingNotificationDTO payload) {
+    }
+
+    /**
+     * One dashboard connection: a bounded outbox and at most one sender task draining it in order.
+     */
+    private final class Subscriber {
+
+        private final SseEmitter emitter;
+        private final Deque<StreamEvent> outbox = new ArrayDeque<>();
+        // Highest stream sequence queued; skips an event both replayed at subscribe and broadcast.
+        private long lastQueued;
+        private boolean draining;
+        // System.nanoTime() when the in-flight write started, 0 while idle.
+        private long sendingSince;
+        private boolean closed;
+
+        private Subscriber(SseEmitter emitter) {
+            this.emitter = emitter;
+        }
+
+        // Initial count and replay: queued in full regardless of max-pending.
+        private synchronized void prime(StreamEvent event) {
+            lastQueued = Math.max(lastQueued, event.sequence());
+            outbox.addLast(event);
+        }
+
+        /**
+         * @return false when this subscriber is too far behind or stuck and should be dropped
+         */
+        private boolean offer(StreamEvent event) {
+            synchronized (this) {
+                if (closed) {
+                    return true;
+                }
+                if (event.sequence() > 0) {
+                    if (event.sequence() <= lastQueued) {
+                        return true;
+                    }
+                    lastQueued = event.sequence();
+                }
+                if (outbox.size() >= maxPending
+                        || (sendingSince != 0 && System.nanoTime() - sendingSince > sendTimeoutNanos)) {
+                    return false;
+                }
+                outbox.addLast(event);
+                if (draining) {
+                    return true;
+                }
+                draining = true;
+            }
+            submitDrain();
+            return true;
+        }
+
+        private void startDrain() {
+            synchronized (this) {
+                if (draining || outbox.isEmpty()) {
+                    return;
+                }
+                draining = true;
+            }
+            submitDrain();
+        }
+
+        private synchronized void close() {
+            closed = true;
+            outbox.clear();
+        }
+
+        private void submitDrain() {
+            try {
+                sender.execute(this::drain);
+            } catch (RejectedExecutionException ex) {
+                synchronized (this) {
+                    draining = false;
+                }
+            }
+        }
+
+        private void drain() {
+            while (true) {
+                StreamEvent event;
+                synchronized (this) {
+                    event = closed ? null : outbox.pollFirst();
+                    if (event == null) {
+                        draining = false;
+                        sendingSince = 0;
+                        return;
+                    }
+                    sendingSince = System.nanoTime();
+                }
+                try {
+                    emitter.send(toSse(event));
+                } catch (IOException | IllegalStateException ex) {
+                    disconnect(this);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,300 @@
+package com.amos.garizetu.Booking.service;
+
+import com.amos.garizetu.Booking.DTO.BookingQuoteDTO;
+import com.amos.garizetu.Booking.DTO.BookingQuoteRequest;
+import com.amos.garizetu.Booking.DTO.PricingRuleDTO;
+import com.amos.garizetu.Booking.DTO.PricingRuleRequest;
+import com.amos.garizetu.Booking.Entity.PricingRule;
+import com.amos.garizetu.Booking.Enums.PricingRuleType;
+import com.amos.garizetu.Booking.event.PricingChangedEvent;
+import com.amos.garizetu.Booking.exception.BookingConflictException;
+import com.amos.garizetu.Booking.exception.BookingNotFoundException;
+import com.amos.garizetu.Booking.exception.BookingValidationException;
+import com.amos.garizetu.Booking.repository.PricingRuleRepository;
+import com.amos.garizetu.Car.Entity.Car;
+import com.amos.garizetu.Car.Enums.CarStatus;
+import com.amos.garizetu.Repository.CarRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+/**
+ * Prices a car for a date range: daily price, weekend surcharge per Saturday/Sunday, then the
+ * highest duration tier (weekly, monthly) the rental reaches. createBooking charges exactly this.
+ *
+ * Each car's price and rules are compiled once into flat arrays and cached, so a quote on a warm
+ * car costs no query. Entries are evicted after commit when the car or the rules change, and expire
+ * after cache-ttl-ms to pick up changes made on other instances.
+ */
+@Service
+@Slf4j
+public class BookingPricingService {
+
+    private final CarRepository carRepository;
+    private final PricingRuleRepository pricingRuleRepository;
+    private final CarAvailabilityIndex carAvailabilityIndex;
+    private final ApplicationEventPublisher eventPublisher;
+    private final long cacheTtlMs;
+
+    private final Map<Long, CompiledPricing> compiled = new ConcurrentHashMap<>();
+
+    public BookingPricingService(
+            CarRepository carRepository,
+            PricingRuleRepository pricingRuleRepository,
+            CarAvailabilityIndex carAvailabilityIndex,
+            ApplicationEventPublisher eventPublisher,
+            @Value("${booking.pricing.cache-ttl-ms:300000}") long cacheTtlMs
+    ) {
+        this.carRepository = carRepository;
+        this.pricingRuleRepository = pricingRuleRepository;
+        this.carAvailabilityIndex = carAvailabilityIndex;
+        this.eventPublisher = eventPublisher;
+        this.cacheTtlMs = cacheTtlMs;
+    }
+
+    // ========== QUOTES ==========
+
+    /**
+     * Quote from cached pricing and the in-memory availability index; no transaction on a warm car.
+     */
+    public BookingQuoteDTO quote(BookingQuoteRequest request) {
+        validateQuoteDates(request.getPickupDate(), request.getReturnDate());
+
+        CompiledPricing pricing = compiled.get(request.getCarId());
+        if (pricing == null || pricing.isStale(System.currentTimeMillis(), cacheTtlMs)) {
+            Car car = carRepository.findById(request.getCarId())
+                    .orElseThrow(() -> new BookingNotFoundException("Car not found with ID: " + request.getCarId()));
+            pricing = compile(car);
+        }
+
+        boolean available = pricing.carStatus() != CarStatus.MAINTENANCE
+                && !carAvailabilityIndex.hasConflict(
+                        request.getCarId(), request.getPickupDate(), request.getReturnDate(), LocalDateTime.now());
+        return pricing.price(request.getPickupDate(), request.getReturnDate(), available);
+    }
+
+    /**
+     * Price used by createBooking. The car was just read in the booking transaction, so its daily
+     * price wins over a cached entry compiled from an older row.
+     */
+    public BookingQuoteDTO price(Car car, LocalDate pickupDate, LocalDate returnDate) {
+        CompiledPricing pricing = compiled.get(car.getCarId());
+        if (pricing == null
+                || pricing.isStale(System.currentTimeMillis(), cacheTtlMs)
+                || Double.compare(pricing.dailyPrice(), car.getDailyPrice()) != 0
+                || pricing.carStatus() != car.getCarStatus()) {
+            pricing = compile(car);
+        }
+        return pricing.price(pickupDate, returnDate, true);
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onPricingChanged(PricingChangedEvent event) {
+        if (event.carId() == null) {
+            compiled.clear();
+        } else {
+            compiled.remove(event.carId());
+        }
+    }
+
+    // ========== RULES ==========
+
+    @Transactional(readOnly = true)
+    public List<PricingRuleDTO> getPricingRules() {
+        return pricingRuleRepository.findAllByOrderByCarIdAscRuleTypeAscMinDaysAsc().stream()
+                .map(BookingPricingService::toDTO)
+                .toList();
+    }
+
+    @Transactional
+    public PricingRuleDTO createPricingRule(PricingRuleRequest request) {
+        Integer minDays = request.getMinDays();
+        if (request.getRuleType() == PricingRuleType.DURATION_TIER && minDays == null) {
+            throw new BookingValidationException("Duration tiers need minDays");
+        }
+        if (request.getRuleType() == PricingRuleType.WEEKEND && minDays != null) {
+            throw new BookingValidationException("Weekend rules do not take minDays");
+        }
+        if (request.getCarId() != null && !carRepository.existsById(request.getCarId())) {
+            throw new BookingNotFoundException("Car not found with ID: " + request.getCarId());
+        }
+
+        boolean duplicate = pricingRuleRepository.findApplicable(request.getCarId()).stream()
+                .anyMatch(rule -> Objects.equals(rule.getCarId(), request.getCarId())
+                        && rule.getRuleType() == request.getRuleType()
+                        && Objects.equals(rule.getMinDays(), minDays));
+        if (duplicate) {
+            throw new BookingConflictException("A matching pricing rule already exists; delete it first");
+        }
+
+        PricingRule rule = new PricingRule();
+        rule.setCarId(request.getCarId());
+        rule.setRuleType(request.getRuleType());
+        rule.setMinDays(minDays);
+        rule.setAdjustmentPercent(request.getAdjustmentPercent());
+        PricingRule saved = pricingRuleRepository.save(rule);
+
+        eventPublisher.publishEvent(new PricingChangedEvent(saved.getCarId()));
+        log.info("Pricing rule {} created: {} {}% for {}", saved.getPricingRuleId(), saved.getRuleType(),
+                saved.getAdjustmentPercent(), saved.getCarId() == null ? "fleet" : "car " + saved.getCarId());
+        return toDTO(saved);
+    }
+
+    @Transactional
+    public void deletePricingRule(Long pricingRuleId) {
+        PricingRule rule = pricingRuleRepository.findById(pricingRuleId)
+                .orElseThrow(() -> new BookingNotFoundException("Pricing rule not found with ID: " + pricingRuleId));
+        pricingRuleRepository.delete(rule);
+        eventPublisher.publishEvent(new PricingChangedEvent(rule.getCarId()));
+        log.info("Pricing rule {} deleted", pricingRuleId);
+    }
+
+    // ========== COMPILATION ==========
+
+    private CompiledPricing compile(Car car) {
+        List<PricingRule> rules = pricingRuleRepository.findApplicable(car.getCarId());
+
+        List<PricingRule> tiers = pick(rules, car.getCarId(), PricingRuleType.DURATION_TIER);
+        tiers.sort(Comparator.comparing(PricingRule::getMinDays).reversed());
+        int[] tierMinDays = new int[tiers.size()];
+        double[] tierPercents = new double[tiers.size()];
+        for (int i = 0; i < tiers.size(); i++) {
+            tierMinDays[i] = tiers.get(i).getMinDays();
+            tierPercents[i] = tiers.get(i).getAdjustmentPercent();
+        }
+
+        double weekendPercent = pick(rules, car.getCarId(), PricingRuleType.WEEKEND).stream()
+                .mapToDouble(PricingRule::getAdjustmentPercent)
+                .findFirst()
+                .orElse(0);
+
+        CompiledPricing pricing = new CompiledPricing(
+                car.getCarId(),
+                car.getDailyPrice(),
+                car.getCarStatus(),
+                tierMinDays,
+                tierPercents,
+                weekendPercent,
+                System.currentTimeMillis()
+        );
+        compiled.put(car.getCarId(), pricing);
+        return pricing;
+    }
+
+    // The car's own rules of a type replace the fleet rules of that type.
+    private static List<PricingRule> pick(List<PricingRule> rules, Long carId, PricingRuleType type) {
+        List<PricingRule> own = rules.stream()
+                .filter(rule -> rule.getRuleType() == type && carId.equals(rule.getCarId()))
+                .collect(Collectors.toCollection(ArrayList::new));
+        if (!own.isEmpty()) {
+            return own;
+        }
+        return rules.stream()
+                .filter(rule -> rule.getRuleType() == type && rule.getCarId() == null)
+                .collect(Collectors.toCollection(ArrayList::new));
+    }
+
+    private static void validateQuoteDates(LocalDate pickupDate, LocalDate returnDate) {
+        if (pickupDate.isBefore(LocalDate.now())) {
+            throw new BookingValidationException("Pickup date cannot be in the past");
+        }
+        if (!returnDate.isAfter(pickupDate)) {
+            throw new BookingValidationException("Return date must be after pickup date");
+        }
+    }
+
+    private static PricingRuleDTO toDTO(PricingRule rule) {
+        return new PricingRuleDTO(
+                rule.getPricingRuleId(),
+                rule.getCarId(),
+                rule.getRuleType(),
+                rule.getMinDays(),
+                rule.getAdjustmentPercent(),
+                rule.getCreatedAt()
+        );
+    }
+
+    /**
+     * Immutable pricing for one car; tiers are sorted by minDays, largest first.
+     */
+    record CompiledPricing(
+            Long carId,
+            double dailyPrice,
+            CarStatus carStatus,
+            int[] tierMinDays,
+            double[] tierPercents,
+            double weekendPercent,
+            long compiledAtMillis
+    ) {
+
+        boolean isStale(long nowMillis, long ttlMillis) {
+            return nowMillis - compiledAtMillis > ttlMillis;
+        }
+
+        BookingQuoteDTO price(LocalDate pickupDate, LocalDate returnDate, boolean available) {
+            long days = ChronoUnit.DAYS.between(pickupDate, returnDate);
+            long weekendDays = weekendDays(pickupDate, days);
+
+            double base = days * dailyPrice;
+            double weekendAdjustment = weekendDays * dailyPrice * weekendPercent / 100;
+
+            Integer tierDays = null;
+            double durationAdjustment = 0;
+            for (int i = 0; i < tierMinDays.length; i++) {
+                if (days >= tierMinDays[i]) {
+                    tierDays = tierMinDays[i];
+                    durationAdjustment = (base + weekendAdjustment) * tierPercents[i] / 100;
+                    break;
+                }
+            }
+
+            return new BookingQuoteDTO(
+                    carId,
+                    pickupDate,
+                    returnDate,
+                    days,
+                    weekendDays,
+                    dailyPrice,
+                    round(base),
+                    round(weekendAdjustment),
+                    round(durationAdjustment),
+                    tierDays,
+                    round(base + weekendAdjustment + durationAdjustment),
+                    available
+            );
+        }
+
+        // Saturdays and Sundays in [from, from + days): two per full week plus the leftover days.
+        static long weekendDays(LocalDate from, long days) {
+            long count = (days / 7) * 2;
+            DayOfWeek day = from.getDayOfWeek();
+            for (long i = 0; i < days % 7; i++) {
+                if (day == DayOfWeek.SATURDAY || day == DayOfWeek.SUNDAY) {
+                    count++;
+                }
+                day = day.plus(1);
+            }
+            return count;
+        }
+
+        private static double round(double amount) {
+            return Math.round(amount * 100) / 100.0;
+        }
+    }
+}
@@ -0,0 +1,91 @@
+package com.amos.garizetu.Booking.service;
+
+import com.amos.garizetu.Scheduling.service.ScheduledJobCoordinator;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Expression indexes behind admin booking search, which JPA annotations cannot declare.
+ *
+ * Prefix (text_pattern_ops) indexes are always built; trigram GIN indexes are added when the
+ * pg_trgm extension is available, and switch the search to substring matching. Builds run
+ * CONCURRENTLY so a large table stays writable, once per cluster under a coordinator lease.
+ */
+@Component
+@Slf4j
+public class BookingSearchIndexes {
+
+    static final String INDEX_JOB = "booking-search-indexes";
+
+    // Must match the expressions in BookingSearchRepository, or the planner will not use the indexes.
+    private static final List<String> PREFIX_INDEXES = List.of(
+            "CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_cars_registration_prefix " +
+                    "ON cars (lower(registration_number) text_pattern_ops)",
+            "CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_users_email_prefix " +
+                    "ON users (lower(email) text_pattern_ops)",
+            "CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_users_phone_digits_prefix " +
+                    "ON users (regexp_replace(phone_number, '[^0-9]', '', 'g') text_pattern_ops)"
+    );
+
+    private static final List<String> TRIGRAM_INDEXES = List.of(
+            "CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_cars_registration_trgm " +
+                    "ON cars USING gin (lower(registration_number) gin_trgm_ops)",
+            "CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_users_email_trgm " +
+                    "ON users USING gin (lower(email) gin_trgm_ops)",
+            "CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_users_phone_digits_trgm " +
+                    "ON users USING gin (regexp_replace(phone_number, '[^0-9]', '', 'g') gin_trgm_ops)"
+    );
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ScheduledJobCoordinator jobCoordinator;
+    private final boolean enabled;
+    private volatile boolean trigramAvailable;
+
+    public BookingSearchIndexes(
+            JdbcTemplate jdbcTemplate,
+            ScheduledJobCoordinator jobCoordinator,
+            @Value("${booking.search.create-indexes:true}") boolean enabled
+    ) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.jobCoordinator = jobCoordinator;
+        this.enabled = enabled;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        try {
+            if (enabled) {
+                jobCoordinator.runExclusive(INDEX_JOB, Duration.ofMinutes(30), this::createIndexes);
+            }
+            // Another instance may have built them; the search only needs to know pg_trgm is there.
+            trigramAvailable = Boolean.TRUE.equals(jdbcTemplate.queryForObject(
+                    "SELECT EXISTS (SELECT 1 FROM pg_extension WHERE extname = 'pg_trgm')", Boolean.class));
+        } catch (RuntimeException ex) {
+            log.warn("Could not prepare booking search indexes: {}", ex.getMessage());
+        }
+        log.info("Booking search uses {} matching", trigramAvailable ? "trigram" : "prefix");
+    }
+
+    public boolean isTrigramAvailable() {
+        return trigramAvailable;
+    }
+
+    void createIndexes() {
+        PREFIX_INDEXES.forEach(jdbcTemplate::execute);
+        try {
+            jdbcTemplate.execute("CREATE EXTENSION IF NOT EXISTS pg_trgm");
+        } catch (DataAccessException ex) {
+            log.warn("pg_trgm unavailable, booking search falls back to prefix matching: {}", ex.getMessage());
+            return;
+        }
+        TRIGRAM_INDEXES.forEach(jdbcTemplate::execute);
+    }
+}
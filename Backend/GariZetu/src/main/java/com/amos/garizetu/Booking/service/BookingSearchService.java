@@ -0,0 +1,96 @@
+package com.amos.garizetu.Booking.service;
+
+import com.amos.garizetu.Booking.DTO.BookingResponseDTO;
+import com.amos.garizetu.Booking.DTO.BookingSearchPageDTO;
+import com.amos.garizetu.Booking.exception.BookingValidationException;
+import com.amos.garizetu.Booking.mapper.BookingMapper;
+import com.amos.garizetu.Booking.repository.BookingArchiveRepository;
+import com.amos.garizetu.Booking.repository.BookingListView;
+import com.amos.garizetu.Booking.repository.BookingRepository;
+import com.amos.garizetu.Booking.repository.BookingSearchRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Admin lookup of bookings by payment reference, car registration, customer email or phone.
+ *
+ * Two queries per page: the ranked id search, then the list projection for those ids (plus one on
+ * bookings_archive for ids that are no longer live). Pages stop at MAX_RESULTS; past that the term is
+ * too broad to be a lookup.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class BookingSearchService {
+
+    static final int MIN_TERM_LENGTH = 2;
+    static final int MAX_TERM_LENGTH = 100;
+    static final int MAX_RESULTS = 1000;
+
+    private final BookingSearchRepository bookingSearchRepository;
+    private final BookingRepository bookingRepository;
+    private final BookingArchiveRepository bookingArchiveRepository;
+    private final BookingArchiver bookingArchiver;
+    private final BookingSearchIndexes bookingSearchIndexes;
+    private final BookingMapper bookingMapper;
+
+    @Transactional(readOnly = true)
+    public BookingSearchPageDTO search(String query, int page, int size) {
+        String term = normalize(query);
+        long offset = (long) page * size;
+        if (offset + size > MAX_RESULTS) {
+            throw new BookingValidationException("Search results stop at " + MAX_RESULTS + "; refine the query");
+        }
+
+        // One extra row tells whether another page exists without counting the matches.
+        boolean archive = bookingArchiver.isAvailable();
+        List<Long> ids = bookingSearchRepository.search(
+                term, digitsOf(term), bookingSearchIndexes.isTrigramAvailable(), archive, size + 1, (int) offset);
+        boolean hasNext = ids.size() > size;
+        List<Long> pageIds = hasNext ? ids.subList(0, size) : ids;
+
+        List<BookingResponseDTO> content = List.of();
+        if (!pageIds.isEmpty()) {
+            Map<Long, BookingListView> rows = bookingRepository.findViewsByIds(pageIds).stream()
+                    .collect(Collectors.toMap(BookingListView::getBookingId, Function.identity()));
+            List<Long> archivedIds = pageIds.stream().filter(id -> !rows.containsKey(id)).toList();
+            if (archive && !archivedIds.isEmpty()) {
+                bookingArchiveRepository.findViewsByIds(archivedIds)
+                        .forEach(row -> rows.put(row.getBookingId(), row));
+            }
+            content = pageIds.stream()
+                    .map(rows::get)
+                    .filter(row -> row != null)
+                    .map(bookingMapper::toResponseDTO)
+                    .toList();
+        }
+        return new BookingSearchPageDTO(query.trim(), content, page, size, hasNext);
+    }
+
+    static String normalize(String query) {
+        String term = query == null ? "" : query.trim().toLowerCase(Locale.ROOT);
+        if (term.length() < MIN_TERM_LENGTH || term.length() > MAX_TERM_LENGTH) {
+            throw new BookingValidationException(
+                    "Search query must be between " + MIN_TERM_LENGTH + " and " + MAX_TERM_LENGTH + " characters");
+        }
+        return term;
+    }
+
+    /**
+     * Digits of a phone-like term ("+254 712-345" -> "254712345"); empty when the term is not one,
+     * so emails and plates with a few digits do not also scan phone numbers.
+     */
+    static String digitsOf(String term) {
+        String digits = term.replaceAll("[^0-9]", "");
+        boolean phoneLike = term.matches("[0-9+()\\-\\s.]+");
+        return phoneLike && digits.length() >= 3 ? digits : "";
+    }
+}
@@ -1,18 +1,34 @@
 package com.amos.garizetu.Booking.service;
 
+import com.amos.garizetu.Booking.DTO.BookingBulkTransitionRequest;
+import com.amos.garizetu.Booking.DTO.BookingBulkTransitionResultDTO;
 import com.amos.garizetu.Booking.DTO.BookingCreateRequest;
+import com.amos.garizetu.Booking.DTO.BookingCursorPageDTO;
 import com.amos.garizetu.Booking.DTO.BookingPaymentSimulationRequest;
 import com.amos.garizetu.Booking.DTO.BookingResponseDTO;
 import com.amos.garizetu.Booking.DTO.BookingStatsDTO;
 import com.amos.garizetu.Booking.DTO.BookingUpdateDTO;
+import com.amos.garizetu.Booking.DTO.GroupBookingCreateRequest;
+import com.amos.garizetu.Booking.DTO.GroupBookingResponseDTO;
 import com.amos.garizetu.Booking.Entity.Booking;
+import com.amos.garizetu.Booking.Entity.BookingWaitlistEntry;
+import com.amos.garizetu.Booking.Entity.PaymentAttemptRecord;
 import com.amos.garizetu.Booking.Enums.BookingStatus;
 import com.amos.garizetu.Booking.Enums.PaymentStatus;
+import com.amos.garizetu.Booking.event.BookingLifecycleEvent;
+import com.amos.garizetu.Booking.event.PaymentAttemptAcceptedEvent;
 import com.amos.garizetu.Booking.exception.BookingConflictException;
 import com.amos.garizetu.Booking.exception.BookingNotFoundException;
 import com.amos.garizetu.Booking.exception.BookingValidationException;
 import com.amos.garizetu.Booking.mapper.BookingMapper;
+import com.amos.garizetu.Booking.payment.PaymentAttempt;
+import com.amos.garizetu.Booking.payment.PaymentGatewayResult;
+import com.amos.garizetu.Booking.repository.BookingArchiveRepository;
+import com.amos.garizetu.Booking.repository.BookingBatchWriter;
+import com.amos.garizetu.Booking.repository.BookingBlockView;
+import com.amos.garizetu.Booking.repository.BookingListView;
 import com.amos.garizetu.Booking.repository.BookingRepository;
+import com.amos.garizetu.Booking.repository.PaymentAttemptRecordRepository;
 import com.amos.garizetu.Car.Entity.Car;
 import com.amos.garizetu.Car.Enums.CarStatus;
 import com.amos.garizetu.Repository.CarRepository;
@@ -22,19 +38,32 @@ import com.amos.garizetu.util.SecurityUtils;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.security.access.AccessDeniedException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
 import java.util.Set;
+import java.util.TreeSet;
 import java.util.UUID;
+import java.util.function.Function;
+import java.util.function.IntFunction;
+import java.util.function.LongSupplier;
 import java.util.stream.Collectors;
 
 @Service
@@ -67,19 +96,32 @@ public class BookingService {
     );
 
     private final BookingRepository bookingRepository;
+    private final BookingBatchWriter bookingBatchWriter;
+    private final PaymentAttemptRecordRepository paymentAttemptRecordRepository;
+    private final BookingArchiveRepository bookingArchiveRepository;
+    private final BookingArchiver bookingArchiver;
     private final CarRepository carRepository;
     private final UserRepository userRepository;
     private final BookingMapper bookingMapper;
     private final SecurityUtils securityUtils;
+    private final CarAvailabilityIndex carAvailabilityIndex;
+    private final CarBookingAdmission carBookingAdmission;
+    private final BookingStatsTracker bookingStatsTracker;
+    private final CustomerBookingsCache customerBookingsCache;
+    private final BookingPricingService bookingPricingService;
+    private final OverdueRentalDetector overdueRentalDetector;
+    private final ApplicationEventPublisher eventPublisher;
+    private final PlatformTransactionManager transactionManager;
 
     @Value("${booking.payment-window-minutes:15}")
     private long paymentWindowMinutes;
 
+    @Value("${booking.group.max-cars:20}")
+    private int maxGroupCars;
+
     // ========== CREATE BOOKING ==========
 
     public BookingResponseDTO createBooking(BookingCreateRequest request) {
-        expirePendingPaymentBookings();
-
         Long authenticatedUserId = securityUtils.getAuthenticatedUserId();
         log.info("User {} creating booking for car {}", authenticatedUserId, request.getCarId());
 
@@ -96,14 +138,57 @@ public class BookingService {
 
         validateBookingDates(request.getPickupDate(), request.getReturnDate());
 
+        return bookingMapper.toResponseDTO(placeHold(car, user, request));
+    }
+
+    /**
+     * Place the payment hold for a promoted waitlist entry, in the caller's transaction.
+     * Throws BookingConflictException when the dates are still taken.
+     */
+    public Booking createWaitlistHold(BookingWaitlistEntry entry) {
+        Car car = carRepository.findById(entry.getCarId())
+                .orElseThrow(() -> new BookingNotFoundException("Car not found with ID: " + entry.getCarId()));
+        if (car.getCarStatus() == CarStatus.MAINTENANCE) {
+            throw new BookingConflictException("Car is currently under maintenance");
+        }
+        User user = userRepository.findById(entry.getUserId())
+                .orElseThrow(() -> new BookingNotFoundException("User not found with ID: " + entry.getUserId()));
+
+        validateBookingDates(entry.getPickupDate(), entry.getReturnDate());
+
+        BookingCreateRequest request = new BookingCreateRequest(
+                entry.getCarId(),
+                entry.getPickupDate(),
+                entry.getReturnDate(),
+                entry.getPickupLocation(),
+                entry.getReturnLocation(),
+                entry.getSpecialRequests()
+        );
+        return placeHold(car, user, request);
+    }
+
+    /**
+     * Whether the database has a booking or live hold blocking the car for the dates, for callers
+     * that got an index hit outside a booking transaction. A disagreeing index is reloaded.
+     */
+    @Transactional(readOnly = true)
+    public boolean isCarTaken(Long carId, LocalDate pickupDate, LocalDate returnDate) {
+        return !confirmConflicts(carId, pickupDate, returnDate, LocalDateTime.now()).isEmpty();
+    }
+
+    private Booking placeHold(Car car, User user, BookingCreateRequest request) {
+        // The caller holds the car's stripe (BookingCreationService, waitlist promotion); this adds the
+        // cross-instance lock, held until the transaction completes.
+        carBookingAdmission.admitForCurrentTransaction(car.getCarId());
+
         LocalDateTime now = LocalDateTime.now();
         checkCarAvailability(request.getCarId(), request.getPickupDate(), request.getReturnDate(), now);
 
         Booking booking = bookingMapper.toEntity(request, user, car);
 
-        long days = ChronoUnit.DAYS.between(request.getPickupDate(), request.getReturnDate());
+        // Same engine as POST /quote, so the customer is charged what they were quoted.
         booking.setDailyPrice(car.getDailyPrice());
-        booking.setTotalPrice(days * car.getDailyPrice());
+        booking.setTotalPrice(bookingPricingService.price(car, request.getPickupDate(), request.getReturnDate()).getTotalPrice());
         booking.setBookingStatus(BookingStatus.PENDING_PAYMENT);
         booking.setPaymentStatus(PaymentStatus.UNPAID);
         booking.setPaymentExpiresAt(now.plusMinutes(Math.max(1, paymentWindowMinutes)));
@@ -112,6 +197,7 @@ public class BookingService {
         booking.setAdminNotificationReadAt(null);
 
         Booking savedBooking = bookingRepository.save(booking);
+        publishLifecycle(savedBooking, null);
         log.info(
                 "Booking created with ID: {} - Status: {} - Payment expires at: {}",
                 savedBooking.getBookingId(),
@@ -119,7 +205,105 @@ public class BookingService {
                 savedBooking.getPaymentExpiresAt()
         );
 
-        return bookingMapper.toResponseDTO(savedBooking);
+        return savedBooking;
+    }
+
+    // ========== GROUP BOOKINGS ==========
+
+    /**
+     * Book several cars for the same dates, all or nothing. The cars are admitted in a fixed order,
+     * checked with one set-based conflict query and inserted in one JDBC batch; every booking gets
+     * the same group reference and payment window.
+     */
+    public GroupBookingResponseDTO createGroupBooking(GroupBookingCreateRequest request) {
+        Long authenticatedUserId = securityUtils.getAuthenticatedUserId();
+
+        List<Long> carIds = request.getCarIds().stream().distinct().sorted().toList();
+        if (carIds.size() != request.getCarIds().size()) {
+            throw new BookingValidationException("Each car can appear only once in a group booking");
+        }
+        if (carIds.size() > Math.max(1, maxGroupCars)) {
+            throw new BookingValidationException("A group booking can include at most " + maxGroupCars + " cars");
+        }
+        log.info("User {} creating group booking for cars {}", authenticatedUserId, carIds);
+
+        validateBookingDates(request.getPickupDate(), request.getReturnDate());
+
+        Map<Long, Car> cars = carRepository.findAllById(carIds).stream()
+                .collect(Collectors.toMap(Car::getCarId, Function.identity()));
+        List<Long> missing = carIds.stream().filter(carId -> !cars.containsKey(carId)).toList();
+        if (!missing.isEmpty()) {
+            throw new BookingNotFoundException("Cars not found with IDs: " + missing);
+        }
+        List<Long> inMaintenance = carIds.stream()
+                .filter(carId -> cars.get(carId).getCarStatus() == CarStatus.MAINTENANCE)
+                .toList();
+        if (!inMaintenance.isEmpty()) {
+            throw new BookingConflictException("Cars currently under maintenance: " + inMaintenance);
+        }
+
+        User user = userRepository.findById(authenticatedUserId)
+                .orElseThrow(() -> new BookingNotFoundException("User not found with ID: " + authenticatedUserId));
+
+        // Same admission as createBooking, for all cars at once and in a deadlock-free order; the
+        // stripes were taken by BookingCreationService before the transaction.
+        carBookingAdmission.admitAllForCurrentTransaction(carIds);
+
+        LocalDateTime now = LocalDateTime.now();
+        checkGroupAvailability(carIds, request.getPickupDate(), request.getReturnDate(), now);
+
+        String groupReference = "GRP-" + UUID.randomUUID().toString().substring(0, 8).toUpperCase(Locale.ROOT);
+        LocalDateTime paymentExpiresAt = now.plusMinutes(Math.max(1, paymentWindowMinutes));
+        List<Booking> bookings = new ArrayList<>(carIds.size());
+        for (Long carId : carIds) {
+            Car car = cars.get(carId);
+            BookingCreateRequest carRequest = new BookingCreateRequest(
+                    carId,
+                    request.getPickupDate(),
+                    request.getReturnDate(),
+                    request.getPickupLocation(),
+                    request.getReturnLocation(),
+                    request.getSpecialRequests()
+            );
+            Booking booking = bookingMapper.toEntity(carRequest, user, car);
+            booking.setDailyPrice(car.getDailyPrice());
+            booking.setTotalPrice(bookingPricingService.price(car, request.getPickupDate(), request.getReturnDate()).getTotalPrice());
+            booking.setBookingStatus(BookingStatus.PENDING_PAYMENT);
+            booking.setPaymentStatus(PaymentStatus.UNPAID);
+            booking.setPaymentExpiresAt(paymentExpiresAt);
+            booking.setAdminNotificationRead(true);
+            booking.setGroupReference(groupReference);
+            bookings.add(booking);
+        }
+
+        bookingBatchWriter.insertAll(bookings, now);
+        bookings.forEach(booking -> publishLifecycle(booking, null));
+        log.info("Group booking {} created: {} booking(s) - Payment expires at: {}",
+                groupReference, bookings.size(), paymentExpiresAt);
+
+        return toGroupResponse(groupReference, bookings);
+    }
+
+    @Transactional(readOnly = true)
+    public GroupBookingResponseDTO getGroupBooking(String groupReference) {
+        List<Booking> bookings = bookingRepository.findByGroupReferenceOrderByBookingIdAsc(groupReference);
+        if (bookings.isEmpty()) {
+            throw new BookingNotFoundException("Group booking not found: " + groupReference);
+        }
+        assertAdminOrBookingOwner(bookings.get(0), "view");
+        return toGroupResponse(groupReference, bookings);
+    }
+
+    private GroupBookingResponseDTO toGroupResponse(String groupReference, List<Booking> bookings) {
+        Booking first = bookings.get(0);
+        return new GroupBookingResponseDTO(
+                groupReference,
+                first.getPickupDate(),
+                first.getReturnDate(),
+                first.getPaymentExpiresAt(),
+                Math.round(bookings.stream().mapToDouble(Booking::getTotalPrice).sum() * 100) / 100.0,
+                bookings.stream().map(bookingMapper::toResponseDTO).toList()
+        );
     }
 
     // ========== RETRIEVE BOOKINGS ==========
@@ -135,11 +319,19 @@ public class BookingService {
         return getAllBookingsPage(status, Pageable.unpaged()).getContent();
     }
 
-    @Transactional(readOnly = true)
+    /**
+     * Served from CustomerBookingsCache; no transaction when the customer's list is warm. A miss
+     * loads inside its own read-only transaction (self-calls bypass the proxy).
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public List<BookingResponseDTO> getCustomerBookings() {
         Long userId = securityUtils.getAuthenticatedUserId();
         log.debug("Fetching bookings for user {}", userId);
-        return getCustomerBookingsPage(userId, Pageable.unpaged()).getContent();
+        return customerBookingsCache.get(userId, () -> {
+            TransactionTemplate readOnly = new TransactionTemplate(transactionManager);
+            readOnly.setReadOnly(true);
+            return readOnly.execute(tx -> getCustomerBookingsPage(userId, Pageable.unpaged()).getContent());
+        });
     }
 
     @Transactional(readOnly = true)
@@ -151,7 +343,11 @@ public class BookingService {
     @Transactional(readOnly = true)
     public BookingResponseDTO getBookingById(Long bookingId) {
         log.debug("Fetching booking {}", bookingId);
-        Booking booking = findBookingOrThrow(bookingId);
+        Optional<Booking> live = bookingRepository.findById(bookingId);
+        if (live.isEmpty()) {
+            return getArchivedBooking(bookingId);
+        }
+        Booking booking = live.get();
         validateBookingIntegrity(booking, "view booking");
         assertAdminOrBookingOwner(booking, "view");
         return bookingMapper.toResponseDTO(booking);
@@ -168,39 +364,88 @@ public class BookingService {
         return getAdminNotificationsPage(includeRead, Pageable.unpaged()).getContent();
     }
 
+    // List endpoints read BookingListView rows (one join, no entity hydration) and map them directly.
+    // Listings that can contain terminal bookings also read bookings_archive; notification queues do not.
+
     @Transactional(readOnly = true)
     public Page<BookingResponseDTO> getAllBookingsPage(BookingStatus status, Pageable pageable) {
-        Page<Booking> bookingsPage = status == null
-                ? bookingRepository.findAllByOrderByCreatedAtDesc(pageable)
-                : bookingRepository.findByBookingStatusOrderByCreatedAtDesc(status, pageable);
-        return bookingsPage.map(bookingMapper::toResponseDTO);
+        Function<Pageable, Page<BookingListView>> live = page -> status == null
+                ? bookingRepository.findAllViews(page)
+                : bookingRepository.findViewsByStatus(status, page);
+        if (!includesArchive(status)) {
+            return live.apply(withoutSort(pageable)).map(bookingMapper::toResponseDTO);
+        }
+        return withArchive(
+                live,
+                limit -> bookingArchiveRepository.findViews(status, limit),
+                () -> bookingArchiveRepository.countByStatus(status),
+                pageable);
     }
 
     @Transactional(readOnly = true)
     public Page<BookingResponseDTO> getCustomerBookingsPage(Long userId, Pageable pageable) {
-        return bookingRepository.findByUserUserIdOrderByCreatedAtDesc(userId, pageable)
-                .map(bookingMapper::toResponseDTO);
+        return withArchive(
+                page -> bookingRepository.findViewsByUser(userId, page),
+                limit -> bookingArchiveRepository.findViewsByUser(userId, limit),
+                () -> bookingArchiveRepository.countByUser(userId),
+                pageable);
     }
 
     @Transactional(readOnly = true)
     public Page<BookingResponseDTO> getCarBookingsPage(Long carId, Pageable pageable) {
-        return bookingRepository.findByCarCarIdOrderByCreatedAtDesc(carId, pageable)
-                .map(bookingMapper::toResponseDTO);
+        return withArchive(
+                page -> bookingRepository.findViewsByCar(carId, page),
+                limit -> bookingArchiveRepository.findViewsByCar(carId, limit),
+                () -> bookingArchiveRepository.countByCar(carId),
+                pageable);
     }
 
+    // Keyset pagination: the cursor is the last row of the previous page, so deep pages stay cheap.
+
     @Transactional(readOnly = true)
-    public Page<BookingResponseDTO> getAdminNotificationsPage(boolean includeRead, Pageable pageable) {
-        if (pageable.isUnpaged()) {
-            List<Booking> notifications = includeRead
-                    ? bookingRepository.findAllAdminNotifications()
-                    : bookingRepository.findUnreadAdminNotifications();
-            return new org.springframework.data.domain.PageImpl<>(
-                    notifications.stream().map(bookingMapper::toResponseDTO).toList()
-            );
+    public BookingCursorPageDTO getAllBookingsCursorPage(BookingStatus status, String cursor, int size) {
+        BookingCursor position = BookingCursor.decode(cursor);
+        Limit limit = Limit.of(size + 1);
+        List<BookingListView> rows = status == null
+                ? bookingRepository.findViewPageAfter(position.createdAt(), position.bookingId(), limit)
+                : bookingRepository.findViewPageByStatusAfter(status, position.createdAt(), position.bookingId(), limit);
+        if (includesArchive(status)) {
+            rows = BookingHistoryMerge.newestFirst(rows, bookingArchiveRepository.findViewPageAfter(
+                    status, position.createdAt(), position.bookingId(), size + 1), size + 1);
+        }
+        return toCursorPage(rows, size);
+    }
+
+    @Transactional(readOnly = true)
+    public BookingCursorPageDTO getCarBookingsCursorPage(Long carId, String cursor, int size) {
+        BookingCursor position = BookingCursor.decode(cursor);
+        List<BookingListView> rows = bookingRepository.findViewPageByCarAfter(
+                carId, position.createdAt(), position.bookingId(), Limit.of(size + 1));
+        if (bookingArchiver.isAvailable()) {
+            rows = BookingHistoryMerge.newestFirst(rows, bookingArchiveRepository.findViewPageByCarAfter(
+                    carId, position.createdAt(), position.bookingId(), size + 1), size + 1);
+        }
+        return toCursorPage(rows, size);
+    }
+
+    @Transactional(readOnly = true)
+    public BookingCursorPageDTO getCustomerBookingsCursorPage(String cursor, int size) {
+        Long userId = securityUtils.getAuthenticatedUserId();
+        BookingCursor position = BookingCursor.decode(cursor);
+        List<BookingListView> rows = bookingRepository.findViewPageByUserAfter(
+                userId, position.createdAt(), position.bookingId(), Limit.of(size + 1));
+        if (bookingArchiver.isAvailable()) {
+            rows = BookingHistoryMerge.newestFirst(rows, bookingArchiveRepository.findViewPageByUserAfter(
+                    userId, position.createdAt(), position.bookingId(), size + 1), size + 1);
         }
-        Page<Booking> notificationsPage = includeRead
-                ? bookingRepository.findAllAdminNotifications(pageable)
-                : bookingRepository.findUnreadAdminNotifications(pageable);
+        return toCursorPage(rows, size);
+    }
+
+    @Transactional(readOnly = true)
+    public Page<BookingResponseDTO> getAdminNotificationsPage(boolean includeRead, Pageable pageable) {
+        Page<BookingListView> notificationsPage = includeRead
+                ? bookingRepository.findAllAdminNotificationViews(withoutSort(pageable))
+                : bookingRepository.findUnreadAdminNotificationViews(withoutSort(pageable));
         return notificationsPage.map(bookingMapper::toResponseDTO);
     }
 
@@ -220,6 +465,7 @@ public class BookingService {
         }
 
         Booking savedBooking = bookingRepository.save(booking);
+        publishLifecycle(savedBooking, savedBooking.getBookingStatus());
         log.info("Marked admin notification as read for booking {}", bookingId);
 
         return bookingMapper.toResponseDTO(savedBooking);
@@ -228,30 +474,13 @@ public class BookingService {
     // ========== BOOKING MANAGEMENT ==========
 
     public BookingResponseDTO simulatePayment(Long bookingId, BookingPaymentSimulationRequest request) {
-        expirePendingPaymentBookings();
-
         Booking booking = findBookingOrThrow(bookingId);
         validateBookingIntegrity(booking, "process payment");
         assertAdminOrBookingOwner(booking, "simulate payment for");
 
-        if (TERMINAL_STATUSES.contains(booking.getBookingStatus())) {
-            throw new BookingConflictException("Cannot process payment for booking with status: " + booking.getBookingStatus());
-        }
-
-        if (!PENDING_PAYMENT_STATUSES.contains(booking.getBookingStatus())) {
-            throw new BookingConflictException("Only pending-payment bookings can process payment retries");
-        }
-
+        BookingStatus previousStatus = booking.getBookingStatus();
         LocalDateTime now = LocalDateTime.now();
-        if (hasPaymentWindowExpired(booking, now)) {
-            expireBooking(booking, now, "Payment window expired before payment completion");
-            bookingRepository.save(booking);
-            throw new BookingConflictException("Payment window has expired for this booking");
-        }
-
-        if (PAID_STATUSES.contains(booking.getPaymentStatus())) {
-            throw new BookingConflictException("Payment has already been completed for this booking");
-        }
+        assertPaymentCanStart(booking, now);
 
         boolean paymentSuccessful = request == null
                 || request.getPaymentSuccessful() == null
@@ -266,6 +495,7 @@ public class BookingService {
             booking.setBookingStatus(BookingStatus.PENDING_PAYMENT);
 
             Booking savedBooking = bookingRepository.save(booking);
+            publishLifecycle(savedBooking, previousStatus);
             log.warn(
                     "Payment failed for booking {}. Retry allowed until {}",
                     bookingId,
@@ -281,13 +511,103 @@ public class BookingService {
         booking.setAdminNotificationReadAt(null);
 
         Booking savedBooking = bookingRepository.save(booking);
+        publishLifecycle(savedBooking, previousStatus);
         log.info("Payment completed for booking {}. Booking confirmed.", bookingId);
 
         return bookingMapper.toResponseDTO(savedBooking);
     }
 
+    /**
+     * Accept a payment attempt for asynchronous settlement. The booking moves to PROCESSING (still
+     * holding the car), the attempt is stored alongside it and queued after commit;
+     * PaymentSettlementQueue confirms it.
+     */
+    public BookingResponseDTO submitPayment(Long bookingId, BookingPaymentSimulationRequest request) {
+        Booking booking = findBookingOrThrow(bookingId);
+        validateBookingIntegrity(booking, "process payment");
+        assertAdminOrBookingOwner(booking, "submit payment for");
+
+        BookingStatus previousStatus = booking.getBookingStatus();
+        LocalDateTime now = LocalDateTime.now();
+        assertPaymentCanStart(booking, now);
+
+        booking.setPaymentMethod(normalizePaymentMethod(request));
+        booking.setPaymentStatus(PaymentStatus.PROCESSING);
+
+        Booking savedBooking = bookingRepository.save(booking);
+        PaymentAttempt attempt = new PaymentAttempt(
+                savedBooking.getBookingId(),
+                savedBooking.getPaymentMethod(),
+                savedBooking.getTotalPrice(),
+                request != null ? request.getPaymentSuccessful() : null,
+                now
+        );
+        // Committed with PROCESSING so recovery can resume the attempt, requested outcome included.
+        paymentAttemptRecordRepository.save(PaymentAttemptRecord.accepted(attempt));
+        publishLifecycle(savedBooking, previousStatus);
+        eventPublisher.publishEvent(new PaymentAttemptAcceptedEvent(
+                attempt.bookingId(),
+                attempt.paymentMethod(),
+                attempt.amount(),
+                attempt.simulatedOutcome(),
+                attempt.acceptedAt()
+        ));
+        log.info("Payment attempt accepted for booking {}; awaiting settlement", bookingId);
+
+        return bookingMapper.toResponseDTO(savedBooking);
+    }
+
+    /**
+     * Apply a batch of gateway outcomes in one transaction. Bookings that are no longer PROCESSING
+     * (cancelled, already settled elsewhere) are skipped. Their attempt records are deleted in the
+     * same transaction, so a recorded outcome is replayed only if this apply rolls back.
+     *
+     * @return number of bookings settled
+     */
+    public int settlePayments(List<PaymentGatewayResult> results) {
+        if (results.isEmpty()) {
+            return 0;
+        }
+
+        Map<Long, PaymentGatewayResult> resultsByBookingId = results.stream()
+                .collect(Collectors.toMap(PaymentGatewayResult::bookingId, result -> result, (first, second) -> first));
+        LocalDateTime now = LocalDateTime.now();
+        int settled = 0;
+
+        for (Booking booking : bookingRepository.findAllById(resultsByBookingId.keySet())) {
+            if (booking.getPaymentStatus() != PaymentStatus.PROCESSING
+                    || !PENDING_PAYMENT_STATUSES.contains(booking.getBookingStatus())) {
+                log.warn("Skipping settlement for booking {} in status {}/{}",
+                        booking.getBookingId(), booking.getBookingStatus(), booking.getPaymentStatus());
+                continue;
+            }
+
+            PaymentGatewayResult result = resultsByBookingId.get(booking.getBookingId());
+            BookingStatus previousStatus = booking.getBookingStatus();
+            booking.setPaymentReference(result.paymentReference());
+            booking.setPaymentSimulatedAt(now);
+
+            if (result.successful()) {
+                booking.setPaymentStatus(PaymentStatus.PAID);
+                booking.setBookingStatus(BookingStatus.CONFIRMED);
+                booking.setAdminNotifiedAt(now);
+                booking.setAdminNotificationRead(false);
+                booking.setAdminNotificationReadAt(null);
+            } else {
+                // Back to awaiting payment; the expiry engine closes it if the window has already passed.
+                booking.setPaymentStatus(PaymentStatus.FAILED);
+                booking.setBookingStatus(BookingStatus.PENDING_PAYMENT);
+                log.warn("Payment failed for booking {}: {}", booking.getBookingId(), result.failureReason());
+            }
+
+            publishLifecycle(booking, previousStatus);
+            settled++;
+        }
+        paymentAttemptRecordRepository.deleteAllByIdInBatch(resultsByBookingId.keySet());
+        return settled;
+    }
+
     public BookingResponseDTO updateBooking(Long bookingId, BookingUpdateDTO updateDTO) {
-        expirePendingPaymentBookings();
         log.info("Updating booking {}", bookingId);
 
         Booking booking = findBookingOrThrow(bookingId);
@@ -295,6 +615,8 @@ public class BookingService {
         assertAdminOrBookingOwner(booking, "update");
 
         boolean isAdmin = securityUtils.hasRole("ADMIN");
+        BookingStatus previousStatus = booking.getBookingStatus();
+        expireIfWindowClosed(booking, LocalDateTime.now());
 
         if (!isAdmin && updateDTO.getBookingStatus() != null) {
             throw new AccessDeniedException("Only admins can change booking status");
@@ -318,23 +640,97 @@ public class BookingService {
         }
 
         Booking savedBooking = bookingRepository.save(booking);
+        publishLifecycle(savedBooking, previousStatus);
         log.info("Booking {} updated successfully", bookingId);
 
         return bookingMapper.toResponseDTO(savedBooking);
     }
 
+    /**
+     * Apply one admin status transition to many bookings in a single transaction.
+     *
+     * Bookings and their cars are loaded in one select and validated in memory with the same rules as
+     * updateBooking; rejected items stay unchanged and are reported instead of failing the request.
+     * Accepted changes are flushed together (JDBC batched) and publish their lifecycle events on commit.
+     */
+    public BookingBulkTransitionResultDTO bulkTransition(BookingBulkTransitionRequest request) {
+        BookingStatus targetStatus = request.getBookingStatus();
+        if (request.getRefundAmount() != null && request.getRefundAmount() < 0) {
+            throw new BookingValidationException("Refund amount cannot be negative");
+        }
+        List<Long> bookingIds = request.getBookingIds().stream().distinct().toList();
+        log.info("Admin bulk transition of {} booking(s) to {}", bookingIds.size(), targetStatus);
+
+        Map<Long, Booking> bookingsById = bookingRepository.findAllWithCarAndUserByIdIn(bookingIds).stream()
+                .collect(Collectors.toMap(Booking::getBookingId, booking -> booking));
+        LocalDateTime now = LocalDateTime.now();
+
+        List<BookingBulkTransitionResultDTO.Item> items = new ArrayList<>(bookingIds.size());
+        List<Booking> changed = new ArrayList<>();
+        List<BookingStatus> changedPreviousStatuses = new ArrayList<>();
+        int succeeded = 0;
+
+        for (Long bookingId : bookingIds) {
+            Booking booking = bookingsById.get(bookingId);
+            if (booking == null) {
+                items.add(new BookingBulkTransitionResultDTO.Item(
+                        bookingId, false, null, null, "Booking not found with ID: " + bookingId, null));
+                continue;
+            }
+
+            BookingStatus previousStatus = booking.getBookingStatus();
+            try {
+                validateBookingIntegrity(booking, "update booking");
+                // Expiry found here is a real state change and is kept even if the transition is rejected.
+                expireIfWindowClosed(booking, now);
+                applyAdminStatusTransition(booking, targetStatus, request.getRefundAmount());
+                items.add(new BookingBulkTransitionResultDTO.Item(
+                        bookingId, true, previousStatus, booking.getBookingStatus(), null, null));
+                succeeded++;
+            } catch (BookingConflictException | BookingValidationException ex) {
+                items.add(new BookingBulkTransitionResultDTO.Item(
+                        bookingId, false, previousStatus, booking.getBookingStatus(), ex.getMessage(), null));
+            }
+
+            if (booking.getBookingStatus() != previousStatus) {
+                changed.add(booking);
+                changedPreviousStatuses.add(previousStatus);
+            }
+        }
+
+        // Managed entities: one flush writes every changed booking and car in JDBC batches.
+        bookingRepository.flush();
+        for (int i = 0; i < changed.size(); i++) {
+            publishLifecycle(changed.get(i), changedPreviousStatuses.get(i));
+        }
+
+        for (BookingBulkTransitionResultDTO.Item item : items) {
+            Booking booking = bookingsById.get(item.getBookingId());
+            if (item.isSuccess() && booking != null) {
+                item.setBooking(bookingMapper.toResponseDTO(booking));
+            }
+        }
+
+        log.info("Bulk transition to {}: {} succeeded, {} failed", targetStatus, succeeded, items.size() - succeeded);
+        return new BookingBulkTransitionResultDTO(targetStatus, succeeded, items.size() - succeeded, items);
+    }
+
     public BookingResponseDTO cancelBooking(Long bookingId, String reason) {
-        expirePendingPaymentBookings();
         log.info("Cancelling booking {}", bookingId);
 
         Booking booking = findBookingOrThrow(bookingId);
         validateBookingIntegrity(booking, "cancel booking");
         assertAdminOrBookingOwner(booking, "cancel");
+        expireIfWindowClosed(booking, LocalDateTime.now());
 
         if (!booking.canBeCancelled()) {
             throw new BookingConflictException("Cannot cancel booking with status: " + booking.getBookingStatus());
         }
 
+        if (booking.getPaymentStatus() == PaymentStatus.PROCESSING) {
+            throw new BookingConflictException("Payment is being processed for this booking. Please try again shortly.");
+        }
+
         boolean isAdmin = securityUtils.hasRole("ADMIN");
         if (!isAdmin) {
             if (!booking.getPickupDate().isAfter(LocalDate.now())) {
@@ -346,6 +742,7 @@ public class BookingService {
             }
         }
 
+        BookingStatus previousStatus = booking.getBookingStatus();
         booking.setBookingStatus(BookingStatus.CANCELLED);
         if (booking.getCar() != null) {
             booking.getCar().setCarStatus(CarStatus.AVAILABLE);
@@ -361,6 +758,7 @@ public class BookingService {
         }
 
         Booking savedBooking = bookingRepository.save(booking);
+        publishLifecycle(savedBooking, previousStatus);
         log.warn("Booking {} cancelled. Reason: {}", bookingId, reason);
 
         return bookingMapper.toResponseDTO(savedBooking);
@@ -386,7 +784,8 @@ public class BookingService {
     }
 
     private void checkCarAvailability(Long carId, LocalDate pickupDate, LocalDate returnDate, LocalDateTime asOf) {
-        List<Booking> conflicts = bookingRepository.findConflictingBookings(carId, pickupDate, returnDate, asOf);
+        // Deciding guard inside the write transaction.
+        List<Booking> conflicts = confirmConflicts(carId, pickupDate, returnDate, asOf);
 
         if (!conflicts.isEmpty()) {
             String conflictSummary = conflicts.stream()
@@ -399,6 +798,43 @@ public class BookingService {
         log.debug("Car {} is available for {} to {}", carId, pickupDate, returnDate);
     }
 
+    private List<Booking> confirmConflicts(Long carId, LocalDate pickupDate, LocalDate returnDate, LocalDateTime asOf) {
+        // The index only reflects this instance's commits between rebuilds, so a hit is a hint, not a verdict.
+        boolean indexedConflict = !carAvailabilityIndex.findConflicts(carId, pickupDate, returnDate, asOf).isEmpty();
+        List<Booking> conflicts = bookingRepository.findConflictingBookings(carId, pickupDate, returnDate, asOf);
+
+        if (indexedConflict == conflicts.isEmpty()) {
+            // Another instance's write (or release) the index has not seen yet.
+            log.info("Availability index for car {} disagreed with the database; reloading", carId);
+            carAvailabilityIndex.reloadCar(carId);
+        }
+        return conflicts;
+    }
+
+    private void checkGroupAvailability(List<Long> carIds, LocalDate pickupDate, LocalDate returnDate, LocalDateTime asOf) {
+        Set<Long> indexed = new TreeSet<>();
+        for (Long carId : carIds) {
+            if (!carAvailabilityIndex.findConflicts(carId, pickupDate, returnDate, asOf).isEmpty()) {
+                indexed.add(carId);
+            }
+        }
+
+        // One set-based guard for the whole group instead of a conflict query per car; index hits are only hints.
+        Set<Long> taken = new TreeSet<>();
+        bookingRepository.findConflictingViewsForCars(carIds, pickupDate, returnDate, asOf)
+                .forEach(conflict -> taken.add(conflict.getCarId()));
+        for (Long carId : carIds) {
+            if (indexed.contains(carId) != taken.contains(carId)) {
+                carAvailabilityIndex.reloadCar(carId);
+            }
+        }
+
+        if (!taken.isEmpty()) {
+            log.warn("Group booking for {} to {} rejected. Unavailable cars: {}", pickupDate, returnDate, taken);
+            throw new BookingConflictException("Cars not available for the selected dates: " + taken);
+        }
+    }
+
     private void assertAdminOrBookingOwner(Booking booking, String action) {
         if (securityUtils.hasRole("ADMIN")) {
             return;
@@ -430,6 +866,12 @@ public class BookingService {
             throw new BookingConflictException("A paid booking cannot be marked as expired");
         }
 
+        // All checks run before the first change, so a rejected transition leaves the booking untouched.
+        if ((newStatus == BookingStatus.CANCELLED || newStatus == BookingStatus.REJECTED)
+                && refundAmount != null && refundAmount < 0) {
+            throw new BookingValidationException("Refund amount cannot be negative");
+        }
+
         booking.setBookingStatus(newStatus);
 
         if (newStatus == BookingStatus.ACTIVE && booking.getCar() != null) {
@@ -449,10 +891,6 @@ public class BookingService {
             if (PAID_STATUSES.contains(booking.getPaymentStatus())) {
                 booking.setPaymentStatus(PaymentStatus.REFUNDED);
             }
-
-            if (refundAmount != null && refundAmount < 0) {
-                throw new BookingValidationException("Refund amount cannot be negative");
-            }
         }
 
         if (newStatus == BookingStatus.CONFIRMED) {
@@ -504,6 +942,30 @@ public class BookingService {
         return updateDTO.getReturnLocation() != null || updateDTO.getSpecialRequests() != null;
     }
 
+    private void assertPaymentCanStart(Booking booking, LocalDateTime now) {
+        if (TERMINAL_STATUSES.contains(booking.getBookingStatus())) {
+            throw new BookingConflictException("Cannot process payment for booking with status: " + booking.getBookingStatus());
+        }
+
+        if (!PENDING_PAYMENT_STATUSES.contains(booking.getBookingStatus())) {
+            throw new BookingConflictException("Only pending-payment bookings can process payment retries");
+        }
+
+        if (booking.getPaymentStatus() == PaymentStatus.PROCESSING) {
+            throw new BookingConflictException("A payment for this booking is already being processed");
+        }
+
+        if (hasPaymentWindowExpired(booking, now)) {
+            expireBooking(booking, now, "Payment window expired before payment completion");
+            bookingRepository.save(booking);
+            throw new BookingConflictException("Payment window has expired for this booking");
+        }
+
+        if (PAID_STATUSES.contains(booking.getPaymentStatus())) {
+            throw new BookingConflictException("Payment has already been completed for this booking");
+        }
+    }
+
     private String normalizePaymentMethod(BookingPaymentSimulationRequest request) {
         String method = request != null ? request.getPaymentMethod() : null;
         if (method == null || method.isBlank()) {
@@ -527,10 +989,60 @@ public class BookingService {
                 .orElseThrow(() -> new BookingNotFoundException("Booking not found with ID: " + bookingId));
     }
 
-    private List<BookingResponseDTO> mapToDTOList(List<Booking> bookings) {
-        return bookings.stream()
+    private BookingResponseDTO getArchivedBooking(Long bookingId) {
+        BookingListView archived = bookingArchiver.isAvailable()
+                ? bookingArchiveRepository.findViewById(bookingId).orElse(null)
+                : null;
+        if (archived == null) {
+            throw new BookingNotFoundException("Booking not found with ID: " + bookingId);
+        }
+        if (!securityUtils.hasRole("ADMIN")
+                && !securityUtils.getAuthenticatedUserId().equals(archived.getUserId())) {
+            throw new AccessDeniedException("You are not allowed to view this booking");
+        }
+        return bookingMapper.toResponseDTO(archived);
+    }
+
+    private Page<BookingResponseDTO> withArchive(
+            Function<Pageable, Page<BookingListView>> live,
+            IntFunction<List<BookingListView>> archived,
+            LongSupplier archivedCount,
+            Pageable pageable
+    ) {
+        Page<BookingListView> rows = bookingArchiver.isAvailable()
+                ? BookingHistoryMerge.page(live, archived, archivedCount, withoutSort(pageable))
+                : live.apply(withoutSort(pageable));
+        return rows.map(bookingMapper::toResponseDTO);
+    }
+
+    // Only terminal bookings are archived, so other status filters never need the archive.
+    private boolean includesArchive(BookingStatus status) {
+        return bookingArchiver.isAvailable()
+                && (status == null || BookingArchiver.ARCHIVED_STATUSES.contains(status.name()));
+    }
+
+    // One extra row is fetched to learn whether another page exists without a COUNT query.
+    private BookingCursorPageDTO toCursorPage(List<BookingListView> rows, int size) {
+        boolean hasNext = rows.size() > size;
+        List<BookingListView> page = hasNext ? rows.subList(0, size) : rows;
+        String nextCursor = null;
+        if (hasNext) {
+            BookingListView last = page.get(page.size() - 1);
+            nextCursor = new BookingCursor(last.getCreatedAt(), last.getBookingId()).encode();
+        }
+        List<BookingResponseDTO> content = page.stream()
                 .map(bookingMapper::toResponseDTO)
                 .collect(Collectors.toList());
+        return new BookingCursorPageDTO(content, nextCursor, hasNext, page.size());
+    }
+
+    // The view queries carry their own ORDER BY; a sort on the Pageable would be appended after it.
+    private static Pageable withoutSort(Pageable pageable) {
+        return pageable.isPaged() ? PageRequest.of(pageable.getPageNumber(), pageable.getPageSize()) : pageable;
+    }
+
+    private void publishLifecycle(Booking booking, BookingStatus previousStatus) {
+        eventPublisher.publishEvent(BookingLifecycleEvent.of(booking, previousStatus));
     }
 
     private boolean hasPaymentWindowExpired(Booking booking, LocalDateTime now) {
@@ -570,13 +1082,60 @@ public class BookingService {
         }
     }
 
-    public int expirePendingPaymentBookings() {
+    /**
+     * Expire one booking whose payment window has closed. Called by BookingExpiryEngine when the
+     * deadline falls due; a no-op if the booking was paid, cancelled or already expired meanwhile.
+     */
+    public boolean expireIfPaymentWindowClosed(Long bookingId) {
+        Booking booking = bookingRepository.findById(bookingId).orElse(null);
+        if (booking == null || !BookingHoldRegistry.SOFT_LOCK_PAYMENT_STATUSES.contains(booking.getPaymentStatus())) {
+            return false;
+        }
+
         LocalDateTime now = LocalDateTime.now();
-        int expiredCount = bookingRepository.expirePendingPaymentBookings(now);
-        if (expiredCount > 0) {
-            log.info("Expired {} pending-payment booking(s)", expiredCount);
+        if (!hasPaymentWindowExpired(booking, now)) {
+            return false;
+        }
+
+        // Conditional UPDATE instead of save: a payment or cancellation committed since the read is
+        // not overwritten, the update just matches no row.
+        BookingStatus previousStatus = booking.getBookingStatus();
+        if (bookingRepository.expireLapsedPaymentHold(bookingId, previousStatus, now) == 0) {
+            return false;
+        }
+
+        Booking expired = bookingRepository.findById(bookingId).orElseThrow();
+        if (expired.getCar() != null) {
+            expired.getCar().setCarStatus(CarStatus.AVAILABLE);
+        }
+        log.warn("Booking {} marked EXPIRED. Reason: Payment window closed", bookingId);
+        publishLifecycle(expired, previousStatus);
+        return true;
+    }
+
+    /**
+     * Expire one chunk of lapsed payment holds and free their cars. Meant to be called once per
+     * transaction by BookingExpirySweeper; returns how many bookings were expired.
+     */
+    public int expireLapsedPaymentHolds(LocalDateTime asOf, int limit) {
+        List<Booking> lapsed = bookingRepository.lockLapsedPaymentHolds(asOf, Limit.of(limit));
+        for (Booking booking : lapsed) {
+            BookingStatus previousStatus = booking.getBookingStatus();
+            expireBooking(booking, asOf, "Payment window closed");
+            publishLifecycle(booking, previousStatus);
+        }
+        return lapsed.size();
+    }
+
+    /**
+     * Request paths only evaluate expiry for the booking they touch. The write is kept only if
+     * the request itself commits; otherwise the expiry engine persists it at the deadline.
+     */
+    private void expireIfWindowClosed(Booking booking, LocalDateTime now) {
+        if (hasPaymentWindowExpired(booking, now)
+                && BookingHoldRegistry.SOFT_LOCK_PAYMENT_STATUSES.contains(booking.getPaymentStatus())) {
+            expireBooking(booking, now, "Payment window expired before request");
         }
-        return expiredCount;
     }
 
     // ========== STATISTICS ==========
@@ -585,30 +1144,7 @@ public class BookingService {
     public BookingStatsDTO getBookingStats() {
         log.info("Calculating booking statistics");
 
-        long pendingCount = bookingRepository.countByBookingStatus(BookingStatus.PENDING_PAYMENT)
-                + bookingRepository.countByBookingStatus(BookingStatus.PENDING); // Legacy
-        long adminNotifiedCount = bookingRepository.countByBookingStatus(BookingStatus.ADMIN_NOTIFIED); // Legacy
-        long confirmedCount = bookingRepository.countByBookingStatus(BookingStatus.CONFIRMED);
-        long activeCount = bookingRepository.countByBookingStatus(BookingStatus.ACTIVE);
-        long completedCount = bookingRepository.countByBookingStatus(BookingStatus.COMPLETED);
-        long cancelledCount = bookingRepository.countByBookingStatus(BookingStatus.CANCELLED);
-        long expiredCount = bookingRepository.countByBookingStatus(BookingStatus.EXPIRED);
-        long rejectedCount = bookingRepository.countByBookingStatus(BookingStatus.REJECTED); // Legacy
-        long totalCount = bookingRepository.count();
-
-        long overdueCount = bookingRepository.countOverdueBookings(LocalDate.now());
-
-        return new BookingStatsDTO(
-                totalCount,
-                pendingCount,
-                adminNotifiedCount,
-                confirmedCount,
-                activeCount,
-                completedCount,
-                cancelledCount,
-                expiredCount,
-                rejectedCount,
-                overdueCount
-        );
+        // Status counts and the overdue count both come from memory; no query per request.
+        return bookingStatsTracker.snapshot(overdueRentalDetector.overdueCount());
     }
 }
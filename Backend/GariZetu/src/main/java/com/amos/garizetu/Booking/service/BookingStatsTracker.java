@@ -0,0 +1,117 @@
+package com.amos.garizetu.Booking.service;
+
+import com.amos.garizetu.Booking.DTO.BookingStatsDTO;
+import com.amos.garizetu.Booking.Enums.BookingStatus;
+import com.amos.garizetu.Booking.event.BookingLifecycleEvent;
+import com.amos.garizetu.Booking.repository.BookingRepository;
+import com.amos.garizetu.Booking.repository.BookingStatusCountView;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * In-memory booking counts per status for the admin dashboard.
+ *
+ * Seeded with a single GROUP BY query, then moved on every committed status transition.
+ * A periodic reconcile re-reads the GROUP BY to correct drift from writes this instance did
+ * not observe (other instances, manual SQL). Archived bookings still count: the archive's
+ * per-status totals are added to the hot table's, and moving a row keeps the sum unchanged.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class BookingStatsTracker {
+
+    private static final BookingStatus[] STATUSES = BookingStatus.values();
+
+    private final BookingRepository bookingRepository;
+    private final BookingArchiver bookingArchiver;
+
+    private final AtomicLongArray counts = new AtomicLongArray(STATUSES.length);
+    private volatile boolean loaded;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        try {
+            reconcile();
+        } catch (RuntimeException ex) {
+            log.warn("Could not seed booking stats at startup: {}", ex.getMessage());
+        }
+    }
+
+    @Scheduled(
+            fixedDelayString = "${booking.stats.reconcile-ms:300000}",
+            initialDelayString = "${booking.stats.reconcile-ms:300000}"
+    )
+    public void scheduledReconcile() {
+        reconcile();
+    }
+
+    public synchronized void reconcile() {
+        long[] fresh = new long[STATUSES.length];
+        for (BookingStatusCountView row : bookingRepository.countGroupedByStatus()) {
+            if (row.getBookingStatus() != null) {
+                fresh[row.getBookingStatus().ordinal()] = row.getTotal();
+            }
+        }
+        bookingArchiver.archivedCountsByStatus().forEach((status, total) -> fresh[status.ordinal()] += total);
+
+        boolean drifted = false;
+        for (int i = 0; i < fresh.length; i++) {
+            long previous = counts.getAndSet(i, fresh[i]);
+            drifted |= loaded && previous != fresh[i];
+        }
+        if (drifted) {
+            log.info("Booking stats reconciled against the database");
+        }
+        loaded = true;
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public synchronized void onBookingLifecycle(BookingLifecycleEvent event) {
+        if (!loaded || !event.isStatusChange()) {
+            return;
+        }
+        if (event.previousStatus() != null) {
+            counts.decrementAndGet(event.previousStatus().ordinal());
+        }
+        if (event.bookingStatus() != null) {
+            counts.incrementAndGet(event.bookingStatus().ordinal());
+        }
+    }
+
+    public BookingStatsDTO snapshot(long overdueCount) {
+        if (!loaded) {
+            reconcile();
+        }
+
+        long total = 0;
+        for (int i = 0; i < STATUSES.length; i++) {
+            total += counts.get(i);
+        }
+
+        return new BookingStatsDTO(
+                total,
+                count(BookingStatus.PENDING_PAYMENT) + count(BookingStatus.PENDING), // Legacy
+                count(BookingStatus.ADMIN_NOTIFIED), // Legacy
+                count(BookingStatus.CONFIRMED),
+                count(BookingStatus.ACTIVE),
+                count(BookingStatus.COMPLETED),
+                count(BookingStatus.CANCELLED),
+                count(BookingStatus.EXPIRED),
+                count(BookingStatus.REJECTED), // Legacy
+                overdueCount
+        );
+    }
+
+    private long count(BookingStatus status) {
+        return Math.max(0, counts.get(status.ordinal()));
+    }
+}
@@ -0,0 +1,315 @@
+package com.amos.garizetu.Booking.service;
+
+import com.amos.garizetu.Booking.DTO.BookingCreateRequest;
+import com.amos.garizetu.Booking.DTO.BookingWaitlistDTO;
+import com.amos.garizetu.Booking.Entity.Booking;
+import com.amos.garizetu.Booking.Entity.BookingWaitlistEntry;
+import com.amos.garizetu.Booking.Enums.BookingStatus;
+import com.amos.garizetu.Booking.Enums.WaitlistStatus;
+import com.amos.garizetu.Booking.event.BookingLifecycleEvent;
+import com.amos.garizetu.Booking.exception.BookingConflictException;
+import com.amos.garizetu.Booking.exception.BookingNotFoundException;
+import com.amos.garizetu.Booking.exception.BookingValidationException;
+import com.amos.garizetu.Booking.repository.BookingWaitlistRepository;
+import com.amos.garizetu.Car.Entity.Car;
+import com.amos.garizetu.Car.Enums.CarStatus;
+import com.amos.garizetu.Repository.CarRepository;
+import com.amos.garizetu.Scheduling.service.ScheduledJobCoordinator;
+import com.amos.garizetu.util.SecurityUtils;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * Per-car waitlist for customers who hit a taken date range.
+ *
+ * Instead of retrying createBooking until a checkout hold lapses, the customer joins the queue once.
+ * When a booking on the car is cancelled, expires or otherwise releases its dates, the lifecycle
+ * event triggers a promotion pass for that car: waiters are tried in join order and each one whose
+ * dates are now free gets a fresh PENDING_PAYMENT hold, in its own transaction, through the same
+ * admission lock and conflict check as createBooking. Nothing polls; the only background work is a
+ * startup pass and the nightly expiry of entries whose pickup date passed.
+ */
+@Service
+@Slf4j
+public class BookingWaitlistService {
+
+    static final String CLEANUP_JOB = "booking-waitlist-cleanup";
+
+    // Transitions that give a car's dates back.
+    private static final Set<BookingStatus> RELEASING_STATUSES = Set.of(
+            BookingStatus.CANCELLED,
+            BookingStatus.EXPIRED,
+            BookingStatus.REJECTED, // Legacy
+            BookingStatus.COMPLETED
+    );
+
+    private final BookingWaitlistRepository waitlistRepository;
+    private final BookingService bookingService;
+    private final CarRepository carRepository;
+    private final CarAvailabilityIndex carAvailabilityIndex;
+    private final CarBookingAdmission carBookingAdmission;
+    private final SecurityUtils securityUtils;
+    private final ScheduledJobCoordinator jobCoordinator;
+    private final TransactionTemplate promotionTransaction;
+    private final int maxEntriesPerUser;
+
+    // Cars with a promotion pass queued; a burst of releases on one car collapses into one pass.
+    private final Set<Long> pendingCars = ConcurrentHashMap.newKeySet();
+    // One pass at a time, off the committing thread, so a release never waits on promotions.
+    private final ExecutorService promoter = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "booking-waitlist");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public BookingWaitlistService(
+            BookingWaitlistRepository waitlistRepository,
+            BookingService bookingService,
+            CarRepository carRepository,
+            CarAvailabilityIndex carAvailabilityIndex,
+            CarBookingAdmission carBookingAdmission,
+            SecurityUtils securityUtils,
+            ScheduledJobCoordinator jobCoordinator,
+            PlatformTransactionManager transactionManager,
+            @Value("${booking.waitlist.max-entries-per-user:5}") int maxEntriesPerUser
+    ) {
+        this.waitlistRepository = waitlistRepository;
+        this.bookingService = bookingService;
+        this.carRepository = carRepository;
+        this.carAvailabilityIndex = carAvailabilityIndex;
+        this.carBookingAdmission = carBookingAdmission;
+        this.securityUtils = securityUtils;
+        this.jobCoordinator = jobCoordinator;
+        this.promotionTransaction = new TransactionTemplate(transactionManager);
+        this.promotionTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.maxEntriesPerUser = Math.max(1, maxEntriesPerUser);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        try {
+            // Releases that happened while the app was down left no event behind.
+            waitlistRepository.findCarIdsWithWaiters().forEach(this::requestPromotion);
+        } catch (RuntimeException ex) {
+            log.warn("Could not schedule waitlist promotions at startup: {}", ex.getMessage());
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        promoter.shutdownNow();
+    }
+
+    // ========== CUSTOMER ==========
+
+    @Transactional
+    public BookingWaitlistDTO join(BookingCreateRequest request) {
+        Long userId = securityUtils.getAuthenticatedUserId();
+
+        if (request.getPickupDate().isBefore(LocalDate.now())) {
+            throw new BookingValidationException("Pickup date cannot be in the past");
+        }
+        if (!request.getReturnDate().isAfter(request.getPickupDate())) {
+            throw new BookingValidationException("Return date must be after pickup date");
+        }
+
+        Car car = carRepository.findById(request.getCarId())
+                .orElseThrow(() -> new BookingNotFoundException("Car not found with ID: " + request.getCarId()));
+        if (car.getCarStatus() == CarStatus.MAINTENANCE) {
+            throw new BookingConflictException("Car is currently under maintenance");
+        }
+        if (!carAvailabilityIndex.hasConflict(car.getCarId(), request.getPickupDate(), request.getReturnDate(), LocalDateTime.now())) {
+            throw new BookingValidationException("Car is available for the selected dates; book it directly");
+        }
+        if (waitlistRepository.existsByUserIdAndCarIdAndPickupDateAndReturnDateAndStatus(
+                userId, car.getCarId(), request.getPickupDate(), request.getReturnDate(), WaitlistStatus.WAITING)) {
+            throw new BookingConflictException("You are already on the waitlist for this car and dates");
+        }
+        if (waitlistRepository.countByUserIdAndStatus(userId, WaitlistStatus.WAITING) >= maxEntriesPerUser) {
+            throw new BookingValidationException("You can wait for at most " + maxEntriesPerUser + " bookings at a time");
+        }
+
+        BookingWaitlistEntry entry = new BookingWaitlistEntry();
+        entry.setCarId(car.getCarId());
+        entry.setUserId(userId);
+        entry.setPickupDate(request.getPickupDate());
+        entry.setReturnDate(request.getReturnDate());
+        entry.setPickupLocation(request.getPickupLocation());
+        entry.setReturnLocation(request.getReturnLocation());
+        entry.setSpecialRequests(request.getSpecialRequests());
+        BookingWaitlistEntry saved = waitlistRepository.save(entry);
+
+        // The dates may have freed between the check above and this commit; a pass settles it.
+        Long carId = saved.getCarId();
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                requestPromotion(carId);
+            }
+        });
+
+        log.info("User {} joined the waitlist for car {} ({} to {}) as entry {}",
+                userId, carId, saved.getPickupDate(), saved.getReturnDate(), saved.getWaitlistEntryId());
+        return toDTO(saved);
+    }
+
+    @Transactional(readOnly = true)
+    public List<BookingWaitlistDTO> getMyEntries() {
+        Long userId = securityUtils.getAuthenticatedUserId();
+        return waitlistRepository.findByUserIdOrderByWaitlistEntryIdDesc(userId).stream()
+                .map(this::toDTO)
+                .toList();
+    }
+
+    @Transactional
+    public BookingWaitlistDTO leave(Long waitlistEntryId) {
+        BookingWaitlistEntry entry = waitlistRepository.findByIdForUpdate(waitlistEntryId)
+                .orElseThrow(() -> new BookingNotFoundException("Waitlist entry not found with ID: " + waitlistEntryId));
+        if (!securityUtils.hasRole("ADMIN") && !entry.getUserId().equals(securityUtils.getAuthenticatedUserId())) {
+            throw new AccessDeniedException("You are not allowed to leave this waitlist entry");
+        }
+        if (entry.getStatus() != WaitlistStatus.WAITING) {
+            throw new BookingValidationException("Waitlist entry is already " + entry.getStatus());
+        }
+        entry.setStatus(WaitlistStatus.CANCELLED);
+        log.info("Waitlist entry {} for car {} cancelled", waitlistEntryId, entry.getCarId());
+        return toDTO(entry);
+    }
+
+    // ========== PROMOTION ==========
+
+    // Runs after CarAvailabilityIndex and BookingHoldRegistry have applied the release, so the
+    // promoter, handed off from here, reads the updated timeline.
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    @Order(Ordered.LOWEST_PRECEDENCE)
+    public void onBookingLifecycle(BookingLifecycleEvent event) {
+        if (event.carId() != null && event.isStatusChange() && RELEASING_STATUSES.contains(event.bookingStatus())) {
+            requestPromotion(event.carId());
+        }
+    }
+
+    void requestPromotion(Long carId) {
+        if (!pendingCars.add(carId)) {
+            return;
+        }
+        try {
+            promoter.execute(() -> {
+                // Cleared before the pass so a release during it queues another.
+                pendingCars.remove(carId);
+                try {
+                    promoteWaiters(carId);
+                } catch (RuntimeException ex) {
+                    log.warn("Waitlist promotion for car {} failed: {}", carId, ex.getMessage());
+                }
+            });
+        } catch (RejectedExecutionException ex) {
+            pendingCars.remove(carId);
+        }
+    }
+
+    /**
+     * Try the car's waiters in join order; each one whose dates are free gets a hold.
+     *
+     * @return entries promoted in this pass
+     */
+    int promoteWaiters(Long carId) {
+        LocalDate today = LocalDate.now();
+        int promoted = 0;
+        for (BookingWaitlistEntry waiter : waitlistRepository.findByCarIdAndStatusOrderByWaitlistEntryIdAsc(carId, WaitlistStatus.WAITING)) {
+            if (waiter.getPickupDate().isBefore(today)) {
+                promotionTransaction.executeWithoutResult(tx -> expire(waiter.getWaitlistEntryId()));
+                continue;
+            }
+            // Free in memory goes straight to the (DB-checked) promotion; "taken" in memory may be another
+            // instance's release the index has not seen, so it is confirmed before the waiter is skipped.
+            if (carAvailabilityIndex.hasConflict(carId, waiter.getPickupDate(), waiter.getReturnDate(), LocalDateTime.now())
+                    && bookingService.isCarTaken(carId, waiter.getPickupDate(), waiter.getReturnDate())) {
+                continue;
+            }
+            // Stripe before the transaction, as for createBooking.
+            try (CarBookingAdmission.Admission ignored = carBookingAdmission.acquire(carId)) {
+                Long bookingId = promotionTransaction.execute(tx -> promote(waiter.getWaitlistEntryId()));
+                if (bookingId != null) {
+                    promoted++;
+                }
+            } catch (BookingConflictException | BookingValidationException | BookingNotFoundException ex) {
+                // Lost to a direct booking or the car went away; the entry stays queued.
+                log.debug("Waitlist entry {} not promoted: {}", waiter.getWaitlistEntryId(), ex.getMessage());
+            }
+        }
+        return promoted;
+    }
+
+    private Long promote(Long waitlistEntryId) {
+        BookingWaitlistEntry entry = waitlistRepository.findByIdForUpdate(waitlistEntryId).orElse(null);
+        if (entry == null || entry.getStatus() != WaitlistStatus.WAITING) {
+            return null; // Left the queue, or another instance promoted it.
+        }
+        Booking booking = bookingService.createWaitlistHold(entry);
+        entry.setStatus(WaitlistStatus.PROMOTED);
+        entry.setPromotedBookingId(booking.getBookingId());
+        log.info("Waitlist entry {} promoted to booking {} for user {}",
+                waitlistEntryId, booking.getBookingId(), entry.getUserId());
+        return booking.getBookingId();
+    }
+
+    private void expire(Long waitlistEntryId) {
+        waitlistRepository.findByIdForUpdate(waitlistEntryId)
+                .filter(entry -> entry.getStatus() == WaitlistStatus.WAITING)
+                .ifPresent(entry -> entry.setStatus(WaitlistStatus.EXPIRED));
+    }
+
+    // ========== MAINTENANCE ==========
+
+    @Scheduled(cron = "${booking.waitlist.cleanup-cron:0 15 0 * * *}")
+    public void nightlyCleanup() {
+        jobCoordinator.runExclusive(CLEANUP_JOB, Duration.ofDays(1), () -> {
+            Integer expired = promotionTransaction.execute(tx ->
+                    waitlistRepository.expireStale(LocalDate.now(), LocalDateTime.now()));
+            log.info("Expired {} waitlist entr(ies) past their pickup date", expired);
+        });
+    }
+
+    private BookingWaitlistDTO toDTO(BookingWaitlistEntry entry) {
+        Long position = entry.getStatus() == WaitlistStatus.WAITING
+                ? waitlistRepository.countByCarIdAndStatusAndWaitlistEntryIdLessThan(
+                        entry.getCarId(), WaitlistStatus.WAITING, entry.getWaitlistEntryId()) + 1
+                : null;
+        return new BookingWaitlistDTO(
+                entry.getWaitlistEntryId(),
+                entry.getCarId(),
+                entry.getPickupDate(),
+                entry.getReturnDate(),
+                entry.getStatus(),
+                position,
+                entry.getPromotedBookingId(),
+                entry.getCreatedAt()
+        );
+    }
+}
@@ -0,0 +1,468 @@
+package com.amos.garizetu.Booking.service;
+
+import com.amos.garizetu.Booking.Enums.BookingStatus;
+import com.amos.garizetu.Booking.event.BookingLifecycleEvent;
+import com.amos.garizetu.Booking.repository.BookingBlockView;
+import com.amos.garizetu.Booking.repository.BookingRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-memory per-car timeline of confirmed and active bookings, combined with the payment holds
+ * kept by BookingHoldRegistry so callers get one answer for "what blocks this car".
+ *
+ * Each car keeps its booked intervals sorted by pickup date, so overlap checks only visit
+ * intervals that start inside [pickup - longestSpan, return) instead of re-reading bookings.
+ * Holds live in the registry and stop blocking the moment their window closes.
+ *
+ * Each timeline also carries a day bitset (one bit per booked day) so a calendar for a
+ * date range is read by scanning bits rather than walking intervals.
+ *
+ * Timelines are immutable snapshots swapped on write: reads never lock, writes are serialized.
+ * The index is built from the DB at startup, follows BookingLifecycleEvents after commit and is
+ * periodically rebuilt to pick up writes it could not observe (bulk updates, other instances).
+ * BookingService still confirms "no conflict" answers against the DB inside its transaction.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class CarAvailabilityIndex {
+
+    static final Set<BookingStatus> BOOKED_STATUSES = Set.of(
+            BookingStatus.CONFIRMED,
+            BookingStatus.ADMIN_NOTIFIED, // Legacy
+            BookingStatus.ACTIVE
+    );
+
+    private final BookingRepository bookingRepository;
+    private final BookingHoldRegistry holdRegistry;
+
+    private final Map<Long, CarTimeline> timelines = new ConcurrentHashMap<>();
+    private final Map<Long, Long> carIdByBookingId = new ConcurrentHashMap<>();
+    private volatile boolean loaded;
+
+    // ========== LOADING ==========
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        try {
+            rebuild();
+        } catch (RuntimeException ex) {
+            // Stay unloaded; the first lookup retries the build.
+            log.warn("Could not build availability index at startup: {}", ex.getMessage());
+        }
+    }
+
+    @Scheduled(
+            fixedDelayString = "${booking.availability-index.rebuild-ms:3600000}",
+            initialDelayString = "${booking.availability-index.rebuild-ms:3600000}"
+    )
+    public void scheduledRebuild() {
+        rebuild();
+    }
+
+    public synchronized void rebuild() {
+        List<BookingBlockView> views = bookingRepository.findAllBookedBookingViews(LocalDate.now());
+
+        Map<Long, List<BlockedInterval>> byCar = new HashMap<>();
+        for (BookingBlockView view : views) {
+            BlockedInterval interval = toInterval(view);
+            if (interval != null) {
+                byCar.computeIfAbsent(interval.carId(), ignored -> new ArrayList<>()).add(interval);
+            }
+        }
+
+        // Swap per key instead of clearing first, so concurrent readers never see an empty fleet.
+        Map<Long, Long> nextCarIdByBookingId = new HashMap<>();
+        byCar.forEach((carId, intervals) -> {
+            timelines.put(carId, CarTimeline.of(intervals));
+            intervals.forEach(interval -> nextCarIdByBookingId.put(interval.bookingId(), carId));
+        });
+        timelines.keySet().retainAll(byCar.keySet());
+        carIdByBookingId.putAll(nextCarIdByBookingId);
+        carIdByBookingId.keySet().retainAll(nextCarIdByBookingId.keySet());
+        loaded = true;
+
+        log.info("Availability index rebuilt with {} booked booking(s) across {} car(s)", views.size(), byCar.size());
+    }
+
+    /**
+     * Re-read one car's bookings and holds, used when the DB guard finds a conflict the index missed.
+     */
+    public synchronized void reloadCar(Long carId) {
+        if (carId == null) {
+            return;
+        }
+        holdRegistry.reloadCar(carId);
+        List<BlockedInterval> intervals = bookingRepository
+                .findBookedBookingViewsForCar(carId, LocalDate.now())
+                .stream()
+                .map(CarAvailabilityIndex::toInterval)
+                .filter(interval -> interval != null)
+                .toList();
+
+        CarTimeline previous = timelines.remove(carId);
+        if (previous != null) {
+            previous.intervals().forEach(interval -> carIdByBookingId.remove(interval.bookingId()));
+        }
+        if (!intervals.isEmpty()) {
+            timelines.put(carId, CarTimeline.of(intervals));
+            intervals.forEach(interval -> carIdByBookingId.put(interval.bookingId(), carId));
+        }
+        log.debug("Availability index reloaded car {} with {} blocking booking(s)", carId, intervals.size());
+    }
+
+    // ========== MAINTENANCE ==========
+
+    // Applied before other after-commit listeners read the timeline (waitlist promotion).
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    public void onBookingLifecycle(BookingLifecycleEvent event) {
+        if (!loaded || event.bookingId() == null) {
+            return;
+        }
+
+        // Holds are tracked by BookingHoldRegistry; the timeline keeps booked intervals only.
+        BlockedInterval interval = BOOKED_STATUSES.contains(event.bookingStatus()) ? toInterval(event) : null;
+
+        if (interval != null) {
+            upsert(interval);
+        } else {
+            remove(event.bookingId());
+        }
+    }
+
+    private synchronized void upsert(BlockedInterval interval) {
+        Long previousCarId = carIdByBookingId.put(interval.bookingId(), interval.carId());
+        if (previousCarId != null && !previousCarId.equals(interval.carId())) {
+            timelines.computeIfPresent(previousCarId, (carId, timeline) -> timeline.without(interval.bookingId()));
+        }
+        timelines.compute(interval.carId(), (carId, timeline) -> timeline == null
+                ? CarTimeline.of(List.of(interval))
+                : timeline.with(interval));
+    }
+
+    private synchronized void remove(Long bookingId) {
+        Long carId = carIdByBookingId.remove(bookingId);
+        if (carId != null) {
+            timelines.computeIfPresent(carId, (id, timeline) -> timeline.without(bookingId));
+        }
+    }
+
+    // ========== QUERIES ==========
+
+    /**
+     * Bookings and holds that block [pickupDate, returnDate) for the car as of the given instant.
+     */
+    public List<BlockedInterval> findConflicts(Long carId, LocalDate pickupDate, LocalDate returnDate, LocalDateTime asOf) {
+        CarTimeline timeline = timeline(carId);
+        List<BlockedInterval> holds = holdRegistry.findConflicts(carId, pickupDate, returnDate, asOf);
+        if (timeline == null) {
+            return holds;
+        }
+        List<BlockedInterval> booked = timeline.overlapping(pickupDate, returnDate);
+        if (holds.isEmpty()) {
+            return booked;
+        }
+        List<BlockedInterval> conflicts = new ArrayList<>(booked);
+        conflicts.addAll(holds);
+        return conflicts;
+    }
+
+    public boolean hasConflict(Long carId, LocalDate pickupDate, LocalDate returnDate, LocalDateTime asOf) {
+        return !findConflicts(carId, pickupDate, returnDate, asOf).isEmpty();
+    }
+
+    /**
+     * The booking that determines what the catalog shows for a car: the earliest-ending
+     * confirmed booking that has not finished yet, otherwise the soonest-expiring soft lock.
+     */
+    public Optional<BlockedInterval> findCurrentBlocker(Long carId, LocalDateTime asOf) {
+        CarTimeline timeline = timeline(carId);
+        if (timeline != null) {
+            LocalDate today = asOf.toLocalDate();
+            Optional<BlockedInterval> booked = timeline.intervals().stream()
+                    .filter(interval -> interval.returnDate() == null || !interval.returnDate().isBefore(today))
+                    .min(Comparator.comparing(interval -> interval.returnDate() != null
+                            ? interval.returnDate()
+                            : LocalDate.MAX));
+            if (booked.isPresent()) {
+                return booked;
+            }
+        }
+        return holdRegistry.findSoonestExpiring(carId, asOf);
+    }
+
+    /**
+     * First date on or after {@code fromDate} that is not covered by a blocking interval,
+     * following back-to-back bookings so the answer is the real next free day.
+     */
+    public LocalDate findNextAvailableDate(Long carId, LocalDate fromDate, LocalDateTime asOf) {
+        if (fromDate == null) {
+            return null;
+        }
+
+        LocalDate candidate = fromDate;
+        boolean moved = true;
+        while (moved) {
+            moved = false;
+            for (BlockedInterval interval : findConflicts(carId, candidate, candidate.plusDays(1), asOf)) {
+                if (interval.returnDate() != null && interval.returnDate().isAfter(candidate)) {
+                    candidate = interval.returnDate();
+                    moved = true;
+                }
+            }
+        }
+        return candidate;
+    }
+
+    /**
+     * Booked and soft-locked days of the car in [from, to] (both inclusive); booked days come from the
+     * timeline bitset, held days from the registry. A day that is both is reported as booked only.
+     */
+    public CalendarDays calendar(Long carId, LocalDate from, LocalDate to, LocalDateTime asOf) {
+        if (from == null || to == null || from.isAfter(to)) {
+            return new CalendarDays(List.of(), List.of());
+        }
+
+        CarTimeline timeline = timeline(carId);
+        DayBits bookedBits = timeline != null ? timeline.booked() : DayBits.EMPTY;
+        long first = from.toEpochDay();
+        long last = to.toEpochDay();
+        List<LocalDate> booked = bookedBits.daysBetween(first, last, null);
+        List<LocalDate> softLocked = holdRegistry.heldDays(carId, first, last, asOf, bookedBits);
+        return new CalendarDays(booked, softLocked);
+    }
+
+    public boolean isLoaded() {
+        return loaded;
+    }
+
+    private CarTimeline timeline(Long carId) {
+        if (!loaded) {
+            synchronized (this) {
+                if (!loaded) {
+                    rebuild();
+                }
+            }
+        }
+        return carId == null ? null : timelines.get(carId);
+    }
+
+    // ========== HELPERS ==========
+
+    private static BlockedInterval toInterval(BookingBlockView view) {
+        if (view.getCarId() == null || view.getPickupDate() == null) {
+            return null;
+        }
+        return new BlockedInterval(
+                view.getBookingId(),
+                view.getCarId(),
+                view.getPickupDate(),
+                view.getReturnDate(),
+                view.getBookingStatus(),
+                null,
+                false
+        );
+    }
+
+    private static BlockedInterval toInterval(BookingLifecycleEvent event) {
+        if (event.carId() == null || event.pickupDate() == null) {
+            return null;
+        }
+        return new BlockedInterval(
+                event.bookingId(),
+                event.carId(),
+                event.pickupDate(),
+                event.returnDate(),
+                event.bookingStatus(),
+                null,
+                false
+        );
+    }
+
+    /**
+     * A booking's claim on a car for [pickupDate, returnDate).
+     * holdExpiresAt is only set for payment holds (soft locks); settling holds block regardless.
+     */
+    public record BlockedInterval(
+            Long bookingId,
+            Long carId,
+            LocalDate pickupDate,
+            LocalDate returnDate,
+            BookingStatus bookingStatus,
+            LocalDateTime holdExpiresAt,
+            boolean settling
+    ) {
+
+        public boolean isSoftLock() {
+            return holdExpiresAt != null;
+        }
+
+        public boolean isBlockingAt(LocalDateTime asOf) {
+            return !isSoftLock() || settling || holdExpiresAt.isAfter(asOf);
+        }
+
+        /**
+         * End of the hold's payment window as seen at asOf; null when the window has passed and only
+         * a settling payment still holds the car.
+         */
+        public LocalDateTime openUntil(LocalDateTime asOf) {
+            return isSoftLock() && holdExpiresAt.isAfter(asOf) ? holdExpiresAt : null;
+        }
+
+        long spanDays() {
+            if (returnDate == null) {
+                return Long.MAX_VALUE;
+            }
+            return Math.max(0, ChronoUnit.DAYS.between(pickupDate, returnDate));
+        }
+    }
+
+    public record CalendarDays(List<LocalDate> bookedDates, List<LocalDate> softLockedDates) {
+    }
+
+    /**
+     * Days covered by a set of intervals, one bit per day counted from baseDay (epoch day).
+     * An interval without a return date covers every day from openFrom on.
+     */
+    record DayBits(long baseDay, BitSet bits, long openFrom) {
+
+        static final DayBits EMPTY = new DayBits(0, new BitSet(), Long.MAX_VALUE);
+
+        static DayBits of(Iterable<BlockedInterval> intervals) {
+            long base = Long.MAX_VALUE;
+            for (BlockedInterval interval : intervals) {
+                base = Math.min(base, interval.pickupDate().toEpochDay());
+            }
+            if (base == Long.MAX_VALUE) {
+                return EMPTY;
+            }
+
+            BitSet bits = new BitSet();
+            long openFrom = Long.MAX_VALUE;
+            for (BlockedInterval interval : intervals) {
+                long start = interval.pickupDate().toEpochDay();
+                if (interval.returnDate() == null) {
+                    openFrom = Math.min(openFrom, start);
+                } else if (interval.returnDate().toEpochDay() > start) {
+                    // The return day itself stays free, matching the [pickup, return) overlap rule.
+                    bits.set(Math.toIntExact(start - base), Math.toIntExact(interval.returnDate().toEpochDay() - base));
+                }
+            }
+            return new DayBits(base, bits, openFrom);
+        }
+
+        boolean contains(long day) {
+            return day >= openFrom || (day >= baseDay && bits.get(Math.toIntExact(day - baseDay)));
+        }
+
+        List<LocalDate> daysBetween(long first, long last, DayBits exclude) {
+            List<LocalDate> days = new ArrayList<>();
+            long day = Math.max(first, baseDay);
+            while (day <= last) {
+                if (day < openFrom) {
+                    int next = bits.nextSetBit(Math.toIntExact(day - baseDay));
+                    day = next < 0 ? openFrom : Math.min(baseDay + next, openFrom);
+                    if (day > last) {
+                        break;
+                    }
+                }
+                if (exclude == null || !exclude.contains(day)) {
+                    days.add(LocalDate.ofEpochDay(day));
+                }
+                day++;
+            }
+            return days;
+        }
+    }
+    /**
+     * Immutable, pickup-ordered set of one car's booked intervals plus the longest span,
+     * which bounds how far back an overlapping interval can start. The day bitset is built with the snapshot.
+     */
+    private record CarTimeline(
+            NavigableSet<BlockedInterval> intervals,
+            long longestSpanDays,
+            DayBits booked
+    ) {
+
+        private static final Comparator<BlockedInterval> ORDER = Comparator
+                .comparing(BlockedInterval::pickupDate)
+                .thenComparing(BlockedInterval::bookingId);
+
+        static CarTimeline of(List<BlockedInterval> intervals) {
+            TreeSet<BlockedInterval> sorted = new TreeSet<>(ORDER);
+            sorted.addAll(intervals);
+            long longest = sorted.stream().mapToLong(BlockedInterval::spanDays).max().orElse(0);
+            return new CarTimeline(Collections.unmodifiableNavigableSet(sorted), longest, DayBits.of(sorted));
+        }
+
+        CarTimeline with(BlockedInterval interval) {
+            List<BlockedInterval> next = new ArrayList<>(intervals.size() + 1);
+            for (BlockedInterval existing : intervals) {
+                if (!existing.bookingId().equals(interval.bookingId())) {
+                    next.add(existing);
+                }
+            }
+            next.add(interval);
+            return of(next);
+        }
+
+        CarTimeline without(Long bookingId) {
+            List<BlockedInterval> next = intervals.stream()
+                    .filter(existing -> !existing.bookingId().equals(bookingId))
+                    .toList();
+            return next.isEmpty() ? null : of(next);
+        }
+
+        List<BlockedInterval> overlapping(LocalDate from, LocalDate to) {
+            if (intervals.isEmpty()) {
+                return List.of();
+            }
+
+            NavigableSet<BlockedInterval> candidates;
+            if (longestSpanDays == Long.MAX_VALUE) {
+                candidates = intervals.headSet(probe(to), false);
+            } else {
+                LocalDate earliestStart = from.minusDays(longestSpanDays);
+                candidates = intervals.subSet(probe(earliestStart), true, probe(to), false);
+            }
+
+            List<BlockedInterval> result = new ArrayList<>();
+            for (BlockedInterval interval : candidates) {
+                if (interval.returnDate() == null || interval.returnDate().isAfter(from)) {
+                    result.add(interval);
+                }
+            }
+            return result;
+        }
+
+        private static BlockedInterval probe(LocalDate pickupDate) {
+            return new BlockedInterval(Long.MIN_VALUE, null, pickupDate, pickupDate, null, null, false);
+        }
+    }
+}
@@ -0,0 +1,183 @@
+package com.amos.garizetu.Booking.service;
+
+import com.amos.garizetu.Booking.exception.BookingConflictException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Serializes booking admission per car so check-then-insert cannot double-book.
+ *
+ * Two layers:
+ * - striped in-process locks (acquire/acquireAll): same-car requests queue on one stripe, other cars
+ *   run in parallel. Taken before the booking transaction opens and released after it completes, so
+ *   queued requests wait without holding a pooled connection.
+ * - pg_advisory_xact_lock keyed by car (admitForCurrentTransaction): the same guarantee across
+ *   instances, taken inside the transaction and released by Postgres on commit/rollback
+ *
+ * The next request for the car therefore only runs its conflict check once the previous insert is
+ * visible. Group bookings admit several cars at once, taking stripes in stripe order and advisory
+ * locks in key order so overlapping groups cannot deadlock.
+ */
+@Component
+@Slf4j
+public class CarBookingAdmission {
+
+    // Namespace for the two-key advisory lock form, keeps car locks apart from other advisory users.
+    static final int ADVISORY_LOCK_NAMESPACE = 0x6361_7221; // "car!"
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ReentrantLock[] stripes;
+    private final long lockTimeoutMs;
+    private final boolean advisoryLockEnabled;
+
+    public CarBookingAdmission(
+            JdbcTemplate jdbcTemplate,
+            @Value("${booking.admission.lock-stripes:256}") int stripeCount,
+            @Value("${booking.admission.lock-timeout-ms:5000}") long lockTimeoutMs,
+            @Value("${booking.admission.advisory-lock-enabled:true}") boolean advisoryLockEnabled
+    ) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.stripes = new ReentrantLock[Integer.highestOneBit(Math.max(1, stripeCount) * 2 - 1)];
+        for (int i = 0; i < stripes.length; i++) {
+            stripes[i] = new ReentrantLock();
+        }
+        this.lockTimeoutMs = lockTimeoutMs;
+        this.advisoryLockEnabled = advisoryLockEnabled;
+    }
+
+    /**
+     * Admit the current transaction for this car across instances. The caller must already hold
+     * acquire(carId), taken before the transaction started; the advisory lock is released when the
+     * transaction commits or rolls back.
+     */
+    public void admitForCurrentTransaction(Long carId) {
+        requireHeld(List.of(carId));
+
+        if (advisoryLockEnabled && jdbcTemplate != null) {
+            jdbcTemplate.query(
+                    "SELECT pg_advisory_xact_lock(?, ?)",
+                    resultSet -> null,
+                    ADVISORY_LOCK_NAMESPACE,
+                    advisoryKey(carId)
+            );
+        }
+    }
+
+    /**
+     * Admit the current transaction for every car in carIds (group bookings); the caller must
+     * already hold acquireAll(carIds).
+     */
+    public void admitAllForCurrentTransaction(Collection<Long> carIds) {
+        requireHeld(carIds);
+
+        if (advisoryLockEnabled && jdbcTemplate != null) {
+            TreeSet<Integer> keys = new TreeSet<>();
+            carIds.forEach(carId -> keys.add(advisoryKey(carId)));
+            for (Integer key : keys) {
+                jdbcTemplate.query(
+                        "SELECT pg_advisory_xact_lock(?, ?)",
+                        resultSet -> null,
+                        ADVISORY_LOCK_NAMESPACE,
+                        key
+                );
+            }
+        }
+    }
+
+    /**
+     * In-process admission only. Callers must close the returned handle.
+     */
+    public Admission acquire(Long carId) {
+        ReentrantLock lock = stripes[stripeIndex(carId)];
+        tryLock(lock, carId);
+        return new Admission(List.of(lock));
+    }
+
+    /**
+     * In-process admission for several cars, each stripe taken once and in index order.
+     * Callers must close the returned handle.
+     */
+    public Admission acquireAll(Collection<Long> carIds) {
+        TreeMap<Integer, Long> carByStripe = new TreeMap<>();
+        carIds.forEach(carId -> carByStripe.putIfAbsent(stripeIndex(carId), carId));
+
+        List<ReentrantLock> held = new ArrayList<>(carByStripe.size());
+        try {
+            carByStripe.forEach((index, carId) -> {
+                tryLock(stripes[index], carId);
+                held.add(stripes[index]);
+            });
+        } catch (RuntimeException ex) {
+            new Admission(held).close();
+            throw ex;
+        }
+        return new Admission(held);
+    }
+
+    private void requireHeld(Collection<Long> carIds) {
+        if (!TransactionSynchronizationManager.isActualTransactionActive()) {
+            throw new IllegalStateException("Car admission requires an active transaction");
+        }
+        for (Long carId : carIds) {
+            if (!stripes[stripeIndex(carId)].isHeldByCurrentThread()) {
+                throw new IllegalStateException("Car " + carId + " must be acquired before the transaction starts");
+            }
+        }
+    }
+
+    private void tryLock(ReentrantLock lock, Long carId) {
+        try {
+            if (!lock.tryLock(lockTimeoutMs, TimeUnit.MILLISECONDS)) {
+                log.warn("Timed out waiting for booking admission on car {}", carId);
+                throw new BookingConflictException("This car is handling another booking request. Please try again.");
+            }
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new BookingConflictException("Booking request was interrupted. Please try again.");
+        }
+    }
+
+    private int stripeIndex(Long carId) {
+        int hash = carId == null ? 0 : Long.hashCode(carId);
+        hash ^= (hash >>> 16);
+        return hash & (stripes.length - 1);
+    }
+
+    private static int advisoryKey(Long carId) {
+        return carId == null ? 0 : Long.hashCode(carId);
+    }
+
+    /**
+     * Held admission for one or more cars; closing twice is a no-op.
+     */
+    public static final class Admission implements AutoCloseable {
+
+        private final List<ReentrantLock> locks;
+        private boolean released;
+
+        private Admission(List<ReentrantLock> locks) {
+            this.locks = locks;
+        }
+
+        @Override
+        public void close() {
+            if (!released) {
+                released = true;
+                for (int i = locks.size() - 1; i >= 0; i--) {
+                    locks.get(i).unlock();
+                }
+            }
+        }
+    }
+}
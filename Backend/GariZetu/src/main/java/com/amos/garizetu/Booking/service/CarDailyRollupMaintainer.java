@@ -0,0 +1,144 @@
+package com.amos.garizetu.Booking.service;
+
+import com.amos.garizetu.Booking.event.BookingLifecycleEvent;
+import com.amos.garizetu.Scheduling.service.ScheduledJobCoordinator;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Date;
+import java.time.Duration;
+import java.time.temporal.ChronoUnit;
+
+/**
+ * Keeps car_daily_rollups in step with bookings.
+ *
+ * Every status change moves the booking's daily share from its previous status row to the new one,
+ * using one upsert per side over generate_series, inside the booking's own transaction so the rollup
+ * commits (or rolls back) with it. A failing upsert is contained in a savepoint: the booking still
+ * commits and the nightly compaction, which rebuilds the table from bookings, repairs the gap.
+ */
+@Component
+@Slf4j
+public class CarDailyRollupMaintainer {
+
+    static final String COMPACTION_JOB = "car-daily-rollup-compaction";
+
+    private static final String UPSERT_DELTA = """
+            INSERT INTO car_daily_rollups (rollup_date, car_id, booking_status, booked_days, revenue)
+            SELECT CAST(d AS date), ?, ?, ?, ?
+            FROM generate_series(CAST(? AS date), CAST(? AS date) - 1, INTERVAL '1 day') AS d
+            ON CONFLICT (rollup_date, car_id, booking_status) DO UPDATE SET
+                booked_days = car_daily_rollups.booked_days + EXCLUDED.booked_days,
+                revenue = car_daily_rollups.revenue + EXCLUDED.revenue
+            """;
+
+    private static final String REBUILD = """
+            INSERT INTO car_daily_rollups (rollup_date, car_id, booking_status, booked_days, revenue)
+            SELECT CAST(d AS date), b.car_id, b.booking_status, COUNT(*),
+                   SUM(b.total_cost / (b.return_date - b.pickup_date))
+            FROM (SELECT car_id, booking_status, total_cost, pickup_date, return_date FROM bookings
+                  UNION ALL
+                  SELECT car_id, booking_status, total_cost, pickup_date, return_date FROM bookings_archive) b
+            CROSS JOIN LATERAL generate_series(b.pickup_date, b.return_date - 1, INTERVAL '1 day') AS d
+            WHERE b.return_date > b.pickup_date
+            GROUP BY CAST(d AS date), b.car_id, b.booking_status
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ScheduledJobCoordinator jobCoordinator;
+    private final TransactionTemplate savepoint;
+    private final TransactionTemplate compactionTransaction;
+
+    public CarDailyRollupMaintainer(
+            JdbcTemplate jdbcTemplate,
+            ScheduledJobCoordinator jobCoordinator,
+            PlatformTransactionManager transactionManager
+    ) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.jobCoordinator = jobCoordinator;
+        this.savepoint = new TransactionTemplate(transactionManager);
+        this.savepoint.setPropagationBehavior(TransactionDefinition.PROPAGATION_NESTED);
+        this.compactionTransaction = new TransactionTemplate(transactionManager);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        try {
+            Boolean seeded = jdbcTemplate.queryForObject(
+                    "SELECT EXISTS (SELECT 1 FROM car_daily_rollups)", Boolean.class);
+            if (!Boolean.TRUE.equals(seeded)) {
+                jobCoordinator.runExclusive(COMPACTION_JOB, Duration.ofDays(1), this::compact);
+            }
+        } catch (RuntimeException ex) {
+            log.warn("Could not seed car daily rollups at startup: {}", ex.getMessage());
+        }
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT, fallbackExecution = true)
+    public void onBookingLifecycle(BookingLifecycleEvent event) {
+        if (!event.isStatusChange() || event.carId() == null
+                || event.pickupDate() == null || event.returnDate() == null) {
+            return;
+        }
+        long days = ChronoUnit.DAYS.between(event.pickupDate(), event.returnDate());
+        if (days <= 0) {
+            return;
+        }
+
+        double dailyRevenue = event.totalPrice() / days;
+        try {
+            savepoint.executeWithoutResult(tx -> {
+                if (event.previousStatus() != null) {
+                    upsert(event, event.previousStatus().name(), -1, -dailyRevenue);
+                }
+                if (event.bookingStatus() != null) {
+                    upsert(event, event.bookingStatus().name(), 1, dailyRevenue);
+                }
+            });
+        } catch (DataAccessException ex) {
+            log.warn("Could not update daily rollups for booking {}; nightly compaction will repair: {}",
+                    event.bookingId(), ex.getMessage());
+        }
+    }
+
+    @Scheduled(cron = "${booking.rollups.compaction-cron:0 30 2 * * *}")
+    public void nightlyCompaction() {
+        jobCoordinator.runExclusive(COMPACTION_JOB, Duration.ofDays(1), this::compact);
+    }
+
+    /**
+     * Rebuild the rollups from bookings and bookings_archive: drops rows zeroed out by status moves
+     * and corrects any drift. Archived bookings keep their revenue in the rollups.
+     * The table lock makes concurrent booking commits wait for the swap, so their deltas land on top
+     * of the rebuilt rows instead of being counted twice or lost.
+     */
+    public void compact() {
+        long started = System.currentTimeMillis();
+        Integer rows = compactionTransaction.execute(tx -> {
+            jdbcTemplate.execute("LOCK TABLE car_daily_rollups IN EXCLUSIVE MODE");
+            jdbcTemplate.update("DELETE FROM car_daily_rollups");
+            return jdbcTemplate.update(REBUILD);
+        });
+        log.info("Compacted car daily rollups to {} row(s) in {} ms", rows, System.currentTimeMillis() - started);
+    }
+
+    private void upsert(BookingLifecycleEvent event, String status, long bookedDays, double revenue) {
+        jdbcTemplate.update(UPSERT_DELTA,
+                event.carId(),
+                status,
+                bookedDays,
+                revenue,
+                Date.valueOf(event.pickupDate()),
+                Date.valueOf(event.returnDate()));
+    }
+}
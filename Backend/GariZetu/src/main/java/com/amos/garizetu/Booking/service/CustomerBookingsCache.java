@@ -0,0 +1,120 @@
+package com.amos.garizetu.Booking.service;
+
+import com.amos.garizetu.Booking.DTO.BookingResponseDTO;
+import com.amos.garizetu.Booking.event.BookingLifecycleEvent;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.Supplier;
+
+/**
+ * "My bookings" lists per customer, so reopening the app costs no query.
+ *
+ * Entries are evicted after commit by any lifecycle event for the customer, and expire after ttl-ms
+ * to pick up writes on other instances and car edits. The map is an access-ordered LRU capped at
+ * max-customers, so the least recently active customers are dropped first.
+ */
+@Component
+public class CustomerBookingsCache {
+
+    private static final int GENERATION_STRIPES = 64;
+
+    private final long ttlMs;
+    private final Map<Long, Entry> entries;
+    // Bumped on eviction; a load that overlapped an eviction for its stripe is returned but not cached.
+    private final AtomicLongArray generations = new AtomicLongArray(GENERATION_STRIPES);
+
+    private final Counter hits;
+    private final Counter misses;
+    private final Counter evictions;
+
+    public CustomerBookingsCache(
+            MeterRegistry meterRegistry,
+            @Value("${booking.my-bookings-cache.max-customers:5000}") int maxCustomers,
+            @Value("${booking.my-bookings-cache.ttl-ms:300000}") long ttlMs
+    ) {
+        this.ttlMs = ttlMs;
+        int capacity = Math.max(1, maxCustomers);
+        this.evictions = Counter.builder("booking.my_bookings.cache.evictions")
+                .description("Customers dropped from the my-bookings cache to stay under max-customers")
+                .register(meterRegistry);
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, Entry> eldest) {
+                boolean full = size() > capacity;
+                if (full) {
+                    evictions.increment();
+                }
+                return full;
+            }
+        };
+        this.hits = Counter.builder("booking.my_bookings.cache.hits")
+                .description("My-bookings reads answered from memory")
+                .register(meterRegistry);
+        this.misses = Counter.builder("booking.my_bookings.cache.misses")
+                .description("My-bookings reads that queried the database")
+                .register(meterRegistry);
+        Gauge.builder("booking.my_bookings.cache.size", this, CustomerBookingsCache::size)
+                .description("Customers with a cached my-bookings list")
+                .register(meterRegistry);
+    }
+
+    public List<BookingResponseDTO> get(Long userId, Supplier<List<BookingResponseDTO>> loader) {
+        long now = System.currentTimeMillis();
+        synchronized (entries) {
+            Entry entry = entries.get(userId);
+            if (entry != null && now - entry.loadedAt() < ttlMs) {
+                hits.increment();
+                return entry.bookings();
+            }
+        }
+
+        misses.increment();
+        int stripe = stripe(userId);
+        long generation = generations.get(stripe);
+        List<BookingResponseDTO> bookings = List.copyOf(loader.get());
+        synchronized (entries) {
+            if (generations.get(stripe) == generation) {
+                entries.put(userId, new Entry(bookings, now));
+            }
+        }
+        return bookings;
+    }
+
+    public void evict(Long userId) {
+        if (userId == null) {
+            return;
+        }
+        generations.incrementAndGet(stripe(userId));
+        synchronized (entries) {
+            entries.remove(userId);
+        }
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onBookingLifecycle(BookingLifecycleEvent event) {
+        evict(event.userId());
+    }
+
+    public int size() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    private static int stripe(Long userId) {
+        return (int) Math.floorMod(userId, (long) GENERATION_STRIPES);
+    }
+
+    private record Entry(List<BookingResponseDTO> bookings, long loadedAt) {
+    }
+}
@@ -0,0 +1,176 @@
+package com.amos.garizetu.Booking.service;
+
+import com.amos.garizetu.Booking.Enums.BookingStatus;
+import com.amos.garizetu.Booking.event.BookingLifecycleEvent;
+import com.amos.garizetu.Booking.repository.BookingRepository;
+import com.amos.garizetu.Booking.repository.BookingReturnView;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+
+/**
+ * Tracks active rentals and flags them the day after their return date passes.
+ *
+ * Active rentals sit in a min-heap keyed by return date, fed by lifecycle events and seeded from
+ * the DB. Each check only peeks the heap head, so it costs nothing until a rental falls due; due
+ * entries move to the overdue set and are pushed to the admin notification stream once. A periodic
+ * reload corrects drift from writes this instance did not observe.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class OverdueRentalDetector {
+
+    private final BookingRepository bookingRepository;
+    private final BookingNotificationStream notificationStream;
+
+    private final PriorityQueue<DueReturn> heap =
+            new PriorityQueue<>(Comparator.comparing(DueReturn::returnDate).thenComparing(DueReturn::bookingId));
+    // Latest return date per active, not yet overdue rental; heap entries that no longer match are stale.
+    private final Map<Long, LocalDate> active = new HashMap<>();
+    private final Set<Long> overdue = new HashSet<>();
+    private volatile boolean loaded;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        try {
+            reload(LocalDate.now());
+        } catch (RuntimeException ex) {
+            log.warn("Could not load active rentals for overdue tracking at startup: {}", ex.getMessage());
+        }
+    }
+
+    @Scheduled(
+            fixedDelayString = "${booking.overdue.check-ms:60000}",
+            initialDelayString = "${booking.overdue.check-ms:60000}"
+    )
+    public void scheduledCheck() {
+        if (loaded) {
+            alert(detect(LocalDate.now()));
+        }
+    }
+
+    @Scheduled(
+            fixedDelayString = "${booking.overdue.reconcile-ms:900000}",
+            initialDelayString = "${booking.overdue.reconcile-ms:900000}"
+    )
+    public void scheduledReload() {
+        alert(reload(LocalDate.now()));
+    }
+
+    /**
+     * Rebuild the heap from every active rental. Already-overdue rentals are alerted only if this
+     * instance had not seen them go overdue, and never on the first load.
+     *
+     * @return rentals newly found overdue
+     */
+    synchronized List<Long> reload(LocalDate today) {
+        boolean firstLoad = !loaded;
+        Set<Long> known = new HashSet<>(overdue);
+
+        heap.clear();
+        active.clear();
+        overdue.clear();
+        List<Long> newlyOverdue = new ArrayList<>();
+        for (BookingReturnView row : bookingRepository.findActiveReturnDates()) {
+            if (row.getReturnDate().isBefore(today)) {
+                overdue.add(row.getBookingId());
+                if (!firstLoad && !known.contains(row.getBookingId())) {
+                    newlyOverdue.add(row.getBookingId());
+                }
+            } else {
+                active.put(row.getBookingId(), row.getReturnDate());
+                heap.offer(new DueReturn(row.getBookingId(), row.getReturnDate()));
+            }
+        }
+        loaded = true;
+        return newlyOverdue;
+    }
+
+    /**
+     * Move every rental whose return date is before today into the overdue set.
+     *
+     * @return rentals that became overdue in this call
+     */
+    synchronized List<Long> detect(LocalDate today) {
+        List<Long> newlyOverdue = new ArrayList<>();
+        while (!heap.isEmpty() && heap.peek().returnDate().isBefore(today)) {
+            DueReturn due = heap.poll();
+            if (active.remove(due.bookingId(), due.returnDate()) && overdue.add(due.bookingId())) {
+                newlyOverdue.add(due.bookingId());
+            }
+        }
+        return newlyOverdue;
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onBookingLifecycle(BookingLifecycleEvent event) {
+        if (!loaded || event.bookingId() == null) {
+            return;
+        }
+        if (event.bookingStatus() == BookingStatus.ACTIVE && event.returnDate() != null) {
+            track(event.bookingId(), event.returnDate(), LocalDate.now());
+        } else {
+            untrack(event.bookingId());
+        }
+    }
+
+    /**
+     * Active rentals past their return date, as of now. Costs no query once loaded.
+     */
+    public long overdueCount() {
+        if (!loaded) {
+            reload(LocalDate.now());
+        }
+        alert(detect(LocalDate.now()));
+        synchronized (this) {
+            return overdue.size();
+        }
+    }
+
+    public synchronized boolean isOverdue(Long bookingId) {
+        return overdue.contains(bookingId);
+    }
+
+    private synchronized void track(Long bookingId, LocalDate returnDate, LocalDate today) {
+        if (overdue.contains(bookingId) && returnDate.isBefore(today)) {
+            return; // Still overdue and already alerted.
+        }
+        overdue.remove(bookingId);
+        if (!returnDate.equals(active.put(bookingId, returnDate))) {
+            heap.offer(new DueReturn(bookingId, returnDate));
+        }
+    }
+
+    private synchronized void untrack(Long bookingId) {
+        // The heap entry goes stale and is dropped when it reaches the head.
+        active.remove(bookingId);
+        overdue.remove(bookingId);
+    }
+
+    private void alert(List<Long> newlyOverdue) {
+        if (newlyOverdue.isEmpty()) {
+            return;
+        }
+        log.info("{} rental(s) became overdue: {}", newlyOverdue.size(), newlyOverdue);
+        newlyOverdue.forEach(notificationStream::publishOverdue);
+    }
+
+    private record DueReturn(Long bookingId, LocalDate returnDate) {
+    }
+}
@@ -1,10 +1,16 @@
 package com.amos.garizetu.Car.Controller;
 
+import com.amos.garizetu.Car.DTO.Request.CarAvailabilitySearch;
 import com.amos.garizetu.Car.DTO.Request.CarCreateRequest;
 import com.amos.garizetu.Car.DTO.Request.CarUpdateDTO;
+import com.amos.garizetu.Car.DTO.Response.CarCalendarDTO;
 import com.amos.garizetu.Car.DTO.Response.CarResponseDTO;
+import com.amos.garizetu.Car.Enums.BodyType;
+import com.amos.garizetu.Car.Enums.FuelType;
+import com.amos.garizetu.Car.Enums.TransmissionType;
 import com.amos.garizetu.Service.CarService;
 import com.amos.garizetu.Service.FileStorageService;
+import com.amos.garizetu.util.OptimisticLockRetry;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -12,6 +18,7 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.core.io.Resource;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
@@ -21,6 +28,7 @@ import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
 
+import java.time.LocalDate;
 import java.util.List;
 
 @Slf4j
@@ -31,6 +39,7 @@ public class CarController {
 
     private final CarService carService;
     private final FileStorageService fileStorageService;
+    private final OptimisticLockRetry optimisticLockRetry;
 
 
     /**
@@ -96,6 +105,35 @@ public class CarController {
         return ResponseEntity.ok(carService.getAllCarsPage(pageable));
     }
 
+    // Cars free for the whole pickup..return range, cheapest first
+    @GetMapping("/available")
+    public ResponseEntity<Page<CarResponseDTO>> getAvailableCars(
+            @RequestParam("pickup") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate pickupDate,
+            @RequestParam("return") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate returnDate,
+            @RequestParam(required = false) String make,
+            @RequestParam(required = false) BodyType bodyType,
+            @RequestParam(required = false) FuelType fuelType,
+            @RequestParam(required = false) TransmissionType transmissionType,
+            @RequestParam(required = false) Integer minSeats,
+            @RequestParam(required = false) Double minPrice,
+            @RequestParam(required = false) Double maxPrice,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "20") int size
+    ) {
+        CarAvailabilitySearch search = new CarAvailabilitySearch();
+        search.setPickupDate(pickupDate);
+        search.setReturnDate(returnDate);
+        search.setMake(make);
+        search.setBodyType(bodyType);
+        search.setFuelType(fuelType);
+        search.setTransmissionType(transmissionType);
+        search.setMinSeats(minSeats);
+        search.setMinPrice(minPrice);
+        search.setMaxPrice(maxPrice);
+        Pageable pageable = buildPageable(page, size, Sort.by("dailyPrice").and(Sort.by("carId")));
+        return ResponseEntity.ok(carService.searchAvailableCars(search, pageable));
+    }
+
     //Retrieving a car by ID
     @GetMapping("/{id}")
     public ResponseEntity<CarResponseDTO> getCarById(@PathVariable("id") Long carId) {
@@ -103,6 +141,16 @@ public class CarController {
         return ResponseEntity.ok(carResponseDTO);
     }
 
+    // Day-by-day availability (booked / soft-locked) for up to a year
+    @GetMapping("/{id}/calendar")
+    public ResponseEntity<CarCalendarDTO> getCarCalendar(
+            @PathVariable("id") Long carId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to
+    ) {
+        return ResponseEntity.ok(carService.getCarCalendar(carId, from, to));
+    }
+
     //Retrieving a car by make
     @GetMapping()
     public ResponseEntity<List<CarResponseDTO>> getCarByMake(@RequestParam(required = false) String make) {
@@ -127,7 +175,8 @@ public class CarController {
     @PatchMapping("/{id}")
     @PreAuthorize("hasRole('ADMIN')")
     public ResponseEntity<CarResponseDTO> updateCar(@PathVariable Long id, @RequestBody CarUpdateDTO updateDTO) {
-        CarResponseDTO updatedCar = carService.updateStatus(id, updateDTO);
+        CarResponseDTO updatedCar = optimisticLockRetry.execute("update-car",
+                () -> carService.updateStatus(id, updateDTO));
         return ResponseEntity.ok(updatedCar);
     }
 
@@ -0,0 +1,24 @@
+package com.amos.garizetu.Car.DTO.Request;
+
+import com.amos.garizetu.Car.Enums.BodyType;
+import com.amos.garizetu.Car.Enums.FuelType;
+import com.amos.garizetu.Car.Enums.TransmissionType;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+// Filters for GET /api/v1/cars/available; everything except the dates is optional.
+@Data
+@NoArgsConstructor
+public class CarAvailabilitySearch {
+    private LocalDate pickupDate;
+    private LocalDate returnDate;
+    private String make;
+    private BodyType bodyType;
+    private FuelType fuelType;
+    private TransmissionType transmissionType;
+    private Integer minSeats;
+    private Double minPrice;
+    private Double maxPrice;
+}
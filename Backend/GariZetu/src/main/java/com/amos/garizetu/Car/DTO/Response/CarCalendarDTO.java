@@ -0,0 +1,20 @@
+package com.amos.garizetu.Car.DTO.Response;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.util.List;
+
+// Day-level availability for one car; both date lists fall inside [from, to].
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CarCalendarDTO {
+    private Long carId;
+    private LocalDate from;
+    private LocalDate to;
+    private List<LocalDate> bookedDates;
+    private List<LocalDate> softLockedDates;
+}
@@ -0,0 +1,12 @@
+package com.amos.garizetu.Car.exception;
+
+import java.time.LocalDateTime;
+
+public record CarErrorResponse(
+        int status,
+        String error,
+        String message,
+        String path,
+        LocalDateTime timestamp
+) {
+}
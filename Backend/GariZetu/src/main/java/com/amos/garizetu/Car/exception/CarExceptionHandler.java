@@ -0,0 +1,65 @@
+package com.amos.garizetu.Car.exception;
+
+import com.amos.garizetu.Car.Controller.CarController;
+import jakarta.servlet.http.HttpServletRequest;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+
+import java.time.LocalDateTime;
+
+/**
+ * Maps availability-search and calendar validation errors to 400, unknown cars on those endpoints to
+ * 404, and concurrent car edits to 409. Other car errors keep their existing handling.
+ */
+@RestControllerAdvice(assignableTypes = CarController.class)
+@Slf4j
+public class CarExceptionHandler {
+
+    @ExceptionHandler(CarValidationException.class)
+    public ResponseEntity<CarErrorResponse> handleValidation(
+            CarValidationException exception,
+            HttpServletRequest request
+    ) {
+        return buildResponse(HttpStatus.BAD_REQUEST, exception.getMessage(), request);
+    }
+
+    @ExceptionHandler(CarNotFoundException.class)
+    public ResponseEntity<CarErrorResponse> handleNotFound(
+            CarNotFoundException exception,
+            HttpServletRequest request
+    ) {
+        return buildResponse(HttpStatus.NOT_FOUND, exception.getMessage(), request);
+    }
+
+    @ExceptionHandler(OptimisticLockingFailureException.class)
+    public ResponseEntity<CarErrorResponse> handleOptimisticLock(
+            OptimisticLockingFailureException exception,
+            HttpServletRequest request
+    ) {
+        log.warn("Car changed concurrently: {}", exception.getMessage());
+        return buildResponse(
+                HttpStatus.CONFLICT,
+                "This car was changed by someone else. Please refresh and try again.",
+                request
+        );
+    }
+
+    private ResponseEntity<CarErrorResponse> buildResponse(
+            HttpStatus status,
+            String message,
+            HttpServletRequest request
+    ) {
+        CarErrorResponse payload = new CarErrorResponse(
+                status.value(),
+                status.getReasonPhrase(),
+                message,
+                request.getRequestURI(),
+                LocalDateTime.now()
+        );
+        return ResponseEntity.status(status).body(payload);
+    }
+}
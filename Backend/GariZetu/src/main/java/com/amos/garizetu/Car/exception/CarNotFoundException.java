@@ -0,0 +1,8 @@
+package com.amos.garizetu.Car.exception;
+
+public class CarNotFoundException extends RuntimeException {
+
+    public CarNotFoundException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,8 @@
+package com.amos.garizetu.Car.exception;
+
+public class CarValidationException extends RuntimeException {
+
+    public CarValidationException(String message) {
+        super(message);
+    }
+}
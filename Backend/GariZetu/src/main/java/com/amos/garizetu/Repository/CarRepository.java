@@ -1,6 +1,9 @@
 package com.amos.garizetu.Repository;
 
 import com.amos.garizetu.Car.Entity.Car;
+import com.amos.garizetu.Car.Enums.BodyType;
+import com.amos.garizetu.Car.Enums.FuelType;
+import com.amos.garizetu.Car.Enums.TransmissionType;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.EntityGraph;
@@ -9,11 +12,46 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface CarRepository extends JpaRepository<Car, Long> {
+
+    /**
+     * Cars matching the filters minus cars with a blocking booking overlapping [pickupDate, returnDate).
+     * The blocking rule matches BookingRepository#findConflictingBookings; open-ended rentals block too.
+     * Null filters match everything.
+     */
+    String AVAILABLE_CARS_FROM = "FROM Car c " +
+            "WHERE c.carStatus <> 'MAINTENANCE' " +
+            "AND (:make IS NULL OR LOWER(c.make) = :make) " +
+            "AND (:bodyType IS NULL OR c.bodyType = :bodyType) " +
+            "AND (:fuelType IS NULL OR c.fuelType = :fuelType) " +
+            "AND (:transmissionType IS NULL OR c.transmissionType = :transmissionType) " +
+            "AND (:minSeats IS NULL OR c.seatingCapacity >= :minSeats) " +
+            "AND (:minPrice IS NULL OR c.dailyPrice >= :minPrice) " +
+            "AND (:maxPrice IS NULL OR c.dailyPrice <= :maxPrice) " +
+            "AND NOT EXISTS (" +
+            "SELECT 1 FROM Booking b WHERE b.car = c " +
+            "AND b.pickupDate < :returnDate " +
+            "AND (b.returnDate IS NULL OR b.returnDate > :pickupDate) " +
+            "AND (" +
+            "b.bookingStatus IN ('CONFIRMED', 'ACTIVE', 'ADMIN_NOTIFIED') " +
+            "OR (" +
+            "b.bookingStatus IN ('PENDING_PAYMENT', 'PENDING') " +
+            "AND (b.paymentStatus = 'PROCESSING' OR (" +
+            "b.paymentStatus IN ('UNPAID', 'FAILED') " +
+            "AND b.paymentExpiresAt IS NOT NULL " +
+            "AND b.paymentExpiresAt > :asOf" +
+            "))" +
+            ")" +
+            ")" +
+            ")";
+
     //Check if registration number exists
     boolean existsByRegistrationNumber(String registrationNumber);
 
@@ -45,6 +83,27 @@ public interface CarRepository extends JpaRepository<Car, Long> {
     @Query("SELECT c FROM Car c WHERE LOWER(c.make) = LOWER(:make)")
     Page<Car> findCarByMakeIgnoreCaseWithFeatures(@Param("make") String make, Pageable pageable);
 
+    // Ids only, so the page is cut in SQL; load the page with findAllWithFeaturesByIdIn.
+    @Query(value = "SELECT c.carId " + AVAILABLE_CARS_FROM,
+            countQuery = "SELECT COUNT(c) " + AVAILABLE_CARS_FROM)
+    Page<Long> findAvailableCarIds(
+            @Param("pickupDate") LocalDate pickupDate,
+            @Param("returnDate") LocalDate returnDate,
+            @Param("asOf") LocalDateTime asOf,
+            @Param("make") String make,
+            @Param("bodyType") BodyType bodyType,
+            @Param("fuelType") FuelType fuelType,
+            @Param("transmissionType") TransmissionType transmissionType,
+            @Param("minSeats") Integer minSeats,
+            @Param("minPrice") Double minPrice,
+            @Param("maxPrice") Double maxPrice,
+            Pageable pageable
+    );
+
+    @EntityGraph(attributePaths = {"features", "galleryImageUrls"})
+    @Query("SELECT c FROM Car c WHERE c.carId IN :ids")
+    List<Car> findAllWithFeaturesByIdIn(@Param("ids") Collection<Long> ids);
+
     @Query(value = "SELECT EXISTS (" +
             "SELECT 1 FROM car_gallery_images cgi " +
             "WHERE cgi.image_url = :imageUrl " +
@@ -0,0 +1,25 @@
+package com.amos.garizetu.Scheduling.DTO;
+
+import com.amos.garizetu.Scheduling.Enums.ScheduledJobOutcome;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ScheduledJobStatusDTO {
+    private String jobName;
+    private String owner;
+    private boolean ownedByThisInstance;
+    private boolean leaseActive;
+    private LocalDateTime leaseUntil;
+    private LocalDateTime lastStartedAt;
+    private LocalDateTime lastFinishedAt;
+    private Long lastDurationMs;
+    private ScheduledJobOutcome lastOutcome;
+    private String lastError;
+    private long runCount;
+}
@@ -0,0 +1,51 @@
+package com.amos.garizetu.Scheduling.Entity;
+
+import com.amos.garizetu.Scheduling.Enums.ScheduledJobOutcome;
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+
+/**
+ * One row per cluster-wide scheduled job: who holds it, until when, and how its last run went.
+ * The owner keeps renewing the lease on each run; other instances take over once it lapses.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@Entity
+@Table(name = "scheduled_job_leases")
+public class ScheduledJobLease {
+
+    @Id
+    @Column(name = "job_name", length = 100)
+    private String jobName;
+
+    // "<pid>@<host>-<random>", unique per running instance.
+    @Column(name = "owner", nullable = false, length = 200)
+    private String owner;
+
+    @Column(name = "lease_until", nullable = false)
+    private LocalDateTime leaseUntil;
+
+    @Column(name = "last_started_at")
+    private LocalDateTime lastStartedAt;
+
+    @Column(name = "last_finished_at")
+    private LocalDateTime lastFinishedAt;
+
+    @Column(name = "last_duration_ms")
+    private Long lastDurationMs;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "last_outcome", length = 20)
+    private ScheduledJobOutcome lastOutcome;
+
+    @Column(name = "last_error", length = 500)
+    private String lastError;
+
+    @Column(name = "run_count", nullable = false)
+    private long runCount;
+}
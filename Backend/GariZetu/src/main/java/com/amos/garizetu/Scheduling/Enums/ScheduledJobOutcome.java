@@ -0,0 +1,7 @@
+package com.amos.garizetu.Scheduling.Enums;
+
+public enum ScheduledJobOutcome {
+    RUNNING,
+    SUCCEEDED,
+    FAILED
+}
@@ -0,0 +1,54 @@
+package com.amos.garizetu.Scheduling.Repository;
+
+import com.amos.garizetu.Scheduling.Entity.ScheduledJobLease;
+import com.amos.garizetu.Scheduling.Enums.ScheduledJobOutcome;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface ScheduledJobLeaseRepository extends JpaRepository<ScheduledJobLease, String> {
+
+    List<ScheduledJobLease> findAllByOrderByJobNameAsc();
+
+    /**
+     * Take (or keep) the lease: succeeds for the current owner, or for anyone once the lease has lapsed.
+     * A single conditional UPDATE, so two instances can never both see 1 row updated.
+     */
+    @Modifying
+    @Query("UPDATE ScheduledJobLease l SET l.owner = :owner, l.leaseUntil = :leaseUntil, " +
+            "l.lastStartedAt = :now, l.lastOutcome = :running " +
+            "WHERE l.jobName = :jobName AND (l.owner = :owner OR l.leaseUntil <= :now)")
+    int tryAcquire(
+            @Param("jobName") String jobName,
+            @Param("owner") String owner,
+            @Param("now") LocalDateTime now,
+            @Param("leaseUntil") LocalDateTime leaseUntil,
+            @Param("running") ScheduledJobOutcome running
+    );
+
+    @Modifying
+    @Query("UPDATE ScheduledJobLease l SET l.leaseUntil = :leaseUntil, l.lastFinishedAt = :finishedAt, " +
+            "l.lastDurationMs = :durationMs, l.lastOutcome = :outcome, l.lastError = :error, " +
+            "l.runCount = l.runCount + 1 " +
+            "WHERE l.jobName = :jobName AND l.owner = :owner")
+    int recordRun(
+            @Param("jobName") String jobName,
+            @Param("owner") String owner,
+            @Param("leaseUntil") LocalDateTime leaseUntil,
+            @Param("finishedAt") LocalDateTime finishedAt,
+            @Param("durationMs") long durationMs,
+            @Param("outcome") ScheduledJobOutcome outcome,
+            @Param("error") String error
+    );
+
+    // Graceful shutdown: let another instance take over on its next tick instead of after the lease.
+    @Modifying
+    @Query("UPDATE ScheduledJobLease l SET l.leaseUntil = :now WHERE l.owner = :owner AND l.leaseUntil > :now")
+    int releaseAll(@Param("owner") String owner, @Param("now") LocalDateTime now);
+}
@@ -0,0 +1,30 @@
+package com.amos.garizetu.Scheduling.controller;
+
+import com.amos.garizetu.Scheduling.DTO.ScheduledJobStatusDTO;
+import com.amos.garizetu.Scheduling.service.ScheduledJobCoordinator;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/v1/admin/jobs")
+@RequiredArgsConstructor
+public class ScheduledJobController {
+
+    private final ScheduledJobCoordinator scheduledJobCoordinator;
+
+    /**
+     * Leader, lease and last run of every cluster-wide scheduled job
+     * GET /api/v1/admin/jobs
+     */
+    @GetMapping
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<List<ScheduledJobStatusDTO>> getJobs() {
+        return ResponseEntity.ok(scheduledJobCoordinator.getJobStatuses());
+    }
+}
@@ -0,0 +1,166 @@
+package com.amos.garizetu.Scheduling.service;
+
+import com.amos.garizetu.Scheduling.DTO.ScheduledJobStatusDTO;
+import com.amos.garizetu.Scheduling.Entity.ScheduledJobLease;
+import com.amos.garizetu.Scheduling.Enums.ScheduledJobOutcome;
+import com.amos.garizetu.Scheduling.Repository.ScheduledJobLeaseRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.lang.management.ManagementFactory;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Runs cluster-wide scheduled jobs on one instance at a time, using a lease row per job.
+ *
+ * Every instance keeps its @Scheduled trigger; each tick calls runExclusive, which only runs the job
+ * if this instance holds the lease (or can take it because it lapsed). The holder renews the lease to
+ * "finished + interval + failover grace" after each run, so it stays leader while alive and another
+ * instance takes over at most one missed run later if it dies. Leases are released on shutdown.
+ *
+ * Jobs that only refresh this instance's memory (availability index, notification set, counters,
+ * expiry deadlines) must keep running everywhere and should not use this.
+ */
+@Service
+@Slf4j
+public class ScheduledJobCoordinator {
+
+    private static final int MAX_ERROR_LENGTH = 500;
+
+    private final ScheduledJobLeaseRepository leaseRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final long failoverGraceMs;
+    private final String owner;
+
+    public ScheduledJobCoordinator(
+            ScheduledJobLeaseRepository leaseRepository,
+            PlatformTransactionManager transactionManager,
+            @Value("${scheduling.failover-grace-ms:30000}") long failoverGraceMs
+    ) {
+        this.leaseRepository = leaseRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        // Lease bookkeeping must commit on its own, whatever transaction the job itself uses.
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.failoverGraceMs = Math.max(0, failoverGraceMs);
+        this.owner = ManagementFactory.getRuntimeMXBean().getName() + "-" + UUID.randomUUID().toString().substring(0, 8);
+    }
+
+    /**
+     * Run job here if this instance is (or can become) its leader.
+     *
+     * @param interval how often the job is triggered; the lease covers one interval plus the failover grace
+     * @return true if the job ran on this instance
+     */
+    public boolean runExclusive(String jobName, Duration interval, Runnable job) {
+        Duration lease = interval.plusMillis(failoverGraceMs);
+        LocalDateTime startedAt = LocalDateTime.now();
+        if (!tryAcquire(jobName, startedAt, startedAt.plus(lease))) {
+            log.debug("Skipping job {}: lease held by another instance", jobName);
+            return false;
+        }
+
+        long started = System.nanoTime();
+        ScheduledJobOutcome outcome = ScheduledJobOutcome.SUCCEEDED;
+        String error = null;
+        try {
+            job.run();
+        } catch (RuntimeException ex) {
+            outcome = ScheduledJobOutcome.FAILED;
+            error = truncate(ex.getClass().getSimpleName() + ": " + ex.getMessage());
+            log.error("Scheduled job {} failed", jobName, ex);
+        } finally {
+            long durationMs = Duration.ofNanos(System.nanoTime() - started).toMillis();
+            recordRun(jobName, lease, durationMs, outcome, error);
+        }
+        return true;
+    }
+
+    public List<ScheduledJobStatusDTO> getJobStatuses() {
+        LocalDateTime now = LocalDateTime.now();
+        return leaseRepository.findAllByOrderByJobNameAsc().stream()
+                .map(lease -> new ScheduledJobStatusDTO(
+                        lease.getJobName(),
+                        lease.getOwner(),
+                        owner.equals(lease.getOwner()),
+                        lease.getLeaseUntil().isAfter(now),
+                        lease.getLeaseUntil(),
+                        lease.getLastStartedAt(),
+                        lease.getLastFinishedAt(),
+                        lease.getLastDurationMs(),
+                        lease.getLastOutcome(),
+                        lease.getLastError(),
+                        lease.getRunCount()
+                ))
+                .toList();
+    }
+
+    public String getOwner() {
+        return owner;
+    }
+
+    @PreDestroy
+    public void releaseLeases() {
+        try {
+            Integer released = transactionTemplate.execute(tx -> leaseRepository.releaseAll(owner, LocalDateTime.now()));
+            if (released != null && released > 0) {
+                log.info("Released {} scheduled job lease(s) held by {}", released, owner);
+            }
+        } catch (RuntimeException ex) {
+            log.warn("Could not release scheduled job leases: {}", ex.getMessage());
+        }
+    }
+
+    private boolean tryAcquire(String jobName, LocalDateTime now, LocalDateTime leaseUntil) {
+        try {
+            Boolean acquired = transactionTemplate.execute(tx -> {
+                if (leaseRepository.tryAcquire(jobName, owner, now, leaseUntil, ScheduledJobOutcome.RUNNING) == 1) {
+                    return true;
+                }
+                if (leaseRepository.existsById(jobName)) {
+                    return false;
+                }
+                ScheduledJobLease lease = new ScheduledJobLease();
+                lease.setJobName(jobName);
+                lease.setOwner(owner);
+                lease.setLeaseUntil(leaseUntil);
+                lease.setLastStartedAt(now);
+                lease.setLastOutcome(ScheduledJobOutcome.RUNNING);
+                leaseRepository.saveAndFlush(lease);
+                return true;
+            });
+            return Boolean.TRUE.equals(acquired);
+        } catch (DataIntegrityViolationException ex) {
+            // Another instance created the row first and holds the lease.
+            return false;
+        } catch (RuntimeException ex) {
+            log.warn("Could not acquire lease for job {}: {}", jobName, ex.getMessage());
+            return false;
+        }
+    }
+
+    private void recordRun(String jobName, Duration lease, long durationMs, ScheduledJobOutcome outcome, String error) {
+        LocalDateTime finishedAt = LocalDateTime.now();
+        try {
+            Integer updated = transactionTemplate.execute(tx -> leaseRepository.recordRun(
+                    jobName, owner, finishedAt.plus(lease), finishedAt, durationMs, outcome, error));
+            if (updated == null || updated == 0) {
+                log.warn("Job {} ran past its lease and was taken over by another instance", jobName);
+            }
+        } catch (RuntimeException ex) {
+            log.warn("Could not record run of job {}: {}", jobName, ex.getMessage());
+        }
+    }
+
+    private static String truncate(String message) {
+        return message.length() <= MAX_ERROR_LENGTH ? message : message.substring(0, MAX_ERROR_LENGTH);
+    }
+}
@@ -1,11 +1,11 @@
 package com.amos.garizetu.Service;
 
-import com.amos.garizetu.Booking.Entity.Booking;
-import com.amos.garizetu.Booking.Enums.BookingStatus;
-import com.amos.garizetu.Booking.Enums.PaymentStatus;
-import com.amos.garizetu.Booking.repository.BookingRepository;
+import com.amos.garizetu.Booking.event.PricingChangedEvent;
+import com.amos.garizetu.Booking.service.CarAvailabilityIndex;
+import com.amos.garizetu.Car.DTO.Request.CarAvailabilitySearch;
 import com.amos.garizetu.Car.DTO.Request.CarCreateRequest;
 import com.amos.garizetu.Car.DTO.Request.CarUpdateDTO;
+import com.amos.garizetu.Car.DTO.Response.CarCalendarDTO;
 import com.amos.garizetu.Car.DTO.Response.CarResponseDTO;
 import com.amos.garizetu.Car.Entity.Car;
 import com.amos.garizetu.Car.Entity.Feature;
@@ -13,10 +13,14 @@ import com.amos.garizetu.Car.Enums.CarAvailabilityStatus;
 import com.amos.garizetu.Car.Enums.CarStatus;
 import com.amos.garizetu.Car.Enums.FeaturedCategory;
 import com.amos.garizetu.Repository.CarRepository;
+import com.amos.garizetu.Car.exception.CarNotFoundException;
+import com.amos.garizetu.Car.exception.CarValidationException;
 import com.amos.garizetu.Car.mapper.CarMapper;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -25,11 +29,11 @@ import org.springframework.web.multipart.MultipartFile;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
-import java.util.Collections;
-import java.util.Comparator;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.Function;
 import java.util.LinkedHashSet;
 import java.util.List;
-import java.util.Map;
 import java.util.Set;
 import java.util.stream.Collectors;
 
@@ -39,25 +43,15 @@ import java.util.stream.Collectors;
 @Transactional
 public class CarService {
     private static final String LOCAL_IMAGE_PREFIX = "/api/v1/cars/images/";
-    private static final Set<BookingStatus> SOFT_LOCK_STATUSES = Set.of(
-            BookingStatus.PENDING_PAYMENT,
-            BookingStatus.PENDING
-    );
-    private static final Set<BookingStatus> BOOKED_STATUSES = Set.of(
-            BookingStatus.CONFIRMED,
-            BookingStatus.ADMIN_NOTIFIED,
-            BookingStatus.ACTIVE
-    );
-    private static final Set<PaymentStatus> SOFT_LOCK_PAYMENT_STATUSES = Set.of(
-            PaymentStatus.UNPAID,
-            PaymentStatus.FAILED
-    );
+    private static final int DEFAULT_CALENDAR_DAYS = 90;
+    private static final int MAX_CALENDAR_DAYS = 366;
 
     private final CarRepository carRepository;
     private final CarMapper carMapper;
     private final FileStorageService fileStorageService;
     private final FeatureService featureService;
-    private final BookingRepository bookingRepository;
+    private final CarAvailabilityIndex carAvailabilityIndex;
+    private final ApplicationEventPublisher eventPublisher;
 
 
     //Create a new car with image upload
@@ -149,20 +143,99 @@ public class CarService {
         return toResponseWithAvailability(car, LocalDateTime.now());
     }
 
+    /**
+     * Booked and soft-locked days for [from, to], served from the availability index and hold registry.
+     * Defaults to the next 90 days; ranges are limited to a year.
+     */
+    @Transactional(readOnly = true)
+    public CarCalendarDTO getCarCalendar(Long carId, LocalDate from, LocalDate to) {
+        LocalDateTime asOf = LocalDateTime.now();
+        LocalDate today = asOf.toLocalDate();
+        LocalDate start = from != null ? from : today;
+        LocalDate end = to != null ? to : start.plusDays(DEFAULT_CALENDAR_DAYS - 1);
+
+        if (start.isBefore(today)) {
+            throw new CarValidationException("Calendar 'from' date cannot be in the past");
+        }
+        if (end.isBefore(start)) {
+            throw new CarValidationException("Calendar 'to' date must be on or after 'from' date");
+        }
+        if (start.plusDays(MAX_CALENDAR_DAYS).isBefore(end.plusDays(1))) {
+            throw new CarValidationException("Calendar range cannot exceed " + MAX_CALENDAR_DAYS + " days");
+        }
+        if (!carRepository.existsById(carId)) {
+            throw new CarNotFoundException("Car not found with ID: " + carId);
+        }
+
+        CarAvailabilityIndex.CalendarDays days = carAvailabilityIndex.calendar(carId, start, end, asOf);
+        return new CarCalendarDTO(carId, start, end, days.bookedDates(), days.softLockedDates());
+    }
+
+    /**
+     * Cars free for the whole [pickupDate, returnDate) range that match the filters.
+     * Blocked cars are removed by one anti-join in the DB, so the cost does not grow with per-car checks.
+     */
+    @Transactional(readOnly = true)
+    public Page<CarResponseDTO> searchAvailableCars(CarAvailabilitySearch search, Pageable pageable) {
+        LocalDateTime asOf = LocalDateTime.now();
+        validateAvailabilitySearch(search, asOf.toLocalDate());
+
+        String make = search.getMake() == null || search.getMake().isBlank()
+                ? null
+                : search.getMake().trim().toLowerCase(Locale.ROOT);
+        Page<Long> ids = carRepository.findAvailableCarIds(
+                search.getPickupDate(),
+                search.getReturnDate(),
+                asOf,
+                make,
+                search.getBodyType(),
+                search.getFuelType(),
+                search.getTransmissionType(),
+                search.getMinSeats(),
+                search.getMinPrice(),
+                search.getMaxPrice(),
+                pageable
+        );
+        if (ids.isEmpty()) {
+            return new PageImpl<>(List.of(), pageable, ids.getTotalElements());
+        }
+
+        // The collection fetch is keyed by the page's ids, then put back in the page order.
+        Map<Long, Car> carsById = carRepository.findAllWithFeaturesByIdIn(ids.getContent()).stream()
+                .collect(Collectors.toMap(Car::getCarId, Function.identity(), (first, duplicate) -> first));
+        List<CarResponseDTO> content = ids.getContent().stream()
+                .map(carsById::get)
+                .filter(car -> car != null)
+                .map(car -> toResponseWithAvailability(car, asOf))
+                .toList();
+        return new PageImpl<>(content, pageable, ids.getTotalElements());
+    }
+
+    private void validateAvailabilitySearch(CarAvailabilitySearch search, LocalDate today) {
+        if (search.getPickupDate() == null || search.getReturnDate() == null) {
+            throw new CarValidationException("Both pickup and return dates are required");
+        }
+        if (search.getPickupDate().isBefore(today)) {
+            throw new CarValidationException("Pickup date cannot be in the past");
+        }
+        if (!search.getReturnDate().isAfter(search.getPickupDate())) {
+            throw new CarValidationException("Return date must be after pickup date");
+        }
+        if (search.getMinPrice() != null && search.getMaxPrice() != null
+                && search.getMinPrice() > search.getMaxPrice()) {
+            throw new CarValidationException("minPrice cannot be greater than maxPrice");
+        }
+    }
+
     //Fetch all Cars
     @Transactional(readOnly = true)
     public List<CarResponseDTO> getAllCars(){
         log.debug("Fetching all cars");
         List<Car> cars = carRepository.findAllWithFeatures();
         LocalDateTime now = LocalDateTime.now();
-        Map<Long, List<Booking>> bookingsByCarId = loadBlockingBookingsByCar(cars, now);
         log.debug("Fetched {} cars", cars.size());
         return cars.stream()
-                .map(car -> toResponseWithAvailability(
-                        car,
-                        now,
-                        bookingsByCarId.getOrDefault(car.getCarId(), List.of())
-                ))
+                .map(car -> toResponseWithAvailability(car, now))
                 .collect(Collectors.toList());
 
     }
@@ -171,14 +244,7 @@ public class CarService {
     public Page<CarResponseDTO> getAllCarsPage(Pageable pageable) {
         Page<Car> carsPage = carRepository.findAllWithFeatures(pageable);
         LocalDateTime now = LocalDateTime.now();
-        List<Car> cars = carsPage.getContent();
-        Map<Long, List<Booking>> bookingsByCarId = loadBlockingBookingsByCar(cars, now);
-
-        return carsPage.map(car -> toResponseWithAvailability(
-                car,
-                now,
-                bookingsByCarId.getOrDefault(car.getCarId(), List.of())
-        ));
+        return carsPage.map(car -> toResponseWithAvailability(car, now));
     }
     // Business Logic Methods
 
@@ -188,13 +254,8 @@ public class CarService {
         log.debug("Fetching cars by make {}", make);
         List<Car> cars = carRepository.findCarByMakeIgnoreCaseWithFeatures(make);
         LocalDateTime now = LocalDateTime.now();
-        Map<Long, List<Booking>> bookingsByCarId = loadBlockingBookingsByCar(cars, now);
         return cars.stream()
-                .map(car -> toResponseWithAvailability(
-                        car,
-                        now,
-                        bookingsByCarId.getOrDefault(car.getCarId(), List.of())
-                ))
+                .map(car -> toResponseWithAvailability(car, now))
                 .collect(Collectors.toList());
     }
 
@@ -202,14 +263,7 @@ public class CarService {
     public Page<CarResponseDTO> getCarsByMakePage(String make, Pageable pageable) {
         Page<Car> carsPage = carRepository.findCarByMakeIgnoreCaseWithFeatures(make, pageable);
         LocalDateTime now = LocalDateTime.now();
-        List<Car> cars = carsPage.getContent();
-        Map<Long, List<Booking>> bookingsByCarId = loadBlockingBookingsByCar(cars, now);
-
-        return carsPage.map(car -> toResponseWithAvailability(
-                car,
-                now,
-                bookingsByCarId.getOrDefault(car.getCarId(), List.of())
-        ));
+        return carsPage.map(car -> toResponseWithAvailability(car, now));
     }
 
     // Updating the car (partial update)
@@ -300,6 +354,10 @@ public class CarService {
         }
 
         Car savedCar = carRepository.save(car);
+        if (updateDTO.getDailyPrice() != null || updateDTO.getCarStatus() != null) {
+            // Cached quote pricing for this car is dropped once the change commits.
+            eventPublisher.publishEvent(new PricingChangedEvent(savedCar.getCarId()));
+        }
         return toResponseWithAvailability(savedCar, LocalDateTime.now());
     }
 
@@ -386,20 +444,17 @@ public class CarService {
         }
 
         carRepository.deleteById(id);
+        eventPublisher.publishEvent(new PricingChangedEvent(id));
         cleanupRemovedImageUrls(imageUrls, id);
     }
 
     private CarResponseDTO toResponseWithAvailability(Car car, LocalDateTime asOf) {
-        return toResponseWithAvailability(car, asOf, null);
-    }
-
-    private CarResponseDTO toResponseWithAvailability(Car car, LocalDateTime asOf, List<Booking> preloadedBookings) {
         CarResponseDTO dto = carMapper.toResponseDTO(car);
-        applyAvailability(dto, car, asOf, preloadedBookings);
+        applyAvailability(dto, car, asOf);
         return dto;
     }
 
-    private void applyAvailability(CarResponseDTO dto, Car car, LocalDateTime asOf, List<Booking> preloadedBookings) {
+    private void applyAvailability(CarResponseDTO dto, Car car, LocalDateTime asOf) {
         dto.setAvailabilityMessage(null);
         dto.setSoftLockExpiresAt(null);
         dto.setNextAvailableAt(null);
@@ -412,30 +467,12 @@ public class CarService {
             return;
         }
 
-        LocalDate today = asOf.toLocalDate();
-        List<Booking> carBookings = preloadedBookings != null
-                ? preloadedBookings
-                : bookingRepository.findByCarCarId(car.getCarId());
-        List<Booking> bookedBlocks = carBookings.stream()
-                .filter(booking -> isBookedBlocking(booking, today))
-                .sorted(
-                        Comparator.comparing(booking -> {
-                            if (booking.getReturnDate() != null) {
-                                return booking.getReturnDate().atStartOfDay();
-                            }
-                            if (booking.getPickupDate() != null) {
-                                return booking.getPickupDate().atStartOfDay();
-                            }
-                            return LocalDateTime.MAX;
-                        })
-                )
-                .collect(Collectors.toList());
-        List<Booking> softLockBlocks = carBookings.stream()
-                .filter(booking -> isSoftLockBlocking(booking, asOf))
-                .sorted(Comparator.comparing(Booking::getPaymentExpiresAt))
-                .collect(Collectors.toList());
+        // Served from the in-memory availability index: no per-car booking query.
+        CarAvailabilityIndex.BlockedInterval blocker = carAvailabilityIndex
+                .findCurrentBlocker(car.getCarId(), asOf)
+                .orElse(null);
 
-        if (bookedBlocks.isEmpty() && softLockBlocks.isEmpty()) {
+        if (blocker == null) {
             if (car.getCarStatus() == CarStatus.RENTED) {
                 dto.setAvailabilityStatus(CarAvailabilityStatus.BOOKED);
                 dto.setAvailabilityMessage("This vehicle is currently in an active rental.");
@@ -447,51 +484,35 @@ public class CarService {
             return;
         }
 
-        Booking blocker = !bookedBlocks.isEmpty() ? bookedBlocks.get(0) : softLockBlocks.get(0);
-        dto.setBlockedFromDate(blocker.getPickupDate());
-        dto.setBlockedToDate(blocker.getReturnDate());
+        dto.setBlockedFromDate(blocker.pickupDate());
+        dto.setBlockedToDate(blocker.returnDate());
 
-        if (isSoftLockBlocking(blocker, asOf)) {
+        if (blocker.isSoftLock()) {
+            // Null once the window has passed and a payment is still settling: the end is not known.
+            LocalDateTime openUntil = blocker.openUntil(asOf);
             dto.setAvailabilityStatus(CarAvailabilityStatus.SOFT_LOCKED);
-            dto.setSoftLockExpiresAt(blocker.getPaymentExpiresAt());
-            dto.setNextAvailableAt(blocker.getPaymentExpiresAt());
-            dto.setAvailabilityMessage(
-                    "This vehicle is temporarily reserved while another customer completes payment."
-            );
+            dto.setSoftLockExpiresAt(openUntil);
+            dto.setNextAvailableAt(openUntil);
+            dto.setAvailabilityMessage(openUntil != null
+                    ? "This vehicle is temporarily reserved while another customer completes payment."
+                    : "This vehicle is temporarily reserved while another customer's payment is confirmed.");
             return;
         }
 
         dto.setAvailabilityStatus(CarAvailabilityStatus.BOOKED);
-        if (blocker.getReturnDate() != null) {
-            dto.setNextAvailableAt(blocker.getReturnDate().atStartOfDay());
+        if (blocker.returnDate() != null) {
+            // Follow back-to-back bookings so "next available" is the real next free day.
+            LocalDate nextFreeDate = carAvailabilityIndex.findNextAvailableDate(
+                    car.getCarId(), blocker.returnDate(), asOf);
+            dto.setNextAvailableAt(nextFreeDate.atStartOfDay());
             dto.setAvailabilityMessage(
-                    "This vehicle is booked from " + blocker.getPickupDate() + " to " + blocker.getReturnDate() + "."
+                    "This vehicle is booked from " + blocker.pickupDate() + " to " + blocker.returnDate() + "."
             );
         } else {
             dto.setAvailabilityMessage("This vehicle is currently booked.");
         }
     }
 
-    private boolean isSoftLockBlocking(Booking booking, LocalDateTime asOf) {
-        return booking != null
-                && SOFT_LOCK_STATUSES.contains(booking.getBookingStatus())
-                && SOFT_LOCK_PAYMENT_STATUSES.contains(booking.getPaymentStatus())
-                && booking.getPaymentExpiresAt() != null
-                && booking.getPaymentExpiresAt().isAfter(asOf);
-    }
-
-    private boolean isBookedBlocking(Booking booking, LocalDate today) {
-        if (booking == null || !BOOKED_STATUSES.contains(booking.getBookingStatus())) {
-            return false;
-        }
-
-        if (booking.getReturnDate() == null) {
-            return true;
-        }
-
-        return !booking.getReturnDate().isBefore(today);
-    }
-
     private void validateCarYear(int carYear) {
         int currentYear = LocalDate.now().getYear();
 
@@ -528,25 +549,6 @@ public class CarService {
                 || carRepository.existsGalleryImageReference(imageUrl, excludedCarId);
     }
 
-    private Map<Long, List<Booking>> loadBlockingBookingsByCar(List<Car> cars, LocalDateTime asOf) {
-        if (cars == null || cars.isEmpty()) {
-            return Collections.emptyMap();
-        }
-
-        List<Long> carIds = cars.stream()
-                .map(Car::getCarId)
-                .filter(id -> id != null)
-                .collect(Collectors.toList());
-
-        if (carIds.isEmpty()) {
-            return Collections.emptyMap();
-        }
-
-        return bookingRepository.findBlockingBookingsForCars(carIds, asOf.toLocalDate(), asOf).stream()
-                .filter(booking -> booking.getCar() != null && booking.getCar().getCarId() != null)
-                .collect(Collectors.groupingBy(booking -> booking.getCar().getCarId()));
-    }
-
     private void deleteImageByUrl(String imageUrl) {
         try {
             String fileName = extractLocalFileName(imageUrl);
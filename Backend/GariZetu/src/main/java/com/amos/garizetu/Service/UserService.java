@@ -12,6 +12,7 @@ import com.amos.garizetu.User.UserRole;
 import com.amos.garizetu.User.UserStatus;
 import com.amos.garizetu.User.mapper.UserMapper;
 import com.amos.garizetu.util.JWTUtil;
+import com.amos.garizetu.util.SecurityUtils;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Page;
@@ -35,6 +36,7 @@ public class UserService {
     private final PasswordEncoder passwordEncoder;
     private final JWTUtil jwtUtil;
     private final UserMapper userMapper;
+    private final SecurityUtils securityUtils;
 
 
     // Helper method that allows auto sign in
@@ -435,6 +437,7 @@ public class UserService {
                 .orElseThrow(() -> new RuntimeException("User not found with ID: " + userId));
 
         userRepository.delete(user);
+        securityUtils.forgetUser(user.getEmail());
         log.info("Successfully deleted user {}", userId);
     }
 
@@ -57,11 +57,17 @@ public class SecurityConfig {
 
                         // Allow error dispatches so server-side exceptions surface as real 4xx/5xx responses.
                         .dispatcherTypeMatchers(DispatcherType.ERROR).permitAll()
+                        // Async re-dispatches (streamed exports) finish a request that was already authorized.
+                        .dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll()
                         .requestMatchers("/error").permitAll()
 
                         // CORS preflight - must be public or browser blocks all API calls
                         .requestMatchers(HttpMethod.OPTIONS, "/api/**").permitAll()
 
+                        // Liveness is public for the platform probe; metrics are admin-only.
+                        .requestMatchers(HttpMethod.GET, "/actuator/health").permitAll()
+                        .requestMatchers("/actuator/**").hasRole("ADMIN")
+
                         // PUBLIC auth endpoints
                         .requestMatchers("/api/v1/auth/**").permitAll()
 
@@ -70,6 +76,7 @@ public class SecurityConfig {
                         .requestMatchers(HttpMethod.GET, "/api/v1/content/**").permitAll()
                         .requestMatchers(HttpMethod.GET, "/api/v1/contact/**").permitAll()
                         .requestMatchers(HttpMethod.POST, "/api/v1/contact/messages").permitAll()
+                        .requestMatchers(HttpMethod.POST, "/api/v1/bookings/quote").permitAll()
 
                         // Car write endpoints require authentication (role checks are enforced via @PreAuthorize)
                         .requestMatchers(HttpMethod.POST, "/api/v1/cars/**").authenticated()
@@ -0,0 +1,79 @@
+package com.amos.garizetu.util;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Supplier;
+
+/**
+ * Re-runs a transactional service call when it loses an @Version race.
+ *
+ * Only wrap operations that are safe to repeat: each attempt re-reads the rows and re-validates,
+ * so the retry applies the caller's intent to the winner's state (or rejects it). Must be called
+ * outside a transaction; inside one a retry would reuse the stale persistence context, so the call
+ * runs once. When attempts run out the OptimisticLockingFailureException propagates (mapped to 409).
+ */
+@Component
+@Slf4j
+public class OptimisticLockRetry {
+
+    private final int maxAttempts;
+    private final long backoffMs;
+    private final Counter retries;
+    private final Counter exhausted;
+
+    public OptimisticLockRetry(
+            MeterRegistry meterRegistry,
+            @Value("${optimistic-retry.max-attempts:3}") int maxAttempts,
+            @Value("${optimistic-retry.backoff-ms:20}") long backoffMs
+    ) {
+        this.maxAttempts = Math.max(1, maxAttempts);
+        this.backoffMs = Math.max(0, backoffMs);
+        this.retries = Counter.builder("optimistic.lock.retries")
+                .description("Service calls re-run after a concurrent version change")
+                .register(meterRegistry);
+        this.exhausted = Counter.builder("optimistic.lock.exhausted")
+                .description("Service calls that kept conflicting and were answered with 409")
+                .register(meterRegistry);
+    }
+
+    public <T> T execute(String operation, Supplier<T> action) {
+        if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            return action.get();
+        }
+
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return action.get();
+            } catch (OptimisticLockingFailureException ex) {
+                if (attempt >= maxAttempts) {
+                    exhausted.increment();
+                    log.warn("{} still conflicting after {} attempt(s): {}", operation, attempt, ex.getMessage());
+                    throw ex;
+                }
+                retries.increment();
+                log.debug("{} lost a concurrent update (attempt {}); retrying", operation, attempt);
+                pause(attempt);
+            }
+        }
+    }
+
+    // Jittered linear backoff so two retrying writers do not collide again in lockstep.
+    private void pause(int attempt) {
+        if (backoffMs == 0) {
+            return;
+        }
+        try {
+            Thread.sleep(ThreadLocalRandom.current().nextLong(backoffMs * attempt / 2, backoffMs * attempt + 1));
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while retrying a conflicting update", ex);
+        }
+    }
+}
@@ -2,17 +2,39 @@ package com.amos.garizetu.util;
 
 import com.amos.garizetu.Repository.UserRepository;
 import com.amos.garizetu.User.Entity.User;
-import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Component;
 
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+
 @Component
-@RequiredArgsConstructor
 public class SecurityUtils {
 
     private final UserRepository userRepository;
+    private final long userIdCacheTtlMs;
+    // Email -> userId for JWT principals, so authenticated calls skip the users lookup. Bounded LRU.
+    private final Map<String, CachedUserId> userIds;
+
+    public SecurityUtils(
+            UserRepository userRepository,
+            @Value("${jwt.user-id-cache-size:10000}") int userIdCacheSize,
+            @Value("${jwt.user-id-cache-ttl-ms:600000}") long userIdCacheTtlMs
+    ) {
+        this.userRepository = userRepository;
+        this.userIdCacheTtlMs = userIdCacheTtlMs;
+        int capacity = Math.max(1, userIdCacheSize);
+        this.userIds = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, CachedUserId> eldest) {
+                return size() > capacity;
+            }
+        };
+    }
 
     /**
      * Resolve the authenticated application's user ID from Spring Security context.
@@ -64,9 +86,38 @@ public class SecurityUtils {
                 .anyMatch(authority -> requiredAuthority.equals(authority.getAuthority()));
     }
 
+    /**
+     * Drop a cached email mapping, e.g. when the account is deleted and the email may be reused.
+     * Other instances keep theirs until the TTL lapses.
+     */
+    public void forgetUser(String email) {
+        if (email == null) {
+            return;
+        }
+        synchronized (userIds) {
+            userIds.remove(email.toLowerCase(Locale.ROOT));
+        }
+    }
+
     private Long resolveUserIdByEmail(String email) {
-        return userRepository.findByEmailIgnoreCase(email)
+        String key = email.toLowerCase(Locale.ROOT);
+        long now = System.currentTimeMillis();
+        synchronized (userIds) {
+            CachedUserId cached = userIds.get(key);
+            if (cached != null && now - cached.resolvedAt() < userIdCacheTtlMs) {
+                return cached.userId();
+            }
+        }
+
+        Long userId = userRepository.findByEmailIgnoreCase(email)
                 .map(User::getUserId)
                 .orElseThrow(() -> new RuntimeException("Authenticated user not found for email: " + email));
+        synchronized (userIds) {
+            userIds.put(key, new CachedUserId(userId, now));
+        }
+        return userId;
+    }
+
+    private record CachedUserId(Long userId, long resolvedAt) {
     }
 }
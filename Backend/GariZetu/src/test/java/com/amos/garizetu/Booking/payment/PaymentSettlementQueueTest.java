@@ -0,0 +1,350 @@
+package com.amos.garizetu.Booking.payment;
+
+import com.amos.garizetu.Booking.event.PaymentAttemptAcceptedEvent;
+import com.amos.garizetu.Booking.Entity.Booking;
+import com.amos.garizetu.Booking.Entity.PaymentAttemptRecord;
+import com.amos.garizetu.Booking.repository.BookingRepository;
+import com.amos.garizetu.Booking.repository.PaymentAttemptRecordRepository;
+import com.amos.garizetu.Booking.service.BookingService;
+import com.amos.garizetu.Scheduling.service.ScheduledJobCoordinator;
+import com.amos.garizetu.util.OptimisticLockRetry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.dao.OptimisticLockingFailureException;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class PaymentSettlementQueueTest {
+
+    private static final int ATTEMPTS = 500;
+
+    private final BookingService bookingService = mock(BookingService.class);
+    private final BookingRepository bookingRepository = mock(BookingRepository.class);
+    private final PaymentAttemptRecordRepository attemptRecords = mock(PaymentAttemptRecordRepository.class);
+    private final ScheduledJobCoordinator jobCoordinator = coordinator("instance-a");
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final OptimisticLockRetry lockRetry = new OptimisticLockRetry(meterRegistry, 2, 0);
+    // payment_attempt_records as the mocked repository sees it.
+    private final Map<Long, PaymentAttemptRecord> store = new ConcurrentHashMap<>();
+    private final AtomicInteger claimCalls = new AtomicInteger();
+    private final List<PaymentSettlementQueue> queues = new ArrayList<>();
+
+    @BeforeEach
+    void emulateAttemptStore() {
+        when(attemptRecords.claim(any(), anyString(), any(), any())).thenAnswer(invocation -> {
+            Collection<Long> ids = invocation.getArgument(0);
+            String claim = invocation.getArgument(1);
+            LocalDateTime now = invocation.getArgument(2);
+            LocalDateTime staleBefore = invocation.getArgument(3);
+            claimCalls.incrementAndGet();
+            int claimed = 0;
+            synchronized (store) {
+                for (Long id : ids) {
+                    PaymentAttemptRecord record = store.get(id);
+                    if (record != null && (record.getClaimedAt() == null || !record.getClaimedAt().isAfter(staleBefore))) {
+                        record.setClaimedBy(claim);
+                        record.setClaimedAt(now);
+                        claimed++;
+                    }
+                }
+            }
+            return claimed;
+        });
+        when(attemptRecords.findAllById(any())).thenAnswer(invocation -> {
+            Collection<Long> ids = invocation.getArgument(0);
+            synchronized (store) {
+                return ids.stream().map(store::get).filter(record -> record != null).map(this::copy).toList();
+            }
+        });
+        when(attemptRecords.recordOutcome(any(), anyString(), anyBoolean(), any(), any(), any())).thenAnswer(invocation -> {
+            synchronized (store) {
+                PaymentAttemptRecord record = store.get(invocation.<Long>getArgument(0));
+                if (record == null || !invocation.getArgument(1).equals(record.getClaimedBy())) {
+                    return 0;
+                }
+                record.setSuccessful(invocation.getArgument(2));
+                record.setPaymentReference(invocation.getArgument(3));
+                record.setFailureReason(invocation.getArgument(4));
+                record.setRecordedAt(invocation.getArgument(5));
+                return 1;
+            }
+        });
+        when(attemptRecords.findStale(any())).thenAnswer(invocation -> {
+            LocalDateTime staleBefore = invocation.getArgument(0);
+            synchronized (store) {
+                return store.values().stream()
+                        .filter(record -> record.getClaimedAt() == null
+                                ? !record.getAcceptedAt().isAfter(staleBefore)
+                                : !record.getClaimedAt().isAfter(staleBefore))
+                        .map(this::copy)
+                        .toList();
+            }
+        });
+        when(attemptRecords.saveAll(any())).thenAnswer(invocation -> {
+            List<PaymentAttemptRecord> records = invocation.getArgument(0);
+            records.forEach(record -> store.put(record.getBookingId(), copy(record)));
+            return records;
+        });
+        when(bookingRepository.findStaleProcessingPayments(any())).thenReturn(List.of());
+    }
+
+    @AfterEach
+    void stopWorkers() {
+        queues.forEach(PaymentSettlementQueue::stop);
+    }
+
+    @Test
+    void spikeOfAttemptsSettlesEveryBookingOnceInBatches() throws Exception {
+        List<Integer> batchSizes = new CopyOnWriteArrayList<>();
+        Set<Long> settled = ConcurrentHashMap.newKeySet();
+        CountDownLatch allSettled = new CountDownLatch(ATTEMPTS);
+        when(bookingService.settlePayments(any())).thenAnswer(invocation -> {
+            List<PaymentGatewayResult> results = invocation.getArgument(0);
+            batchSizes.add(results.size());
+            for (PaymentGatewayResult result : results) {
+                assertThat(settled.add(result.bookingId())).as("booking %s settled twice", result.bookingId()).isTrue();
+                store.remove(result.bookingId());
+                allSettled.countDown();
+            }
+            return results.size();
+        });
+
+        PaymentSettlementQueue queue = queue(jobCoordinator, new FakePaymentGateway(0), 4, 50, 10_000, 0);
+
+        // Accept the whole spike before any worker runs, as a burst of callbacks would.
+        for (long id = 1; id <= ATTEMPTS; id++) {
+            accept(queue, id, id % 10 != 0);
+        }
+        assertThat(queue.queueDepth()).isEqualTo(ATTEMPTS);
+
+        queue.start();
+        assertThat(allSettled.await(10, TimeUnit.SECONDS)).isTrue();
+        // The latch trips inside settlePayments; the worker records metrics just after it returns.
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (meterRegistry.get("booking.payments.settlement.latency").timer().count() < ATTEMPTS
+                && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+
+        assertThat(settled).hasSize(ATTEMPTS);
+        assertThat(batchSizes.size()).isLessThan(ATTEMPTS);
+        assertThat(batchSizes).allMatch(size -> size <= 50);
+        assertThat(meterRegistry.get("booking.payments.settled").tag("outcome", "failed").counter().count())
+                .isEqualTo(ATTEMPTS / 10.0);
+        assertThat(meterRegistry.get("booking.payments.settlement.latency").timer().count()).isEqualTo(ATTEMPTS);
+    }
+
+    @Test
+    void duplicateAcceptanceForOneBookingIsQueuedOnce() {
+        PaymentSettlementQueue queue = queue(jobCoordinator, new FakePaymentGateway(0), 1, 10, 100, 0);
+
+        PaymentAttemptAcceptedEvent event = new PaymentAttemptAcceptedEvent(7L, "M_PESA", 500, null, LocalDateTime.now());
+        queue.onPaymentAccepted(event);
+        queue.onPaymentAccepted(event);
+
+        assertThat(queue.queueDepth()).isEqualTo(1);
+    }
+
+    @Test
+    void startupRecoveryOnlyResumesStaleAttemptsUnderTheLease() {
+        runRecoveryInline(jobCoordinator);
+        Booking legacy = new Booking();
+        legacy.setBookingId(9L);
+        legacy.setPaymentMethod("M_PESA");
+        legacy.setTotalPrice(4000);
+        legacy.setUpdatedAt(LocalDateTime.now().minusHours(1));
+        when(bookingRepository.findStaleProcessingPayments(any())).thenReturn(List.of(legacy));
+        PaymentSettlementQueue queue = queue(jobCoordinator, new FakePaymentGateway(0), 1, 10, 100, 120_000);
+
+        LocalDateTime startedAt = LocalDateTime.now();
+        queue.start();
+
+        // Attempts accepted or claimed in the last stale-after-ms are still being settled elsewhere.
+        ArgumentCaptor<LocalDateTime> cutoff = ArgumentCaptor.forClass(LocalDateTime.class);
+        verify(attemptRecords).findStale(cutoff.capture());
+        assertThat(cutoff.getValue()).isBeforeOrEqualTo(startedAt.minus(Duration.ofMillis(120_000)).plusSeconds(1));
+        verify(bookingRepository).findStaleProcessingPayments(cutoff.getValue());
+        // A PROCESSING row from before attempts were stored is adopted so it can be claimed like any other.
+        assertThat(store).containsKey(9L);
+        assertThat(store.get(9L).getSimulatedOutcome()).isNull();
+    }
+
+    @Test
+    void attemptClaimedByAnotherInstanceIsNotChargedAgain() throws Exception {
+        CountDownLatch charging = new CountDownLatch(1);
+        CountDownLatch releaseCharge = new CountDownLatch(1);
+        AtomicInteger charges = new AtomicInteger();
+        PaymentGateway slowGateway = attempt -> {
+            charges.incrementAndGet();
+            charging.countDown();
+            try {
+                releaseCharge.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+            }
+            return PaymentGatewayResult.success(attempt.bookingId(), "REF-" + attempt.bookingId());
+        };
+        CountDownLatch applied = new CountDownLatch(1);
+        when(bookingService.settlePayments(any())).thenAnswer(invocation -> {
+            List<PaymentGatewayResult> results = invocation.getArgument(0);
+            results.forEach(result -> store.remove(result.bookingId()));
+            applied.countDown();
+            return results.size();
+        });
+
+        PaymentSettlementQueue first = queue(jobCoordinator, slowGateway, 1, 10, 100, 120_000);
+        PaymentSettlementQueue second = queue(coordinator("instance-b"), slowGateway, 1, 10, 100, 120_000);
+        accept(first, 4L, null);
+        first.start();
+        assertThat(charging.await(5, TimeUnit.SECONDS)).isTrue();
+
+        // The same attempt reaches a second instance (e.g. re-queued by its recovery) mid-charge.
+        second.onPaymentAccepted(new PaymentAttemptAcceptedEvent(4L, "M_PESA", 1000, null, LocalDateTime.now()));
+        second.start();
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (claimCalls.get() < 2 && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        releaseCharge.countDown();
+
+        assertThat(applied.await(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(claimCalls).hasValue(2);
+        assertThat(charges).hasValue(1);
+    }
+
+    @Test
+    void recoveredAttemptKeepsItsRequestedOutcome() throws Exception {
+        PaymentAttemptRecord declined = PaymentAttemptRecord.accepted(
+                new PaymentAttempt(5L, "M_PESA", 1000, false, LocalDateTime.now().minusMinutes(10)));
+        store.put(5L, declined);
+        List<PaymentGatewayResult> settled = new CopyOnWriteArrayList<>();
+        CountDownLatch applied = new CountDownLatch(1);
+        when(bookingService.settlePayments(any())).thenAnswer(invocation -> {
+            List<PaymentGatewayResult> results = invocation.getArgument(0);
+            settled.addAll(results);
+            applied.countDown();
+            return results.size();
+        });
+        runRecoveryInline(jobCoordinator);
+
+        queue(jobCoordinator, new FakePaymentGateway(0), 1, 10, 100, 120_000).start();
+
+        assertThat(applied.await(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(settled).singleElement().satisfies(result -> {
+            assertThat(result.bookingId()).isEqualTo(5L);
+            assertThat(result.successful()).isFalse();
+        });
+    }
+
+    @Test
+    void conflictingBookingIsAppliedAloneAndItsOutcomeReplayedInsteadOfRecharged() throws Exception {
+        Map<Long, AtomicInteger> charges = new ConcurrentHashMap<>();
+        PaymentGateway gateway = attempt -> {
+            charges.computeIfAbsent(attempt.bookingId(), id -> new AtomicInteger()).incrementAndGet();
+            return PaymentGatewayResult.success(attempt.bookingId(), "REF-" + attempt.bookingId());
+        };
+
+        // Booking 2 keeps losing its @Version race until a later recovery; the others must not wait on it.
+        AtomicInteger conflictsLeft = new AtomicInteger(3);
+        Set<Long> applied = ConcurrentHashMap.newKeySet();
+        CountDownLatch firstPass = new CountDownLatch(2);
+        CountDownLatch replayed = new CountDownLatch(1);
+        when(bookingService.settlePayments(any())).thenAnswer(invocation -> {
+            List<PaymentGatewayResult> results = invocation.getArgument(0);
+            boolean hasConflict = results.stream().anyMatch(result -> result.bookingId() == 2L);
+            if (hasConflict && conflictsLeft.getAndDecrement() > 0) {
+                throw new OptimisticLockingFailureException("Booking 2 was modified concurrently");
+            }
+            for (PaymentGatewayResult result : results) {
+                assertThat(applied.add(result.bookingId())).isTrue();
+                store.remove(result.bookingId());
+                (result.bookingId() == 2L ? replayed : firstPass).countDown();
+            }
+            return results.size();
+        });
+
+        PaymentSettlementQueue queue = queue(jobCoordinator, gateway, 1, 10, 100, 0);
+        for (long id = 1; id <= 3; id++) {
+            accept(queue, id, null);
+        }
+        queue.start();
+        assertThat(firstPass.await(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(applied).containsExactlyInAnyOrder(1L, 3L);
+
+        // Booking 2 keeps its claimed row with the outcome recorded; recovery must replay it.
+        runRecoveryInline(jobCoordinator);
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (replayed.getCount() > 0 && System.nanoTime() < deadline) {
+            queue.scheduledRecovery();
+            replayed.await(50, TimeUnit.MILLISECONDS);
+        }
+
+        assertThat(applied).containsExactlyInAnyOrder(1L, 2L, 3L);
+        assertThat(charges).allSatisfy((bookingId, count) -> assertThat(count.get()).isEqualTo(1));
+    }
+
+    private PaymentSettlementQueue queue(ScheduledJobCoordinator coordinator, PaymentGateway gateway,
+                                         int workers, int batchSize, int capacity, long staleAfterMs) {
+        PaymentSettlementQueue queue = new PaymentSettlementQueue(
+                bookingService, bookingRepository, attemptRecords, gateway, lockRetry,
+                coordinator, meterRegistry, workers, batchSize, capacity, staleAfterMs, 60_000);
+        queues.add(queue);
+        return queue;
+    }
+
+    // What BookingService#submitPayment commits before the acceptance event fires.
+    private void accept(PaymentSettlementQueue queue, long bookingId, Boolean simulatedOutcome) {
+        PaymentAttemptAcceptedEvent event =
+                new PaymentAttemptAcceptedEvent(bookingId, "M_PESA", 1000, simulatedOutcome, LocalDateTime.now());
+        store.put(bookingId, PaymentAttemptRecord.accepted(new PaymentAttempt(
+                event.bookingId(), event.paymentMethod(), event.amount(), event.simulatedOutcome(), event.acceptedAt())));
+        queue.onPaymentAccepted(event);
+    }
+
+    private static ScheduledJobCoordinator coordinator(String owner) {
+        ScheduledJobCoordinator coordinator = mock(ScheduledJobCoordinator.class);
+        when(coordinator.getOwner()).thenReturn(owner);
+        return coordinator;
+    }
+
+    private static void runRecoveryInline(ScheduledJobCoordinator coordinator) {
+        when(coordinator.runExclusive(eq(PaymentSettlementQueue.RECOVERY_JOB), any(), any())).thenAnswer(invocation -> {
+            invocation.<Runnable>getArgument(2).run();
+            return true;
+        });
+    }
+
+    private PaymentAttemptRecord copy(PaymentAttemptRecord record) {
+        PaymentAttemptRecord copy = PaymentAttemptRecord.accepted(record.toAttempt());
+        copy.setClaimedBy(record.getClaimedBy());
+        copy.setClaimedAt(record.getClaimedAt());
+        copy.setSuccessful(record.getSuccessful());
+        copy.setPaymentReference(record.getPaymentReference());
+        copy.setFailureReason(record.getFailureReason());
+        copy.setRecordedAt(record.getRecordedAt());
+        return copy;
+    }
+}
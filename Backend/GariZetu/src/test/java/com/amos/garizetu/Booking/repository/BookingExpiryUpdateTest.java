@@ -0,0 +1,115 @@
+package com.amos.garizetu.Booking.repository;
+
+import com.amos.garizetu.Booking.Entity.Booking;
+import com.amos.garizetu.Booking.Enums.BookingStatus;
+import com.amos.garizetu.Booking.Enums.PaymentStatus;
+import com.amos.garizetu.Car.Entity.Car;
+import com.amos.garizetu.Car.Enums.CarStatus;
+import com.amos.garizetu.Car.Enums.FuelType;
+import com.amos.garizetu.Car.Enums.TransmissionType;
+import com.amos.garizetu.User.Entity.User;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * The expiry engine's conditional UPDATE only matches a hold that is still unpaid, in the status
+ * the engine read, with its window closed.
+ */
+@DataJpaTest(properties = {
+        "spring.jpa.database=H2",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.properties.hibernate.auto_quote_keyword=true"
+})
+class BookingExpiryUpdateTest {
+
+    private static final LocalDateTime NOW = LocalDateTime.of(2030, 1, 1, 12, 0);
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    private Car car;
+    private User user;
+
+    @BeforeEach
+    void seed() {
+        car = new Car();
+        car.setMake("Mazda");
+        car.setVehicleModel("Demio");
+        car.setRegistrationNumber("KDB 100B");
+        car.setYear(2019);
+        car.setColour("Red");
+        car.setDailyPrice(2500);
+        car.setCarStatus(CarStatus.AVAILABLE);
+        car.setTransmissionType(TransmissionType.AUTOMATIC);
+        car.setFuelType(FuelType.PETROL);
+        entityManager.persist(car);
+
+        user = new User();
+        user.setUserName("holder");
+        user.setEmail("holder@example.com");
+        user.setHashedPassword("x");
+        entityManager.persist(user);
+    }
+
+    @Test
+    void lapsedUnpaidHoldIsExpiredAndVersioned() {
+        Booking hold = hold(PaymentStatus.UNPAID, NOW.minusMinutes(1));
+        Long version = hold.getVersion();
+
+        int updated = bookingRepository.expireLapsedPaymentHold(hold.getBookingId(), BookingStatus.PENDING_PAYMENT, NOW);
+
+        Booking expired = bookingRepository.findById(hold.getBookingId()).orElseThrow();
+        assertThat(updated).isEqualTo(1);
+        assertThat(expired.getBookingStatus()).isEqualTo(BookingStatus.EXPIRED);
+        assertThat(expired.isAdminNotificationRead()).isTrue();
+        assertThat(expired.getVersion()).isGreaterThan(version);
+    }
+
+    @Test
+    void paymentOrExtensionCommittedFirstIsNotOverwritten() {
+        Booking paying = hold(PaymentStatus.PROCESSING, NOW.minusMinutes(1));
+        Booking extended = hold(PaymentStatus.UNPAID, NOW.plusMinutes(10));
+        Booking confirmed = hold(PaymentStatus.UNPAID, NOW.minusMinutes(1));
+        confirmed.setBookingStatus(BookingStatus.CONFIRMED);
+        entityManager.flush();
+
+        assertThat(bookingRepository.expireLapsedPaymentHold(paying.getBookingId(), BookingStatus.PENDING_PAYMENT, NOW))
+                .isZero();
+        assertThat(bookingRepository.expireLapsedPaymentHold(extended.getBookingId(), BookingStatus.PENDING_PAYMENT, NOW))
+                .isZero();
+        assertThat(bookingRepository.expireLapsedPaymentHold(confirmed.getBookingId(), BookingStatus.PENDING_PAYMENT, NOW))
+                .isZero();
+        assertThat(bookingRepository.findById(confirmed.getBookingId()).orElseThrow().getBookingStatus())
+                .isEqualTo(BookingStatus.CONFIRMED);
+    }
+
+    private Booking hold(PaymentStatus paymentStatus, LocalDateTime paymentExpiresAt) {
+        Booking booking = new Booking();
+        booking.setCar(car);
+        booking.setUser(user);
+        booking.setPickupDate(LocalDate.of(2030, 2, 1));
+        booking.setReturnDate(LocalDate.of(2030, 2, 3));
+        booking.setDailyPrice(2500);
+        booking.setTotalPrice(5000);
+        booking.setPickupLocation("Nairobi");
+        booking.setReturnLocation("Nairobi");
+        booking.setBookingStatus(BookingStatus.PENDING_PAYMENT);
+        booking.setPaymentStatus(paymentStatus);
+        booking.setPaymentExpiresAt(paymentExpiresAt);
+        booking.setAdminNotificationRead(false);
+        entityManager.persist(booking);
+        entityManager.flush();
+        return booking;
+    }
+}
@@ -0,0 +1,167 @@
+package com.amos.garizetu.Booking.repository;
+
+import com.amos.garizetu.Booking.Entity.Booking;
+import com.amos.garizetu.Booking.Enums.BookingStatus;
+import com.amos.garizetu.Booking.Enums.PaymentStatus;
+import com.amos.garizetu.Car.Entity.Car;
+import com.amos.garizetu.Car.Enums.CarStatus;
+import com.amos.garizetu.Car.Enums.FuelType;
+import com.amos.garizetu.Car.Enums.TransmissionType;
+import com.amos.garizetu.User.Entity.User;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Each list page must be answered by its own select (plus the count for offset pages),
+ * never by follow-up selects for the car, user, gallery or features of each row.
+ */
+@DataJpaTest(properties = {
+        "spring.jpa.database=H2",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.properties.hibernate.auto_quote_keyword=true",
+        "spring.jpa.properties.hibernate.generate_statistics=true"
+})
+class BookingListViewQueryCountTest {
+
+    private static final int CARS = 5;
+    private static final int BOOKINGS_PER_CAR = 6;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+    private Long firstCarId;
+    private Long firstUserId;
+
+    @BeforeEach
+    void seed() {
+        for (int c = 0; c < CARS; c++) {
+            Car car = new Car();
+            car.setMake("Make" + c);
+            car.setVehicleModel("Model" + c);
+            car.setRegistrationNumber("KDA 00" + c);
+            car.setYear(2020);
+            car.setColour("Blue");
+            car.setDailyPrice(1000);
+            car.setCarStatus(CarStatus.AVAILABLE);
+            car.setTransmissionType(TransmissionType.AUTOMATIC);
+            car.setFuelType(FuelType.PETROL);
+            car.setGalleryImageUrls(List.of("a.jpg", "b.jpg"));
+            entityManager.persist(car);
+
+            User user = new User();
+            user.setUserName("user" + c);
+            user.setEmail("user" + c + "@example.com");
+            user.setHashedPassword("x");
+            entityManager.persist(user);
+
+            if (c == 0) {
+                firstCarId = car.getCarId();
+                firstUserId = user.getUserId();
+            }
+
+            for (int b = 0; b < BOOKINGS_PER_CAR; b++) {
+                Booking booking = new Booking();
+                booking.setCar(car);
+                booking.setUser(user);
+                booking.setPickupDate(LocalDate.of(2030, 1, 1).plusDays(b * 3L));
+                booking.setReturnDate(LocalDate.of(2030, 1, 3).plusDays(b * 3L));
+                booking.setDailyPrice(1000);
+                booking.setTotalPrice(2000);
+                booking.setPickupLocation("Nairobi");
+                booking.setReturnLocation("Nairobi");
+                booking.setBookingStatus(BookingStatus.CONFIRMED);
+                booking.setPaymentStatus(PaymentStatus.PAID);
+                booking.setAdminNotifiedAt(LocalDateTime.now());
+                booking.setAdminNotificationRead(false);
+                entityManager.persist(booking);
+            }
+        }
+        entityManager.flush();
+        entityManager.clear();
+
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @Test
+    void keysetPageIsOneStatement() {
+        List<BookingListView> rows = bookingRepository.findViewPageAfter(
+                LocalDateTime.of(9999, 12, 31, 23, 59), Long.MAX_VALUE, Limit.of(11));
+
+        assertThat(rows).hasSize(11);
+        assertThat(rows.get(0).getCarMake()).isNotNull();
+        assertThat(rows.get(0).getUserEmail()).isNotNull();
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+        assertThat(statistics.getEntityLoadCount()).isZero();
+    }
+
+    @Test
+    void keysetPagesByCarAndUserAreOneStatementEach() {
+        LocalDateTime start = LocalDateTime.of(9999, 12, 31, 23, 59);
+
+        assertThat(bookingRepository.findViewPageByCarAfter(firstCarId, start, Long.MAX_VALUE, Limit.of(4)))
+                .hasSize(4);
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+
+        assertThat(bookingRepository.findViewPageByUserAfter(firstUserId, start, Long.MAX_VALUE, Limit.of(4)))
+                .hasSize(4);
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(2);
+        assertThat(statistics.getEntityLoadCount()).isZero();
+    }
+
+    @Test
+    void offsetPageIsContentPlusCountOnly() {
+        Page<BookingListView> page = bookingRepository.findViewsByStatus(BookingStatus.CONFIRMED, PageRequest.of(1, 10));
+
+        assertThat(page.getContent()).hasSize(10);
+        assertThat(page.getTotalElements()).isEqualTo(CARS * BOOKINGS_PER_CAR);
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(2);
+        assertThat(statistics.getEntityLoadCount()).isZero();
+    }
+
+    @Test
+    void unpagedNotificationListIsOneStatement() {
+        Page<BookingListView> unread = bookingRepository.findUnreadAdminNotificationViews(Pageable.unpaged());
+
+        assertThat(unread.getContent()).hasSize(CARS * BOOKINGS_PER_CAR);
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+        assertThat(statistics.getEntityLoadCount()).isZero();
+    }
+
+    @Test
+    void exportStreamAppliesOptionalFiltersInOneStatement() {
+        try (Stream<BookingListView> all = bookingRepository.streamViewsForExport(null, null, null)) {
+            assertThat(all.count()).isEqualTo(CARS * BOOKINGS_PER_CAR);
+        }
+        try (Stream<BookingListView> firstWeek = bookingRepository.streamViewsForExport(
+                BookingStatus.CONFIRMED, LocalDate.of(2030, 1, 1), LocalDate.of(2030, 1, 7))) {
+            assertThat(firstWeek.count()).isEqualTo(CARS * 3L);
+        }
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(2);
+        assertThat(statistics.getEntityLoadCount()).isZero();
+    }
+}
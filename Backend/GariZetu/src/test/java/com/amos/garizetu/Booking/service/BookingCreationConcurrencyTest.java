@@ -0,0 +1,241 @@
+package com.amos.garizetu.Booking.service;
+
+import com.amos.garizetu.Booking.DTO.BookingCreateRequest;
+import com.amos.garizetu.Booking.DTO.BookingQuoteDTO;
+import com.amos.garizetu.Booking.Entity.Booking;
+import com.amos.garizetu.Booking.Enums.BookingStatus;
+import com.amos.garizetu.Booking.exception.BookingConflictException;
+import com.amos.garizetu.Booking.mapper.BookingMapper;
+import com.amos.garizetu.Booking.repository.BookingArchiveRepository;
+import com.amos.garizetu.Booking.repository.BookingBatchWriter;
+import com.amos.garizetu.Booking.repository.BookingRepository;
+import com.amos.garizetu.Booking.service.BookingIdempotencyService.IdempotentResponse;
+import com.amos.garizetu.Car.Entity.Car;
+import com.amos.garizetu.Car.Enums.CarStatus;
+import com.amos.garizetu.Car.Enums.FuelType;
+import com.amos.garizetu.Car.Enums.TransmissionType;
+import com.amos.garizetu.Repository.CarRepository;
+import com.amos.garizetu.Repository.UserRepository;
+import com.amos.garizetu.User.Entity.User;
+import com.amos.garizetu.util.SecurityUtils;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Parallel createBooking calls for one car through the real admission path, service and database:
+ * each request commits or gets a 409, and committed bookings never overlap. The in-memory
+ * availability index is a mock (empty unless stubbed); the in-transaction conflict query decides.
+ */
+@DataJpaTest(properties = {
+        "spring.jpa.database=H2",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.properties.hibernate.auto_quote_keyword=true",
+        "booking.admission.advisory-lock-enabled=false"
+})
+@Import({BookingCreationService.class, BookingService.class, BookingMapper.class, CarBookingAdmission.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class BookingCreationConcurrencyTest {
+
+    private static final Logger log = LoggerFactory.getLogger(BookingCreationConcurrencyTest.class);
+    private static final LocalDate BASE = LocalDate.now().plusYears(1);
+    private static final int THREADS = 16;
+    private static final int REQUESTS = 240;
+
+    @Autowired
+    private BookingCreationService bookingCreationService;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private CarRepository carRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @MockitoBean
+    private BookingIdempotencyService bookingIdempotencyService;
+    @MockitoBean
+    private SecurityUtils securityUtils;
+    @MockitoBean
+    private CarAvailabilityIndex carAvailabilityIndex;
+    @MockitoBean
+    private BookingPricingService bookingPricingService;
+    @MockitoBean
+    private BookingBatchWriter bookingBatchWriter;
+    @MockitoBean
+    private BookingArchiveRepository bookingArchiveRepository;
+    @MockitoBean
+    private BookingArchiver bookingArchiver;
+    @MockitoBean
+    private BookingStatsTracker bookingStatsTracker;
+    @MockitoBean
+    private CustomerBookingsCache customerBookingsCache;
+    @MockitoBean
+    private OverdueRentalDetector overdueRentalDetector;
+
+    private Long carId;
+
+    @BeforeEach
+    void seed() {
+        Car car = new Car();
+        car.setMake("Toyota");
+        car.setVehicleModel("Axio");
+        car.setRegistrationNumber("KDA 700A");
+        car.setYear(2020);
+        car.setColour("White");
+        car.setDailyPrice(3000);
+        car.setCarStatus(CarStatus.AVAILABLE);
+        car.setTransmissionType(TransmissionType.AUTOMATIC);
+        car.setFuelType(FuelType.PETROL);
+        carId = carRepository.save(car).getCarId();
+
+        User user = new User();
+        user.setUserName("renter");
+        user.setEmail("renter@example.com");
+        user.setHashedPassword("x");
+        Long userId = userRepository.save(user).getUserId();
+
+        when(securityUtils.getAuthenticatedUserId()).thenReturn(userId);
+        when(bookingPricingService.price(any(), any(), any())).thenAnswer(invocation -> {
+            BookingQuoteDTO quote = new BookingQuoteDTO();
+            quote.setTotalPrice(3000);
+            return quote;
+        });
+        // No idempotency key: the action runs as-is, as BookingIdempotencyService does.
+        when(bookingIdempotencyService.execute(anyString(), isNull(), any(), any(), any(), any()))
+                .thenAnswer(invocation -> new IdempotentResponse<>(
+                        201, ((Supplier<?>) invocation.getArgument(5)).get(), false));
+    }
+
+    @AfterEach
+    void clear() {
+        bookingRepository.deleteAll();
+        carRepository.deleteAll();
+        userRepository.deleteAll();
+    }
+
+    @Test
+    void identicalRequestsCommitExactlyOneBooking() throws Exception {
+        AtomicInteger conflicts = new AtomicInteger();
+
+        int created = runConcurrently(REQUESTS, i -> book(BASE, BASE.plusDays(3), conflicts));
+
+        assertThat(created).isEqualTo(1);
+        assertThat(conflicts).hasValue(REQUESTS - 1);
+        assertThat(bookingRepository.findAll()).hasSize(1);
+    }
+
+    @Test
+    void overlappingWindowsCommitOneWinnerPerWindow() throws Exception {
+        AtomicInteger conflicts = new AtomicInteger();
+
+        int created = runConcurrently(REQUESTS, i -> {
+            int start = ThreadLocalRandom.current().nextInt(0, 20);
+            int length = ThreadLocalRandom.current().nextInt(1, 4);
+            return book(BASE.plusDays(start), BASE.plusDays(start + length), conflicts);
+        });
+
+        List<Booking> winners = bookingRepository.findAll();
+        assertThat(winners).hasSize(created);
+        assertThat(created + conflicts.get()).isEqualTo(REQUESTS);
+        for (int i = 0; i < winners.size(); i++) {
+            for (int j = i + 1; j < winners.size(); j++) {
+                Booking a = winners.get(i);
+                Booking b = winners.get(j);
+                assertThat(a.getPickupDate().isBefore(b.getReturnDate()) && a.getReturnDate().isAfter(b.getPickupDate()))
+                        .as("bookings %d [%s, %s) and %d [%s, %s) overlap",
+                                a.getBookingId(), a.getPickupDate(), a.getReturnDate(),
+                                b.getBookingId(), b.getPickupDate(), b.getReturnDate())
+                        .isFalse();
+            }
+        }
+    }
+
+    @Test
+    void staleIndexHitIsConfirmedAgainstTheDatabase() {
+        // The index still holds a booking another instance has since cancelled.
+        when(carAvailabilityIndex.findConflicts(any(), any(), any(), any())).thenReturn(List.of(
+                new CarAvailabilityIndex.BlockedInterval(
+                        999L, carId, BASE, BASE.plusDays(3), BookingStatus.CONFIRMED, null, false)));
+        AtomicInteger conflicts = new AtomicInteger();
+
+        assertThat(book(BASE, BASE.plusDays(3), conflicts)).isEqualTo(1);
+
+        assertThat(conflicts).hasValue(0);
+        verify(carAvailabilityIndex).reloadCar(carId);
+    }
+
+    private int book(LocalDate pickup, LocalDate dropOff, AtomicInteger conflicts) {
+        BookingCreateRequest request = new BookingCreateRequest(carId, pickup, dropOff, "Nairobi", "Nairobi", null);
+        try {
+            bookingCreationService.createBooking(null, request);
+            return 1;
+        } catch (BookingConflictException ex) {
+            conflicts.incrementAndGet();
+            return 0;
+        }
+    }
+
+    private static int runConcurrently(int tasks, IntTask task) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            List<Future<Integer>> results = new ArrayList<>();
+            for (int i = 0; i < tasks; i++) {
+                int index = i;
+                Callable<Integer> call = () -> {
+                    start.await();
+                    return task.run(index);
+                };
+                results.add(executor.submit(call));
+            }
+            long started = System.nanoTime();
+            start.countDown();
+            int total = 0;
+            for (Future<Integer> result : results) {
+                total += result.get(60, TimeUnit.SECONDS);
+            }
+            double seconds = (System.nanoTime() - started) / 1_000_000_000.0;
+            log.info("{} concurrent createBooking calls on {} threads in {} s ({} req/s, {} committed)",
+                    tasks, THREADS, String.format("%.3f", seconds), String.format("%.0f", tasks / seconds), total);
+            return total;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @FunctionalInterface
+    private interface IntTask {
+        int run(int index) throws Exception;
+    }
+}
@@ -0,0 +1,132 @@
+package com.amos.garizetu.Booking.service;
+
+import com.amos.garizetu.Booking.repository.BookingListView;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+import java.util.function.IntFunction;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class BookingHistoryMergeTest {
+
+    private static final LocalDateTime T0 = LocalDateTime.of(2026, 1, 1, 9, 0);
+
+    // Live bookings are the newer ones but interleave with the archive around the cutoff.
+    private final List<BookingListView> live = List.of(row(10, 10), row(9, 9), row(7, 7), row(4, 4));
+    private final List<BookingListView> archived = List.of(row(8, 8), row(6, 6), row(5, 5), row(3, 3), row(2, 2));
+
+    @Test
+    void offsetPagesCutTheWindowOutOfBothTables() {
+        assertThat(ids(page(PageRequest.of(0, 3)))).containsExactly(10L, 9L, 8L);
+        assertThat(ids(page(PageRequest.of(1, 3)))).containsExactly(7L, 6L, 5L);
+        assertThat(ids(page(PageRequest.of(2, 3)))).containsExactly(4L, 3L, 2L);
+        assertThat(ids(page(PageRequest.of(3, 3)))).isEmpty();
+    }
+
+    @Test
+    void totalCountsBothTables() {
+        Page<BookingListView> page = page(PageRequest.of(1, 4));
+
+        assertThat(page.getTotalElements()).isEqualTo(9);
+        assertThat(page.getTotalPages()).isEqualTo(3);
+        assertThat(page.getNumber()).isEqualTo(1);
+        assertThat(ids(page)).containsExactly(6L, 5L, 4L, 3L);
+    }
+
+    @Test
+    void sameCreatedAtIsOrderedByBookingId() {
+        List<BookingListView> merged = BookingHistoryMerge.newestFirst(
+                List.of(row(12, 5)), List.of(row(13, 5), row(11, 5)), 10);
+
+        assertThat(merged).extracting(BookingListView::getBookingId).containsExactly(13L, 12L, 11L);
+    }
+
+    @Test
+    void emptyArchiveReturnsTheLivePageAsIs() {
+        Pageable pageable = PageRequest.of(1, 2);
+        Page<BookingListView> livePage = new PageImpl<>(live.subList(2, 4), pageable, live.size());
+
+        Page<BookingListView> page = BookingHistoryMerge.page(
+                requested -> {
+                    assertThat(requested).isEqualTo(pageable);
+                    return livePage;
+                },
+                limit -> {
+                    throw new AssertionError("archive must not be read when it is empty");
+                },
+                () -> 0,
+                pageable);
+
+        assertThat(page).isSameAs(livePage);
+    }
+
+    @Test
+    void unpagedReadsEverything() {
+        Page<BookingListView> page = page(Pageable.unpaged());
+
+        assertThat(ids(page)).containsExactly(10L, 9L, 8L, 7L, 6L, 5L, 4L, 3L, 2L);
+    }
+
+    @Test
+    void cursorContinuesAcrossBothTables() {
+        List<Long> seen = new ArrayList<>();
+        BookingListView cursor = null;
+        int size = 2;
+        for (int pages = 0; pages < 10; pages++) {
+            List<BookingListView> rows = BookingHistoryMerge.newestFirst(
+                    after(live, cursor, size + 1), after(archived, cursor, size + 1), size + 1);
+            boolean hasNext = rows.size() > size;
+            List<BookingListView> content = hasNext ? rows.subList(0, size) : rows;
+            content.forEach(row -> seen.add(row.getBookingId()));
+            if (!hasNext) {
+                break;
+            }
+            cursor = content.get(content.size() - 1);
+        }
+
+        assertThat(seen).containsExactly(10L, 9L, 8L, 7L, 6L, 5L, 4L, 3L, 2L);
+    }
+
+    private Page<BookingListView> page(Pageable pageable) {
+        Function<Pageable, Page<BookingListView>> liveQuery = requested -> {
+            if (requested.isUnpaged()) {
+                return new PageImpl<>(live);
+            }
+            int from = (int) Math.min(requested.getOffset(), live.size());
+            int to = (int) Math.min(requested.getOffset() + requested.getPageSize(), live.size());
+            return new PageImpl<>(live.subList(from, to), requested, live.size());
+        };
+        IntFunction<List<BookingListView>> archiveQuery =
+                limit -> archived.subList(0, Math.min(limit, archived.size()));
+        return BookingHistoryMerge.page(liveQuery, archiveQuery, () -> archived.size(), pageable);
+    }
+
+    // Keyset query over one source: rows strictly after the cursor in listing order.
+    private static List<BookingListView> after(List<BookingListView> source, BookingListView cursor, int limit) {
+        return source.stream()
+                .filter(row -> cursor == null || BookingHistoryMerge.NEWEST_FIRST.compare(row, cursor) > 0)
+                .limit(limit)
+                .toList();
+    }
+
+    private static List<Long> ids(Page<BookingListView> page) {
+        return page.getContent().stream().map(BookingListView::getBookingId).toList();
+    }
+
+    private static BookingListView row(long bookingId, int minutes) {
+        BookingListView view = mock(BookingListView.class);
+        when(view.getBookingId()).thenReturn(bookingId);
+        when(view.getCreatedAt()).thenReturn(T0.plusMinutes(minutes));
+        return view;
+    }
+}
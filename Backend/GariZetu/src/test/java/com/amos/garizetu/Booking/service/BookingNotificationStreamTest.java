@@ -0,0 +1,105 @@
+package com.amos.garizetu.Booking.service;
+
+import com.amos.garizetu.Booking.mapper.BookingMapper;
+import com.amos.garizetu.Booking.repository.BookingRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class BookingNotificationStreamTest {
+
+    private final BookingRepository bookingRepository = mock(BookingRepository.class);
+    private final Deque<SseEmitter> nextEmitters = new ArrayDeque<>();
+    private final CountDownLatch unblock = new CountDownLatch(1);
+    private BookingNotificationStream stream;
+
+    @BeforeEach
+    void setUp() {
+        when(bookingRepository.findUnreadAdminNotificationFlags()).thenReturn(List.of());
+        when(bookingRepository.findViewById(any())).thenReturn(Optional.empty());
+        stream = new BookingNotificationStream(bookingRepository, mock(BookingMapper.class), 60_000, 16, 4, 60_000) {
+            @Override
+            SseEmitter newEmitter() {
+                return nextEmitters.removeFirst();
+            }
+        };
+        stream.reload();
+    }
+
+    @AfterEach
+    void tearDown() {
+        unblock.countDown();
+        stream.shutdown();
+    }
+
+    @Test
+    void stalledDashboardNeitherDelaysOthersNorSubscribeAndIsDropped() throws Exception {
+        RecordingEmitter stalled = new RecordingEmitter(unblock);
+        RecordingEmitter healthy = new RecordingEmitter(null);
+        nextEmitters.add(stalled);
+        nextEmitters.add(healthy);
+
+        stream.subscribe(null);
+        assertThat(stalled.blocked.await(5, TimeUnit.SECONDS)).isTrue();
+        // Subscribe shares the monitor with broadcast; it must not wait on the stalled write.
+        stream.subscribe(null);
+
+        // Paced so only the stalled client falls behind; the initial unread count is the first send.
+        for (int bookingId = 1; bookingId <= 6; bookingId++) {
+            stream.publishOverdue((long) bookingId);
+            assertThat(healthy.awaitSent(bookingId + 1)).isTrue();
+        }
+
+        assertThat(healthy.sent).filteredOn(event -> event.contains(BookingNotificationStream.EVENT_OVERDUE)).hasSize(6);
+        // More than max-pending events behind: disconnected, to resume with Last-Event-ID.
+        assertThat(stream.connectedCount()).isEqualTo(1);
+    }
+
+    private static final class RecordingEmitter extends SseEmitter {
+
+        private final CountDownLatch release;
+        private final CountDownLatch blocked = new CountDownLatch(1);
+        private final List<String> sent = new CopyOnWriteArrayList<>();
+
+        private RecordingEmitter(CountDownLatch release) {
+            this.release = release;
+        }
+
+        @Override
+        public void send(SseEventBuilder builder) {
+            if (release != null) {
+                blocked.countDown();
+                try {
+                    release.await(10, TimeUnit.SECONDS);
+                } catch (InterruptedException ex) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            StringBuilder text = new StringBuilder();
+            builder.build().forEach(part -> text.append(part.getData()));
+            sent.add(text.toString());
+        }
+
+        private boolean awaitSent(int count) throws InterruptedException {
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+            while (sent.size() < count && System.nanoTime() < deadline) {
+                Thread.sleep(10);
+            }
+            return sent.size() >= count;
+        }
+    }
+}
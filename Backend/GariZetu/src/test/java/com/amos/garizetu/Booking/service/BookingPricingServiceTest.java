@@ -0,0 +1,103 @@
+package com.amos.garizetu.Booking.service;
+
+import com.amos.garizetu.Booking.DTO.BookingQuoteDTO;
+import com.amos.garizetu.Booking.DTO.BookingQuoteRequest;
+import com.amos.garizetu.Booking.Entity.PricingRule;
+import com.amos.garizetu.Booking.Enums.PricingRuleType;
+import com.amos.garizetu.Booking.event.PricingChangedEvent;
+import com.amos.garizetu.Booking.repository.PricingRuleRepository;
+import com.amos.garizetu.Car.Entity.Car;
+import com.amos.garizetu.Car.Enums.CarStatus;
+import com.amos.garizetu.Repository.CarRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.ApplicationEventPublisher;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.temporal.TemporalAdjusters;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class BookingPricingServiceTest {
+
+    private static final long CAR = 4L;
+    // A Monday, so the weekend days inside each range are known.
+    private static final LocalDate MONDAY = LocalDate.now().plusDays(1).with(TemporalAdjusters.next(DayOfWeek.MONDAY));
+
+    private final CarRepository carRepository = mock(CarRepository.class);
+    private final PricingRuleRepository pricingRuleRepository = mock(PricingRuleRepository.class);
+    private final CarAvailabilityIndex carAvailabilityIndex = mock(CarAvailabilityIndex.class);
+    private BookingPricingService pricingService;
+    private Car car;
+
+    @BeforeEach
+    void setUp() {
+        car = new Car();
+        car.setCarId(CAR);
+        car.setDailyPrice(5000);
+        car.setCarStatus(CarStatus.AVAILABLE);
+        when(carRepository.findById(CAR)).thenReturn(Optional.of(car));
+        when(carAvailabilityIndex.hasConflict(anyLong(), any(), any(), any())).thenReturn(false);
+        when(pricingRuleRepository.findApplicable(CAR)).thenReturn(List.of(
+                rule(null, PricingRuleType.DURATION_TIER, 7, -10),
+                rule(null, PricingRuleType.DURATION_TIER, 30, -20),
+                rule(null, PricingRuleType.WEEKEND, null, 20),
+                rule(CAR, PricingRuleType.WEEKEND, null, 50)
+        ));
+        pricingService = new BookingPricingService(
+                carRepository, pricingRuleRepository, carAvailabilityIndex, mock(ApplicationEventPublisher.class), 60_000);
+    }
+
+    @Test
+    void weekendRuleOfTheCarReplacesTheFleetRuleAndTheHighestReachedTierApplies() {
+        BookingQuoteDTO week = pricingService.quote(new BookingQuoteRequest(CAR, MONDAY, MONDAY.plusDays(7)));
+
+        assertThat(week.getWeekendDays()).isEqualTo(2);
+        assertThat(week.getBaseAmount()).isEqualTo(35_000);
+        assertThat(week.getWeekendAdjustment()).isEqualTo(5_000);
+        assertThat(week.getDurationTierDays()).isEqualTo(7);
+        assertThat(week.getTotalPrice()).isEqualTo(36_000);
+        assertThat(week.isAvailable()).isTrue();
+
+        BookingQuoteDTO weekdays = pricingService.quote(new BookingQuoteRequest(CAR, MONDAY, MONDAY.plusDays(3)));
+        assertThat(weekdays.getDurationTierDays()).isNull();
+        assertThat(weekdays.getTotalPrice()).isEqualTo(15_000);
+
+        BookingQuoteDTO month = pricingService.quote(new BookingQuoteRequest(CAR, MONDAY, MONDAY.plusDays(30)));
+        assertThat(month.getWeekendDays()).isEqualTo(8);
+        assertThat(month.getDurationTierDays()).isEqualTo(30);
+    }
+
+    @Test
+    void compiledPricingIsReusedUntilTheCarsPricingChanges() {
+        BookingQuoteRequest request = new BookingQuoteRequest(CAR, MONDAY, MONDAY.plusDays(2));
+        pricingService.quote(request);
+        pricingService.quote(request);
+        verify(pricingRuleRepository, times(1)).findApplicable(CAR);
+
+        car.setDailyPrice(6000);
+        pricingService.onPricingChanged(new PricingChangedEvent(CAR));
+
+        assertThat(pricingService.quote(request).getTotalPrice()).isEqualTo(12_000);
+        verify(pricingRuleRepository, times(2)).findApplicable(eq(CAR));
+    }
+
+    private static PricingRule rule(Long carId, PricingRuleType type, Integer minDays, double percent) {
+        PricingRule rule = new PricingRule();
+        rule.setCarId(carId);
+        rule.setRuleType(type);
+        rule.setMinDays(minDays);
+        rule.setAdjustmentPercent(percent);
+        return rule;
+    }
+}
@@ -0,0 +1,91 @@
+package com.amos.garizetu.Booking.service;
+
+import com.amos.garizetu.Booking.DTO.BookingResponseDTO;
+import com.amos.garizetu.Booking.DTO.BookingSearchPageDTO;
+import com.amos.garizetu.Booking.exception.BookingValidationException;
+import com.amos.garizetu.Booking.mapper.BookingMapper;
+import com.amos.garizetu.Booking.repository.BookingArchiveRepository;
+import com.amos.garizetu.Booking.repository.BookingListView;
+import com.amos.garizetu.Booking.repository.BookingRepository;
+import com.amos.garizetu.Booking.repository.BookingSearchRepository;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class BookingSearchServiceTest {
+
+    private final BookingSearchRepository searchRepository = mock(BookingSearchRepository.class);
+    private final BookingRepository bookingRepository = mock(BookingRepository.class);
+    private final BookingArchiveRepository archiveRepository = mock(BookingArchiveRepository.class);
+    private final BookingArchiver bookingArchiver = mock(BookingArchiver.class);
+    private final BookingSearchIndexes searchIndexes = mock(BookingSearchIndexes.class);
+    private final BookingMapper bookingMapper = mock(BookingMapper.class);
+    private final BookingSearchService searchService = new BookingSearchService(
+            searchRepository, bookingRepository, archiveRepository, bookingArchiver, searchIndexes, bookingMapper);
+
+    @Test
+    void pageKeepsTheRankedOrderAndDetectsTheNextPage() {
+        when(searchIndexes.isTrigramAvailable()).thenReturn(true);
+        when(searchRepository.search("kda 123a", "", true, false, 3, 0)).thenReturn(List.of(30L, 10L, 20L));
+        // The projection comes back in id order; the page must follow the search ranking.
+        List<BookingListView> rows = List.of(view(10L), view(30L));
+        when(bookingRepository.findViewsByIds(anyList())).thenReturn(rows);
+        mapIds();
+
+        BookingSearchPageDTO page = searchService.search("  KDA 123A ", 0, 2);
+
+        assertThat(page.getContent()).extracting(BookingResponseDTO::getBookingId).containsExactly(30L, 10L);
+        assertThat(page.isHasNext()).isTrue();
+        assertThat(page.getQuery()).isEqualTo("KDA 123A");
+    }
+
+    @Test
+    void idsNoLongerLiveAreLoadedFromTheArchive() {
+        when(bookingArchiver.isAvailable()).thenReturn(true);
+        when(searchRepository.search("jane@mail.com", "", false, true, 3, 0)).thenReturn(List.of(40L, 15L));
+        List<BookingListView> live = List.of(view(40L));
+        when(bookingRepository.findViewsByIds(List.of(40L, 15L))).thenReturn(live);
+        List<BookingListView> archived = List.of(view(15L));
+        when(archiveRepository.findViewsByIds(List.of(15L))).thenReturn(archived);
+        mapIds();
+
+        BookingSearchPageDTO page = searchService.search("jane@mail.com", 0, 2);
+
+        assertThat(page.getContent()).extracting(BookingResponseDTO::getBookingId).containsExactly(40L, 15L);
+        assertThat(page.isHasNext()).isFalse();
+    }
+
+    @Test
+    void phoneLikeTermsAlsoSearchPhoneDigits() {
+        assertThat(BookingSearchService.digitsOf("+254 712-345")).isEqualTo("254712345");
+        assertThat(BookingSearchService.digitsOf("jane2@mail.com")).isEmpty();
+        assertThat(BookingSearchService.digitsOf("kda 123a")).isEmpty();
+    }
+
+    @Test
+    void rejectsTermsOutsideTheLengthBoundsAndDeepPages() {
+        assertThatThrownBy(() -> searchService.search(" a ", 0, 20)).isInstanceOf(BookingValidationException.class);
+        assertThatThrownBy(() -> searchService.search("jane", 50, 100)).isInstanceOf(BookingValidationException.class);
+    }
+
+    private void mapIds() {
+        when(bookingMapper.toResponseDTO(any(BookingListView.class))).thenAnswer(invocation -> {
+            BookingResponseDTO dto = new BookingResponseDTO();
+            dto.setBookingId(((BookingListView) invocation.getArgument(0)).getBookingId());
+            return dto;
+        });
+    }
+
+    private static BookingListView view(Long bookingId) {
+        BookingListView view = mock(BookingListView.class);
+        when(view.getBookingId()).thenReturn(bookingId);
+        return view;
+    }
+}
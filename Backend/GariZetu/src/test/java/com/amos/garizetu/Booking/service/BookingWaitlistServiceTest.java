@@ -0,0 +1,128 @@
+package com.amos.garizetu.Booking.service;
+
+import com.amos.garizetu.Booking.Entity.Booking;
+import com.amos.garizetu.Booking.Entity.BookingWaitlistEntry;
+import com.amos.garizetu.Booking.Enums.WaitlistStatus;
+import com.amos.garizetu.Booking.exception.BookingConflictException;
+import com.amos.garizetu.Booking.repository.BookingWaitlistRepository;
+import com.amos.garizetu.Repository.CarRepository;
+import com.amos.garizetu.Scheduling.service.ScheduledJobCoordinator;
+import com.amos.garizetu.util.SecurityUtils;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class BookingWaitlistServiceTest {
+
+    private static final long CAR = 9L;
+    private static final LocalDate TOMORROW = LocalDate.now().plusDays(1);
+
+    private final BookingWaitlistRepository waitlistRepository = mock(BookingWaitlistRepository.class);
+    private final BookingService bookingService = mock(BookingService.class);
+    private final CarAvailabilityIndex carAvailabilityIndex = mock(CarAvailabilityIndex.class);
+    private final PlatformTransactionManager transactionManager = mock(PlatformTransactionManager.class);
+    private BookingWaitlistService waitlistService;
+
+    @BeforeEach
+    void setUp() {
+        when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+        waitlistService = new BookingWaitlistService(
+                waitlistRepository,
+                bookingService,
+                mock(CarRepository.class),
+                carAvailabilityIndex,
+                new CarBookingAdmission(null, 16, 1_000, false),
+                mock(SecurityUtils.class),
+                mock(ScheduledJobCoordinator.class),
+                transactionManager,
+                5
+        );
+    }
+
+    @AfterEach
+    void tearDown() {
+        waitlistService.shutdown();
+    }
+
+    @Test
+    void releasePromotesFreeWaitersInJoinOrderAndKeepsTheRestQueued() {
+        BookingWaitlistEntry stale = entry(1L, LocalDate.now().minusDays(1), TOMORROW);
+        BookingWaitlistEntry stillTaken = entry(2L, TOMORROW, TOMORROW.plusDays(3));
+        BookingWaitlistEntry free = entry(3L, TOMORROW.plusDays(5), TOMORROW.plusDays(7));
+        BookingWaitlistEntry lostRace = entry(4L, TOMORROW.plusDays(10), TOMORROW.plusDays(12));
+        when(waitlistRepository.findByCarIdAndStatusOrderByWaitlistEntryIdAsc(CAR, WaitlistStatus.WAITING))
+                .thenReturn(List.of(stale, stillTaken, free, lostRace));
+        when(carAvailabilityIndex.hasConflict(eq(CAR), eq(TOMORROW), eq(TOMORROW.plusDays(3)), any())).thenReturn(true);
+        when(bookingService.isCarTaken(CAR, TOMORROW, TOMORROW.plusDays(3))).thenReturn(true);
+
+        Booking hold = new Booking();
+        hold.setBookingId(77L);
+        when(bookingService.createWaitlistHold(free)).thenReturn(hold);
+        when(bookingService.createWaitlistHold(lostRace))
+                .thenThrow(new BookingConflictException("Car is not available for the selected dates"));
+
+        assertThat(waitlistService.promoteWaiters(CAR)).isEqualTo(1);
+
+        assertThat(stale.getStatus()).isEqualTo(WaitlistStatus.EXPIRED);
+        assertThat(stillTaken.getStatus()).isEqualTo(WaitlistStatus.WAITING);
+        assertThat(free.getStatus()).isEqualTo(WaitlistStatus.PROMOTED);
+        assertThat(free.getPromotedBookingId()).isEqualTo(77L);
+        assertThat(lostRace.getStatus()).isEqualTo(WaitlistStatus.WAITING);
+        verify(bookingService, never()).createWaitlistHold(stillTaken);
+    }
+
+    @Test
+    void waiterIsNotSkippedOnAnIndexHitTheDatabaseDoesNotConfirm() {
+        // Released on another instance: this instance's index still shows the dates taken.
+        BookingWaitlistEntry released = entry(6L, TOMORROW, TOMORROW.plusDays(2));
+        when(waitlistRepository.findByCarIdAndStatusOrderByWaitlistEntryIdAsc(CAR, WaitlistStatus.WAITING))
+                .thenReturn(List.of(released));
+        when(carAvailabilityIndex.hasConflict(eq(CAR), eq(TOMORROW), eq(TOMORROW.plusDays(2)), any())).thenReturn(true);
+        when(bookingService.isCarTaken(CAR, TOMORROW, TOMORROW.plusDays(2))).thenReturn(false);
+        Booking hold = new Booking();
+        hold.setBookingId(78L);
+        when(bookingService.createWaitlistHold(released)).thenReturn(hold);
+
+        assertThat(waitlistService.promoteWaiters(CAR)).isEqualTo(1);
+        assertThat(released.getStatus()).isEqualTo(WaitlistStatus.PROMOTED);
+    }
+
+    @Test
+    void entryAlreadyTakenByAnotherInstanceIsNotPromotedTwice() {
+        BookingWaitlistEntry queued = entry(5L, TOMORROW, TOMORROW.plusDays(2));
+        when(waitlistRepository.findByCarIdAndStatusOrderByWaitlistEntryIdAsc(CAR, WaitlistStatus.WAITING))
+                .thenReturn(List.of(queued));
+        BookingWaitlistEntry locked = entry(5L, TOMORROW, TOMORROW.plusDays(2));
+        locked.setStatus(WaitlistStatus.PROMOTED);
+        when(waitlistRepository.findByIdForUpdate(5L)).thenReturn(Optional.of(locked));
+
+        assertThat(waitlistService.promoteWaiters(CAR)).isZero();
+        verify(bookingService, never()).createWaitlistHold(any());
+    }
+
+    private BookingWaitlistEntry entry(Long id, LocalDate pickupDate, LocalDate returnDate) {
+        BookingWaitlistEntry entry = new BookingWaitlistEntry();
+        entry.setWaitlistEntryId(id);
+        entry.setCarId(CAR);
+        entry.setUserId(100 + id);
+        entry.setPickupDate(pickupDate);
+        entry.setReturnDate(returnDate);
+        entry.setPickupLocation("Nairobi");
+        when(waitlistRepository.findByIdForUpdate(id)).thenReturn(Optional.of(entry));
+        return entry;
+    }
+}
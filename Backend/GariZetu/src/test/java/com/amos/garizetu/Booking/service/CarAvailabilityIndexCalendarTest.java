@@ -0,0 +1,89 @@
+package com.amos.garizetu.Booking.service;
+
+import com.amos.garizetu.Booking.Enums.BookingStatus;
+import com.amos.garizetu.Booking.Enums.PaymentStatus;
+import com.amos.garizetu.Booking.event.BookingLifecycleEvent;
+import com.amos.garizetu.Booking.repository.BookingRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class CarAvailabilityIndexCalendarTest {
+
+    private static final long CAR = 3L;
+    private static final LocalDate BASE = LocalDate.of(2030, 3, 1);
+    private static final LocalDateTime NOW = BASE.minusDays(10).atStartOfDay();
+
+    private BookingHoldRegistry holdRegistry;
+    private CarAvailabilityIndex index;
+
+    @BeforeEach
+    void buildEmptyIndex() {
+        BookingRepository bookingRepository = mock(BookingRepository.class);
+        when(bookingRepository.findAllBookedBookingViews(any())).thenReturn(List.of());
+        when(bookingRepository.findOpenHoldViews(any())).thenReturn(List.of());
+        holdRegistry = new BookingHoldRegistry(bookingRepository);
+        holdRegistry.rebuild();
+        index = new CarAvailabilityIndex(bookingRepository, holdRegistry);
+        index.rebuild();
+    }
+
+    @Test
+    void bookedDaysExcludeReturnDayAndSoftLocksLapseAtExpiry() {
+        publish(1L, BookingStatus.CONFIRMED, PaymentStatus.PAID, BASE, BASE.plusDays(3), null);
+        publish(2L, BookingStatus.PENDING_PAYMENT, PaymentStatus.UNPAID, BASE.plusDays(2), BASE.plusDays(5), NOW.plusMinutes(15));
+
+        CarAvailabilityIndex.CalendarDays days = index.calendar(CAR, BASE.minusDays(1), BASE.plusDays(6), NOW);
+
+        assertThat(days.bookedDates()).containsExactly(BASE, BASE.plusDays(1), BASE.plusDays(2));
+        assertThat(days.softLockedDates()).containsExactly(BASE.plusDays(3), BASE.plusDays(4));
+
+        CarAvailabilityIndex.CalendarDays later = index.calendar(CAR, BASE, BASE.plusDays(6), NOW.plusMinutes(16));
+        assertThat(later.softLockedDates()).isEmpty();
+    }
+
+    @Test
+    void openEndedRentalFillsTheRestOfTheRangeAndCancellationClearsIt() {
+        publish(5L, BookingStatus.ACTIVE, PaymentStatus.PAID, BASE.plusDays(4), null, null);
+
+        assertThat(index.calendar(CAR, BASE, BASE.plusDays(6), NOW).bookedDates())
+                .containsExactly(BASE.plusDays(4), BASE.plusDays(5), BASE.plusDays(6));
+
+        publish(5L, BookingStatus.CANCELLED, PaymentStatus.PAID, BASE.plusDays(4), null, null);
+
+        assertThat(index.calendar(CAR, BASE, BASE.plusDays(6), NOW).bookedDates()).isEmpty();
+    }
+
+    @Test
+    void settlingHoldPastItsWindowIsReportedAfterOpenWindowsWithoutAnExpiry() {
+        publish(7L, BookingStatus.PENDING_PAYMENT, PaymentStatus.PROCESSING, BASE, BASE.plusDays(2), NOW.minusMinutes(5));
+        publish(8L, BookingStatus.PENDING_PAYMENT, PaymentStatus.UNPAID, BASE.plusDays(3), BASE.plusDays(4), NOW.plusMinutes(10));
+
+        CarAvailabilityIndex.BlockedInterval soonest = holdRegistry.findSoonestExpiring(CAR, NOW).orElseThrow();
+        assertThat(soonest.bookingId()).isEqualTo(8L);
+        assertThat(soonest.openUntil(NOW)).isEqualTo(NOW.plusMinutes(10));
+
+        // Once the open window lapses only the settling hold blocks, with no known end.
+        CarAvailabilityIndex.BlockedInterval settling =
+                holdRegistry.findSoonestExpiring(CAR, NOW.plusMinutes(11)).orElseThrow();
+        assertThat(settling.bookingId()).isEqualTo(7L);
+        assertThat(settling.openUntil(NOW.plusMinutes(11))).isNull();
+    }
+
+    private void publish(Long bookingId, BookingStatus status, PaymentStatus paymentStatus,
+                         LocalDate pickup, LocalDate returnDate, LocalDateTime paymentExpiresAt) {
+        BookingLifecycleEvent event = new BookingLifecycleEvent(
+                bookingId, CAR, 9L, null, status, paymentStatus, pickup, returnDate, 0,
+                paymentExpiresAt, null, false, NOW);
+        holdRegistry.onBookingLifecycle(event);
+        index.onBookingLifecycle(event);
+    }
+}
@@ -0,0 +1,200 @@
+package com.amos.garizetu.Booking.service;
+
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Concurrency stress for per-car admission. The ledger below mimics createBooking's
+ * check-then-insert with a widened race window, so any admission leak shows up as a double booking.
+ */
+class CarBookingAdmissionTest {
+
+    private static final Logger log = LoggerFactory.getLogger(CarBookingAdmissionTest.class);
+
+    private static final LocalDate BASE = LocalDate.of(2030, 1, 1);
+
+    @Test
+    void identicalRequestsForOneCarAdmitExactlyOneWinner() throws Exception {
+        CarBookingAdmission admission = new CarBookingAdmission(null, 256, 30_000, false);
+        Ledger ledger = new Ledger();
+
+        int attempts = runConcurrently(400, 64, i -> tryBook(admission, ledger, 7L, BASE, BASE.plusDays(3)));
+
+        assertThat(attempts).isEqualTo(400);
+        assertThat(ledger.bookingsFor(7L)).hasSize(1);
+    }
+
+    @Test
+    void overlappingWindowsForOneCarNeverDoubleBook() throws Exception {
+        CarBookingAdmission admission = new CarBookingAdmission(null, 256, 30_000, false);
+        Ledger ledger = new Ledger();
+
+        runConcurrently(600, 64, i -> {
+            int start = ThreadLocalRandom.current().nextInt(0, 30);
+            int length = ThreadLocalRandom.current().nextInt(1, 5);
+            tryBook(admission, ledger, 11L, BASE.plusDays(start), BASE.plusDays(start + length));
+        });
+
+        List<Ledger.Entry> winners = ledger.bookingsFor(11L);
+        assertThat(winners).isNotEmpty();
+        for (int i = 0; i < winners.size(); i++) {
+            for (int j = i + 1; j < winners.size(); j++) {
+                assertThat(winners.get(i).overlaps(winners.get(j)))
+                        .as("winners %s and %s overlap", winners.get(i), winners.get(j))
+                        .isFalse();
+            }
+        }
+        // Every day covered at most once: the union of winners is exactly one booking per day.
+        for (int day = 0; day < 35; day++) {
+            LocalDate date = BASE.plusDays(day);
+            long holders = winners.stream().filter(entry -> entry.covers(date)).count();
+            assertThat(holders).isLessThanOrEqualTo(1);
+        }
+    }
+
+    @Test
+    void manyCarsAreAdmittedInParallel() throws Exception {
+        CarBookingAdmission admission = new CarBookingAdmission(null, 256, 30_000, false);
+        Ledger ledger = new Ledger();
+        int cars = 200;
+        int requestsPerCar = 20;
+        AtomicInteger inFlight = new AtomicInteger();
+        AtomicInteger maxInFlight = new AtomicInteger();
+
+        long started = System.nanoTime();
+        runConcurrently(cars * requestsPerCar, 32, i -> {
+            long carId = i % cars;
+            int slot = i / cars;
+            try (CarBookingAdmission.Admission ignored = admission.acquire(carId)) {
+                maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+                ledger.insertIfFree(carId, BASE.plusDays(slot * 2L), BASE.plusDays(slot * 2L + 2));
+                inFlight.decrementAndGet();
+            }
+        });
+        double seconds = (System.nanoTime() - started) / 1_000_000_000.0;
+        log.info("Admitted {} bookings across {} cars in {} s ({} ops/s, max {} in flight)",
+                cars * requestsPerCar, cars, String.format("%.3f", seconds),
+                String.format("%.0f", (cars * requestsPerCar) / seconds), maxInFlight.get());
+
+        for (long carId = 0; carId < cars; carId++) {
+            assertThat(ledger.bookingsFor(carId)).hasSize(requestsPerCar);
+        }
+        assertThat(maxInFlight.get()).isGreaterThan(1);
+    }
+
+    @Test
+    void overlappingGroupsOnSharedStripesNeverDeadlock() throws Exception {
+        // Four stripes for twelve cars: groups collide on stripes in every order.
+        CarBookingAdmission admission = new CarBookingAdmission(null, 4, 30_000, false);
+        Ledger ledger = new Ledger();
+        AtomicInteger groups = new AtomicInteger();
+
+        runConcurrently(400, 32, i -> {
+            List<Long> carIds = new ArrayList<>();
+            for (long carId = 0; carId < 12; carId++) {
+                if (ThreadLocalRandom.current().nextBoolean()) {
+                    carIds.add(carId);
+                }
+            }
+            Collections.shuffle(carIds);
+            try (CarBookingAdmission.Admission ignored = admission.acquireAll(carIds)) {
+                carIds.forEach(carId -> ledger.insertIfFree(carId, BASE.plusDays(i), BASE.plusDays(i + 1L)));
+                groups.incrementAndGet();
+            }
+        });
+
+        assertThat(groups.get()).isEqualTo(400);
+    }
+
+    private static void tryBook(CarBookingAdmission admission, Ledger ledger, long carId, LocalDate from, LocalDate to) {
+        try (CarBookingAdmission.Admission ignored = admission.acquire(carId)) {
+            ledger.insertIfFree(carId, from, to);
+        }
+    }
+
+    private static int runConcurrently(int tasks, int threads, IntTask task) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        CountDownLatch done = new CountDownLatch(tasks);
+        AtomicInteger completed = new AtomicInteger();
+        List<Throwable> failures = new CopyOnWriteArrayList<>();
+        try {
+            for (int i = 0; i < tasks; i++) {
+                int index = i;
+                executor.submit(() -> {
+                    try {
+                        start.await();
+                        task.run(index);
+                        completed.incrementAndGet();
+                    } catch (Throwable ex) {
+                        failures.add(ex);
+                    } finally {
+                        done.countDown();
+                    }
+                });
+            }
+            start.countDown();
+            assertThat(done.await(60, TimeUnit.SECONDS)).isTrue();
+        } finally {
+            executor.shutdownNow();
+        }
+        assertThat(failures).isEmpty();
+        return completed.get();
+    }
+
+    @FunctionalInterface
+    private interface IntTask {
+        void run(int index) throws Exception;
+    }
+
+    /**
+     * Unsynchronized booking table: the check and the insert are separate steps with a pause in
+     * between, exactly the window createBooking had before admission was added.
+     */
+    private static final class Ledger {
+
+        private final Map<Long, List<Entry>> bookingsByCar = new ConcurrentHashMap<>();
+
+        void insertIfFree(long carId, LocalDate from, LocalDate to) {
+            List<Entry> existing = bookingsByCar.computeIfAbsent(carId, ignored -> new CopyOnWriteArrayList<>());
+            Entry candidate = new Entry(from, to);
+            boolean conflict = existing.stream().anyMatch(candidate::overlaps);
+            Thread.yield();
+            if (!conflict) {
+                existing.add(candidate);
+            }
+        }
+
+        List<Entry> bookingsFor(long carId) {
+            return new ArrayList<>(bookingsByCar.getOrDefault(carId, List.of()));
+        }
+
+        record Entry(LocalDate from, LocalDate to) {
+
+            boolean overlaps(Entry other) {
+                return from.isBefore(other.to) && to.isAfter(other.from);
+            }
+
+            boolean covers(LocalDate date) {
+                return !date.isBefore(from) && date.isBefore(to);
+            }
+        }
+    }
+}
@@ -0,0 +1,77 @@
+package com.amos.garizetu.Booking.service;
+
+import com.amos.garizetu.Booking.DTO.BookingResponseDTO;
+import com.amos.garizetu.Booking.Entity.Booking;
+import com.amos.garizetu.Booking.event.BookingLifecycleEvent;
+import com.amos.garizetu.User.Entity.User;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CustomerBookingsCacheTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final CustomerBookingsCache cache = new CustomerBookingsCache(meterRegistry, 2, 60_000);
+
+    @Test
+    void lifecycleEventForTheCustomerEvictsOnlyTheirList() {
+        AtomicInteger loads = new AtomicInteger();
+        cache.get(1L, counting(loads));
+        cache.get(2L, counting(loads));
+        cache.get(1L, counting(loads));
+
+        Booking booking = new Booking();
+        User user = new User();
+        user.setUserId(1L);
+        booking.setUser(user);
+        cache.onBookingLifecycle(BookingLifecycleEvent.of(booking, null));
+        cache.get(1L, counting(loads));
+        cache.get(2L, counting(loads));
+
+        assertThat(loads.get()).isEqualTo(3);
+        assertThat(meterRegistry.counter("booking.my_bookings.cache.hits").count()).isEqualTo(2);
+        assertThat(meterRegistry.counter("booking.my_bookings.cache.misses").count()).isEqualTo(3);
+    }
+
+    @Test
+    void capEvictsTheLeastRecentlyActiveCustomer() {
+        AtomicInteger loads = new AtomicInteger();
+        cache.get(1L, counting(loads));
+        cache.get(2L, counting(loads));
+        cache.get(1L, counting(loads));
+        cache.get(3L, counting(loads));
+
+        cache.get(1L, counting(loads));
+        cache.get(2L, counting(loads));
+
+        assertThat(loads.get()).isEqualTo(4);
+        assertThat(cache.size()).isEqualTo(2);
+        assertThat(meterRegistry.counter("booking.my_bookings.cache.evictions").count()).isEqualTo(2);
+    }
+
+    @Test
+    void loadOverlappingAnEvictionIsNotCached() {
+        AtomicInteger loads = new AtomicInteger();
+        cache.get(1L, () -> {
+            loads.incrementAndGet();
+            // A booking for this customer commits while the list is being read.
+            cache.evict(1L);
+            return List.of();
+        });
+        cache.get(1L, counting(loads));
+
+        assertThat(loads.get()).isEqualTo(2);
+    }
+
+    private static Supplier<List<BookingResponseDTO>> counting(AtomicInteger loads) {
+        return () -> {
+            loads.incrementAndGet();
+            return List.of(new BookingResponseDTO());
+        };
+    }
+}
@@ -0,0 +1,67 @@
+package com.amos.garizetu.Booking.service;
+
+import com.amos.garizetu.Booking.Enums.BookingStatus;
+import com.amos.garizetu.Booking.Enums.PaymentStatus;
+import com.amos.garizetu.Booking.event.BookingLifecycleEvent;
+import com.amos.garizetu.Booking.repository.BookingRepository;
+import com.amos.garizetu.Booking.repository.BookingReturnView;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class OverdueRentalDetectorTest {
+
+    private static final LocalDate TODAY = LocalDate.now();
+
+    private final BookingRepository bookingRepository = mock(BookingRepository.class);
+    private final BookingNotificationStream notificationStream = mock(BookingNotificationStream.class);
+    private final OverdueRentalDetector detector = new OverdueRentalDetector(bookingRepository, notificationStream);
+
+    @Test
+    void rentalsBecomeOverdueTheDayAfterTheirReturnDateAndAreAlertedOnce() {
+        when(bookingRepository.findActiveReturnDates()).thenReturn(List.of(
+                new Row(1L, TODAY.minusDays(2)),
+                new Row(2L, TODAY),
+                new Row(3L, TODAY.plusDays(1))
+        ));
+        assertThat(detector.reload(TODAY)).isEmpty();
+        assertThat(detector.overdueCount()).isEqualTo(1);
+
+        assertThat(detector.detect(TODAY.plusDays(1))).containsExactly(2L);
+        assertThat(detector.detect(TODAY.plusDays(1))).isEmpty();
+        assertThat(detector.detect(TODAY.plusDays(2))).containsExactly(3L);
+        assertThat(detector.isOverdue(1L)).isTrue();
+        verify(notificationStream, never()).publishOverdue(1L);
+    }
+
+    @Test
+    void returningOrExtendingARentalStopsItFromBeingFlagged() {
+        when(bookingRepository.findActiveReturnDates()).thenReturn(List.of());
+        detector.reload(TODAY);
+
+        detector.onBookingLifecycle(event(7L, BookingStatus.ACTIVE, TODAY));
+        detector.onBookingLifecycle(event(8L, BookingStatus.ACTIVE, TODAY));
+        detector.onBookingLifecycle(event(7L, BookingStatus.COMPLETED, TODAY));
+        detector.onBookingLifecycle(event(8L, BookingStatus.ACTIVE, TODAY.plusDays(3)));
+
+        assertThat(detector.detect(TODAY.plusDays(1))).isEmpty();
+        assertThat(detector.detect(TODAY.plusDays(4))).containsExactly(8L);
+    }
+
+    private static BookingLifecycleEvent event(Long bookingId, BookingStatus status, LocalDate returnDate) {
+        return new BookingLifecycleEvent(
+                bookingId, 1L, 1L, BookingStatus.CONFIRMED, status, PaymentStatus.PAID,
+                returnDate.minusDays(2), returnDate, 0, null, null, false, LocalDateTime.now());
+    }
+
+    private record Row(Long getBookingId, LocalDate getReturnDate) implements BookingReturnView {
+    }
+}
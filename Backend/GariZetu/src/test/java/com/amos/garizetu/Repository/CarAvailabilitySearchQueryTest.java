@@ -0,0 +1,118 @@
+package com.amos.garizetu.Repository;
+
+import com.amos.garizetu.Booking.Entity.Booking;
+import com.amos.garizetu.Booking.Enums.BookingStatus;
+import com.amos.garizetu.Booking.Enums.PaymentStatus;
+import com.amos.garizetu.Car.Entity.Car;
+import com.amos.garizetu.Car.Enums.CarStatus;
+import com.amos.garizetu.Car.Enums.FuelType;
+import com.amos.garizetu.Car.Enums.TransmissionType;
+import com.amos.garizetu.User.Entity.User;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest(properties = {
+        "spring.jpa.database=H2",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.properties.hibernate.auto_quote_keyword=true"
+})
+class CarAvailabilitySearchQueryTest {
+
+    private static final LocalDate BASE = LocalDate.of(2030, 1, 10);
+    private static final LocalDateTime NOW = LocalDateTime.of(2030, 1, 1, 12, 0);
+
+    @Autowired
+    private CarRepository carRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    private Car confirmed;
+    private Car softLocked;
+    private Car expiredHold;
+    private Car free;
+
+    @BeforeEach
+    void seed() {
+        User user = new User();
+        user.setUserName("renter");
+        user.setEmail("renter@example.com");
+        user.setHashedPassword("x");
+        entityManager.persist(user);
+
+        confirmed = car("KDA 001", "Toyota", 3000);
+        softLocked = car("KDA 002", "Toyota", 2000);
+        expiredHold = car("KDA 003", "Mazda", 2500);
+        free = car("KDA 004", "Toyota", 1500);
+        car("KDA 005", "Toyota", 1000).setCarStatus(CarStatus.MAINTENANCE);
+
+        booking(user, confirmed, BookingStatus.CONFIRMED, PaymentStatus.PAID, null);
+        booking(user, softLocked, BookingStatus.PENDING_PAYMENT, PaymentStatus.UNPAID, NOW.plusMinutes(10));
+        booking(user, expiredHold, BookingStatus.PENDING_PAYMENT, PaymentStatus.UNPAID, NOW.minusMinutes(1));
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    void blockedAndMaintenanceCarsAreExcluded() {
+        Page<Long> ids = search(BASE.plusDays(1), BASE.plusDays(2), null, null);
+
+        assertThat(ids.getContent()).containsExactly(free.getCarId(), expiredHold.getCarId());
+        assertThat(ids.getTotalElements()).isEqualTo(2);
+    }
+
+    @Test
+    void returnDayOfABookingIsFreeAndFiltersCombine() {
+        Page<Long> ids = search(BASE.plusDays(3), BASE.plusDays(5), "toyota", 1800.0);
+
+        assertThat(ids.getContent()).containsExactly(softLocked.getCarId(), confirmed.getCarId());
+    }
+
+    private Page<Long> search(LocalDate pickup, LocalDate returnDate, String make, Double minPrice) {
+        return carRepository.findAvailableCarIds(
+                pickup, returnDate, NOW, make, null, null, null, null, minPrice, null,
+                PageRequest.of(0, 10, Sort.by("dailyPrice").and(Sort.by("carId"))));
+    }
+
+    private Car car(String registration, String make, double dailyPrice) {
+        Car car = new Car();
+        car.setMake(make);
+        car.setVehicleModel("Model");
+        car.setRegistrationNumber(registration);
+        car.setYear(2020);
+        car.setDailyPrice(dailyPrice);
+        car.setSeatingCapacity(5);
+        car.setCarStatus(CarStatus.AVAILABLE);
+        car.setTransmissionType(TransmissionType.AUTOMATIC);
+        car.setFuelType(FuelType.PETROL);
+        entityManager.persist(car);
+        return car;
+    }
+
+    private void booking(User user, Car car, BookingStatus status, PaymentStatus paymentStatus, LocalDateTime expiresAt) {
+        Booking booking = new Booking();
+        booking.setCar(car);
+        booking.setUser(user);
+        booking.setPickupDate(BASE);
+        booking.setReturnDate(BASE.plusDays(3));
+        booking.setDailyPrice(car.getDailyPrice());
+        booking.setTotalPrice(car.getDailyPrice() * 3);
+        booking.setPickupLocation("Nairobi");
+        booking.setReturnLocation("Nairobi");
+        booking.setBookingStatus(status);
+        booking.setPaymentStatus(paymentStatus);
+        booking.setPaymentExpiresAt(expiresAt);
+        entityManager.persist(booking);
+    }
+}
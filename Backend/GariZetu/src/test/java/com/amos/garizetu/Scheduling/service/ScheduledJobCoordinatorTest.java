@@ -0,0 +1,82 @@
+package com.amos.garizetu.Scheduling.service;
+
+import com.amos.garizetu.Scheduling.DTO.ScheduledJobStatusDTO;
+import com.amos.garizetu.Scheduling.Enums.ScheduledJobOutcome;
+import com.amos.garizetu.Scheduling.Repository.ScheduledJobLeaseRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Two coordinators over the same lease table stand in for two application instances.
+ */
+@DataJpaTest(properties = {
+        "spring.jpa.database=H2",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.properties.hibernate.auto_quote_keyword=true"
+})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class ScheduledJobCoordinatorTest {
+
+    private static final String JOB = "test-job";
+
+    @Autowired
+    private ScheduledJobLeaseRepository leaseRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @AfterEach
+    void clearLeases() {
+        leaseRepository.deleteAll();
+    }
+
+    @Test
+    void onlyTheLeaseHolderRunsUntilItReleases() {
+        ScheduledJobCoordinator first = new ScheduledJobCoordinator(leaseRepository, transactionManager, 0);
+        ScheduledJobCoordinator second = new ScheduledJobCoordinator(leaseRepository, transactionManager, 0);
+        AtomicInteger runs = new AtomicInteger();
+
+        assertThat(first.runExclusive(JOB, Duration.ofMinutes(5), runs::incrementAndGet)).isTrue();
+        assertThat(second.runExclusive(JOB, Duration.ofMinutes(5), runs::incrementAndGet)).isFalse();
+        assertThat(first.runExclusive(JOB, Duration.ofMinutes(5), runs::incrementAndGet)).isTrue();
+        assertThat(runs).hasValue(2);
+
+        first.releaseLeases();
+
+        assertThat(second.runExclusive(JOB, Duration.ofMinutes(5), runs::incrementAndGet)).isTrue();
+        List<ScheduledJobStatusDTO> statuses = second.getJobStatuses();
+        assertThat(statuses).singleElement().satisfies(status -> {
+            assertThat(status.getOwner()).isEqualTo(second.getOwner());
+            assertThat(status.isOwnedByThisInstance()).isTrue();
+            assertThat(status.getRunCount()).isEqualTo(3);
+            assertThat(status.getLastOutcome()).isEqualTo(ScheduledJobOutcome.SUCCEEDED);
+        });
+    }
+
+    @Test
+    void failedRunIsRecordedAndLapsedLeaseIsTakenOver() {
+        ScheduledJobCoordinator first = new ScheduledJobCoordinator(leaseRepository, transactionManager, 0);
+        ScheduledJobCoordinator second = new ScheduledJobCoordinator(leaseRepository, transactionManager, 0);
+
+        first.runExclusive(JOB, Duration.ZERO, () -> {
+            throw new IllegalStateException("boom");
+        });
+        assertThat(first.getJobStatuses().get(0).getLastOutcome()).isEqualTo(ScheduledJobOutcome.FAILED);
+        assertThat(first.getJobStatuses().get(0).getLastError()).contains("boom");
+
+        // A zero-length lease has already lapsed, as if the holder had died.
+        assertThat(second.runExclusive(JOB, Duration.ofMinutes(5), () -> { })).isTrue();
+        assertThat(second.getJobStatuses().get(0).getOwner()).isEqualTo(second.getOwner());
+    }
+}
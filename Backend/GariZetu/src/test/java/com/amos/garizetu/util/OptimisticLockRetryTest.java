@@ -0,0 +1,45 @@
+package com.amos.garizetu.util;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class OptimisticLockRetryTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final OptimisticLockRetry retry = new OptimisticLockRetry(meterRegistry, 3, 0);
+
+    @Test
+    void conflictIsRetriedUntilTheCallSucceeds() {
+        AtomicInteger calls = new AtomicInteger();
+
+        String result = retry.execute("update", () -> {
+            if (calls.incrementAndGet() < 3) {
+                throw new ObjectOptimisticLockingFailureException("Booking", 1L);
+            }
+            return "ok";
+        });
+
+        assertThat(result).isEqualTo("ok");
+        assertThat(calls).hasValue(3);
+        assertThat(meterRegistry.get("optimistic.lock.retries").counter().count()).isEqualTo(2);
+    }
+
+    @Test
+    void conflictThatOutlastsTheAttemptsPropagates() {
+        AtomicInteger calls = new AtomicInteger();
+
+        assertThatThrownBy(() -> retry.execute("update", () -> {
+            calls.incrementAndGet();
+            throw new ObjectOptimisticLockingFailureException("Booking", 1L);
+        })).isInstanceOf(ObjectOptimisticLockingFailureException.class);
+
+        assertThat(calls).hasValue(3);
+        assertThat(meterRegistry.get("optimistic.lock.exhausted").counter().count()).isEqualTo(1);
+    }
+}